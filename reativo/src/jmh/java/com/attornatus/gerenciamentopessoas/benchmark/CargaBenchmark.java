@@ -0,0 +1,117 @@
+package com.attornatus.gerenciamentopessoas.benchmark;
+
+import com.attornatus.gerenciamentopessoas.reativo.GerenciamentoPessoasReativoApplication;
+import com.attornatus.gerenciamentopessoas.reativo.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.reativo.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.reativo.repositories.EnderecoRepository;
+import com.attornatus.gerenciamentopessoas.reativo.repositories.PessoaRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesmo teste de carga HTTP da versão servlet, com as mesmas rotas, volume de dados e clientes concorrentes,
+ * executado contra o Netty com R2DBC. Os resultados podem ser comparados com os do modo plataforma pelo
+ * CompararResultados do projeto principal, ignorando o parâmetro modo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(200)
+@Fork(1)
+public class CargaBenchmark {
+
+    @Param({"reativo"})
+    private String modo;
+
+    @Param({"1000"})
+    private int quantidadePessoas;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private String urlBase;
+
+    private List<Integer> idsPessoas;
+
+    @Setup
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(GerenciamentoPessoasReativoApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.r2dbc.url=r2dbc:h2:mem:///benchmark-carga;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN"
+                )
+                .run();
+
+        idsPessoas = popularBanco(contexto.getBean(PessoaRepository.class), contexto.getBean(EnderecoRepository.class));
+
+        int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+        urlBase = "http://localhost:" + porta + "/pessoas/";
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    private List<Integer> popularBanco(PessoaRepository pessoaRepository, EnderecoRepository enderecoRepository) {
+        List<Pessoa> pessoas = new ArrayList<>(quantidadePessoas);
+        for (int i = 0; i < quantidadePessoas; i++) {
+            Pessoa pessoa = new Pessoa();
+            pessoa.setNome("Pessoa " + i);
+            pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+            pessoas.add(pessoa);
+        }
+        pessoas = pessoaRepository.saveAll(pessoas).collectList().block();
+
+        List<Endereco> enderecos = new ArrayList<>(quantidadePessoas * 2);
+        for (Pessoa pessoa : pessoas) {
+            for (int i = 0; i < 2; i++) {
+                Endereco endereco = new Endereco();
+                endereco.setLogradouro("Rua " + i);
+                endereco.setCep("12345-190");
+                endereco.setNumero(String.valueOf(i));
+                endereco.setCidade("Fortaleza");
+                endereco.setPrincipal(i == 0);
+                endereco.setIdPessoa(pessoa.getId());
+                enderecos.add(endereco);
+            }
+        }
+        enderecoRepository.saveAll(enderecos).blockLast();
+
+        return pessoas.stream().map(Pessoa::getId).toList();
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    private int get(String caminho) throws Exception {
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(urlBase + caminho)).GET().build();
+        return cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private Integer idAleatorio() {
+        return idsPessoas.get(ThreadLocalRandom.current().nextInt(idsPessoas.size()));
+    }
+
+    @Benchmark
+    public int buscarPessoa() throws Exception {
+        return get(String.valueOf(idAleatorio()));
+    }
+
+    @Benchmark
+    public int buscarEnderecosDaPessoa() throws Exception {
+        return get(idAleatorio() + "/endereco");
+    }
+}
@@ -0,0 +1,13 @@
+package com.attornatus.gerenciamentopessoas.reativo;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class GerenciamentoPessoasReativoApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(GerenciamentoPessoasReativoApplication.class, args);
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.attornatus.gerenciamentopessoas.reativo.config;
+
+import com.attornatus.gerenciamentopessoas.exceptions.VersaoDesatualizadaException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.*;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityExceptionHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+
+@ControllerAdvice
+public class RestExceptionHandler extends ResponseEntityExceptionHandler {
+
+    @Override
+    protected Mono<ResponseEntity<Object>> handleWebExchangeBindException(
+            WebExchangeBindException ex,
+            HttpHeaders headers, HttpStatusCode status, ServerWebExchange exchange
+    ) {
+        List<String> errors = formatarErros(ex.getAllErrors());
+        String path = exchange.getRequest().getPath().value();
+
+        ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.BAD_REQUEST);
+        problemDetail.setInstance(URI.create(path));
+        problemDetail.setTitle("Bad Request");
+        problemDetail.setProperty("detail", errors);
+
+        return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(problemDetail));
+    }
+
+    // Conflito detectado só na gravação, quando outra requisição alterou a pessoa depois da leitura
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    protected Mono<ResponseEntity<Object>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex, ServerWebExchange exchange) {
+        return handleErrorResponseException(
+                new VersaoDesatualizadaException(), new HttpHeaders(), HttpStatus.PRECONDITION_FAILED, exchange
+        );
+    }
+
+    // Mantém o formato "campo: 'mensagem'" usado pela versão servlet
+    private List<String> formatarErros(List<ObjectError> erros) {
+        return erros.stream()
+                .map(erro -> erro instanceof FieldError erroCampo
+                        ? erroCampo.getField() + ": '" + erro.getDefaultMessage() + "'"
+                        : "'" + erro.getDefaultMessage() + "'")
+                .toList();
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.attornatus.gerenciamentopessoas.reativo.controllers;
+
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoCreateDTO;
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaCreateDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaUpdateDTO;
+import com.attornatus.gerenciamentopessoas.exceptions.ParametrosInvalidosException;
+import com.attornatus.gerenciamentopessoas.exceptions.VersaoDesatualizadaException;
+import com.attornatus.gerenciamentopessoas.reativo.mappers.EnderecoMapper;
+import com.attornatus.gerenciamentopessoas.reativo.mappers.PessoaMapper;
+import com.attornatus.gerenciamentopessoas.reativo.services.EnderecoService;
+import com.attornatus.gerenciamentopessoas.reativo.services.PessoaService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mesmas rotas e DTOs do controller servlet, servidas pelo WebFlux sobre R2DBC.
+ */
+@RestController
+@RequestMapping("/pessoas")
+public class PessoaController {
+
+    public static final String CABECALHO_PROXIMO_CURSOR = "X-Proximo-Cursor";
+    private static final Pattern ETAG_FORTE = Pattern.compile("\"(\\d+)\"");
+
+    @Autowired
+    private PessoaService pessoaService;
+    @Autowired
+    private EnderecoService enderecoService;
+    @Autowired
+    private PessoaMapper pessoaMapper;
+    @Autowired
+    private EnderecoMapper enderecoMapper;
+
+    @Value("${pessoas.paginacao.tamanho-maximo}")
+    private int tamanhoMaximoPagina;
+
+    // A busca pede um item a mais que o tamanho da página para saber se existe próxima página
+    @GetMapping
+    public Mono<ResponseEntity<List<PessoaReturnDTO>>> listarPessoas(@RequestParam(value = "cursor", required = false) Integer cursor,
+                                                                     @RequestParam(value = "tamanho", required = false) Integer tamanho){
+        int tamanhoPagina = tamanhoPagina(tamanho);
+        return pessoaService.buscarPagina(cursor, tamanhoPagina + 1)
+                .map(pessoaMapper::paraDto)
+                .collectList()
+                .map(pessoas -> {
+                    boolean possuiProximaPagina = pessoas.size() > tamanhoPagina;
+                    List<PessoaReturnDTO> pagina = possuiProximaPagina ? pessoas.subList(0, tamanhoPagina) : pessoas;
+
+                    ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+                    if(possuiProximaPagina){
+                        resposta.header(CABECALHO_PROXIMO_CURSOR, pagina.get(pagina.size() - 1).getId().toString());
+                    }
+                    return resposta.body(pagina);
+                });
+    }
+
+    private int tamanhoPagina(Integer tamanho){
+        int tamanhoPagina = tamanho == null ? tamanhoMaximoPagina : tamanho;
+        if(tamanhoPagina <= 0){
+            throw new ParametrosInvalidosException("Tamanho da página deve ser maior que zero.");
+        }
+        return Math.min(tamanhoPagina, tamanhoMaximoPagina);
+    }
+
+    // As linhas são lidas do banco conforme o cliente consome a resposta
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PessoaReturnDTO> listarPessoasEmFluxo(){
+        return pessoaService.buscarTodas().map(pessoaMapper::paraDto);
+    }
+
+    // A versão é lida antes dos endereços: se mudarem no meio, a ETag antiga apenas força uma nova leitura depois
+    @GetMapping("/{idPessoa}/endereco")
+    public Mono<ResponseEntity<List<EnderecoReturnDTO>>> listarEnderecosPessoa(@PathVariable("idPessoa") Integer idPessoa,
+                                                                               ServerWebExchange exchange){
+        return pessoaService.buscarVersaoPorId(idPessoa).flatMap(versao -> {
+            String etag = etag(versao);
+            if(exchange.checkNotModified(etag)){
+                return Mono.empty();
+            }
+            return enderecoService.buscarEnderecosPessoaPorId(idPessoa)
+                    .map(enderecoMapper::paraDto)
+                    .collectList()
+                    .map(enderecos -> ResponseEntity.ok().eTag(etag).body(enderecos));
+        });
+    }
+
+    @GetMapping("/{idPessoa}")
+    public Mono<ResponseEntity<PessoaReturnDTO>> buscarPessoaPorId(@PathVariable("idPessoa") Integer idPessoa,
+                                                                   ServerWebExchange exchange){
+        if(exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH) != null){
+            return pessoaService.buscarVersaoPorId(idPessoa).flatMap(versao -> exchange.checkNotModified(etag(versao))
+                    ? Mono.empty()
+                    : responderPessoa(idPessoa));
+        }
+        return responderPessoa(idPessoa);
+    }
+
+    private Mono<ResponseEntity<PessoaReturnDTO>> responderPessoa(Integer idPessoa){
+        return pessoaService.buscarPorId(idPessoa)
+                .map(pessoaMapper::paraDto)
+                .map(pessoa -> ResponseEntity.ok().eTag(etag(pessoa.getVersao())).body(pessoa));
+    }
+
+    @PutMapping("/{idPessoa}")
+    public Mono<ResponseEntity<Void>> atualizarDadosPessoa(@RequestBody @Valid PessoaUpdateDTO pessoa,
+                                                           @PathVariable("idPessoa") Integer idPessoa,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+
+        return pessoaService.atualizar(pessoaMapper.paraEntidade(pessoa), idPessoa, versaoEsperada(ifMatch))
+                .thenReturn(ResponseEntity.noContent().build());
+    }
+
+    private static String etag(Long versao){
+        return "\"" + versao + "\"";
+    }
+
+    // Sem If-Match ou com "*" a alteração não depende de versão; ETags fracas ou inválidas nunca casam
+    private static Long versaoEsperada(String ifMatch){
+        if(ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")){
+            return null;
+        }
+        Matcher etag = ETAG_FORTE.matcher(ifMatch.trim());
+        if(!etag.matches()){
+            throw new VersaoDesatualizadaException();
+        }
+        return Long.valueOf(etag.group(1));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Void>> criarNovaPessoa(@RequestBody @Valid PessoaCreateDTO novaPessoa){
+        return pessoaService.criar(pessoaMapper.paraEntidade(novaPessoa))
+                .thenReturn(ResponseEntity.status(HttpStatus.CREATED).build());
+    }
+
+    @PostMapping("/{idPessoa}/endereco")
+    public Mono<ResponseEntity<Void>> criarNovoEndereco(@RequestBody @Valid EnderecoCreateDTO endereco,
+                                                        @PathVariable("idPessoa") Integer idPessoa){
+        return enderecoService.salvar(enderecoMapper.paraEntidade(endereco), idPessoa)
+                .thenReturn(ResponseEntity.status(HttpStatus.CREATED).build());
+    }
+
+    @PutMapping("/{idPessoa}/endereco/{idEndereco}")
+    public Mono<ResponseEntity<Void>> definirEnderecoPrincipal(@PathVariable("idPessoa") Integer idPessoa,
+                                                               @PathVariable("idEndereco") Integer idEndereco,
+                                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+
+        return enderecoService.salvarEnderecoPrincipalPessoa(idEndereco, idPessoa, versaoEsperada(ifMatch))
+                .thenReturn(ResponseEntity.noContent().build());
+    }
+}
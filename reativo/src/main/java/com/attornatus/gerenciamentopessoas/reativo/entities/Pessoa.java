@@ -0,0 +1,56 @@
+package com.attornatus.gerenciamentopessoas.reativo.entities;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+@Table("pessoa")
+public class Pessoa {
+
+    @Id
+    private Integer id;
+    private String nome;
+    @Column("data_nascimento")
+    private LocalDate dataNascimento;
+
+    // Incrementada também quando os endereços da pessoa são alterados
+    @Version
+    private Long versao;
+
+    public Pessoa() { }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public LocalDate getDataNascimento() {
+        return dataNascimento;
+    }
+
+    public void setDataNascimento(LocalDate dataNascimento) {
+        this.dataNascimento = dataNascimento;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+}
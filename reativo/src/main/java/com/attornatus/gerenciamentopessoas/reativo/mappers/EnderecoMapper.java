@@ -0,0 +1,24 @@
+package com.attornatus.gerenciamentopessoas.reativo.mappers;
+
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoCreateDTO;
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
+import com.attornatus.gerenciamentopessoas.reativo.entities.Endereco;
+import org.springframework.stereotype.Component;
+
+@Component
+public class EnderecoMapper {
+
+    public EnderecoReturnDTO paraDto(Endereco endereco) {
+        return new EnderecoReturnDTO(endereco.getId(), endereco.getLogradouro(), endereco.getCep(),
+                endereco.getNumero(), endereco.getCidade(), endereco.getPrincipal());
+    }
+
+    public Endereco paraEntidade(EnderecoCreateDTO dto) {
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro(dto.getLogradouro());
+        endereco.setCep(dto.getCep());
+        endereco.setNumero(dto.getNumero());
+        endereco.setCidade(dto.getCidade());
+        return endereco;
+    }
+}
@@ -0,0 +1,30 @@
+package com.attornatus.gerenciamentopessoas.reativo.mappers;
+
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaCreateDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaUpdateDTO;
+import com.attornatus.gerenciamentopessoas.mappers.DataNascimentoConversor;
+import com.attornatus.gerenciamentopessoas.reativo.entities.Pessoa;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PessoaMapper {
+
+    public PessoaReturnDTO paraDto(Pessoa pessoa) {
+        return new PessoaReturnDTO(pessoa.getId(), pessoa.getNome(), pessoa.getDataNascimento(), pessoa.getVersao());
+    }
+
+    public Pessoa paraEntidade(PessoaCreateDTO dto) {
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome(dto.getNome());
+        pessoa.setDataNascimento(DataNascimentoConversor.converter(dto.getDataNascimento()));
+        return pessoa;
+    }
+
+    public Pessoa paraEntidade(PessoaUpdateDTO dto) {
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome(dto.getNome());
+        pessoa.setDataNascimento(DataNascimentoConversor.converter(dto.getDataNascimento()));
+        return pessoa;
+    }
+}
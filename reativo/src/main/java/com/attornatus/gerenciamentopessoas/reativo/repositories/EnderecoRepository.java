@@ -0,0 +1,23 @@
+package com.attornatus.gerenciamentopessoas.reativo.repositories;
+
+import com.attornatus.gerenciamentopessoas.reativo.entities.Endereco;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface EnderecoRepository extends ReactiveCrudRepository<Endereco, Integer> {
+
+    @Query("SELECT * FROM endereco WHERE endereco_id = :idPessoa ORDER BY id")
+    Flux<Endereco> buscarPorPessoa(@Param("idPessoa") Integer idPessoa);
+
+    @Modifying
+    @Query("UPDATE endereco SET principal = (id = :idEndereco) " +
+            "WHERE endereco_id = :idPessoa " +
+            "AND EXISTS (SELECT 1 FROM endereco x WHERE x.id = :idEndereco AND x.endereco_id = :idPessoa)")
+    Mono<Integer> definirEnderecoPrincipalPessoa(@Param("idEndereco") Integer idEndereco, @Param("idPessoa") Integer idPessoa);
+}
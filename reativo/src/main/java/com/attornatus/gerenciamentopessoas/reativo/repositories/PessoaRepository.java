@@ -0,0 +1,30 @@
+package com.attornatus.gerenciamentopessoas.reativo.repositories;
+
+import com.attornatus.gerenciamentopessoas.reativo.entities.Pessoa;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface PessoaRepository extends ReactiveCrudRepository<Pessoa, Integer> {
+
+    @Query("SELECT * FROM pessoa WHERE id > :cursor ORDER BY id LIMIT :tamanho")
+    Flux<Pessoa> buscarPagina(@Param("cursor") Integer cursor, @Param("tamanho") int tamanho);
+
+    // Lido sob demanda do assinante, sem materializar a tabela inteira
+    @Query("SELECT * FROM pessoa ORDER BY id")
+    Flux<Pessoa> buscarTodas();
+
+    @Query("SELECT versao FROM pessoa WHERE id = :idPessoa")
+    Mono<Long> buscarVersaoPorId(@Param("idPessoa") Integer idPessoa);
+
+    // Usado quando os endereços mudam, já que a versão da pessoa também identifica a lista de endereços dela
+    @Modifying
+    @Query("UPDATE pessoa SET versao = versao + 1 " +
+            "WHERE id = :idPessoa AND (CAST(:versaoEsperada AS BIGINT) IS NULL OR versao = :versaoEsperada)")
+    Mono<Integer> incrementarVersao(@Param("idPessoa") Integer idPessoa, @Param("versaoEsperada") Long versaoEsperada);
+}
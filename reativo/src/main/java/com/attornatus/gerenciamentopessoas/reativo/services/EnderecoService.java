@@ -0,0 +1,48 @@
+package com.attornatus.gerenciamentopessoas.reativo.services;
+
+import com.attornatus.gerenciamentopessoas.exceptions.endereco.EnderecoNaoEncontradoException;
+import com.attornatus.gerenciamentopessoas.exceptions.pessoa.PessoaNaoEncontradaException;
+import com.attornatus.gerenciamentopessoas.reativo.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.reativo.repositories.EnderecoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class EnderecoService {
+
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    // O incremento da versão já confirma que a pessoa existe, então ela não precisa ser carregada
+    @Transactional
+    public Mono<Endereco> salvar(Endereco novoEndereco, Integer idPessoa){
+        novoEndereco.setIdPessoa(idPessoa);
+        return pessoaService.registrarAlteracao(idPessoa, null)
+                .then(Mono.defer(() -> enderecoRepository.save(novoEndereco)));
+    }
+
+    // A existência da pessoa só é consultada quando ela não tem endereços
+    public Flux<Endereco> buscarEnderecosPessoaPorId(Integer idPessoa){
+        return enderecoRepository.buscarPorPessoa(idPessoa)
+                .switchIfEmpty(pessoaService.existePessoa(idPessoa)
+                        .flatMapMany(existe -> existe
+                                ? Flux.<Endereco>empty()
+                                : Flux.error(new PessoaNaoEncontradaException())));
+    }
+
+    // O incremento da versão bloqueia a linha da pessoa, serializando trocas concorrentes do endereço principal
+    @Transactional
+    public Mono<Void> salvarEnderecoPrincipalPessoa(Integer idEndereco, Integer idPessoa, Long versaoEsperada){
+        return pessoaService.registrarAlteracao(idPessoa, versaoEsperada)
+                .then(Mono.defer(() -> enderecoRepository.definirEnderecoPrincipalPessoa(idEndereco, idPessoa)))
+                .flatMap(alterados -> alterados == 0
+                        ? Mono.error(new EnderecoNaoEncontradoException())
+                        : Mono.empty());
+    }
+}
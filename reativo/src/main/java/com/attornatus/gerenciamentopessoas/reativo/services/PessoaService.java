@@ -0,0 +1,79 @@
+package com.attornatus.gerenciamentopessoas.reativo.services;
+
+import com.attornatus.gerenciamentopessoas.exceptions.ParametrosInvalidosException;
+import com.attornatus.gerenciamentopessoas.exceptions.VersaoDesatualizadaException;
+import com.attornatus.gerenciamentopessoas.exceptions.pessoa.PessoaNaoEncontradaException;
+import com.attornatus.gerenciamentopessoas.reativo.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.reativo.repositories.PessoaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+@Service
+public class PessoaService {
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    public Mono<Pessoa> criar(Pessoa pessoa){
+        return pessoaRepository.save(pessoa);
+    }
+
+    @Transactional
+    public Mono<Pessoa> atualizar(Pessoa pessoaAtualizada, Integer id, Long versaoEsperada){
+        if(pessoaAtualizada.getNome() == null && pessoaAtualizada.getDataNascimento() == null){
+            return Mono.error(new ParametrosInvalidosException("Dados da pessoa devem conter ao menos um campo não vazio."));
+        }
+
+        return buscarPorId(id).flatMap(pessoaAntiga -> {
+            if(versaoEsperada != null && !versaoEsperada.equals(pessoaAntiga.getVersao())){
+                return Mono.error(new VersaoDesatualizadaException());
+            }
+
+            Optional.ofNullable(pessoaAtualizada.getNome()).ifPresent(pessoaAntiga::setNome);
+            Optional.ofNullable(pessoaAtualizada.getDataNascimento()).ifPresent(pessoaAntiga::setDataNascimento);
+            return pessoaRepository.save(pessoaAntiga);
+        });
+    }
+
+    // Alterações nos endereços não passam pela entidade, então a versão da pessoa é incrementada explicitamente
+    public Mono<Void> registrarAlteracao(Integer idPessoa, Long versaoEsperada){
+        return pessoaRepository.incrementarVersao(idPessoa, versaoEsperada)
+                .flatMap(alteradas -> {
+                    if(alteradas > 0){
+                        return Mono.<Void>empty();
+                    }
+                    return pessoaRepository.existsById(idPessoa)
+                            .flatMap(existe -> Mono.error(existe
+                                    ? new VersaoDesatualizadaException()
+                                    : new PessoaNaoEncontradaException()));
+                });
+    }
+
+    public Mono<Long> buscarVersaoPorId(Integer id){
+        return pessoaRepository.buscarVersaoPorId(id)
+                .switchIfEmpty(Mono.error(PessoaNaoEncontradaException::new));
+    }
+
+    public Mono<Pessoa> buscarPorId(Integer id){
+        return pessoaRepository.findById(id)
+                .switchIfEmpty(Mono.error(PessoaNaoEncontradaException::new));
+    }
+
+    public Flux<Pessoa> buscarPagina(Integer cursor, int tamanho){
+        int ultimoId = cursor == null ? 0 : cursor;
+        return pessoaRepository.buscarPagina(ultimoId, tamanho);
+    }
+
+    public Flux<Pessoa> buscarTodas(){
+        return pessoaRepository.buscarTodas();
+    }
+
+    public Mono<Boolean> existePessoa(Integer idPessoa){
+        return pessoaRepository.existsById(idPessoa);
+    }
+}
@@ -0,0 +1,25 @@
+-- Mesmo esquema gerado pelo Hibernate na versão servlet, com identidade no lugar das sequências
+CREATE TABLE IF NOT EXISTS pessoa (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome VARCHAR(255),
+    data_nascimento DATE,
+    aniversario INTEGER GENERATED ALWAYS AS (MONTH(data_nascimento) * 100 + DAY_OF_MONTH(data_nascimento)),
+    versao BIGINT DEFAULT 0 NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_pessoa_data_nascimento ON pessoa (data_nascimento);
+CREATE INDEX IF NOT EXISTS idx_pessoa_aniversario ON pessoa (aniversario);
+
+CREATE TABLE IF NOT EXISTS endereco (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    logradouro VARCHAR(255),
+    cep VARCHAR(255),
+    numero VARCHAR(255),
+    cidade VARCHAR(255),
+    principal BOOLEAN,
+    endereco_id INTEGER REFERENCES pessoa (id),
+    principal_pessoa_id INTEGER GENERATED ALWAYS AS (CASE WHEN principal THEN endereco_id END),
+    CONSTRAINT uk_endereco_principal_pessoa UNIQUE (principal_pessoa_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_endereco_pessoa_principal ON endereco (endereco_id, principal);
@@ -0,0 +1,212 @@
+package com.attornatus.gerenciamentopessoas.reativo.controllers;
+
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import com.attornatus.gerenciamentopessoas.reativo.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.reativo.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.reativo.repositories.EnderecoRepository;
+import com.attornatus.gerenciamentopessoas.reativo.repositories.PessoaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+public class PessoaControllerTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private PessoaRepository pessoaRepository;
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+
+    private Pessoa pessoa;
+
+    @BeforeEach
+    public void criarPessoa(){
+        enderecoRepository.deleteAll().then(pessoaRepository.deleteAll()).block();
+
+        pessoa = new Pessoa();
+        pessoa.setNome("Pessoa");
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+        pessoa = pessoaRepository.save(pessoa).block();
+    }
+
+    private Endereco criarEndereco(String logradouro){
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro(logradouro);
+        endereco.setCep("12345-190");
+        endereco.setNumero("10");
+        endereco.setCidade("Fortaleza");
+        endereco.setIdPessoa(pessoa.getId());
+        return enderecoRepository.save(endereco).block();
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar pessoa existente DEVE retornar os mesmos campos da versão servlet e a ETag")
+    public void buscarPessoaExistente(){
+        webTestClient.get().uri("/pessoas/{id}", pessoa.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(pessoa.getId())
+                .jsonPath("$.nome").isEqualTo("Pessoa")
+                .jsonPath("$.dataNascimento").isEqualTo("28/09/2001")
+                .jsonPath("$.versao").doesNotExist();
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar pessoa com a ETag atual DEVE retornar 304")
+    public void buscarPessoaNaoModificada(){
+        webTestClient.get().uri("/pessoas/{id}", pessoa.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar pessoa inexistente DEVE retornar 404")
+    public void buscarPessoaInexistente(){
+        webTestClient.get().uri("/pessoas/{id}", pessoa.getId() + 1000)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("Pessoa não encontrada.");
+    }
+
+    @Test
+    @DisplayName("QUANDO criar pessoa com dados inválidos DEVE retornar 400 com os erros de cada campo")
+    public void criarPessoaInvalida(){
+        webTestClient.post().uri("/pessoas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("nome", "Nova", "dataNascimento", "31/02/2001"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.detail[0]").isEqualTo("dataNascimento: 'Formato da data de nascimento inválida'");
+    }
+
+    @Test
+    @DisplayName("QUANDO listar pessoas com página menor que o total DEVE informar o próximo cursor")
+    public void listarPessoasPaginadas(){
+        Pessoa outra = new Pessoa();
+        outra.setNome("Outra");
+        outra.setDataNascimento(LocalDate.of(1990, 1, 1));
+        pessoaRepository.save(outra).block();
+
+        webTestClient.get().uri("/pessoas?tamanho=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(PessoaController.CABECALHO_PROXIMO_CURSOR, pessoa.getId().toString())
+                .expectBodyList(PessoaReturnDTO.class).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("QUANDO listar pessoas em fluxo DEVE entregar uma pessoa por linha conforme a demanda")
+    public void listarPessoasEmFluxo(){
+        StepVerifier.create(webTestClient.get().uri("/pessoas/stream")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .exchange()
+                        .expectStatus().isOk()
+                        .returnResult(PessoaReturnDTO.class)
+                        .getResponseBody(), 0)
+                .thenRequest(1)
+                .assertNext(recebida -> assertThat(recebida.getNome()).isEqualTo("Pessoa"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("QUANDO criar endereço DEVE incrementar a versão da pessoa e listá-lo")
+    public void criarEndereco(){
+        webTestClient.post().uri("/pessoas/{id}/endereco", pessoa.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("logradouro", "Rua", "cep", "12345-190", "numero", "10", "cidade", "Fortaleza"))
+                .exchange()
+                .expectStatus().isCreated();
+
+        List<EnderecoReturnDTO> enderecos = webTestClient.get().uri("/pessoas/{id}/endereco", pessoa.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBodyList(EnderecoReturnDTO.class)
+                .returnResult().getResponseBody();
+
+        assertThat(enderecos).extracting(EnderecoReturnDTO::getLogradouro).containsExactly("Rua");
+    }
+
+    @Test
+    @DisplayName("QUANDO listar endereços de pessoa inexistente DEVE retornar 404")
+    public void listarEnderecosPessoaInexistente(){
+        webTestClient.get().uri("/pessoas/{id}/endereco", pessoa.getId() + 1000)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("QUANDO definir endereço principal DEVE desmarcar o anterior")
+    public void definirEnderecoPrincipal(){
+        Endereco primeiro = criarEndereco("Primeira");
+        Endereco segundo = criarEndereco("Segunda");
+
+        for(Endereco endereco : List.of(primeiro, segundo)){
+            webTestClient.put().uri("/pessoas/{id}/endereco/{idEndereco}", pessoa.getId(), endereco.getId())
+                    .exchange()
+                    .expectStatus().isNoContent();
+        }
+
+        assertThat(enderecoRepository.buscarPorPessoa(pessoa.getId()).collectList().block())
+                .extracting(Endereco::getPrincipal)
+                .containsExactly(false, true);
+    }
+
+    @Test
+    @DisplayName("QUANDO definir endereço principal de outra pessoa DEVE retornar 404")
+    public void definirEnderecoPrincipalDeOutraPessoa(){
+        webTestClient.put().uri("/pessoas/{id}/endereco/{idEndereco}", pessoa.getId(), 999_999)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("QUANDO atualizar pessoa com If-Match desatualizado DEVE retornar 412 sem alterar")
+    public void atualizarPessoaComVersaoDesatualizada(){
+        webTestClient.put().uri("/pessoas/{id}", pessoa.getId())
+                .header(HttpHeaders.IF_MATCH, "\"7\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("nome", "Alterada"))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        assertThat(pessoaRepository.findById(pessoa.getId()).block().getNome()).isEqualTo("Pessoa");
+    }
+
+    @Test
+    @DisplayName("QUANDO atualizar pessoa com If-Match atual DEVE alterar e incrementar a versão")
+    public void atualizarPessoaComVersaoAtual(){
+        webTestClient.put().uri("/pessoas/{id}", pessoa.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("nome", "Alterada"))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        Pessoa alterada = pessoaRepository.findById(pessoa.getId()).block();
+        assertThat(alterada.getNome()).isEqualTo("Alterada");
+        assertThat(alterada.getVersao()).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,65 @@
+package com.attornatus.gerenciamentopessoas.benchmark;
+
+import com.attornatus.gerenciamentopessoas.busca.IndiceBusca;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede buscas no índice em memória. Para simular milhões de registros, execute com -Djmh.filtro="BuscaBenchmark -p quantidadePessoas=1000000"
+ * e heap suficiente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BuscaBenchmark {
+
+    private static final String[] NOMES = {"João", "Maria", "José", "Ana", "Francisco", "Antônia", "Carlos", "Paula", "Luís", "Fernanda"};
+    private static final String[] SOBRENOMES = {"Silva", "Souza", "Araújo", "Oliveira", "Pereira", "Lima", "Carvalho", "Ferreira", "Gomes", "Ribeiro"};
+    private static final String[] CIDADES = {"Fortaleza", "São Paulo", "Recife", "Salvador", "Curitiba", "Belém", "Manaus", "Natal"};
+
+    @Param({"100000"})
+    private int quantidadePessoas;
+
+    private IndiceBusca indice;
+
+    @Setup
+    public void preparar() {
+        indice = new IndiceBusca();
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        for (int id = 1; id <= quantidadePessoas; id++) {
+            String nome = NOMES[aleatorio.nextInt(NOMES.length)] + " " + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)]
+                    + " " + Integer.toString(id, 36);
+            String logradouro = "Rua " + Integer.toString(aleatorio.nextInt(quantidadePessoas / 10 + 1), 36);
+            String cep = String.format("%05d-%03d", aleatorio.nextInt(100000), aleatorio.nextInt(1000));
+            indice.indexar(id, new PessoaReturnDTO(id, nome, null),
+                    List.of(nome, logradouro, CIDADES[aleatorio.nextInt(CIDADES.length)], cep, cep.replace("-", "")));
+        }
+    }
+
+    @Benchmark
+    public List<PessoaReturnDTO> buscarTermoRaro() {
+        return indice.buscar(Integer.toString(quantidadePessoas / 2, 36), 20);
+    }
+
+    @Benchmark
+    public List<PessoaReturnDTO> buscarPrefixo() {
+        return indice.buscar("franc", 20);
+    }
+
+    @Benchmark
+    public List<PessoaReturnDTO> buscarAproximado() {
+        return indice.buscar("fortalesa", 20);
+    }
+
+    @Benchmark
+    public List<PessoaReturnDTO> buscarTermoRaroComTermoComum() {
+        return indice.buscar("silva " + Integer.toString(quantidadePessoas / 3, 36), 20);
+    }
+}
@@ -0,0 +1,130 @@
+package com.attornatus.gerenciamentopessoas.benchmark;
+
+import com.attornatus.gerenciamentopessoas.GerenciamentoPessoasApplication;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.repositories.EnderecoRepository;
+import com.attornatus.gerenciamentopessoas.repositories.PessoaRepository;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Teste de carga HTTP comparando o Tomcat com threads de plataforma e com threads virtuais.
+ * O Tomcat fica limitado a poucas threads de plataforma para que a rajada de clientes exceda o número de workers.
+ * A preparação confere qual executor o Tomcat recebeu, para que um modo que não foi ativado não gere resultados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(200)
+@Fork(1)
+public class CargaBenchmark {
+
+    @Param({"plataforma", "virtual"})
+    private String modo;
+
+    @Param({"1000"})
+    private int quantidadePessoas;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private String urlBase;
+
+    private List<Integer> idsPessoas;
+
+    // Passados como argumentos, e não como propriedades padrão, porque o application.properties define
+    // spring.threads.virtual.enabled e spring.datasource.url e teria precedência
+    @Setup
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(GerenciamentoPessoasApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--server.tomcat.threads.max=20",
+                        "--spring.threads.virtual.enabled=" + modo.equals("virtual"),
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark-carga",
+                        "--logging.level.root=WARN"
+                );
+
+        idsPessoas = popularBanco(contexto.getBean(PessoaRepository.class), contexto.getBean(EnderecoRepository.class));
+
+        TomcatWebServer servidor = (TomcatWebServer) ((WebServerApplicationContext) contexto).getWebServer();
+        boolean threadsVirtuais = servidor.getTomcat().getConnector().getProtocolHandler().getExecutor()
+                instanceof VirtualThreadExecutor;
+        if (threadsVirtuais != modo.equals("virtual")) {
+            contexto.close();
+            throw new IllegalStateException("O Tomcat não está atendendo com threads no modo " + modo + ".");
+        }
+
+        int porta = servidor.getPort();
+        urlBase = "http://localhost:" + porta + "/pessoas/";
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    private List<Integer> popularBanco(PessoaRepository pessoaRepository, EnderecoRepository enderecoRepository) {
+        List<Pessoa> pessoas = new ArrayList<>(quantidadePessoas);
+        for (int i = 0; i < quantidadePessoas; i++) {
+            Pessoa pessoa = new Pessoa();
+            pessoa.setNome("Pessoa " + i);
+            pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+            pessoas.add(pessoa);
+        }
+        pessoaRepository.saveAll(pessoas);
+
+        List<Endereco> enderecos = new ArrayList<>(quantidadePessoas * 2);
+        for (Pessoa pessoa : pessoas) {
+            for (int i = 0; i < 2; i++) {
+                Endereco endereco = new Endereco();
+                endereco.setLogradouro("Rua " + i);
+                endereco.setCep("12345-190");
+                endereco.setNumero(String.valueOf(i));
+                endereco.setCidade("Fortaleza");
+                endereco.setPrincipal(i == 0);
+                endereco.setPessoa(pessoa);
+                enderecos.add(endereco);
+            }
+        }
+        enderecoRepository.saveAll(enderecos);
+
+        return pessoas.stream().map(Pessoa::getId).toList();
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    private int get(String caminho) throws Exception {
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(urlBase + caminho)).GET().build();
+        return cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private Integer idAleatorio() {
+        return idsPessoas.get(ThreadLocalRandom.current().nextInt(idsPessoas.size()));
+    }
+
+    @Benchmark
+    public int buscarPessoa() throws Exception {
+        return get(String.valueOf(idAleatorio()));
+    }
+
+    @Benchmark
+    public int buscarEnderecosDaPessoa() throws Exception {
+        return get(idAleatorio() + "/endereco");
+    }
+}
@@ -0,0 +1,76 @@
+package com.attornatus.gerenciamentopessoas.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+public class CompararResultados {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Uso: CompararResultados <resultado-base.json> <resultado-atual.json> [parametros-ignorados]");
+            System.exit(1);
+        }
+
+        // Parâmetros que só identificam a variante executada, como o modo ao comparar servlet e reativo.
+        // Se vários resultados ficarem com a mesma chave, vale o primeiro, na ordem em que o JMH os executou
+        Set<String> ignorados = args.length == 3 && !args[2].isBlank()
+                ? Set.copyOf(Arrays.asList(args[2].split(",")))
+                : Set.of();
+
+        Map<String, JsonNode> base = carregar(new File(args[0]), ignorados);
+        Map<String, JsonNode> atual = carregar(new File(args[1]), ignorados);
+
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Base", "Atual", "Variação");
+        for (Map.Entry<String, JsonNode> entrada : atual.entrySet()) {
+            JsonNode resultadoAtual = entrada.getValue().get("primaryMetric");
+            JsonNode resultadoBase = base.containsKey(entrada.getKey())
+                    ? base.get(entrada.getKey()).get("primaryMetric")
+                    : null;
+
+            double pontuacaoAtual = resultadoAtual.get("score").asDouble();
+            String unidade = resultadoAtual.get("scoreUnit").asText();
+
+            if (resultadoBase == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  %s%n", entrada.getKey(), "-", pontuacaoAtual, "novo", unidade);
+                continue;
+            }
+
+            double pontuacaoBase = resultadoBase.get("score").asDouble();
+            double variacao = (pontuacaoAtual - pontuacaoBase) / pontuacaoBase * 100;
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%  %s%n",
+                    entrada.getKey(), pontuacaoBase, pontuacaoAtual, variacao, unidade);
+        }
+    }
+
+    private static Map<String, JsonNode> carregar(File arquivo, Set<String> ignorados) throws IOException {
+        Map<String, JsonNode> resultados = new LinkedHashMap<>();
+        for (JsonNode resultado : new ObjectMapper().readTree(arquivo)) {
+            resultados.putIfAbsent(chave(resultado, ignorados), resultado);
+        }
+        return resultados;
+    }
+
+    private static String chave(JsonNode resultado, Set<String> ignorados) {
+        StringBuilder chave = new StringBuilder(resultado.get("benchmark").asText());
+        JsonNode parametros = resultado.get("params");
+        if (parametros != null) {
+            Iterator<Map.Entry<String, JsonNode>> campos = parametros.fields();
+            while (campos.hasNext()) {
+                Map.Entry<String, JsonNode> campo = campos.next();
+                if (ignorados.contains(campo.getKey())) {
+                    continue;
+                }
+                chave.append(' ').append(campo.getKey()).append('=').append(campo.getValue().asText());
+            }
+        }
+        return chave.toString();
+    }
+}
@@ -0,0 +1,134 @@
+package com.attornatus.gerenciamentopessoas.benchmark;
+
+import com.attornatus.gerenciamentopessoas.GerenciamentoPessoasApplication;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.repositories.EnderecoRepository;
+import com.attornatus.gerenciamentopessoas.repositories.PessoaRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência das consultas por pessoa e por data de nascimento com o esquema gerado pelo Hibernate em memória
+ * (auto-ddl) e com o perfil producao, em arquivo e criado pelas migrações do Flyway. No perfil producao os dados
+ * são gravados em uma primeira execução e consultados depois de reiniciar a aplicação. As consultas usam SQL
+ * direto para não passarem pelo cache de segundo nível.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EsquemaBenchmark {
+
+    @Param({"auto-ddl", "producao"})
+    private String esquema;
+
+    @Param({"10000"})
+    private int quantidadePessoas;
+
+    private Path diretorio;
+    private ConfigurableApplicationContext contexto;
+    private JdbcTemplate jdbcTemplate;
+    private List<Integer> idsPessoas;
+
+    @Setup
+    public void preparar() throws IOException {
+        diretorio = Files.createTempDirectory("benchmark-esquema");
+        if (esquema.equals("producao")) {
+            // Como em produção, os dados já estão no arquivo quando a aplicação inicia
+            try (ConfigurableApplicationContext primeiraExecucao = iniciar(esquema, diretorio)) {
+                idsPessoas = popularBanco(primeiraExecucao, quantidadePessoas);
+            }
+            contexto = iniciar(esquema, diretorio);
+        } else {
+            contexto = iniciar(esquema, diretorio);
+            idsPessoas = popularBanco(contexto, quantidadePessoas);
+        }
+        jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown
+    public void encerrar() throws IOException {
+        contexto.close();
+        FileSystemUtils.deleteRecursively(diretorio);
+    }
+
+    // Argumentos em vez de propriedades padrão, que seriam sobrescritas pelos arquivos de configuração
+    static ConfigurableApplicationContext iniciar(String esquema, Path diretorio) {
+        SpringApplicationBuilder aplicacao = new SpringApplicationBuilder(GerenciamentoPessoasApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN");
+        if (esquema.equals("producao")) {
+            return aplicacao.profiles("producao")
+                    .run("--pessoas.banco.arquivo=" + diretorio.resolve("gerenciamento-pessoas"));
+        }
+        return aplicacao.run("--spring.datasource.url=jdbc:h2:mem:benchmark-esquema");
+    }
+
+    static List<Integer> popularBanco(ConfigurableApplicationContext contexto, int quantidadePessoas) {
+        List<Pessoa> pessoas = new ArrayList<>(quantidadePessoas);
+        for (int i = 0; i < quantidadePessoas; i++) {
+            Pessoa pessoa = new Pessoa();
+            pessoa.setNome("Pessoa " + i);
+            pessoa.setDataNascimento(LocalDate.of(1950, 1, 1).plusDays(i % 20000));
+            pessoas.add(pessoa);
+        }
+        contexto.getBean(PessoaRepository.class).saveAll(pessoas);
+
+        List<Endereco> enderecos = new ArrayList<>(quantidadePessoas * 2);
+        for (Pessoa pessoa : pessoas) {
+            for (int i = 0; i < 2; i++) {
+                Endereco endereco = new Endereco();
+                endereco.setLogradouro("Rua " + i);
+                endereco.setCep("12345-190");
+                endereco.setNumero(String.valueOf(i));
+                endereco.setCidade("Fortaleza");
+                endereco.setPrincipal(i == 0);
+                endereco.setPessoa(pessoa);
+                enderecos.add(endereco);
+            }
+        }
+        contexto.getBean(EnderecoRepository.class).saveAll(enderecos);
+
+        return pessoas.stream().map(Pessoa::getId).toList();
+    }
+
+    private Integer idAleatorio() {
+        return idsPessoas.get(ThreadLocalRandom.current().nextInt(idsPessoas.size()));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> buscarEnderecosDaPessoa() {
+        return jdbcTemplate.queryForList(
+                "SELECT id, logradouro, cep, numero, cidade, principal FROM endereco WHERE endereco_id = ? ORDER BY id",
+                idAleatorio());
+    }
+
+    @Benchmark
+    public List<Integer> buscarEnderecoPrincipal() {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM endereco WHERE endereco_id = ? AND principal = TRUE", Integer.class, idAleatorio());
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> buscarNascidasEntre() {
+        LocalDate inicio = LocalDate.of(1950, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(quantidadePessoas));
+        return jdbcTemplate.queryForList(
+                "SELECT id, nome, data_nascimento FROM pessoa WHERE data_nascimento BETWEEN ? AND ? ORDER BY id LIMIT 100",
+                inicio, inicio.plusDays(30));
+    }
+}
@@ -0,0 +1,59 @@
+package com.attornatus.gerenciamentopessoas.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo de inicialização da aplicação com o esquema gerado pelo Hibernate em memória (auto-ddl), que começa
+ * sempre vazio, e com o perfil producao, que encontra o banco em arquivo já migrado e com os dados da execução
+ * anterior. Nesse caso a inicialização inclui a validação das migrações e a indexação das pessoas para a busca.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InicializacaoBenchmark {
+
+    @Param({"auto-ddl", "producao"})
+    private String esquema;
+
+    @Param({"10000"})
+    private int quantidadePessoas;
+
+    private Path diretorio;
+    private ConfigurableApplicationContext contexto;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        diretorio = Files.createTempDirectory("benchmark-inicializacao");
+        if (esquema.equals("producao")) {
+            try (ConfigurableApplicationContext primeiraExecucao = EsquemaBenchmark.iniciar(esquema, diretorio)) {
+                EsquemaBenchmark.popularBanco(primeiraExecucao, quantidadePessoas);
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void removerArquivos() throws IOException {
+        FileSystemUtils.deleteRecursively(diretorio);
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext iniciar() {
+        contexto = EsquemaBenchmark.iniciar(esquema, diretorio);
+        return contexto;
+    }
+}
@@ -0,0 +1,94 @@
+package com.attornatus.gerenciamentopessoas.benchmark;
+
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoCreateDTO;
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaCreateDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.mappers.EnderecoMapper;
+import com.attornatus.gerenciamentopessoas.mappers.EnderecoMapperImpl;
+import com.attornatus.gerenciamentopessoas.mappers.ModelMapperEnderecoMapper;
+import com.attornatus.gerenciamentopessoas.mappers.ModelMapperPessoaMapper;
+import com.attornatus.gerenciamentopessoas.mappers.PessoaMapper;
+import com.attornatus.gerenciamentopessoas.mappers.PessoaMapperImpl;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeamentoBenchmark {
+
+    @Param({"manual", "modelmapper"})
+    private String implementacao;
+
+    private PessoaMapper pessoaMapper;
+    private EnderecoMapper enderecoMapper;
+
+    private Pessoa pessoa;
+    private Endereco endereco;
+    private PessoaCreateDTO pessoaCreateDTO;
+    private EnderecoCreateDTO enderecoCreateDTO;
+
+    @Setup
+    public void preparar() {
+        if ("modelmapper".equals(implementacao)) {
+            ModelMapper modelMapper = new ModelMapper();
+            pessoaMapper = new ModelMapperPessoaMapper(modelMapper);
+            enderecoMapper = new ModelMapperEnderecoMapper(modelMapper);
+        } else {
+            pessoaMapper = new PessoaMapperImpl();
+            enderecoMapper = new EnderecoMapperImpl();
+        }
+
+        pessoa = new Pessoa();
+        pessoa.setId(1);
+        pessoa.setNome("Michael");
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+
+        endereco = new Endereco();
+        endereco.setId(2);
+        endereco.setLogradouro("Rua 123");
+        endereco.setCep("12345-190");
+        endereco.setNumero("00");
+        endereco.setCidade("Fortaleza");
+        endereco.setPrincipal(true);
+
+        pessoaCreateDTO = new PessoaCreateDTO();
+        pessoaCreateDTO.setNome("Michael");
+        pessoaCreateDTO.setDataNascimento("28/09/2001");
+
+        enderecoCreateDTO = new EnderecoCreateDTO();
+        enderecoCreateDTO.setLogradouro("Rua 123");
+        enderecoCreateDTO.setCep("12345-190");
+        enderecoCreateDTO.setNumero("00");
+        enderecoCreateDTO.setCidade("Fortaleza");
+    }
+
+    @Benchmark
+    public PessoaReturnDTO pessoaParaDto() {
+        return pessoaMapper.paraDto(pessoa);
+    }
+
+    @Benchmark
+    public Pessoa pessoaParaEntidade() {
+        return pessoaMapper.paraEntidade(pessoaCreateDTO);
+    }
+
+    @Benchmark
+    public EnderecoReturnDTO enderecoParaDto() {
+        return enderecoMapper.paraDto(endereco);
+    }
+
+    @Benchmark
+    public Endereco enderecoParaEntidade() {
+        return enderecoMapper.paraEntidade(enderecoCreateDTO);
+    }
+}
@@ -0,0 +1,152 @@
+package com.attornatus.gerenciamentopessoas.benchmark;
+
+import com.attornatus.gerenciamentopessoas.GerenciamentoPessoasApplication;
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.mappers.EnderecoMapper;
+import com.attornatus.gerenciamentopessoas.mappers.PessoaMapper;
+import com.attornatus.gerenciamentopessoas.repositories.EnderecoRepository;
+import com.attornatus.gerenciamentopessoas.repositories.PessoaRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara carregar a entidade e convertê-la com o mapper contra buscar o DTO direto pela projeção JPQL.
+ * Executar com o perfilador de GC (padrão do profile benchmark) para comparar gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjecaoBenchmark {
+
+    private static final int TAMANHO_PAGINA = 100;
+
+    @Param({"10000"})
+    private int quantidadePessoas;
+
+    private ConfigurableApplicationContext contexto;
+    private PessoaRepository pessoaRepository;
+    private EnderecoRepository enderecoRepository;
+    private PessoaMapper pessoaMapper;
+    private EnderecoMapper enderecoMapper;
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Integer> idsPessoas;
+
+    @Setup
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(GerenciamentoPessoasApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-projecao",
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "logging.level.root=WARN"
+                )
+                .run();
+
+        pessoaRepository = contexto.getBean(PessoaRepository.class);
+        enderecoRepository = contexto.getBean(EnderecoRepository.class);
+        pessoaMapper = contexto.getBean(PessoaMapper.class);
+        enderecoMapper = contexto.getBean(EnderecoMapper.class);
+        entityManagerFactory = contexto.getBean(EntityManagerFactory.class);
+
+        idsPessoas = popularBanco();
+    }
+
+    private List<Integer> popularBanco() {
+        List<Pessoa> pessoas = new ArrayList<>(quantidadePessoas);
+        for (int i = 0; i < quantidadePessoas; i++) {
+            Pessoa pessoa = new Pessoa();
+            pessoa.setNome("Pessoa " + i);
+            pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+            pessoas.add(pessoa);
+        }
+        pessoaRepository.saveAll(pessoas);
+
+        List<Endereco> enderecos = new ArrayList<>(quantidadePessoas * 2);
+        for (Pessoa pessoa : pessoas) {
+            for (int i = 0; i < 2; i++) {
+                Endereco endereco = new Endereco();
+                endereco.setLogradouro("Rua " + i);
+                endereco.setCep("12345-190");
+                endereco.setNumero(String.valueOf(i));
+                endereco.setCidade("Fortaleza");
+                endereco.setPrincipal(i == 0);
+                endereco.setPessoa(pessoa);
+                enderecos.add(endereco);
+            }
+        }
+        enderecoRepository.saveAll(enderecos);
+
+        return pessoas.stream().map(Pessoa::getId).toList();
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    private Integer idAleatorio() {
+        return idsPessoas.get(ThreadLocalRandom.current().nextInt(idsPessoas.size()));
+    }
+
+    @Benchmark
+    public PessoaReturnDTO pessoaPorIdComEntidade() {
+        return pessoaRepository.findById(idAleatorio()).map(pessoaMapper::paraDto).orElseThrow();
+    }
+
+    @Benchmark
+    public PessoaReturnDTO pessoaPorIdComProjecao() {
+        return pessoaRepository.buscarResumosPorIds(List.of(idAleatorio())).get(0);
+    }
+
+    @Benchmark
+    public List<PessoaReturnDTO> paginaComEntidade() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager
+                    .createQuery("SELECT p FROM Pessoa p WHERE p.id > :cursor ORDER BY p.id", Pessoa.class)
+                    .setParameter("cursor", idAleatorio())
+                    .setMaxResults(TAMANHO_PAGINA)
+                    .getResultStream()
+                    .map(pessoaMapper::paraDto)
+                    .toList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public List<PessoaReturnDTO> paginaComProjecao() {
+        return pessoaRepository.buscarPaginaResumida(idAleatorio(), PageRequest.ofSize(TAMANHO_PAGINA));
+    }
+
+    @Benchmark
+    public List<EnderecoReturnDTO> enderecosComEntidade() {
+        return pessoaRepository.buscarComEnderecosPorId(idAleatorio())
+                .map(pessoa -> pessoa.getEnderecos().stream().map(enderecoMapper::paraDto).toList())
+                .orElseThrow();
+    }
+
+    @Benchmark
+    public List<EnderecoReturnDTO> enderecosComProjecao() {
+        return enderecoRepository.buscarResumosPorPessoa(idAleatorio());
+    }
+}
@@ -0,0 +1,95 @@
+package com.attornatus.gerenciamentopessoas.benchmark;
+
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoBenchmark {
+
+    @Param({"100", "10000"})
+    private int tamanho;
+
+    @Param({"json", "cbor"})
+    private String formato;
+
+    private ObjectWriter escritorPessoas;
+    private ObjectWriter escritorEnderecos;
+    private ObjectReader leitorPessoas;
+    private ObjectReader leitorEnderecos;
+
+    private List<PessoaReturnDTO> pessoas;
+    private List<EnderecoReturnDTO> enderecos;
+    private byte[] pessoasSerializadas;
+    private byte[] enderecosSerializados;
+
+    @Setup
+    public void preparar() throws Exception {
+        ObjectMapper objectMapper = formato.equals("cbor") ? new CBORMapper() : new ObjectMapper();
+        JavaType tipoPessoas = objectMapper.getTypeFactory().constructCollectionType(List.class, PessoaReturnDTO.class);
+        JavaType tipoEnderecos = objectMapper.getTypeFactory().constructCollectionType(List.class, EnderecoReturnDTO.class);
+        escritorPessoas = objectMapper.writerFor(tipoPessoas);
+        escritorEnderecos = objectMapper.writerFor(tipoEnderecos);
+        leitorPessoas = objectMapper.readerFor(tipoPessoas);
+        leitorEnderecos = objectMapper.readerFor(tipoEnderecos);
+
+        pessoas = new ArrayList<>(tamanho);
+        enderecos = new ArrayList<>(tamanho);
+        for (int i = 1; i <= tamanho; i++) {
+            PessoaReturnDTO pessoa = new PessoaReturnDTO();
+            pessoa.setId(i);
+            pessoa.setNome("Pessoa " + i);
+            pessoa.setDataNascimento("28/09/2001");
+            pessoas.add(pessoa);
+
+            EnderecoReturnDTO endereco = new EnderecoReturnDTO();
+            endereco.setId(i);
+            endereco.setLogradouro("Rua " + i);
+            endereco.setCep("12345-190");
+            endereco.setNumero(String.valueOf(i));
+            endereco.setCidade("Fortaleza");
+            endereco.setPrincipal(i % 2 == 0);
+            enderecos.add(endereco);
+        }
+
+        // O tamanho das respostas não é medido pelo JMH; fica registrado na saída de cada combinação de parâmetros
+        pessoasSerializadas = escritorPessoas.writeValueAsBytes(pessoas);
+        enderecosSerializados = escritorEnderecos.writeValueAsBytes(enderecos);
+        System.out.printf("%n%s, %d itens: pessoas %d bytes, endereços %d bytes%n",
+                formato, tamanho, pessoasSerializadas.length, enderecosSerializados.length);
+    }
+
+    @Benchmark
+    public byte[] serializarPessoas() throws Exception {
+        return escritorPessoas.writeValueAsBytes(pessoas);
+    }
+
+    @Benchmark
+    public byte[] serializarEnderecos() throws Exception {
+        return escritorEnderecos.writeValueAsBytes(enderecos);
+    }
+
+    @Benchmark
+    public List<PessoaReturnDTO> desserializarPessoas() throws Exception {
+        return leitorPessoas.readValue(pessoasSerializadas);
+    }
+
+    @Benchmark
+    public List<EnderecoReturnDTO> desserializarEnderecos() throws Exception {
+        return leitorEnderecos.readValue(enderecosSerializados);
+    }
+}
@@ -0,0 +1,119 @@
+package com.attornatus.gerenciamentopessoas.benchmark;
+
+import com.attornatus.gerenciamentopessoas.GerenciamentoPessoasApplication;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.repositories.EnderecoRepository;
+import com.attornatus.gerenciamentopessoas.repositories.PessoaRepository;
+import com.attornatus.gerenciamentopessoas.services.EnderecoService;
+import com.attornatus.gerenciamentopessoas.services.PessoaService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServicoBenchmark {
+
+    @Param({"10000"})
+    private int quantidadePessoas;
+
+    private ConfigurableApplicationContext contexto;
+    private PessoaService pessoaService;
+    private EnderecoService enderecoService;
+
+    private List<Integer> idsPessoas;
+
+    @Setup
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(GerenciamentoPessoasApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-servico",
+                        "logging.level.root=WARN"
+                )
+                .run();
+
+        pessoaService = contexto.getBean(PessoaService.class);
+        enderecoService = contexto.getBean(EnderecoService.class);
+
+        idsPessoas = popularBanco(contexto.getBean(PessoaRepository.class), contexto.getBean(EnderecoRepository.class));
+    }
+
+    private List<Integer> popularBanco(PessoaRepository pessoaRepository, EnderecoRepository enderecoRepository) {
+        List<Pessoa> pessoas = new ArrayList<>(quantidadePessoas);
+        for (int i = 0; i < quantidadePessoas; i++) {
+            Pessoa pessoa = new Pessoa();
+            pessoa.setNome("Pessoa " + i);
+            pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+            pessoas.add(pessoa);
+        }
+        pessoaRepository.saveAll(pessoas);
+
+        List<Endereco> enderecos = new ArrayList<>(quantidadePessoas * 2);
+        for (Pessoa pessoa : pessoas) {
+            for (int i = 0; i < 2; i++) {
+                Endereco endereco = new Endereco();
+                endereco.setLogradouro("Rua " + i);
+                endereco.setCep("12345-190");
+                endereco.setNumero(String.valueOf(i));
+                endereco.setCidade("Fortaleza");
+                endereco.setPrincipal(i == 0);
+                endereco.setPessoa(pessoa);
+                enderecos.add(endereco);
+            }
+        }
+        enderecoRepository.saveAll(enderecos);
+
+        return pessoas.stream().map(Pessoa::getId).toList();
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    private Integer idAleatorio() {
+        return idsPessoas.get(ThreadLocalRandom.current().nextInt(idsPessoas.size()));
+    }
+
+    @Benchmark
+    public Pessoa buscarPessoaPorId() {
+        return pessoaService.buscarPorId(idAleatorio());
+    }
+
+    @Benchmark
+    public List<PessoaReturnDTO> buscarPaginaDePessoas() {
+        return pessoaService.buscarPagina(idAleatorio(), 100);
+    }
+
+    @Benchmark
+    public int buscarEnderecosDaPessoa() {
+        return enderecoService.buscarEnderecosPessoaPorId(idAleatorio()).size();
+    }
+
+    @Benchmark
+    public Endereco buscarEnderecoPrincipalDaPessoa() {
+        return enderecoService.buscarEnderecoPrincipalPessoaPorId(idAleatorio());
+    }
+
+    @Benchmark
+    public void criarPessoa() {
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome("Nova pessoa");
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+        pessoaService.criar(pessoa);
+    }
+}
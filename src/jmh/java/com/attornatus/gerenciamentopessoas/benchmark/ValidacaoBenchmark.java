@@ -0,0 +1,55 @@
+package com.attornatus.gerenciamentopessoas.benchmark;
+
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaCreateDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacaoBenchmark {
+
+    private ValidatorFactory fabrica;
+    private Validator validador;
+
+    private PessoaCreateDTO pessoaValida;
+    private PessoaCreateDTO pessoaComDataInvalida;
+
+    @Setup
+    public void preparar() {
+        fabrica = Validation.buildDefaultValidatorFactory();
+        validador = fabrica.getValidator();
+
+        pessoaValida = new PessoaCreateDTO();
+        pessoaValida.setNome("Michael");
+        pessoaValida.setDataNascimento("28/09/2001");
+
+        pessoaComDataInvalida = new PessoaCreateDTO();
+        pessoaComDataInvalida.setNome("Michael");
+        pessoaComDataInvalida.setDataNascimento("2001-09-28");
+    }
+
+    @TearDown
+    public void encerrar() {
+        fabrica.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PessoaCreateDTO>> validarPessoaValida() {
+        return validador.validate(pessoaValida);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PessoaCreateDTO>> validarPessoaComDataInvalida() {
+        return validador.validate(pessoaComDataInvalida);
+    }
+}
@@ -0,0 +1,298 @@
+package com.attornatus.gerenciamentopessoas.busca;
+
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória, de termo normalizado (minúsculo e sem acentos) para os ids das pessoas.
+ * Os termos ficam ordenados para a busca por prefixo, e cada termo também é registrado com uma letra a menos,
+ * o que permite encontrar termos a uma edição de distância (busca aproximada) sem percorrer o vocabulário.
+ * Os ids de cada termo ficam ordenados, o que permite interromper a busca assim que o limite de resultados é atingido.
+ * As escritas são serializadas; as buscas não bloqueiam.
+ */
+public class IndiceBusca {
+
+    private static final int PONTOS_EXATO = 3;
+    private static final int PONTOS_PREFIXO = 2;
+    private static final int PONTOS_APROXIMADO = 1;
+
+    private static final int TAMANHO_MINIMO_APROXIMADO = 4;
+    private static final int MAXIMO_EXPANSOES_PREFIXO = 1000;
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{Alnum}]+");
+
+    private final ConcurrentSkipListMap<String, Set<Integer>> termos = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> variacoes = new ConcurrentHashMap<>();
+    private final Map<Integer, Documento> documentos = new ConcurrentHashMap<>();
+
+    public static List<String> normalizar(String texto) {
+        if (texto == null) {
+            return List.of();
+        }
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.splitAsStream(semAcentos.toLowerCase(Locale.ROOT))
+                .filter(termo -> !termo.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Indexa a pessoa, substituindo o documento anterior dela. Um resumo com versão menor que a do documento já
+     * indexado é ignorado: a carga inicial lê as pessoas enquanto as alterações já são indexadas, e não pode
+     * sobrescrever um documento mais novo com dados lidos antes da alteração.
+     */
+    public synchronized void indexar(Integer idPessoa, PessoaReturnDTO resumo, Collection<String> textos) {
+        Documento atual = documentos.get(idPessoa);
+        if (atual != null && desatualizado(resumo, atual.resumo)) {
+            return;
+        }
+
+        Set<String> novosTermos = new HashSet<>();
+        textos.forEach(texto -> novosTermos.addAll(normalizar(texto)));
+
+        Documento anterior = documentos.put(idPessoa, new Documento(resumo, novosTermos));
+        if (anterior != null) {
+            anterior.termos.stream()
+                    .filter(termo -> !novosTermos.contains(termo))
+                    .forEach(termo -> desassociar(termo, idPessoa));
+        }
+        novosTermos.forEach(termo -> associar(termo, idPessoa));
+    }
+
+    private static boolean desatualizado(PessoaReturnDTO resumo, PessoaReturnDTO atual) {
+        return resumo.getVersao() != null && atual.getVersao() != null && resumo.getVersao() < atual.getVersao();
+    }
+
+    public synchronized void remover(Integer idPessoa) {
+        Documento anterior = documentos.remove(idPessoa);
+        if (anterior != null) {
+            anterior.termos.forEach(termo -> desassociar(termo, idPessoa));
+        }
+    }
+
+    public int quantidadeDocumentos() {
+        return documentos.size();
+    }
+
+    /**
+     * Retorna as pessoas que possuem todos os termos da consulta, cada um por correspondência exata, por prefixo
+     * ou aproximada, ordenadas pela relevância (exata, depois prefixo, depois aproximada) e pelo id.
+     */
+    public List<PessoaReturnDTO> buscar(String consulta, int limite) {
+        List<String> termosConsulta = normalizar(consulta).stream().distinct().toList();
+        if (termosConsulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        List<List<Grupo>> gruposPorTermo = termosConsulta.stream().map(this::expandir).toList();
+        List<Grupo> gruposMotor = gruposPorTermo.stream()
+                .min(Comparator.comparingLong(IndiceBusca::quantidadeIds))
+                .orElseThrow();
+        int pontosMaximosDemaisTermos = PONTOS_EXATO * (termosConsulta.size() - 1);
+
+        PriorityQueue<Resultado> melhores = new PriorityQueue<>(limite + 1, Resultado.PIOR_PRIMEIRO);
+        Set<Integer> visitados = new HashSet<>();
+        for (Grupo grupo : gruposMotor) {
+            // Um grupo seguinte ainda pode ter um id menor com a mesma pontuação, então só o empate não encerra
+            if (completo(melhores, limite, grupo.pontos + pontosMaximosDemaisTermos, null)) {
+                break;
+            }
+            for (Integer idPessoa : grupo.ids) {
+                // Os ids de cada grupo estão em ordem crescente, então os próximos não superam os já encontrados
+                if (completo(melhores, limite, grupo.pontos + pontosMaximosDemaisTermos, idPessoa)) {
+                    break;
+                }
+                if (!visitados.add(idPessoa)) {
+                    continue;
+                }
+                int pontos = pontuar(idPessoa, grupo.pontos, gruposMotor, gruposPorTermo);
+                Documento documento = documentos.get(idPessoa);
+                if (pontos > 0 && documento != null) {
+                    melhores.offer(new Resultado(idPessoa, pontos, documento.resumo));
+                    if (melhores.size() > limite) {
+                        melhores.poll();
+                    }
+                }
+            }
+        }
+
+        List<Resultado> resultados = new ArrayList<>(melhores);
+        resultados.sort(Resultado.PIOR_PRIMEIRO.reversed());
+        return resultados.stream().map(resultado -> resultado.resumo).toList();
+    }
+
+    // Completo quando nenhum resultado com até pontosMaximos pontos, e id a partir de proximoId, entraria na lista
+    private static boolean completo(PriorityQueue<Resultado> melhores, int limite, int pontosMaximos, Integer proximoId) {
+        if (melhores.size() < limite) {
+            return false;
+        }
+        Resultado pior = melhores.peek();
+        return pior.pontos > pontosMaximos
+                || (pior.pontos == pontosMaximos && proximoId != null && pior.idPessoa < proximoId);
+    }
+
+    private static int pontuar(Integer idPessoa, int pontosMotor, List<Grupo> gruposMotor, List<List<Grupo>> gruposPorTermo) {
+        int total = pontosMotor;
+        for (List<Grupo> grupos : gruposPorTermo) {
+            if (grupos == gruposMotor) {
+                continue;
+            }
+            Grupo encontrado = grupos.stream().filter(grupo -> grupo.ids.contains(idPessoa)).findFirst().orElse(null);
+            if (encontrado == null) {
+                return 0;
+            }
+            total += encontrado.pontos;
+        }
+        return total;
+    }
+
+    private static long quantidadeIds(List<Grupo> grupos) {
+        return grupos.stream().mapToLong(grupo -> grupo.ids.size()).sum();
+    }
+
+    // Grupos de ids que correspondem ao termo, do mais relevante para o menos relevante
+    private List<Grupo> expandir(String termo) {
+        List<Grupo> grupos = new ArrayList<>();
+
+        Set<Integer> exatos = termos.get(termo);
+        if (exatos != null) {
+            grupos.add(new Grupo(exatos, PONTOS_EXATO));
+        }
+
+        int expansoes = 0;
+        for (Set<Integer> ids : termos.subMap(termo, false, termo + Character.MAX_VALUE, false).values()) {
+            if (++expansoes > MAXIMO_EXPANSOES_PREFIXO) {
+                break;
+            }
+            grupos.add(new Grupo(ids, PONTOS_PREFIXO));
+        }
+
+        if (termo.length() >= TAMANHO_MINIMO_APROXIMADO) {
+            for (String aproximado : aproximados(termo)) {
+                Set<Integer> ids = termos.get(aproximado);
+                if (ids != null && !aproximado.startsWith(termo)) {
+                    grupos.add(new Grupo(ids, PONTOS_APROXIMADO));
+                }
+            }
+        }
+        return grupos;
+    }
+
+    private Set<String> aproximados(String termo) {
+        Set<String> candidatos = new HashSet<>(variacoes.getOrDefault(termo, Set.of()));
+        for (String variacao : removerUmaLetra(termo)) {
+            if (termos.containsKey(variacao)) {
+                candidatos.add(variacao);
+            }
+            candidatos.addAll(variacoes.getOrDefault(variacao, Set.of()));
+        }
+        candidatos.removeIf(candidato -> candidato.equals(termo) || !aUmaEdicao(termo, candidato));
+        return candidatos;
+    }
+
+    private void associar(String termo, Integer idPessoa) {
+        Set<Integer> ids = termos.get(termo);
+        if (ids == null) {
+            ids = new ConcurrentSkipListSet<>();
+            termos.put(termo, ids);
+            if (termo.length() >= TAMANHO_MINIMO_APROXIMADO - 1) {
+                removerUmaLetra(termo).forEach(variacao ->
+                        variacoes.computeIfAbsent(variacao, v -> ConcurrentHashMap.newKeySet()).add(termo));
+            }
+        }
+        ids.add(idPessoa);
+    }
+
+    private void desassociar(String termo, Integer idPessoa) {
+        Set<Integer> ids = termos.get(termo);
+        if (ids == null) {
+            return;
+        }
+        ids.remove(idPessoa);
+        if (ids.isEmpty()) {
+            termos.remove(termo);
+            removerUmaLetra(termo).forEach(variacao -> variacoes.computeIfPresent(variacao, (v, termosVariacao) -> {
+                termosVariacao.remove(termo);
+                return termosVariacao.isEmpty() ? null : termosVariacao;
+            }));
+        }
+    }
+
+    private static Set<String> removerUmaLetra(String termo) {
+        Set<String> resultado = new HashSet<>();
+        for (int i = 0; i < termo.length(); i++) {
+            resultado.add(termo.substring(0, i) + termo.substring(i + 1));
+        }
+        return resultado;
+    }
+
+    // Distância de edição (inserção, remoção, troca ou transposição de letras vizinhas) igual a um
+    private static boolean aUmaEdicao(String a, String b) {
+        int diferencaTamanho = a.length() - b.length();
+        if (Math.abs(diferencaTamanho) > 1) {
+            return false;
+        }
+        int inicio = 0;
+        while (inicio < Math.min(a.length(), b.length()) && a.charAt(inicio) == b.charAt(inicio)) {
+            inicio++;
+        }
+        if (diferencaTamanho > 0) {
+            return a.substring(inicio + 1).equals(b.substring(inicio));
+        }
+        if (diferencaTamanho < 0) {
+            return a.substring(inicio).equals(b.substring(inicio + 1));
+        }
+        if (inicio == a.length()) {
+            return false;
+        }
+        if (a.substring(inicio + 1).equals(b.substring(inicio + 1))) {
+            return true;
+        }
+        return inicio + 1 < a.length()
+                && a.charAt(inicio) == b.charAt(inicio + 1)
+                && a.charAt(inicio + 1) == b.charAt(inicio)
+                && a.substring(inicio + 2).equals(b.substring(inicio + 2));
+    }
+
+    private static final class Documento {
+        private final PessoaReturnDTO resumo;
+        private final Set<String> termos;
+
+        private Documento(PessoaReturnDTO resumo, Set<String> termos) {
+            this.resumo = resumo;
+            this.termos = termos;
+        }
+    }
+
+    private static final class Grupo {
+        private final Set<Integer> ids;
+        private final int pontos;
+
+        private Grupo(Set<Integer> ids, int pontos) {
+            this.ids = ids;
+            this.pontos = pontos;
+        }
+    }
+
+    private static final class Resultado {
+        private static final Comparator<Resultado> PIOR_PRIMEIRO = Comparator
+                .comparingInt((Resultado resultado) -> resultado.pontos)
+                .thenComparing(resultado -> resultado.idPessoa, Comparator.reverseOrder());
+
+        private final Integer idPessoa;
+        private final int pontos;
+        private final PessoaReturnDTO resumo;
+
+        private Resultado(Integer idPessoa, int pontos, PessoaReturnDTO resumo) {
+            this.idPessoa = idPessoa;
+            this.pontos = pontos;
+            this.resumo = resumo;
+        }
+    }
+}
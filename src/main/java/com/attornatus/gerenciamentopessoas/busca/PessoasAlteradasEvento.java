@@ -0,0 +1,20 @@
+package com.attornatus.gerenciamentopessoas.busca;
+
+import java.util.Collection;
+
+/**
+ * Publicado quando dados de pessoas ou de seus endereços são gravados, para que o índice de busca seja atualizado
+ * após o commit.
+ */
+public class PessoasAlteradasEvento {
+
+    private final Collection<Integer> idsPessoas;
+
+    public PessoasAlteradasEvento(Collection<Integer> idsPessoas) {
+        this.idsPessoas = idsPessoas;
+    }
+
+    public Collection<Integer> getIdsPessoas() {
+        return idsPessoas;
+    }
+}
@@ -0,0 +1,80 @@
+package com.attornatus.gerenciamentopessoas.concorrencia;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa chamadas simultâneas com a mesma chave: somente a primeira executa a consulta, e as demais aguardam e
+ * recebem o mesmo resultado ou a mesma exceção. Cada chave fica registrada apenas enquanto a consulta está em
+ * andamento, e acima de {@code maximoEmAndamento} chaves as novas chamadas executam sem agrupamento.
+ */
+public class ConsultaCompartilhada<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> emAndamento = new ConcurrentHashMap<>();
+    private final int maximoEmAndamento;
+
+    public ConsultaCompartilhada(int maximoEmAndamento) {
+        this.maximoEmAndamento = maximoEmAndamento;
+    }
+
+    public V executar(K chave, Supplier<V> consulta) {
+        if (emAndamento.size() >= maximoEmAndamento) {
+            return consulta.get();
+        }
+
+        CompletableFuture<V> chamada = new CompletableFuture<>();
+        CompletableFuture<V> existente = emAndamento.putIfAbsent(chave, chamada);
+        if (existente != null) {
+            return aguardar(existente);
+        }
+
+        try {
+            V resultado = consulta.get();
+            chamada.complete(resultado);
+            return resultado;
+        } catch (RuntimeException | Error e) {
+            chamada.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, chamada);
+        }
+    }
+
+    // Chamadas que chegarem depois da confirmação não aproveitam uma consulta iniciada antes da alteração
+    public void descartarAposConfirmacao(K chave) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            emAndamento.remove(chave);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                emAndamento.remove(chave);
+            }
+        });
+    }
+
+    int quantidadeEmAndamento() {
+        return emAndamento.size();
+    }
+
+    private static <V> V aguardar(CompletableFuture<V> chamada) {
+        try {
+            return chamada.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error erro) {
+                throw erro;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.attornatus.gerenciamentopessoas.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limita quantas threads podem segurar uma conexão ao mesmo tempo. Com threads virtuais não existe mais o
+ * limite natural de threads do Tomcat, então as requisições esperam aqui em vez de disputarem o pool do Hikari.
+ * Como há uma permissão por conexão, a espera fica toda aqui e não no Hikari; por isso ela é medida, para o
+ * {@link PoolAdaptativo}.
+ */
+public class DataSourceLimitado extends DelegatingDataSource {
+
+    private final Permissoes permissoes;
+    private final long tempoMaximoEsperaMs;
+    private int maximoConexoes;
+    private final LongAdder esperas = new LongAdder();
+    private final LongAdder tempoEsperaNs = new LongAdder();
+
+    public DataSourceLimitado(DataSource dataSource, int maximoConexoes, Duration tempoMaximoEspera) {
+        super(dataSource);
+        this.permissoes = new Permissoes(maximoConexoes);
+        this.maximoConexoes = maximoConexoes;
+        this.tempoMaximoEsperaMs = tempoMaximoEspera.toMillis();
+    }
+
+    // Ao reduzir, as conexões em uso continuam válidas; as permissões só voltam a ser liberadas abaixo do novo limite
+    public synchronized void ajustarMaximoConexoes(int novoMaximo) {
+        int diferenca = novoMaximo - maximoConexoes;
+        if (diferenca > 0) {
+            permissoes.release(diferenca);
+        } else if (diferenca < 0) {
+            permissoes.reducePermits(-diferenca);
+        }
+        maximoConexoes = novoMaximo;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirirPermissao();
+        try {
+            return liberarAoFechar(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirirPermissao();
+        try {
+            return liberarAoFechar(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    public int getPermissoesDisponiveis() {
+        return permissoes.availablePermits();
+    }
+
+    public int getAguardando() {
+        return permissoes.getQueueLength();
+    }
+
+    // Acumulados desde a criação, inclusive as esperas que esgotaram o tempo
+    public long getEsperas() {
+        return esperas.sum();
+    }
+
+    public long getTempoEsperaNs() {
+        return tempoEsperaNs.sum();
+    }
+
+    private void adquirirPermissao() throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            boolean adquirida = permissoes.tryAcquire(tempoMaximoEsperaMs, TimeUnit.MILLISECONDS);
+            registrarEspera(inicio);
+            if (!adquirida) {
+                throw new SQLTransientConnectionException(
+                        "Tempo de espera por uma conexão esgotado após " + tempoMaximoEsperaMs + "ms.");
+            }
+        } catch (InterruptedException e) {
+            registrarEspera(inicio);
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Espera por uma conexão interrompida.", e);
+        }
+    }
+
+    private void registrarEspera(long inicio) {
+        tempoEsperaNs.add(System.nanoTime() - inicio);
+        esperas.increment();
+    }
+
+    private Connection liberarAoFechar(Connection conexao) {
+        AtomicBoolean fechada = new AtomicBoolean();
+        InvocationHandler handler = (proxy, metodo, argumentos) -> {
+            if (metodo.getName().equals("close") && fechada.compareAndSet(false, true)) {
+                try {
+                    return invocar(conexao, metodo, argumentos);
+                } finally {
+                    permissoes.release();
+                }
+            }
+            return invocar(conexao, metodo, argumentos);
+        };
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static class Permissoes extends Semaphore {
+
+        Permissoes(int quantidade) {
+            super(quantidade, true);
+        }
+
+        @Override
+        protected void reducePermits(int reducao) {
+            super.reducePermits(reducao);
+        }
+    }
+
+    private static Object invocar(Connection conexao, Method metodo, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(conexao, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.attornatus.gerenciamentopessoas.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@Configuration
+public class FormatosBinariosConfig {
+
+    // Respostas em CBOR para quem envia Accept: application/cbor. O ObjectMapper parte da mesma configuração
+    // do JSON, então os dois formatos têm os mesmos campos; o conversor ocupa a posição do padrão, depois do JSON
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+}
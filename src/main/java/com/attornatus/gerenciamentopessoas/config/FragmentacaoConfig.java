@@ -0,0 +1,109 @@
+package com.attornatus.gerenciamentopessoas.config;
+
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.fragmentos.AnelFragmentos;
+import com.attornatus.gerenciamentopessoas.fragmentos.DataSourceFragmentado;
+import com.attornatus.gerenciamentopessoas.fragmentos.Fragmentacao;
+import com.attornatus.gerenciamentopessoas.fragmentos.FragmentosEndpoint;
+import com.attornatus.gerenciamentopessoas.fragmentos.RebalanceadorFragmentos;
+import com.attornatus.gerenciamentopessoas.fragmentos.RoteadorFragmentos;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ativada com pessoas.persistencia.fragmentacao.habilitada=true. Cada URL de pessoas.persistencia.fragmentacao.urls
+ * ganha um pool e as migrações do Flyway; o DataSource da aplicação passa a ser o {@link DataSourceFragmentado} e os
+ * repositórios de pessoas e endereços recebem o {@link RoteadorFragmentos}, que escolhe o fragmento de cada chamada.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pessoas.persistencia.fragmentacao.habilitada", havingValue = "true")
+public class FragmentacaoConfig {
+
+    // O roteador entra antes da transação do repositório, para que o fragmento já esteja definido quando ela começar
+    @Bean
+    public static BeanPostProcessor rotearRepositorios(ObjectProvider<Fragmentacao> fragmentacao) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositorio) {
+                    repositorio.addRepositoryFactoryCustomizer(fabrica -> fabrica.addRepositoryProxyPostProcessor(
+                            (proxy, informacoes) -> {
+                                Class<?> dominio = informacoes.getDomainType();
+                                if (dominio == Pessoa.class || dominio == Endereco.class) {
+                                    proxy.addAdvice(0, new RoteadorFragmentos(dominio, fragmentacao::getObject));
+                                }
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public Fragmentacao fragmentacao(DataSourceProperties fonte, PersistenciaProperties propriedades,
+                                     Environment ambiente, ObjectProvider<PlatformTransactionManager> transacoes) {
+        PersistenciaProperties.Fragmentacao fragmentacao = propriedades.getFragmentacao();
+        if (fragmentacao.getUrls().isEmpty()) {
+            throw new IllegalStateException("Fragmentação habilitada sem pessoas.persistencia.fragmentacao.urls.");
+        }
+        // As réplicas roteiam o mesmo DataSource, a escrita adiada grava endereços fora dos repositórios e o relay de
+        // eventos lê a caixa de saída de um único banco
+        if (propriedades.getReplicas().isHabilitadas()
+                || ambiente.getProperty("pessoas.enderecos.escrita-adiada.habilitada", Boolean.class, false)
+                || ambiente.getProperty("pessoas.eventos.habilitados", Boolean.class, false)) {
+            throw new IllegalStateException("A fragmentação não pode ser usada com réplicas de leitura, com a escrita " +
+                    "adiada de endereços nem com os eventos de alteração.");
+        }
+
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        for (String url : fragmentacao.getUrls()) {
+            String nome = "fragmento-" + (pools.size() + 1);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(nome);
+            pool.setJdbcUrl(url);
+            pool.setDriverClassName(fonte.determineDriverClassName());
+            pool.setUsername(fonte.determineUsername());
+            pool.setPassword(fonte.determinePassword());
+            PersistenciaConfig.configurarPool(pool, propriedades.getPool());
+            Flyway.configure().dataSource(pool).load().migrate();
+            pools.put(nome, pool);
+        }
+        AnelFragmentos anel = new AnelFragmentos(pools.keySet().stream().toList(), fragmentacao.getNosVirtuais());
+        return new Fragmentacao(pools, anel, transacoes::getObject);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(Fragmentacao fragmentacao) {
+        return new LazyConnectionDataSourceProxy(new DataSourceFragmentado(fragmentacao));
+    }
+
+    @Bean
+    public RebalanceadorFragmentos rebalanceadorFragmentos(Fragmentacao fragmentacao,
+                                                           PersistenciaProperties propriedades) {
+        return new RebalanceadorFragmentos(fragmentacao,
+                propriedades.getFragmentacao().getTamanhoLoteRebalanceamento());
+    }
+
+    @Bean
+    public FragmentosEndpoint fragmentosEndpoint(Fragmentacao fragmentacao, RebalanceadorFragmentos rebalanceador) {
+        return new FragmentosEndpoint(fragmentacao, rebalanceador);
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.attornatus.gerenciamentopessoas.config;
+
+import com.attornatus.gerenciamentopessoas.metricas.ConsultasPorRequisicaoInterceptor;
+import com.attornatus.gerenciamentopessoas.metricas.ContadorConsultas;
+import com.attornatus.gerenciamentopessoas.metricas.MetricasRepositorioListener;
+import com.attornatus.gerenciamentopessoas.metricas.TempoExecucaoInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Métricas da aplicação, além das que o Spring Boot já publica (http.server.requests e hikaricp.connections.acquire):
+ * tempo dos services e mappers, tempo de cada método de repositório e quantidade de consultas por requisição,
+ * que também é comparada ao limite de cada rota ({@link com.attornatus.gerenciamentopessoas.metricas.LimiteConsultas}).
+ * O registro é obtido só na primeira medição, para não ser criado antes das configurações do actuator.
+ */
+@Configuration
+public class MetricasConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ContadorConsultas contadorConsultas;
+    @Autowired
+    private ObjectProvider<MeterRegistry> registro;
+
+    @Value("${pessoas.consultas.limite-padrao}")
+    private int limitePadraoConsultas;
+
+    @Bean
+    public static ContadorConsultas contadorConsultas(@Value("${pessoas.consultas.falhar-ao-exceder}") boolean falharAoExceder) {
+        return new ContadorConsultas(falharAoExceder);
+    }
+
+    @Bean
+    public static HibernatePropertiesCustomizer registrarContadorConsultas(ContadorConsultas contadorConsultas) {
+        return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, contadorConsultas);
+    }
+
+    @Bean
+    public static Advisor metricasServicos(ObjectProvider<MeterRegistry> registro) {
+        return medirTempo("execution(public * com.attornatus.gerenciamentopessoas.services..*(..))",
+                "servico.execucao", registro);
+    }
+
+    @Bean
+    public static Advisor metricasMapeamento(ObjectProvider<MeterRegistry> registro) {
+        return medirTempo("execution(public * com.attornatus.gerenciamentopessoas.mappers..*(..))",
+                "mapeamento.execucao", registro);
+    }
+
+    @Bean
+    public static MetricasRepositorioListener metricsRepositoryMethodInvocationListener(
+            ObjectProvider<MeterRegistry> registro, MetricsProperties propriedades) {
+        return new MetricasRepositorioListener(registro::getObject, propriedades.getData().getRepository().getMetricName());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConsultasPorRequisicaoInterceptor(contadorConsultas, registro::getObject, limitePadraoConsultas));
+    }
+
+    private static Advisor medirTempo(String expressao, String metrica, ObjectProvider<MeterRegistry> registro) {
+        AspectJExpressionPointcut pontos = new AspectJExpressionPointcut();
+        pontos.setExpression(expressao);
+        return new DefaultPointcutAdvisor(pontos, new TempoExecucaoInterceptor(metrica, registro::getObject));
+    }
+
+}
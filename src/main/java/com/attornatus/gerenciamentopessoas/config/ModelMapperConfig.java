@@ -1,10 +1,16 @@
 package com.attornatus.gerenciamentopessoas.config;
 
+import com.attornatus.gerenciamentopessoas.mappers.EnderecoMapper;
+import com.attornatus.gerenciamentopessoas.mappers.ModelMapperEnderecoMapper;
+import com.attornatus.gerenciamentopessoas.mappers.ModelMapperPessoaMapper;
+import com.attornatus.gerenciamentopessoas.mappers.PessoaMapper;
 import org.modelmapper.ModelMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@ConditionalOnProperty(name = "mapeamento.modelmapper.habilitado", havingValue = "true")
 public class ModelMapperConfig {
 
     @Bean
@@ -12,4 +18,14 @@ public class ModelMapperConfig {
         return new ModelMapper();
     }
 
+    @Bean
+    public PessoaMapper pessoaMapper(ModelMapper modelMapper) {
+        return new ModelMapperPessoaMapper(modelMapper);
+    }
+
+    @Bean
+    public EnderecoMapper enderecoMapper(ModelMapper modelMapper) {
+        return new ModelMapperEnderecoMapper(modelMapper);
+    }
+
 }
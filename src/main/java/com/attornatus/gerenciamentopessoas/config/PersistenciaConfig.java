@@ -0,0 +1,77 @@
+package com.attornatus.gerenciamentopessoas.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Aplica o {@link PersistenciaProperties} ao pool do Hikari, antes de ele abrir conexões, e às propriedades do
+ * Hibernate. Os valores de pessoas.persistencia.pool substituem os de spring.datasource.hikari.
+ */
+@Configuration
+@EnableConfigurationProperties(PersistenciaProperties.class)
+public class PersistenciaConfig {
+
+    private static final String URL_H2 = "jdbc:h2:";
+    private static final String CACHE_SENTENCAS_H2 = "QUERY_CACHE_SIZE";
+
+    // As propriedades são obtidas só quando o pool é criado, depois de registrados os processadores de configuração
+    @Bean
+    public static BeanPostProcessor configurarPool(ObjectProvider<PersistenciaProperties> propriedades) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    configurarPool(hikari, propriedades.getObject().getPool());
+                }
+                return bean;
+            }
+        };
+    }
+
+    static void configurarPool(HikariDataSource hikari, PersistenciaProperties.Pool pool) {
+        hikari.setMaximumPoolSize(pool.getTamanhoMaximo());
+        hikari.setMinimumIdle(Math.min(pool.getTamanhoMinimo(), pool.getTamanhoMaximo()));
+        hikari.setConnectionTimeout(pool.getEsperaMaxima().toMillis());
+
+        String url = hikari.getJdbcUrl();
+        if (url != null && url.startsWith(URL_H2) && !url.toUpperCase().contains(CACHE_SENTENCAS_H2)) {
+            hikari.setJdbcUrl(url + ";" + CACHE_SENTENCAS_H2 + "=" + pool.getCacheSentencas());
+        }
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer ajustarHibernate(PersistenciaProperties propriedades) {
+        PersistenciaProperties.Hibernate hibernate = propriedades.getHibernate();
+        return configuracao -> {
+            configuracao.put(AvailableSettings.STATEMENT_BATCH_SIZE, hibernate.getTamanhoLote());
+            configuracao.put(AvailableSettings.ORDER_INSERTS, hibernate.isOrdenarInsercoes());
+            configuracao.put(AvailableSettings.ORDER_UPDATES, hibernate.isOrdenarAtualizacoes());
+            configuracao.put(AvailableSettings.QUERY_PLAN_CACHE_MAX_SIZE, hibernate.getTamanhoCachePlanos());
+            configuracao.put(AvailableSettings.IN_CLAUSE_PARAMETER_PADDING, hibernate.isCompletarParametrosIn());
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "pessoas.persistencia.adaptativo.habilitado", havingValue = "true")
+    public PoolAdaptativo poolAdaptativo(DataSource dataSource, ObjectProvider<MeterRegistry> registro,
+                                         PersistenciaProperties propriedades) throws SQLException {
+        // Com réplicas, o DataSource injetado é o roteado; o limite de threads virtuais fica no do primário
+        DataSource primario = dataSource.isWrapperFor(DataSourceLimitado.class)
+                ? dataSource.unwrap(DataSourceLimitado.class)
+                : dataSource;
+        return new PoolAdaptativo(primario, dataSource.unwrap(HikariDataSource.class), registro::getObject,
+                propriedades.getPool(), propriedades.getAdaptativo());
+    }
+
+}
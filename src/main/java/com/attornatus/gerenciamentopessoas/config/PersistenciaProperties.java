@@ -0,0 +1,285 @@
+package com.attornatus.gerenciamentopessoas.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ajustes do pool de conexões, do cache de sentenças do H2 e do Hibernate, aplicados pelo {@link PersistenciaConfig},
+ * das réplicas de leitura, usadas pelo {@link ReplicasConfig}, e da fragmentação, usada pelo {@link FragmentacaoConfig}.
+ */
+@ConfigurationProperties(prefix = "pessoas.persistencia")
+public class PersistenciaProperties {
+
+    private final Pool pool = new Pool();
+    private final Hibernate hibernate = new Hibernate();
+    private final Adaptativo adaptativo = new Adaptativo();
+    private final Replicas replicas = new Replicas();
+    private final Fragmentacao fragmentacao = new Fragmentacao();
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public Hibernate getHibernate() {
+        return hibernate;
+    }
+
+    public Adaptativo getAdaptativo() {
+        return adaptativo;
+    }
+
+    public Replicas getReplicas() {
+        return replicas;
+    }
+
+    public Fragmentacao getFragmentacao() {
+        return fragmentacao;
+    }
+
+    public static class Pool {
+
+        // Pool de tamanho fixo, como recomendado pelo Hikari: mínimo igual ao máximo
+        private int tamanhoMaximo = 10;
+        private int tamanhoMinimo = 10;
+        private Duration esperaMaxima = Duration.ofSeconds(30);
+        // Sentenças preparadas mantidas por conexão pelo H2 (QUERY_CACHE_SIZE)
+        private int cacheSentencas = 64;
+
+        public int getTamanhoMaximo() {
+            return tamanhoMaximo;
+        }
+
+        public void setTamanhoMaximo(int tamanhoMaximo) {
+            this.tamanhoMaximo = tamanhoMaximo;
+        }
+
+        public int getTamanhoMinimo() {
+            return tamanhoMinimo;
+        }
+
+        public void setTamanhoMinimo(int tamanhoMinimo) {
+            this.tamanhoMinimo = tamanhoMinimo;
+        }
+
+        public Duration getEsperaMaxima() {
+            return esperaMaxima;
+        }
+
+        public void setEsperaMaxima(Duration esperaMaxima) {
+            this.esperaMaxima = esperaMaxima;
+        }
+
+        public int getCacheSentencas() {
+            return cacheSentencas;
+        }
+
+        public void setCacheSentencas(int cacheSentencas) {
+            this.cacheSentencas = cacheSentencas;
+        }
+    }
+
+    public static class Hibernate {
+
+        private int tamanhoLote = 50;
+        private boolean ordenarInsercoes = true;
+        private boolean ordenarAtualizacoes = true;
+        private int tamanhoCachePlanos = 2048;
+        // Completa listas de IN até a próxima potência de 2, para que listas de tamanhos próximos usem o mesmo plano
+        private boolean completarParametrosIn = true;
+
+        public int getTamanhoLote() {
+            return tamanhoLote;
+        }
+
+        public void setTamanhoLote(int tamanhoLote) {
+            this.tamanhoLote = tamanhoLote;
+        }
+
+        public boolean isOrdenarInsercoes() {
+            return ordenarInsercoes;
+        }
+
+        public void setOrdenarInsercoes(boolean ordenarInsercoes) {
+            this.ordenarInsercoes = ordenarInsercoes;
+        }
+
+        public boolean isOrdenarAtualizacoes() {
+            return ordenarAtualizacoes;
+        }
+
+        public void setOrdenarAtualizacoes(boolean ordenarAtualizacoes) {
+            this.ordenarAtualizacoes = ordenarAtualizacoes;
+        }
+
+        public int getTamanhoCachePlanos() {
+            return tamanhoCachePlanos;
+        }
+
+        public void setTamanhoCachePlanos(int tamanhoCachePlanos) {
+            this.tamanhoCachePlanos = tamanhoCachePlanos;
+        }
+
+        public boolean isCompletarParametrosIn() {
+            return completarParametrosIn;
+        }
+
+        public void setCompletarParametrosIn(boolean completarParametrosIn) {
+            this.completarParametrosIn = completarParametrosIn;
+        }
+    }
+
+    public static class Adaptativo {
+
+        private boolean habilitado = false;
+        private Duration intervalo = Duration.ofSeconds(10);
+        private Duration esperaAlvo = Duration.ofMillis(5);
+        private int tamanhoLimite = 40;
+        private int passo = 2;
+
+        public boolean isHabilitado() {
+            return habilitado;
+        }
+
+        public void setHabilitado(boolean habilitado) {
+            this.habilitado = habilitado;
+        }
+
+        public Duration getIntervalo() {
+            return intervalo;
+        }
+
+        public void setIntervalo(Duration intervalo) {
+            this.intervalo = intervalo;
+        }
+
+        public Duration getEsperaAlvo() {
+            return esperaAlvo;
+        }
+
+        public void setEsperaAlvo(Duration esperaAlvo) {
+            this.esperaAlvo = esperaAlvo;
+        }
+
+        public int getTamanhoLimite() {
+            return tamanhoLimite;
+        }
+
+        public void setTamanhoLimite(int tamanhoLimite) {
+            this.tamanhoLimite = tamanhoLimite;
+        }
+
+        public int getPasso() {
+            return passo;
+        }
+
+        public void setPasso(int passo) {
+            this.passo = passo;
+        }
+    }
+
+    public static class Replicas {
+
+        private boolean habilitadas = false;
+        private List<String> urls = new ArrayList<>();
+        // Quando vazios, são usados os mesmos do primário (spring.datasource.username e password)
+        private String usuario;
+        private String senha;
+        // Réplicas mais atrasadas que isso deixam de receber leituras até alcançarem o primário
+        private Duration atrasoMaximo = Duration.ofSeconds(5);
+        private Duration intervaloVerificacao = Duration.ofSeconds(1);
+
+        public boolean isHabilitadas() {
+            return habilitadas;
+        }
+
+        public void setHabilitadas(boolean habilitadas) {
+            this.habilitadas = habilitadas;
+        }
+
+        public List<String> getUrls() {
+            return urls;
+        }
+
+        public void setUrls(List<String> urls) {
+            this.urls = urls;
+        }
+
+        public String getUsuario() {
+            return usuario;
+        }
+
+        public void setUsuario(String usuario) {
+            this.usuario = usuario;
+        }
+
+        public String getSenha() {
+            return senha;
+        }
+
+        public void setSenha(String senha) {
+            this.senha = senha;
+        }
+
+        public Duration getAtrasoMaximo() {
+            return atrasoMaximo;
+        }
+
+        public void setAtrasoMaximo(Duration atrasoMaximo) {
+            this.atrasoMaximo = atrasoMaximo;
+        }
+
+        public Duration getIntervaloVerificacao() {
+            return intervaloVerificacao;
+        }
+
+        public void setIntervaloVerificacao(Duration intervaloVerificacao) {
+            this.intervaloVerificacao = intervaloVerificacao;
+        }
+    }
+
+    public static class Fragmentacao {
+
+        private boolean habilitada = false;
+        // O primeiro é o catálogo, que guarda as sequências de ids e as tabelas que não são fragmentadas. Novos
+        // fragmentos devem ser acrescentados ao final, já que o nome de cada um depende da posição
+        private List<String> urls = new ArrayList<>();
+        // Pontos de cada fragmento no anel; mais pontos distribuem as pessoas de forma mais uniforme
+        private int nosVirtuais = 128;
+        private int tamanhoLoteRebalanceamento = 500;
+
+        public boolean isHabilitada() {
+            return habilitada;
+        }
+
+        public void setHabilitada(boolean habilitada) {
+            this.habilitada = habilitada;
+        }
+
+        public List<String> getUrls() {
+            return urls;
+        }
+
+        public void setUrls(List<String> urls) {
+            this.urls = urls;
+        }
+
+        public int getNosVirtuais() {
+            return nosVirtuais;
+        }
+
+        public void setNosVirtuais(int nosVirtuais) {
+            this.nosVirtuais = nosVirtuais;
+        }
+
+        public int getTamanhoLoteRebalanceamento() {
+            return tamanhoLoteRebalanceamento;
+        }
+
+        public void setTamanhoLoteRebalanceamento(int tamanhoLoteRebalanceamento) {
+            this.tamanhoLoteRebalanceamento = tamanhoLoteRebalanceamento;
+        }
+    }
+}
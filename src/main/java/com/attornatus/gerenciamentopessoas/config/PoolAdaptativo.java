@@ -0,0 +1,143 @@
+package com.attornatus.gerenciamentopessoas.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Ajusta o tamanho máximo do pool a cada intervalo, conforme a espera média por conexão medida pelo Hikari
+ * (hikaricp.connections.acquire) no intervalo anterior. O pool cresce enquanto a espera passa da espera alvo, até o
+ * tamanho limite, e volta em direção ao tamanho configurado quando a espera cai abaixo da metade da alvo e há
+ * conexões sobrando. Com threads virtuais, o limite do {@link DataSourceLimitado} acompanha o pool. Como ele tem uma
+ * permissão por conexão, as requisições esperam nele e não no Hikari; a espera e as threads aguardando nele são somadas
+ * às do Hikari.
+ */
+public class PoolAdaptativo implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PoolAdaptativo.class);
+
+    private final DataSource dataSource;
+    private final HikariDataSource hikari;
+    private final Supplier<MeterRegistry> registro;
+    private final PersistenciaProperties.Pool pool;
+    private final PersistenciaProperties.Adaptativo adaptativo;
+
+    private ScheduledExecutorService agendador;
+    private long ultimaContagem;
+    private double ultimoTempoTotalNs;
+    private long ultimasEsperasLimite;
+    private long ultimoTempoLimiteNs;
+    private volatile Instant ultimoAjuste;
+
+    public PoolAdaptativo(DataSource dataSource, HikariDataSource hikari, Supplier<MeterRegistry> registro,
+                          PersistenciaProperties.Pool pool, PersistenciaProperties.Adaptativo adaptativo) {
+        this.dataSource = dataSource;
+        this.hikari = hikari;
+        this.registro = registro;
+        this.pool = pool;
+        this.adaptativo = adaptativo;
+    }
+
+    public Instant getUltimoAjuste() {
+        return ultimoAjuste;
+    }
+
+    int calcularTamanho(int atual, Duration esperaMedia, int aguardando, int ativas) {
+        Duration esperaAlvo = adaptativo.getEsperaAlvo();
+        if (esperaMedia.compareTo(esperaAlvo) > 0) {
+            return Math.max(atual, Math.min(atual + adaptativo.getPasso(), adaptativo.getTamanhoLimite()));
+        }
+        if (esperaMedia.compareTo(esperaAlvo.dividedBy(2)) < 0 && aguardando == 0
+                && ativas <= atual - adaptativo.getPasso()) {
+            return Math.min(atual, Math.max(atual - adaptativo.getPasso(), pool.getTamanhoMaximo()));
+        }
+        return atual;
+    }
+
+    void ajustar() {
+        HikariPoolMXBean estado = hikari.getHikariPoolMXBean();
+        Timer espera = registro.get().find("hikaricp.connections.acquire").tag("pool", hikari.getPoolName()).timer();
+        if (estado == null || espera == null) {
+            return;
+        }
+
+        long contagem = espera.count();
+        double tempoTotalNs = espera.totalTime(TimeUnit.NANOSECONDS);
+        Duration esperaMedia = media(contagem - ultimaContagem, tempoTotalNs - ultimoTempoTotalNs);
+        ultimaContagem = contagem;
+        ultimoTempoTotalNs = tempoTotalNs;
+        int aguardando = estado.getThreadsAwaitingConnection();
+
+        // Cada conexão passa pelas duas esperas, então as médias se somam
+        if (dataSource instanceof DataSourceLimitado limitado) {
+            long esperasLimite = limitado.getEsperas();
+            long tempoLimiteNs = limitado.getTempoEsperaNs();
+            esperaMedia = esperaMedia.plus(media(esperasLimite - ultimasEsperasLimite, tempoLimiteNs - ultimoTempoLimiteNs));
+            ultimasEsperasLimite = esperasLimite;
+            ultimoTempoLimiteNs = tempoLimiteNs;
+            aguardando += limitado.getAguardando();
+        }
+
+        HikariConfigMXBean configuracao = hikari.getHikariConfigMXBean();
+        int atual = configuracao.getMaximumPoolSize();
+        int novo = calcularTamanho(atual, esperaMedia, aguardando, estado.getActiveConnections());
+        if (novo == atual) {
+            return;
+        }
+
+        configuracao.setMaximumPoolSize(novo);
+        if (configuracao.getMinimumIdle() > novo) {
+            configuracao.setMinimumIdle(novo);
+        }
+        if (dataSource instanceof DataSourceLimitado limitado) {
+            limitado.ajustarMaximoConexoes(novo);
+        }
+        ultimoAjuste = Instant.now();
+        log.info("Pool de conexões ajustado de {} para {} (espera média de {} ms).", atual, novo, esperaMedia.toMillis());
+    }
+
+    private static Duration media(long esperas, double tempoNs) {
+        return esperas == 0 ? Duration.ZERO : Duration.ofNanos((long) (tempoNs / esperas));
+    }
+
+    @Override
+    public void start() {
+        agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "pool-adaptativo");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervaloMs = adaptativo.getIntervalo().toMillis();
+        agendador.scheduleWithFixedDelay(() -> {
+            try {
+                ajustar();
+            } catch (RuntimeException e) {
+                log.warn("Falha ao ajustar o pool de conexões.", e);
+            }
+        }, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        agendador.shutdownNow();
+        agendador = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return agendador != null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.attornatus.gerenciamentopessoas.config;
+
+import com.attornatus.gerenciamentopessoas.replicas.DataSourceRoteado;
+import com.attornatus.gerenciamentopessoas.replicas.LeituraPropriaInterceptor;
+import com.attornatus.gerenciamentopessoas.replicas.MonitorReplicas;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ativada com pessoas.persistencia.replicas.habilitadas=true. O pool do primário passa a ser criado aqui, com as mesmas
+ * propriedades spring.datasource que o Spring Boot usaria, e o DataSource da aplicação passa a ser o
+ * {@link DataSourceRoteado}: transações somente leitura vão às réplicas em dia e o restante, ao primário.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pessoas.persistencia.replicas.habilitadas", havingValue = "true")
+public class ReplicasConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ObjectProvider<MonitorReplicas> monitor;
+    @Autowired
+    private Clock relogio;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties fonte) {
+        HikariDataSource primario = fonte.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(fonte.getName())) {
+            primario.setPoolName(fonte.getName());
+        }
+        return primario;
+    }
+
+    @Bean
+    public MonitorReplicas monitorReplicas(@Qualifier("dataSourcePrimario") DataSource primario, DataSourceProperties fonte,
+                                           PersistenciaProperties propriedades, ObjectProvider<MeterRegistry> registro) {
+        PersistenciaProperties.Replicas replicas = propriedades.getReplicas();
+        if (replicas.getUrls().isEmpty()) {
+            throw new IllegalStateException("Réplicas habilitadas sem pessoas.persistencia.replicas.urls.");
+        }
+
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String url : replicas.getUrls()) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (pools.size() + 1));
+            replica.setJdbcUrl(url);
+            replica.setDriverClassName(fonte.determineDriverClassName());
+            replica.setUsername(replicas.getUsuario() != null ? replicas.getUsuario() : fonte.determineUsername());
+            replica.setPassword(replicas.getSenha() != null ? replicas.getSenha() : fonte.determinePassword());
+            replica.setReadOnly(true);
+            PersistenciaConfig.configurarPool(replica, propriedades.getPool());
+            pools.add(replica);
+        }
+        return new MonitorReplicas(primario, pools, relogio, registro::getObject,
+                replicas.getAtrasoMaximo(), replicas.getIntervaloVerificacao());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrimario") DataSource primario, MonitorReplicas monitorReplicas) {
+        return new LazyConnectionDataSourceProxy(new DataSourceRoteado(primario, monitorReplicas));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new LeituraPropriaInterceptor(relogio, monitor.getObject().getAtrasoTolerado()));
+    }
+
+}
@@ -1,8 +1,16 @@
 package com.attornatus.gerenciamentopessoas.config;
 
+import com.attornatus.gerenciamentopessoas.exceptions.VersaoDesatualizadaException;
+import com.attornatus.gerenciamentopessoas.metricas.LimiteConsultasExcedidoException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.*;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
@@ -13,12 +21,14 @@ import java.util.List;
 @ControllerAdvice
 public class RestExceptionHandler extends ResponseEntityExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(RestExceptionHandler.class);
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(
             MethodArgumentNotValidException ex,
             HttpHeaders headers, HttpStatusCode status, WebRequest request
     ) {
-        List<String> errors = MethodArgumentNotValidException.errorsToStringList(ex.getAllErrors());
+        List<String> errors = formatarErros(ex.getAllErrors());
         String path = ((ServletWebRequest) request).getRequest().getRequestURI();
 
         ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.BAD_REQUEST);
@@ -29,6 +39,37 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(problemDetail);
     }
 
+    // Conflito detectado só na gravação, quando outra requisição alterou a pessoa depois da leitura
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    protected ResponseEntity<Object> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex, WebRequest request) {
+        return handleErrorResponseException(
+                new VersaoDesatualizadaException(), new HttpHeaders(), HttpStatus.PRECONDITION_FAILED, request
+        );
+    }
+
+    // Só ocorre com pessoas.consultas.falhar-ao-exceder; a instrução excedente fica no log, não na resposta.
+    // O Hibernate pode envolver a exceção, que então é encontrada pela causa
+    @ExceptionHandler(LimiteConsultasExcedidoException.class)
+    protected ResponseEntity<Object> handleLimiteConsultasExcedido(LimiteConsultasExcedidoException ex, WebRequest request) {
+        log.error(ex.getMessage());
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR,
+                "Requisição ultrapassou o limite de " + ex.getLimite() + " consultas da rota.");
+        problemDetail.setInstance(URI.create(path));
+
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(problemDetail);
+    }
+
+    // Mantém o formato "campo: 'mensagem'", que deixou de ser o padrão do Spring a partir da 6.1
+    private List<String> formatarErros(List<ObjectError> erros) {
+        return erros.stream()
+                .map(erro -> erro instanceof FieldError erroCampo
+                        ? erroCampo.getField() + ": '" + erro.getDefaultMessage() + "'"
+                        : "'" + erro.getDefaultMessage() + "'")
+                .toList();
+    }
+
 }
 
 
@@ -0,0 +1,71 @@
+package com.attornatus.gerenciamentopessoas.controllers;
+
+import com.attornatus.gerenciamentopessoas.dto.evento.EventoAlteracaoDTO;
+import com.attornatus.gerenciamentopessoas.eventos.ConsumidorEventos;
+import com.attornatus.gerenciamentopessoas.eventos.RelayEventos;
+import com.attornatus.gerenciamentopessoas.exceptions.ParametrosInvalidosException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/pessoas/eventos")
+@ConditionalOnProperty(name = "pessoas.eventos.habilitados", havingValue = "true")
+public class EventoController {
+
+    @Autowired
+    private RelayEventos relayEventos;
+
+    @Value("${pessoas.eventos.tempo-conexao}")
+    private Duration tempoConexao;
+
+    // Na reconexão automática do EventSource, o Last-Event-ID tem precedência sobre a posição da URL original
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter acompanharEventos(@RequestParam(value = "aPartirDe", required = false) Long aPartirDe,
+                                        @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEvento){
+        long posicao = ultimoEvento != null ? ultimoEvento : aPartirDe != null ? aPartirDe : 0;
+        if(posicao < 0){
+            throw new ParametrosInvalidosException("A posição inicial não pode ser negativa.");
+        }
+
+        SseEmitter emissor = new SseEmitter(tempoConexao.toMillis());
+        RelayEventos.Assinatura assinatura = relayEventos.assinar(posicao, new ConsumidorEventos() {
+            // Um único envio por lote, com um evento SSE por evento de alteração
+            @Override
+            public void receber(List<EventoAlteracaoDTO> lote) throws IOException {
+                Set<ResponseBodyEmitter.DataWithMediaType> dados = new LinkedHashSet<>();
+                for (EventoAlteracaoDTO evento : lote) {
+                    dados.addAll(SseEmitter.event()
+                            .id(evento.getPosicao().toString())
+                            .name(evento.getTipo().name())
+                            .data(evento, MediaType.APPLICATION_JSON)
+                            .build());
+                }
+                emissor.send(dados);
+            }
+
+            @Override
+            public void aoEncerrar() {
+                emissor.complete();
+            }
+        });
+        emissor.onCompletion(assinatura::close);
+        emissor.onTimeout(assinatura::close);
+        emissor.onError(erro -> assinatura.close());
+        return emissor;
+    }
+}
@@ -2,86 +2,284 @@ package com.attornatus.gerenciamentopessoas.controllers;
 
 import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoCreateDTO;
 import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
+import com.attornatus.gerenciamentopessoas.dto.importacao.ImportacaoResultadoDTO;
 import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaCreateDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaLoteDTO;
 import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
 import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaUpdateDTO;
-import com.attornatus.gerenciamentopessoas.entities.Endereco;
-import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.escrita.EscritaAdiadaEnderecos;
+import com.attornatus.gerenciamentopessoas.exceptions.ParametrosInvalidosException;
+import com.attornatus.gerenciamentopessoas.exceptions.VersaoDesatualizadaException;
+import com.attornatus.gerenciamentopessoas.mappers.DataNascimentoConversor;
+import com.attornatus.gerenciamentopessoas.mappers.EnderecoMapper;
+import com.attornatus.gerenciamentopessoas.mappers.PessoaMapper;
+import com.attornatus.gerenciamentopessoas.metricas.ContadorConsultas;
+import com.attornatus.gerenciamentopessoas.metricas.LimiteConsultas;
+import com.attornatus.gerenciamentopessoas.services.BuscaPessoaService;
 import com.attornatus.gerenciamentopessoas.services.EnderecoService;
+import com.attornatus.gerenciamentopessoas.services.ImportacaoPessoaService;
 import com.attornatus.gerenciamentopessoas.services.PessoaService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/pessoas")
 public class PessoaController {
 
+    public static final String CABECALHO_PROXIMO_CURSOR = "X-Proximo-Cursor";
+    // Até 18 dígitos cabem em um long; uma ETag maior não é de nenhuma versão e responde 412 como as demais
+    private static final Pattern ETAG_FORTE = Pattern.compile("\"(\\d{1,18})\"");
+
     @Autowired
     private PessoaService pessoaService;
     @Autowired
     private EnderecoService enderecoService;
     @Autowired
-    private ModelMapper mapper;
+    private ImportacaoPessoaService importacaoPessoaService;
+    @Autowired
+    private BuscaPessoaService buscaPessoaService;
+    @Autowired
+    private PessoaMapper pessoaMapper;
+    @Autowired
+    private EnderecoMapper enderecoMapper;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired(required = false)
+    private EscritaAdiadaEnderecos escritaAdiadaEnderecos;
+
+    @Value("${pessoas.paginacao.tamanho-maximo}")
+    private int tamanhoMaximoPagina;
 
     @GetMapping
-    public ResponseEntity<List<PessoaReturnDTO>> listarPessoas(){
-        List<PessoaReturnDTO> todasPessoas = pessoaService.buscarTodas()
-                .stream()
-                .map(pessoa -> mapper.map(pessoa, PessoaReturnDTO.class))
-                .collect(Collectors.toList());
+    @LimiteConsultas(1)
+    public ResponseEntity<List<PessoaReturnDTO>> listarPessoas(@RequestParam(value = "cursor", required = false) Integer cursor,
+                                                               @RequestParam(value = "tamanho", required = false) Integer tamanho){
+        int tamanhoPagina = tamanhoPagina(tamanho);
+        return responderPagina(pessoaService.buscarPagina(cursor, tamanhoPagina + 1), tamanhoPagina);
+    }
+
+    // Uma consulta para as pessoas e, se pedido, outra para os endereços de todas elas.
+    // A resposta segue a ordem dos ids informados, repetidos ou não
+    @GetMapping(params = "ids")
+    @LimiteConsultas(2)
+    public ResponseEntity<List<PessoaLoteDTO>> buscarPessoasPorIds(@RequestParam("ids") List<Integer> ids,
+                                                                   @RequestParam(value = "enderecos", defaultValue = "false") boolean incluirEnderecos){
+        if(ids.isEmpty() || ids.contains(null)){
+            throw new ParametrosInvalidosException("Ids das pessoas não podem ser vazios.");
+        }
+        if(ids.size() > tamanhoMaximoPagina){
+            throw new ParametrosInvalidosException("Informe no máximo " + tamanhoMaximoPagina + " ids.");
+        }
 
-        return ResponseEntity.ok(todasPessoas);
+        Set<Integer> idsDistintos = new LinkedHashSet<>(ids);
+        Map<Integer, PessoaReturnDTO> pessoas = pessoaService.buscarResumosPorIds(idsDistintos);
+        Map<Integer, List<EnderecoReturnDTO>> enderecos = incluirEnderecos && !pessoas.isEmpty()
+                ? enderecoService.buscarEnderecosPorPessoas(pessoas.keySet())
+                : Map.of();
 
+        return ResponseEntity.ok(ids.stream()
+                .map(id -> {
+                    PessoaReturnDTO pessoa = pessoas.get(id);
+                    if(pessoa == null){
+                        return new PessoaLoteDTO(id);
+                    }
+                    return new PessoaLoteDTO(pessoa, incluirEnderecos ? enderecos.getOrDefault(id, List.of()) : null);
+                })
+                .toList());
     }
 
-    @GetMapping("/{idPessoa}/endereco")
-    public ResponseEntity<List<EnderecoReturnDTO>> listarEnderecosPessoa(@PathVariable("idPessoa") Integer idPessoa){
-        List<EnderecoReturnDTO> enderecos = enderecoService.buscarEnderecosPessoaPorId(idPessoa).stream()
-                .map(endereco -> mapper.map(endereco, EnderecoReturnDTO.class))
-                .collect(Collectors.toList());
+    @GetMapping("/nascidas-entre")
+    @LimiteConsultas(1)
+    public ResponseEntity<List<PessoaReturnDTO>> listarPessoasNascidasEntre(
+            @RequestParam("inicio") @DateTimeFormat(pattern = DataNascimentoConversor.PADRAO) LocalDate inicio,
+            @RequestParam("fim") @DateTimeFormat(pattern = DataNascimentoConversor.PADRAO) LocalDate fim,
+            @RequestParam(value = "cursor", required = false) Integer cursor,
+            @RequestParam(value = "tamanho", required = false) Integer tamanho){
+        int tamanhoPagina = tamanhoPagina(tamanho);
+        return responderPagina(pessoaService.buscarNascidasEntre(inicio, fim, cursor, tamanhoPagina + 1), tamanhoPagina);
+    }
+
+    @GetMapping("/idade")
+    @LimiteConsultas(1)
+    public ResponseEntity<List<PessoaReturnDTO>> listarPessoasPorIdade(@RequestParam("minima") Integer idadeMinima,
+                                                                       @RequestParam("maxima") Integer idadeMaxima,
+                                                                       @RequestParam(value = "cursor", required = false) Integer cursor,
+                                                                       @RequestParam(value = "tamanho", required = false) Integer tamanho){
+        int tamanhoPagina = tamanhoPagina(tamanho);
+        return responderPagina(pessoaService.buscarPorIdade(idadeMinima, idadeMaxima, cursor, tamanhoPagina + 1), tamanhoPagina);
+    }
+
+    @GetMapping("/aniversariantes")
+    @LimiteConsultas(1)
+    public ResponseEntity<List<PessoaReturnDTO>> listarAniversariantes(@RequestParam("dias") Integer dias,
+                                                                       @RequestParam(value = "cursor", required = false) Integer cursor,
+                                                                       @RequestParam(value = "tamanho", required = false) Integer tamanho){
+        int tamanhoPagina = tamanhoPagina(tamanho);
+        return responderPagina(pessoaService.buscarAniversariantes(dias, cursor, tamanhoPagina + 1), tamanhoPagina);
+    }
+
+    @GetMapping("/busca")
+    @LimiteConsultas(0)
+    public ResponseEntity<List<PessoaReturnDTO>> buscarPessoas(@RequestParam("termo") String termo,
+                                                               @RequestParam(value = "tamanho", required = false) Integer tamanho){
+        return ResponseEntity.ok(buscaPessoaService.buscar(termo, tamanhoPagina(tamanho)));
+    }
 
-        return ResponseEntity.ok(enderecos);
+    private int tamanhoPagina(Integer tamanho){
+        int tamanhoPagina = tamanho == null ? tamanhoMaximoPagina : tamanho;
+        if(tamanhoPagina <= 0){
+            throw new ParametrosInvalidosException("Tamanho da página deve ser maior que zero.");
+        }
+        return Math.min(tamanhoPagina, tamanhoMaximoPagina);
     }
 
+    // As buscas paginadas pedem um item a mais que o tamanho da página para saber se existe próxima página
+    private ResponseEntity<List<PessoaReturnDTO>> responderPagina(List<PessoaReturnDTO> pessoas, int tamanhoPagina){
+        boolean possuiProximaPagina = pessoas.size() > tamanhoPagina;
+        List<PessoaReturnDTO> pagina = possuiProximaPagina ? pessoas.subList(0, tamanhoPagina) : pessoas;
+
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if(possuiProximaPagina){
+            resposta.header(CABECALHO_PROXIMO_CURSOR, pagina.get(pagina.size() - 1).getId().toString());
+        }
+        return resposta.body(pagina);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> listarPessoasEmFluxo(){
+        ObjectWriter escritor = objectMapper.writerFor(PessoaReturnDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody corpo = saida -> {
+            try (JsonGenerator gerador = objectMapper.createGenerator(saida)) {
+                gerador.setPrettyPrinter(new MinimalPrettyPrinter(""));
+                pessoaService.percorrerTodas(pessoa -> {
+                    try {
+                        escritor.writeValue(gerador, pessoa);
+                        gerador.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corpo);
+    }
+
+    // A versão é lida antes dos endereços: se mudarem no meio, a ETag antiga apenas força uma nova leitura depois.
+    // Ler a versão já confirma que a pessoa existe, então uma lista vazia não é conferida de novo
+    @GetMapping("/{idPessoa}/endereco")
+    @LimiteConsultas(2)
+    public ResponseEntity<List<EnderecoReturnDTO>> listarEnderecosPessoa(@PathVariable("idPessoa") Integer idPessoa,
+                                                                         WebRequest requisicao){
+        String etag = etag(pessoaService.buscarVersaoPorId(idPessoa));
+        if(requisicao.checkNotModified(etag)){
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(enderecoService.buscarEnderecosPessoaExistente(idPessoa));
+    }
+
+    // A versão vem do próprio resumo, então uma ETag desatualizada não custa uma segunda consulta
     @GetMapping("/{idPessoa}")
-    public ResponseEntity<PessoaReturnDTO> buscarPessoaPorId(@PathVariable("idPessoa") Integer idPessoa){
-        Pessoa pessoa = pessoaService.buscarPorId(idPessoa);
-        return ResponseEntity.ok(mapper.map(pessoa, PessoaReturnDTO.class));
+    @LimiteConsultas(1)
+    public ResponseEntity<PessoaReturnDTO> buscarPessoaPorId(@PathVariable("idPessoa") Integer idPessoa,
+                                                             WebRequest requisicao){
+        PessoaReturnDTO pessoa = pessoaService.buscarResumoPorId(idPessoa);
+        String etag = etag(pessoa.getVersao());
+        if(requisicao.checkNotModified(etag)){
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(pessoa);
     }
 
     @PutMapping("/{idPessoa}")
+    @LimiteConsultas(3)
     public ResponseEntity<Void> atualizarDadosPessoa(@RequestBody @Valid PessoaUpdateDTO pessoa,
-                                                       @PathVariable("idPessoa") Integer idPessoa){
+                                                       @PathVariable("idPessoa") Integer idPessoa,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
 
-        pessoaService.atualizar(mapper.map(pessoa, Pessoa.class), idPessoa);
+        pessoaService.atualizar(pessoaMapper.paraEntidade(pessoa), idPessoa, versaoEsperada(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
+    private static String etag(Long versao){
+        return "\"" + versao + "\"";
+    }
+
+    // Sem If-Match ou com "*" a alteração não depende de versão; ETags fracas ou inválidas nunca casam
+    private static Long versaoEsperada(String ifMatch){
+        if(ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")){
+            return null;
+        }
+        Matcher etag = ETAG_FORTE.matcher(ifMatch.trim());
+        if(!etag.matches()){
+            throw new VersaoDesatualizadaException();
+        }
+        return Long.valueOf(etag.group(1));
+    }
+
     @PostMapping
+    @LimiteConsultas(3)
     public ResponseEntity<Void> criarNovaPessoa(@RequestBody @Valid PessoaCreateDTO novaPessoa){
-        pessoaService.criar(mapper.map(novaPessoa, Pessoa.class));
+        pessoaService.criar(pessoaMapper.paraEntidade(novaPessoa));
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    // As instruções crescem com o tamanho do corpo: um lote de inserções a cada tamanho-lote pessoas
+    @PostMapping(value = "/importacao", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @LimiteConsultas(ContadorConsultas.SEM_LIMITE)
+    public ResponseEntity<ImportacaoResultadoDTO> importarPessoas(InputStream corpo) throws IOException {
+        return ResponseEntity.ok(importacaoPessoaService.importar(corpo));
+    }
+
+    // Com a escrita adiada habilitada, o endereço é confirmado assim que chega ao diário e gravado depois
     @PostMapping("/{idPessoa}/endereco")
+    @LimiteConsultas(4)
     public ResponseEntity<Void> criarNovoEndereco(@RequestBody @Valid EnderecoCreateDTO endereco,
                                                     @PathVariable("idPessoa") Integer idPessoa){
-        enderecoService.salvar(mapper.map(endereco, Endereco.class), idPessoa);
+        if(escritaAdiadaEnderecos != null){
+            escritaAdiadaEnderecos.aceitar(enderecoMapper.paraEntidade(endereco), idPessoa);
+            return ResponseEntity.accepted().build();
+        }
+        enderecoService.salvar(enderecoMapper.paraEntidade(endereco), idPessoa);
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
     @PutMapping("/{idPessoa}/endereco/{idEndereco}")
+    @LimiteConsultas(2)
     public ResponseEntity<Void> definirEnderecoPrincipal(@PathVariable("idPessoa") Integer idPessoa,
-                                                               @PathVariable("idEndereco") Integer idEndereco){
+                                                               @PathVariable("idEndereco") Integer idEndereco,
+                                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
 
-        enderecoService.salvarEnderecoPrincipalPessoa(idEndereco, idPessoa);
+        enderecoService.salvarEnderecoPrincipalPessoa(idEndereco, idPessoa, versaoEsperada(ifMatch));
         return ResponseEntity.noContent().build();
     }
 }
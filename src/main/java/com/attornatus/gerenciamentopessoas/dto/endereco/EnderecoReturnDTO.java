@@ -1,5 +1,7 @@
 package com.attornatus.gerenciamentopessoas.dto.endereco;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class EnderecoReturnDTO {
     private Integer id;
     private String logradouro;
@@ -7,10 +9,27 @@ public class EnderecoReturnDTO {
     private String numero;
     private String cidade;
     private Boolean principal;
+    @JsonIgnore
+    private Integer idPessoa;
 
     public EnderecoReturnDTO() {
     }
 
+    public EnderecoReturnDTO(Integer id, String logradouro, String cep, String numero, String cidade, Boolean principal) {
+        this.id = id;
+        this.logradouro = logradouro;
+        this.cep = cep;
+        this.numero = numero;
+        this.cidade = cidade;
+        this.principal = principal;
+    }
+
+    public EnderecoReturnDTO(Integer id, String logradouro, String cep, String numero, String cidade, Boolean principal,
+                             Integer idPessoa) {
+        this(id, logradouro, cep, numero, cidade, principal);
+        this.idPessoa = idPessoa;
+    }
+
     public String getLogradouro() {
         return logradouro;
     }
@@ -58,4 +77,12 @@ public class EnderecoReturnDTO {
     public void setId(Integer id) {
         this.id = id;
     }
+
+    public Integer getIdPessoa() {
+        return idPessoa;
+    }
+
+    public void setIdPessoa(Integer idPessoa) {
+        this.idPessoa = idPessoa;
+    }
 }
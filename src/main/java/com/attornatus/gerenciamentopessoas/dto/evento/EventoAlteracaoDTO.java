@@ -0,0 +1,77 @@
+package com.attornatus.gerenciamentopessoas.dto.evento;
+
+import com.attornatus.gerenciamentopessoas.entities.EventoAlteracao;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+public class EventoAlteracaoDTO {
+    private Long posicao;
+    private EventoAlteracao.Tipo tipo;
+    private String chave;
+    private Integer idPessoa;
+    private Instant instante;
+    // JSON já serializado na gravação do evento
+    @JsonRawValue
+    private String dados;
+
+    public EventoAlteracaoDTO() {
+    }
+
+    public EventoAlteracaoDTO(EventoAlteracao evento) {
+        this.posicao = evento.getPosicao();
+        this.tipo = evento.getTipo();
+        this.chave = evento.getChave();
+        this.idPessoa = evento.getIdPessoa();
+        this.instante = evento.getInstante();
+        this.dados = evento.getDados();
+    }
+
+    public Long getPosicao() {
+        return posicao;
+    }
+
+    public void setPosicao(Long posicao) {
+        this.posicao = posicao;
+    }
+
+    public EventoAlteracao.Tipo getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(EventoAlteracao.Tipo tipo) {
+        this.tipo = tipo;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    public void setChave(String chave) {
+        this.chave = chave;
+    }
+
+    public Integer getIdPessoa() {
+        return idPessoa;
+    }
+
+    public void setIdPessoa(Integer idPessoa) {
+        this.idPessoa = idPessoa;
+    }
+
+    public Instant getInstante() {
+        return instante;
+    }
+
+    public void setInstante(Instant instante) {
+        this.instante = instante;
+    }
+
+    public String getDados() {
+        return dados;
+    }
+
+    public void setDados(String dados) {
+        this.dados = dados;
+    }
+}
@@ -0,0 +1,32 @@
+package com.attornatus.gerenciamentopessoas.dto.importacao;
+
+import java.util.List;
+
+public class ErroImportacaoDTO {
+    private int indice;
+    private List<String> mensagens;
+
+    public ErroImportacaoDTO() {
+    }
+
+    public ErroImportacaoDTO(int indice, List<String> mensagens) {
+        this.indice = indice;
+        this.mensagens = mensagens;
+    }
+
+    public int getIndice() {
+        return indice;
+    }
+
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+
+    public List<String> getMensagens() {
+        return mensagens;
+    }
+
+    public void setMensagens(List<String> mensagens) {
+        this.mensagens = mensagens;
+    }
+}
@@ -0,0 +1,37 @@
+package com.attornatus.gerenciamentopessoas.dto.importacao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportacaoResultadoDTO {
+    private int totalProcessado;
+    private int totalImportado;
+    private List<ErroImportacaoDTO> erros = new ArrayList<>();
+
+    public ImportacaoResultadoDTO() {
+    }
+
+    public int getTotalProcessado() {
+        return totalProcessado;
+    }
+
+    public void setTotalProcessado(int totalProcessado) {
+        this.totalProcessado = totalProcessado;
+    }
+
+    public int getTotalImportado() {
+        return totalImportado;
+    }
+
+    public void setTotalImportado(int totalImportado) {
+        this.totalImportado = totalImportado;
+    }
+
+    public List<ErroImportacaoDTO> getErros() {
+        return erros;
+    }
+
+    public void setErros(List<ErroImportacaoDTO> erros) {
+        this.erros = erros;
+    }
+}
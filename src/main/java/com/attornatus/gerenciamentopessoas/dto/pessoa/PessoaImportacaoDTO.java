@@ -0,0 +1,24 @@
+package com.attornatus.gerenciamentopessoas.dto.pessoa;
+
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoCreateDTO;
+import jakarta.validation.Valid;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PessoaImportacaoDTO extends PessoaCreateDTO {
+
+    @Valid
+    private List<EnderecoCreateDTO> enderecos = new ArrayList<>();
+
+    public PessoaImportacaoDTO() {
+    }
+
+    public List<EnderecoCreateDTO> getEnderecos() {
+        return enderecos;
+    }
+
+    public void setEnderecos(List<EnderecoCreateDTO> enderecos) {
+        this.enderecos = enderecos;
+    }
+}
@@ -0,0 +1,71 @@
+package com.attornatus.gerenciamentopessoas.dto.pessoa;
+
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+// Item da busca por ids: pessoas não encontradas trazem somente o id e encontrada = false
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PessoaLoteDTO {
+    private Integer id;
+    private boolean encontrada;
+    private String nome;
+    private String dataNascimento;
+    private List<EnderecoReturnDTO> enderecos;
+
+    public PessoaLoteDTO() {
+    }
+
+    public PessoaLoteDTO(Integer id) {
+        this.id = id;
+    }
+
+    public PessoaLoteDTO(PessoaReturnDTO pessoa, List<EnderecoReturnDTO> enderecos) {
+        this.id = pessoa.getId();
+        this.encontrada = true;
+        this.nome = pessoa.getNome();
+        this.dataNascimento = pessoa.getDataNascimento();
+        this.enderecos = enderecos;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public boolean isEncontrada() {
+        return encontrada;
+    }
+
+    public void setEncontrada(boolean encontrada) {
+        this.encontrada = encontrada;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getDataNascimento() {
+        return dataNascimento;
+    }
+
+    public void setDataNascimento(String dataNascimento) {
+        this.dataNascimento = dataNascimento;
+    }
+
+    public List<EnderecoReturnDTO> getEnderecos() {
+        return enderecos;
+    }
+
+    public void setEnderecos(List<EnderecoReturnDTO> enderecos) {
+        this.enderecos = enderecos;
+    }
+}
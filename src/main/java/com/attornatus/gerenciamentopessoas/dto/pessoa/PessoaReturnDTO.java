@@ -1,15 +1,31 @@
 package com.attornatus.gerenciamentopessoas.dto.pessoa;
 
+import com.attornatus.gerenciamentopessoas.mappers.DataNascimentoConversor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.LocalDate;
 
 public class PessoaReturnDTO {
     private Integer id;
     private String nome;
     private String dataNascimento;
+    @JsonIgnore
+    private Long versao;
 
     public PessoaReturnDTO() {
     }
 
+    public PessoaReturnDTO(Integer id, String nome, LocalDate dataNascimento) {
+        this.id = id;
+        this.nome = nome;
+        this.dataNascimento = DataNascimentoConversor.formatar(dataNascimento);
+    }
+
+    public PessoaReturnDTO(Integer id, String nome, LocalDate dataNascimento, Long versao) {
+        this(id, nome, dataNascimento);
+        this.versao = versao;
+    }
+
     public Integer getId() {
         return id;
     }
@@ -33,4 +49,12 @@ public class PessoaReturnDTO {
     public void setDataNascimento(String dataNascimento) {
         this.dataNascimento = dataNascimento;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
 }
@@ -1,11 +1,11 @@
 package com.attornatus.gerenciamentopessoas.dto.pessoa;
 
-import jakarta.validation.constraints.Pattern;
+import com.attornatus.gerenciamentopessoas.dto.validacao.DataValida;
 
 public class PessoaUpdateDTO {
     private String nome;
 
-    @Pattern(regexp = "([0-2][0-9]|3[0-1])/(0[1-9]|1[0-2])/[0-9]{4}", message = "Formato da data de nascimento inválida")
+    @DataValida(message = "Formato da data de nascimento inválida")
     private String dataNascimento;
 
     public PessoaUpdateDTO() {
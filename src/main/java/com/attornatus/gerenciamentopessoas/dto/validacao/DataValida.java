@@ -0,0 +1,24 @@
+package com.attornatus.gerenciamentopessoas.dto.validacao;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Valida que o texto é uma data existente no formato dd/MM/yyyy. Valores nulos são considerados válidos.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = DataValidaValidator.class)
+public @interface DataValida {
+
+    String message() default "Data inválida";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,23 @@
+package com.attornatus.gerenciamentopessoas.dto.validacao;
+
+import com.attornatus.gerenciamentopessoas.mappers.DataNascimentoConversor;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+import java.time.format.DateTimeParseException;
+
+public class DataValidaValidator implements ConstraintValidator<DataValida, String> {
+
+    @Override
+    public boolean isValid(String data, ConstraintValidatorContext context) {
+        if (data == null) {
+            return true;
+        }
+        try {
+            DataNascimentoConversor.converter(data);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
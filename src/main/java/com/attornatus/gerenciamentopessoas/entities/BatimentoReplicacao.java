@@ -0,0 +1,39 @@
+package com.attornatus.gerenciamentopessoas.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import java.time.Instant;
+
+// Linha única gravada pelo MonitorReplicas direto no primário; mapeada aqui para que o esquema a inclua
+@Entity
+public class BatimentoReplicacao {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Instant instante;
+
+    public BatimentoReplicacao() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Instant getInstante() {
+        return instante;
+    }
+
+    public void setInstante(Instant instante) {
+        this.instante = instante;
+    }
+}
@@ -1,12 +1,21 @@
 package com.attornatus.gerenciamentopessoas.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.domain.Persistable;
 
 @Entity
-public class Endereco {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "endereco")
+@Table(
+        indexes = @Index(name = "idx_endereco_pessoa_principal", columnList = "endereco_id, principal"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_endereco_principal_pessoa", columnNames = "principal_pessoa_id")
+)
+public class Endereco implements Persistable<Integer> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenciaOuAtribuida(sequencia = "endereco_seq")
     private Integer id;
     private String logradouro;
     private String cep;
@@ -14,12 +23,32 @@ public class Endereco {
     private String cidade;
     private Boolean principal = false;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="endereco_id")
     private Pessoa pessoa;
 
+    // Preenchida pelo banco somente no endereço principal, garantindo no máximo um principal por pessoa
+    @Column(name = "principal_pessoa_id", insertable = false, updatable = false,
+            columnDefinition = "integer generated always as (case when principal then endereco_id end)")
+    private Integer principalPessoaId;
+
+    // Na fragmentação o id é reservado antes de salvar, então ele não indica se o endereço já foi gravado
+    @Transient
+    private boolean novo = true;
+
     public Endereco() { }
 
+    @PostLoad
+    @PostPersist
+    void marcarGravado() {
+        novo = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return novo;
+    }
+
     public Integer getId() {
         return id;
     }
@@ -0,0 +1,120 @@
+package com.attornatus.gerenciamentopessoas.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+// Entrada da caixa de saída, gravada na mesma transação da alteração. A posição é atribuída depois pelo
+// RelayEventos, na ordem em que as entradas ficam visíveis, e é o que os consumidores usam para retomar a leitura
+@Entity
+@Table(indexes = @Index(name = "idx_evento_alteracao_chave", columnList = "chave, posicao"))
+public class EventoAlteracao {
+
+    public enum Tipo {
+        PESSOA_CRIADA,
+        PESSOA_ATUALIZADA,
+        ENDERECO_CRIADO,
+        ENDERECO_PRINCIPAL_DEFINIDO
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evento_alteracao_seq")
+    @SequenceGenerator(name = "evento_alteracao_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Tipo tipo;
+
+    // Eventos com a mesma chave descrevem o mesmo dado; na compactação só o mais recente de cada chave é mantido
+    @Column(nullable = false)
+    private String chave;
+
+    @Column(name = "pessoa_id", nullable = false)
+    private Integer idPessoa;
+
+    @Column(nullable = false, length = 4000)
+    private String dados;
+
+    @Column(nullable = false)
+    private Instant instante;
+
+    @Column(unique = true)
+    private Long posicao;
+
+    public EventoAlteracao() {
+    }
+
+    public EventoAlteracao(Tipo tipo, String chave, Integer idPessoa, String dados, Instant instante) {
+        this.tipo = tipo;
+        this.chave = chave;
+        this.idPessoa = idPessoa;
+        this.dados = dados;
+        this.instante = instante;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(Tipo tipo) {
+        this.tipo = tipo;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    public void setChave(String chave) {
+        this.chave = chave;
+    }
+
+    public Integer getIdPessoa() {
+        return idPessoa;
+    }
+
+    public void setIdPessoa(Integer idPessoa) {
+        this.idPessoa = idPessoa;
+    }
+
+    public String getDados() {
+        return dados;
+    }
+
+    public void setDados(String dados) {
+        this.dados = dados;
+    }
+
+    public Instant getInstante() {
+        return instante;
+    }
+
+    public void setInstante(Instant instante) {
+        this.instante = instante;
+    }
+
+    public Long getPosicao() {
+        return posicao;
+    }
+
+    public void setPosicao(Long posicao) {
+        this.posicao = posicao;
+    }
+}
@@ -1,21 +1,43 @@
 package com.attornatus.gerenciamentopessoas.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pessoa")
+@Table(indexes = {
+        @Index(name = "idx_pessoa_data_nascimento", columnList = "data_nascimento"),
+        @Index(name = "idx_pessoa_aniversario", columnList = "aniversario")
+})
 public class Pessoa {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenciaOuAtribuida(sequencia = "pessoa_seq")
     private Integer id;
     private String nome;
-    private String dataNascimento;
+    private LocalDate dataNascimento;
 
+    // Mês e dia do nascimento (MMdd) calculados pelo banco, para buscar aniversariantes por faixa no índice
+    @Column(name = "aniversario", insertable = false, updatable = false,
+            columnDefinition = "integer generated always as (month(data_nascimento) * 100 + day_of_month(data_nascimento))")
+    private Integer aniversario;
+
+    // Incrementada também quando os endereços da pessoa são alterados
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
+    // Sem cache de coleção: os endereços são sempre lidos com JOIN FETCH, que não consulta esse cache
     @OneToMany(mappedBy="pessoa")
+    @OrderBy("id")
     private List<Endereco> enderecos = new ArrayList<>();
 
     public Pessoa() { }
@@ -36,14 +58,22 @@ public class Pessoa {
         this.nome = nome;
     }
 
-    public String getDataNascimento() {
+    public LocalDate getDataNascimento() {
         return dataNascimento;
     }
 
-    public void setDataNascimento(String dataNascimento) {
+    public void setDataNascimento(LocalDate dataNascimento) {
         this.dataNascimento = dataNascimento;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
     public List<Endereco> getEnderecos() {
         return enderecos;
     }
@@ -0,0 +1,40 @@
+package com.attornatus.gerenciamentopessoas.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+// Última sequência de um diário já aplicada no banco, gravada na mesma transação das entradas
+@Entity
+public class PosicaoDiario {
+
+    @Id
+    private String diario;
+
+    @Column(nullable = false)
+    private Long sequencia;
+
+    public PosicaoDiario() {
+    }
+
+    public PosicaoDiario(String diario, Long sequencia) {
+        this.diario = diario;
+        this.sequencia = sequencia;
+    }
+
+    public String getDiario() {
+        return diario;
+    }
+
+    public void setDiario(String diario) {
+        this.diario = diario;
+    }
+
+    public Long getSequencia() {
+        return sequencia;
+    }
+
+    public void setSequencia(Long sequencia) {
+        this.sequencia = sequencia;
+    }
+}
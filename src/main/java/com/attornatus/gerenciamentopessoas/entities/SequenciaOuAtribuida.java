@@ -0,0 +1,21 @@
+package com.attornatus.gerenciamentopessoas.entities;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Gera o id pela sequência informada, mantendo o id já atribuído à entidade. Ver {@link SequenciaOuAtribuido}.
+ */
+@IdGeneratorType(SequenciaOuAtribuido.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SequenciaOuAtribuida {
+
+    String sequencia();
+
+    int incremento() default 50;
+}
@@ -0,0 +1,45 @@
+package com.attornatus.gerenciamentopessoas.entities;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+/**
+ * Gerador de sequência que mantém o id já atribuído à entidade. Com fragmentação, o fragmento de uma pessoa depende
+ * do id dela, então os ids são reservados antes da gravação a partir das sequências do catálogo; sem fragmentação
+ * nenhum id é atribuído antes e o comportamento é o da sequência comum.
+ */
+public class SequenciaOuAtribuido extends SequenceStyleGenerator {
+
+    private final SequenciaOuAtribuida configuracao;
+
+    public SequenciaOuAtribuido(SequenciaOuAtribuida configuracao, Member membro, CustomIdGeneratorCreationContext contexto) {
+        this.configuracao = configuracao;
+    }
+
+    // O Hibernate informa só os parâmetros do mapeamento; a sequência e o incremento vêm da anotação
+    @Override
+    public void configure(Type tipo, Properties parametros, ServiceRegistry registro) throws MappingException {
+        parametros.setProperty(SEQUENCE_PARAM, configuracao.sequencia());
+        parametros.setProperty(INCREMENT_PARAM, String.valueOf(configuracao.incremento()));
+        super.configure(tipo, parametros, registro);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor sessao, Object entidade) {
+        Object atribuido = sessao.getEntityPersister(null, entidade).getIdentifier(entidade, sessao);
+        return atribuido != null ? atribuido : super.generate(sessao, entidade);
+    }
+
+    // Faz o Hibernate tratar como nova a entidade com id e sem versão, em vez de rejeitá-la como desanexada
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+}
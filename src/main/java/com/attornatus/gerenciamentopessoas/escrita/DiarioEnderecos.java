@@ -0,0 +1,276 @@
+package com.attornatus.gerenciamentopessoas.escrita;
+
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Arquivo somente de acréscimo com os endereços aceitos pela escrita adiada, uma entrada JSON por linha.
+ * <p>
+ * A gravação e a sincronização com o disco são separadas para permitir o commit em grupo: cada thread grava sua
+ * entrada e aguarda até que algum {@code force} cubra a posição em que ela terminou, de modo que várias entradas
+ * gravadas ao mesmo tempo são confirmadas por uma única sincronização. As posições usadas nessa comparação só
+ * crescem, mesmo depois que o arquivo é esvaziado ou compactado.
+ * <p>
+ * Se uma sincronização falhar, o conteúdo do arquivo que ainda não estava sincronizado é incerto: as entradas
+ * afetadas são removidas do arquivo, nunca chegam ao consumidor e o diário deixa de aceitar gravações até ser
+ * reaberto.
+ */
+public class DiarioEnderecos implements Closeable {
+
+    public static final long LIMITE_COMPACTACAO = 4L * 1024 * 1024;
+
+    private final Path arquivo;
+    private final ObjectMapper objectMapper;
+    private final long limiteCompactacao;
+    private final Object sincronizacao = new Object();
+
+    // Substituído na compactação, com o monitor de sincronização e o do diário
+    private FileChannel canal;
+
+    // Protegidos pelo monitor do diário. As posições são contadas desde a abertura; a posição no arquivo é a
+    // diferença para o início do arquivo, que avança quando ele é esvaziado ou compactado
+    private long ultimaSequencia;
+    private long totalGravado;
+    private long inicioArquivo;
+    private long inicioPendentes;
+    private IOException falha;
+    private final Deque<Linha> naoAplicadas = new ArrayDeque<>();
+    private final Deque<NaoSincronizada> naoSincronizadas = new ArrayDeque<>();
+
+    private volatile long totalSincronizado;
+
+    public DiarioEnderecos(Path arquivo, ObjectMapper objectMapper) throws IOException {
+        this(arquivo, objectMapper, LIMITE_COMPACTACAO);
+    }
+
+    /**
+     * @param limiteCompactacao tamanho das entradas já aplicadas no início do arquivo a partir do qual ele é
+     *                          reescrito só com as pendentes
+     */
+    public DiarioEnderecos(Path arquivo, ObjectMapper objectMapper, long limiteCompactacao) throws IOException {
+        this.arquivo = arquivo.toAbsolutePath();
+        this.objectMapper = objectMapper;
+        this.limiteCompactacao = limiteCompactacao;
+        Path diretorio = this.arquivo.getParent();
+        if (diretorio != null) {
+            Files.createDirectories(diretorio);
+        }
+        this.canal = FileChannel.open(this.arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.totalGravado = canal.size();
+        this.totalSincronizado = totalGravado;
+    }
+
+    /**
+     * Lê as entradas gravadas por completo. Se o processo parou no meio de uma gravação, a linha incompleta, que
+     * nunca foi confirmada ao cliente, é removida do arquivo.
+     */
+    public synchronized List<EnderecoPendente> ler() throws IOException {
+        List<EnderecoPendente> entradas = new ArrayList<>();
+        long fimUltimaEntrada = 0;
+        naoAplicadas.clear();
+
+        BufferedReader leitor = new BufferedReader(Channels.newReader(canal.position(0), StandardCharsets.UTF_8));
+        String linha;
+        while ((linha = leitor.readLine()) != null) {
+            EnderecoPendente entrada;
+            try {
+                entrada = objectMapper.readValue(linha, EnderecoPendente.class);
+            } catch (JsonProcessingException e) {
+                break;
+            }
+            entradas.add(entrada);
+            ultimaSequencia = Math.max(ultimaSequencia, entrada.sequencia());
+            fimUltimaEntrada += linha.getBytes(StandardCharsets.UTF_8).length + 1;
+            naoAplicadas.add(new Linha(entrada.sequencia(), fimUltimaEntrada));
+        }
+
+        if (fimUltimaEntrada < canal.size()) {
+            canal.truncate(fimUltimaEntrada);
+        } else if (fimUltimaEntrada > canal.size()) {
+            // A última entrada está completa, mas a quebra de linha não chegou a ser gravada
+            canal.write(ByteBuffer.wrap(new byte[]{'\n'}), canal.size());
+        }
+        inicioArquivo = 0;
+        inicioPendentes = 0;
+        totalGravado = fimUltimaEntrada;
+        totalSincronizado = fimUltimaEntrada;
+        return entradas;
+    }
+
+    // As novas entradas recebem sequências maiores que as já aplicadas, mesmo com o arquivo vazio
+    public synchronized void continuarApos(long sequencia) {
+        ultimaSequencia = Math.max(ultimaSequencia, sequencia);
+    }
+
+    public synchronized boolean isDisponivel() {
+        return falha == null;
+    }
+
+    /**
+     * Grava a entrada sem sincronizá-la. Ela só é entregue ao consumidor depois que uma sincronização a cobrir, na
+     * ordem das sequências. Retorna a posição a ser informada em {@link #sincronizar(long)}.
+     */
+    public synchronized long gravar(Integer idPessoa, Endereco endereco, Consumer<EnderecoPendente> consumidor) throws IOException {
+        if (falha != null) {
+            throw new IOException("O diário de endereços não aceita gravações depois de uma falha de sincronização.", falha);
+        }
+        EnderecoPendente entrada = new EnderecoPendente(ultimaSequencia + 1, idPessoa,
+                endereco.getLogradouro(), endereco.getCep(), endereco.getNumero(), endereco.getCidade());
+
+        byte[] json = objectMapper.writeValueAsBytes(entrada);
+        ByteBuffer linha = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+        long inicio = totalGravado - inicioArquivo;
+        long posicao = inicio;
+        try {
+            while (linha.hasRemaining()) {
+                posicao += canal.write(linha, posicao);
+            }
+        } catch (IOException e) {
+            // Remove a linha parcial para que as próximas entradas não fiquem depois de uma linha inválida
+            canal.truncate(inicio);
+            throw e;
+        }
+
+        ultimaSequencia = entrada.sequencia();
+        totalGravado += linha.limit();
+        naoAplicadas.add(new Linha(entrada.sequencia(), totalGravado));
+        naoSincronizadas.add(new NaoSincronizada(totalGravado, entrada, consumidor));
+        return totalGravado;
+    }
+
+    public void sincronizar(long posicao) throws IOException {
+        if (totalSincronizado >= posicao) {
+            return;
+        }
+        synchronized (sincronizacao) {
+            if (totalSincronizado >= posicao) {
+                return;
+            }
+            long gravado;
+            synchronized (this) {
+                if (falha != null) {
+                    throw new IOException("A sincronização do diário de endereços falhou.", falha);
+                }
+                gravado = totalGravado;
+            }
+            try {
+                forcar(canal);
+            } catch (IOException e) {
+                synchronized (this) {
+                    descartarNaoSincronizadas(e);
+                }
+                throw e;
+            }
+            synchronized (this) {
+                totalSincronizado = gravado;
+                while (!naoSincronizadas.isEmpty() && naoSincronizadas.peekFirst().fim() <= gravado) {
+                    NaoSincronizada entrada = naoSincronizadas.pollFirst();
+                    entrada.consumidor().accept(entrada.entrada());
+                }
+            }
+        }
+    }
+
+    void forcar(FileChannel canal) throws IOException {
+        canal.force(false);
+    }
+
+    /**
+     * Descarta as entradas aplicadas no banco até a sequência informada. O arquivo é esvaziado quando não resta
+     * nenhuma pendente e reescrito só com as pendentes quando as aplicadas no início dele passam do limite de
+     * compactação, para que ele não cresça sem limite sob carga contínua.
+     */
+    public void descartarAte(long sequencia) throws IOException {
+        synchronized (this) {
+            while (!naoAplicadas.isEmpty() && naoAplicadas.peekFirst().sequencia() <= sequencia) {
+                inicioPendentes = naoAplicadas.pollFirst().fim();
+            }
+            if (naoAplicadas.isEmpty() && totalGravado > inicioArquivo && falha == null) {
+                canal.truncate(0);
+                inicioArquivo = totalGravado;
+                inicioPendentes = totalGravado;
+                return;
+            }
+            if (inicioPendentes - inicioArquivo < limiteCompactacao) {
+                return;
+            }
+        }
+        // A troca do arquivo não pode acontecer durante um force em andamento
+        synchronized (sincronizacao) {
+            synchronized (this) {
+                if (inicioPendentes - inicioArquivo >= limiteCompactacao && falha == null) {
+                    compactar();
+                }
+            }
+        }
+    }
+
+    // As pendentes são copiadas e sincronizadas em um arquivo temporário, que substitui o diário atomicamente
+    private void compactar() throws IOException {
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".compactacao");
+        long inicio = inicioPendentes - inicioArquivo;
+        long tamanho = totalGravado - inicioPendentes;
+        try (FileChannel novo = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long copiado = 0;
+            while (copiado < tamanho) {
+                copiado += canal.transferTo(inicio + copiado, tamanho - copiado, novo);
+            }
+            novo.force(false);
+        }
+
+        Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        canal.close();
+        canal = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        inicioArquivo = inicioPendentes;
+
+        // Sem sincronizar o diretório, a troca poderia se perder e levar junto as entradas gravadas depois dela
+        try (FileChannel diretorio = FileChannel.open(arquivo.getParent(), StandardOpenOption.READ)) {
+            diretorio.force(true);
+        }
+    }
+
+    // Remove do arquivo o que foi gravado depois da última sincronização bem-sucedida e recusa novas gravações
+    private void descartarNaoSincronizadas(IOException causa) {
+        falha = causa;
+        naoSincronizadas.clear();
+        while (!naoAplicadas.isEmpty() && naoAplicadas.peekLast().fim() > totalSincronizado) {
+            naoAplicadas.pollLast();
+        }
+        try {
+            canal.truncate(totalSincronizado - inicioArquivo);
+        } catch (IOException e) {
+            causa.addSuppressed(e);
+        }
+        totalGravado = totalSincronizado;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        canal.close();
+    }
+
+    private record Linha(long sequencia, long fim) {
+    }
+
+    private record NaoSincronizada(long fim, EnderecoPendente entrada, Consumer<EnderecoPendente> consumidor) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.attornatus.gerenciamentopessoas.escrita;
+
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+
+/**
+ * Endereço aceito pela escrita adiada e ainda não gravado no banco. A sequência é a posição da entrada no diário.
+ */
+public record EnderecoPendente(long sequencia, Integer idPessoa, String logradouro, String cep, String numero, String cidade) {
+
+    public Endereco paraEntidade() {
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro(logradouro);
+        endereco.setCep(cep);
+        endereco.setNumero(numero);
+        endereco.setCidade(cidade);
+        return endereco;
+    }
+}
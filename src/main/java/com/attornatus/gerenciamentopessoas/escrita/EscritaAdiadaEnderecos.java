@@ -0,0 +1,263 @@
+package com.attornatus.gerenciamentopessoas.escrita;
+
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.PosicaoDiario;
+import com.attornatus.gerenciamentopessoas.exceptions.endereco.DiarioEnderecosIndisponivelException;
+import com.attornatus.gerenciamentopessoas.exceptions.endereco.FilaEnderecosCheiaException;
+import com.attornatus.gerenciamentopessoas.exceptions.pessoa.PessoaNaoEncontradaException;
+import com.attornatus.gerenciamentopessoas.repositories.PosicaoDiarioRepository;
+import com.attornatus.gerenciamentopessoas.services.EnderecoService;
+import com.attornatus.gerenciamentopessoas.services.PessoaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escrita adiada dos novos endereços. A requisição é confirmada assim que a entrada está sincronizada no diário
+ * local; uma thread de fundo grava as entradas no banco em lotes, um commit por lote, junto com a última sequência
+ * aplicada. Na inicialização, as entradas do diário posteriores a essa sequência voltam para a fila.
+ */
+@Component
+@ConditionalOnProperty(name = "pessoas.enderecos.escrita-adiada.habilitada", havingValue = "true")
+public class EscritaAdiadaEnderecos implements SmartLifecycle {
+
+    public static final String NOME_DIARIO = "enderecos";
+
+    private static final Logger log = LoggerFactory.getLogger(EscritaAdiadaEnderecos.class);
+    private static final long ESPERA_FILA_MS = 100;
+    private static final long ESPERA_NOVA_TENTATIVA_MS = 1000;
+
+    @Autowired
+    private PessoaService pessoaService;
+    @Autowired
+    private EnderecoService enderecoService;
+    @Autowired
+    private PosicaoDiarioRepository posicaoDiarioRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry registro;
+
+    @Value("${pessoas.enderecos.escrita-adiada.capacidade}")
+    private int capacidade;
+    @Value("${pessoas.enderecos.escrita-adiada.tamanho-lote}")
+    private int tamanhoLote;
+    @Value("${pessoas.enderecos.escrita-adiada.diario}")
+    private Path arquivoDiario;
+
+    private final BlockingQueue<EnderecoPendente> fila = new LinkedBlockingQueue<>();
+    private Semaphore vagas;
+    private DiarioEnderecos diario;
+    private Thread gravador;
+    private volatile boolean executando;
+
+    private Timer tempoDiario;
+    private Timer tempoGravacao;
+
+    // A vaga é reservada antes da gravação no diário, para que uma entrada confirmada sempre tenha lugar na fila
+    public void aceitar(Endereco endereco, Integer idPessoa) {
+        if (!pessoaService.existePessoa(idPessoa)) {
+            throw new PessoaNaoEncontradaException();
+        }
+        if (!diario.isDisponivel()) {
+            throw new DiarioEnderecosIndisponivelException();
+        }
+        if (!vagas.tryAcquire()) {
+            throw new FilaEnderecosCheiaException();
+        }
+
+        long posicao;
+        try {
+            posicao = diario.gravar(idPessoa, endereco, fila::add);
+        } catch (IOException e) {
+            vagas.release();
+            throw new UncheckedIOException(e);
+        }
+
+        // O diário só entrega a entrada à fila depois de sincronizá-la; se a sincronização falhar ela é descartada
+        // e o cliente pode repetir a requisição sem duplicar o endereço
+        long inicio = System.nanoTime();
+        try {
+            diario.sincronizar(posicao);
+        } catch (IOException e) {
+            vagas.release();
+            log.error("Falha ao sincronizar o diário de endereços; novos endereços serão recusados até reiniciar.", e);
+            throw new DiarioEnderecosIndisponivelException();
+        } finally {
+            tempoDiario.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void start() {
+        registrarMetricas();
+        vagas = new Semaphore(capacidade);
+
+        List<EnderecoPendente> pendentes;
+        try {
+            diario = new DiarioEnderecos(arquivoDiario, objectMapper);
+            long aplicada = posicaoDiarioRepository.findById(NOME_DIARIO).map(PosicaoDiario::getSequencia).orElse(0L);
+            pendentes = diario.ler().stream().filter(entrada -> entrada.sequencia() > aplicada).toList();
+            diario.continuarApos(aplicada);
+            diario.descartarAte(aplicada);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        executando = true;
+        gravador = new Thread(this::gravarPendentes, "escrita-adiada-enderecos");
+        gravador.start();
+
+        if (!pendentes.isEmpty()) {
+            log.info("Recuperados {} endereços pendentes do diário.", pendentes.size());
+        }
+        pendentes.forEach(entrada -> {
+            vagas.acquireUninterruptibly();
+            fila.add(entrada);
+        });
+    }
+
+    // A fila é esvaziada antes de parar; o que não puder ser gravado continua no diário para a próxima inicialização
+    @Override
+    public void stop() {
+        executando = false;
+        try {
+            gravador.join();
+            diario.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    // Depois do servidor web, que para antes e deixa de aceitar novos endereços
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void registrarMetricas() {
+        Gauge.builder("escrita.adiada.fila", fila, Collection::size)
+                .description("Endereços aceitos e ainda não gravados no banco")
+                .register(registro);
+        tempoDiario = Timer.builder("escrita.adiada.diario")
+                .description("Tempo até a entrada estar sincronizada no diário")
+                .register(registro);
+        tempoGravacao = Timer.builder("escrita.adiada.gravacao")
+                .description("Tempo de gravação de um lote de endereços no banco")
+                .register(registro);
+    }
+
+    private void gravarPendentes() {
+        List<EnderecoPendente> lote = new ArrayList<>(tamanhoLote);
+        while (executando || !fila.isEmpty()) {
+            EnderecoPendente primeira;
+            try {
+                primeira = fila.poll(ESPERA_FILA_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (primeira == null) {
+                continue;
+            }
+
+            lote.add(primeira);
+            fila.drainTo(lote, tamanhoLote - 1);
+            boolean gravado = tempoGravacao.record(() -> gravarComNovasTentativas(lote));
+            if (!gravado) {
+                // Gravar os lotes seguintes avançaria a sequência aplicada além das entradas que falharam
+                log.warn("{} endereços pendentes serão gravados na próxima inicialização.", lote.size() + fila.size());
+                return;
+            }
+            vagas.release(lote.size());
+            lote.clear();
+        }
+    }
+
+    // Falhas de acesso ao banco são repetidas até o encerramento. Uma falha de dados separa o lote em entradas
+    // individuais, e a entrada inválida é descartada; a sequência dela é coberta pela próxima gravação
+    private boolean gravarComNovasTentativas(List<EnderecoPendente> lote) {
+        while (true) {
+            try {
+                gravar(lote);
+                return true;
+            } catch (PessoaNaoEncontradaException | DataIntegrityViolationException e) {
+                if (lote.size() == 1) {
+                    EnderecoPendente entrada = lote.get(0);
+                    log.error("Endereço {} da pessoa {} descartado: {}", entrada.sequencia(), entrada.idPessoa(), e.getMessage());
+                    return true;
+                }
+                for (EnderecoPendente entrada : lote) {
+                    if (!gravarComNovasTentativas(List.of(entrada))) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (RuntimeException e) {
+                if (!executando) {
+                    return false;
+                }
+                log.warn("Falha ao gravar {} endereços, nova tentativa em {} ms.", lote.size(), ESPERA_NOVA_TENTATIVA_MS, e);
+                try {
+                    Thread.sleep(ESPERA_NOVA_TENTATIVA_MS);
+                } catch (InterruptedException interrupcao) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private void gravar(List<EnderecoPendente> lote) {
+        Map<Integer, List<Endereco>> enderecosPorPessoa = new LinkedHashMap<>();
+        lote.forEach(entrada -> enderecosPorPessoa
+                .computeIfAbsent(entrada.idPessoa(), idPessoa -> new ArrayList<>())
+                .add(entrada.paraEntidade()));
+        long ultimaSequencia = lote.get(lote.size() - 1).sequencia();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            enderecoService.salvarLote(enderecosPorPessoa);
+            registrarPosicao(ultimaSequencia);
+        });
+
+        try {
+            diario.descartarAte(ultimaSequencia);
+        } catch (IOException e) {
+            log.warn("Não foi possível esvaziar ou compactar o diário de endereços.", e);
+        }
+    }
+
+    private void registrarPosicao(long sequencia) {
+        posicaoDiarioRepository.save(new PosicaoDiario(NOME_DIARIO, sequencia));
+    }
+}
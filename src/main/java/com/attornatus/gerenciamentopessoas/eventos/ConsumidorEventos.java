@@ -0,0 +1,20 @@
+package com.attornatus.gerenciamentopessoas.eventos;
+
+import com.attornatus.gerenciamentopessoas.dto.evento.EventoAlteracaoDTO;
+
+import java.util.List;
+
+/**
+ * Recebe os eventos de uma assinatura do {@link RelayEventos}, em lotes e na ordem das posições. Para retomar depois
+ * de reiniciar, o consumidor guarda a posição do último evento processado e a informa na próxima assinatura.
+ */
+@FunctionalInterface
+public interface ConsumidorEventos {
+
+    // Uma exceção encerra a assinatura; o lote que falhou é entregue de novo a uma assinatura a partir da mesma posição
+    void receber(List<EventoAlteracaoDTO> lote) throws Exception;
+
+    // Chamado quando o relay encerra a assinatura, por falha do consumidor ou no encerramento da aplicação
+    default void aoEncerrar() {
+    }
+}
@@ -0,0 +1,69 @@
+package com.attornatus.gerenciamentopessoas.eventos;
+
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.EventoAlteracao;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.repositories.EventoAlteracaoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.util.Map;
+
+/**
+ * Grava os eventos de alteração na caixa de saída (evento_alteracao), sempre dentro da transação da própria
+ * alteração: o evento só existe se a alteração for confirmada. A publicação fica a cargo do {@link RelayEventos}.
+ */
+@Component
+@ConditionalOnProperty(name = "pessoas.eventos.habilitados", havingValue = "true")
+@Transactional(propagation = Propagation.MANDATORY)
+public class RegistroEventos {
+
+    @Autowired
+    private EventoAlteracaoRepository eventoAlteracaoRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private Clock relogio;
+
+    public void pessoaCriada(Pessoa pessoa) {
+        registrarPessoa(EventoAlteracao.Tipo.PESSOA_CRIADA, pessoa);
+    }
+
+    public void pessoaAtualizada(Pessoa pessoa) {
+        registrarPessoa(EventoAlteracao.Tipo.PESSOA_ATUALIZADA, pessoa);
+    }
+
+    public void enderecoCriado(Endereco endereco, Integer idPessoa) {
+        EnderecoReturnDTO dados = new EnderecoReturnDTO(endereco.getId(), endereco.getLogradouro(), endereco.getCep(),
+                endereco.getNumero(), endereco.getCidade(), endereco.getPrincipal());
+        registrar(EventoAlteracao.Tipo.ENDERECO_CRIADO, "endereco:" + endereco.getId(), idPessoa, dados);
+    }
+
+    // Um único evento por pessoa, em vez de um por endereço alterado: na compactação sobra o principal atual
+    public void enderecoPrincipalDefinido(Integer idEndereco, Integer idPessoa) {
+        registrar(EventoAlteracao.Tipo.ENDERECO_PRINCIPAL_DEFINIDO, "endereco-principal:" + idPessoa, idPessoa,
+                Map.of("idEndereco", idEndereco));
+    }
+
+    private void registrarPessoa(EventoAlteracao.Tipo tipo, Pessoa pessoa) {
+        PessoaReturnDTO dados = new PessoaReturnDTO(pessoa.getId(), pessoa.getNome(), pessoa.getDataNascimento());
+        registrar(tipo, "pessoa:" + pessoa.getId(), pessoa.getId(), dados);
+    }
+
+    private void registrar(EventoAlteracao.Tipo tipo, String chave, Integer idPessoa, Object dados) {
+        try {
+            eventoAlteracaoRepository.save(new EventoAlteracao(tipo, chave, idPessoa,
+                    objectMapper.writeValueAsString(dados), relogio.instant()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
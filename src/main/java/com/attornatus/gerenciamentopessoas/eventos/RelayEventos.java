@@ -0,0 +1,241 @@
+package com.attornatus.gerenciamentopessoas.eventos;
+
+import com.attornatus.gerenciamentopessoas.dto.evento.EventoAlteracaoDTO;
+import com.attornatus.gerenciamentopessoas.entities.EventoAlteracao;
+import com.attornatus.gerenciamentopessoas.repositories.EventoAlteracaoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publica os eventos da caixa de saída. A cada intervalo, atribui posições crescentes aos eventos ainda sem posição,
+ * na ordem do id, e avisa as assinaturas, que leem do banco os eventos posteriores à própria posição, em lotes. Como
+ * só o relay atribui posições, um evento confirmado depois nunca recebe posição menor que um já entregue; por isso
+ * a posição serve de cursor para retomar a leitura. Deve haver um único relay por banco.
+ * Periodicamente, os eventos mais antigos que a retenção são compactados: de cada chave, sobra só o mais recente.
+ */
+@Component
+@ConditionalOnProperty(name = "pessoas.eventos.habilitados", havingValue = "true")
+public class RelayEventos implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(RelayEventos.class);
+
+    @Autowired
+    private EventoAlteracaoRepository eventoAlteracaoRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private Clock relogio;
+    @Autowired
+    private MeterRegistry registro;
+
+    @Value("${pessoas.eventos.intervalo}")
+    private Duration intervalo;
+    @Value("${pessoas.eventos.tamanho-lote}")
+    private int tamanhoLote;
+    @Value("${pessoas.eventos.retencao}")
+    private Duration retencao;
+    @Value("${pessoas.eventos.intervalo-compactacao}")
+    private Duration intervaloCompactacao;
+
+    private final Set<Assinatura> assinaturas = ConcurrentHashMap.newKeySet();
+    // Criado antes do início do ciclo de vida, para aceitar assinaturas feitas durante a inicialização
+    private final ExecutorService entregas = Executors.newCachedThreadPool(tarefa -> {
+        Thread thread = new Thread(tarefa, "entrega-eventos");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledExecutorService agendador;
+    private Counter publicados;
+
+    public class Assinatura implements AutoCloseable {
+
+        private final ConsumidorEventos consumidor;
+        private final AtomicInteger pedidos = new AtomicInteger();
+        private volatile long posicao;
+        private volatile boolean encerrada;
+
+        private Assinatura(long posicao, ConsumidorEventos consumidor) {
+            this.posicao = posicao;
+            this.consumidor = consumidor;
+        }
+
+        // Posição do último evento entregue
+        public long getPosicao() {
+            return posicao;
+        }
+
+        public boolean isEncerrada() {
+            return encerrada;
+        }
+
+        @Override
+        public void close() {
+            encerrada = true;
+            assinaturas.remove(this);
+        }
+
+        private void encerrar() {
+            close();
+            try {
+                consumidor.aoEncerrar();
+            } catch (RuntimeException e) {
+                log.debug("Falha ao encerrar consumidor de eventos.", e);
+            }
+        }
+
+        // Pedidos feitos durante uma entrega são atendidos pela mesma thread, logo depois dela
+        private void solicitarEntrega() {
+            if (!encerrada && pedidos.getAndIncrement() == 0) {
+                entregas.execute(this::entregar);
+            }
+        }
+
+        private void entregar() {
+            int atendidos;
+            do {
+                atendidos = pedidos.get();
+                try {
+                    entregarPendentes();
+                } catch (Exception e) {
+                    log.warn("Assinatura de eventos encerrada na posição {}.", posicao, e);
+                    encerrar();
+                }
+            } while (pedidos.addAndGet(-atendidos) != 0);
+        }
+
+        private void entregarPendentes() throws Exception {
+            List<EventoAlteracao> lote;
+            do {
+                if (encerrada) {
+                    return;
+                }
+                lote = eventoAlteracaoRepository.buscarAPartirDe(posicao, PageRequest.ofSize(tamanhoLote));
+                if (lote.isEmpty()) {
+                    return;
+                }
+                consumidor.receber(lote.stream().map(EventoAlteracaoDTO::new).toList());
+                posicao = lote.get(lote.size() - 1).getPosicao();
+            } while (lote.size() == tamanhoLote);
+        }
+    }
+
+    // Entrega os eventos posteriores à posição informada (0 para todos) e, depois, os novos conforme são publicados
+    public Assinatura assinar(long aPartirDe, ConsumidorEventos consumidor) {
+        Assinatura assinatura = new Assinatura(aPartirDe, consumidor);
+        assinaturas.add(assinatura);
+        assinatura.solicitarEntrega();
+        return assinatura;
+    }
+
+    // Retorna quantos eventos receberam posição
+    int publicarPendentes() {
+        int total = 0;
+        int lote;
+        do {
+            lote = transactionTemplate.execute(status -> {
+                List<EventoAlteracao> pendentes = eventoAlteracaoRepository.buscarPendentes(
+                        PageRequest.ofSize(tamanhoLote));
+                if (pendentes.isEmpty()) {
+                    return 0;
+                }
+                long posicao = eventoAlteracaoRepository.buscarUltimaPosicao();
+                for (EventoAlteracao evento : pendentes) {
+                    evento.setPosicao(++posicao);
+                }
+                return pendentes.size();
+            });
+            total += lote;
+        } while (lote == tamanhoLote);
+
+        if (total > 0) {
+            publicados.increment(total);
+            assinaturas.forEach(Assinatura::solicitarEntrega);
+        }
+        return total;
+    }
+
+    int compactar() {
+        return eventoAlteracaoRepository.compactar(relogio.instant().minus(retencao));
+    }
+
+    @Override
+    public void start() {
+        Gauge.builder("eventos.assinaturas", assinaturas, Collection::size)
+                .description("Assinaturas de eventos de alteração abertas")
+                .register(registro);
+        publicados = Counter.builder("eventos.publicados")
+                .description("Eventos de alteração que receberam posição")
+                .register(registro);
+
+        agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "relay-eventos");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervaloMs = intervalo.toMillis();
+        agendador.scheduleWithFixedDelay(this::executarPublicacao, 0, intervaloMs, TimeUnit.MILLISECONDS);
+        long compactacaoMs = intervaloCompactacao.toMillis();
+        agendador.scheduleWithFixedDelay(this::executarCompactacao, compactacaoMs, compactacaoMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void executarPublicacao() {
+        try {
+            publicarPendentes();
+        } catch (DataAccessException e) {
+            log.warn("Falha ao publicar eventos de alteração.", e);
+        }
+    }
+
+    private void executarCompactacao() {
+        try {
+            int removidos = compactar();
+            if (removidos > 0) {
+                log.info("Compactação removeu {} eventos de alteração substituídos.", removidos);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Falha ao compactar eventos de alteração.", e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        agendador.shutdownNow();
+        agendador = null;
+        List.copyOf(assinaturas).forEach(Assinatura::encerrar);
+        entregas.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return agendador != null;
+    }
+
+    // Inicia antes do servidor web e para depois dele, quando as conexões SSE já foram encerradas
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,11 @@
+package com.attornatus.gerenciamentopessoas.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class VersaoDesatualizadaException extends ResponseStatusException {
+
+    public VersaoDesatualizadaException() {
+        super(HttpStatus.PRECONDITION_FAILED, "Recurso foi alterado desde a versão informada.");
+    }
+}
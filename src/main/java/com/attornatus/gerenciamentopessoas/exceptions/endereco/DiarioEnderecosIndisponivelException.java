@@ -0,0 +1,11 @@
+package com.attornatus.gerenciamentopessoas.exceptions.endereco;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class DiarioEnderecosIndisponivelException extends ResponseStatusException {
+
+    public DiarioEnderecosIndisponivelException() {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "O endereço não pôde ser registrado, tente novamente mais tarde.");
+    }
+}
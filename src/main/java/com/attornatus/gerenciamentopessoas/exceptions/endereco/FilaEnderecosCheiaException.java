@@ -0,0 +1,11 @@
+package com.attornatus.gerenciamentopessoas.exceptions.endereco;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class FilaEnderecosCheiaException extends ResponseStatusException {
+
+    public FilaEnderecosCheiaException() {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Muitos endereços aguardando gravação, tente novamente.");
+    }
+}
@@ -0,0 +1,45 @@
+package com.attornatus.gerenciamentopessoas.fragmentos;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Hash consistente do id da pessoa para o nome do fragmento. Cada fragmento ocupa vários pontos do anel, calculados
+ * só a partir do nome dele; ao acrescentar um fragmento, apenas as pessoas que caem nos pontos novos mudam de lugar,
+ * cerca de 1/N do total, e as demais continuam onde estão.
+ */
+public class AnelFragmentos {
+
+    private final List<String> fragmentos;
+    private final NavigableMap<Long, String> pontos = new TreeMap<>();
+
+    public AnelFragmentos(List<String> fragmentos, int nosVirtuais) {
+        if (fragmentos.isEmpty()) {
+            throw new IllegalArgumentException("O anel precisa de ao menos um fragmento.");
+        }
+        this.fragmentos = List.copyOf(fragmentos);
+        for (String fragmento : fragmentos) {
+            for (int i = 0; i < nosVirtuais; i++) {
+                pontos.put(misturar(fragmento.hashCode() * 0x9E3779B97F4A7C15L + i), fragmento);
+            }
+        }
+    }
+
+    public List<String> getFragmentos() {
+        return fragmentos;
+    }
+
+    public String fragmentoDe(int idPessoa) {
+        Map.Entry<Long, String> ponto = pontos.ceilingEntry(misturar(idPessoa));
+        return ponto != null ? ponto.getValue() : pontos.firstEntry().getValue();
+    }
+
+    // Finalizador do SplitMix64: ids consecutivos ficam espalhados pelo anel
+    private static long misturar(long valor) {
+        valor = (valor ^ (valor >>> 30)) * 0xBF58476D1CE4E5B9L;
+        valor = (valor ^ (valor >>> 27)) * 0x94D049BB133111EBL;
+        return valor ^ (valor >>> 31);
+    }
+}
@@ -0,0 +1,15 @@
+package com.attornatus.gerenciamentopessoas.fragmentos;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca o parâmetro de um método de repositório com o id da pessoa (ou uma coleção de ids) que define em qual
+ * fragmento a consulta é feita. Métodos sem ele são executados em todos os fragmentos.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ChaveFragmento {
+}
@@ -0,0 +1,55 @@
+package com.attornatus.gerenciamentopessoas.fragmentos;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Fragmento em uso pela thread atual, consultado pelo {@link DataSourceFragmentado} quando a conexão é obtida. Dentro
+ * de uma transação, o fragmento fica vinculado a ela até o fim, inclusive durante o commit, e é retirado enquanto ela
+ * estiver suspensa por uma transação nova.
+ */
+public final class ContextoFragmento {
+
+    private static final ThreadLocal<String> ATUAL = new ThreadLocal<>();
+
+    private ContextoFragmento() {
+    }
+
+    public static String atual() {
+        return ATUAL.get();
+    }
+
+    static void definir(String fragmento) {
+        ATUAL.set(fragmento);
+    }
+
+    static void limpar() {
+        ATUAL.remove();
+    }
+
+    // Retorna falso quando não há transação: quem definiu o fragmento deve limpá-lo
+    static boolean vincularATransacao(String fragmento) {
+        definir(fragmento);
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                limpar();
+            }
+
+            @Override
+            public void resume() {
+                definir(fragmento);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                limpar();
+            }
+        });
+        return true;
+    }
+}
@@ -0,0 +1,38 @@
+package com.attornatus.gerenciamentopessoas.fragmentos;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Entrega a conexão do fragmento definido no {@link ContextoFragmento}; sem fragmento definido, a do catálogo. Fica
+ * atrás de um LazyConnectionDataSourceProxy, para que a conexão só seja escolhida na primeira instrução, depois que o
+ * {@link RoteadorFragmentos} já definiu o fragmento.
+ */
+public class DataSourceFragmentado extends AbstractRoutingDataSource {
+
+    private final String catalogo;
+
+    public DataSourceFragmentado(Fragmentacao fragmentacao) {
+        this.catalogo = fragmentacao.getCatalogo();
+        Map<Object, Object> destinos = new HashMap<>(fragmentacao.getDataSources());
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(fragmentacao.getDataSources().get(catalogo));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    // Uma transação que começou no catálogo fica nele, para que uma operação posterior em outro fragmento falhe em
+    // vez de gravar no lugar errado
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String fragmento = ContextoFragmento.atual();
+        if (fragmento == null && TransactionSynchronizationManager.isActualTransactionActive()) {
+            ContextoFragmento.vincularATransacao(catalogo);
+            return catalogo;
+        }
+        return fragmento != null ? fragmento : catalogo;
+    }
+}
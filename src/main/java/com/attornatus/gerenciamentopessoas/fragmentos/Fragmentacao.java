@@ -0,0 +1,202 @@
+package com.attornatus.gerenciamentopessoas.fragmentos;
+
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Fragmentos configurados, o anel que distribui as pessoas entre eles e as operações usadas pelo
+ * {@link RoteadorFragmentos} e pelos services: executar em um fragmento, em todos eles e reservar ids globais.
+ * Uma transação acessa um único fragmento; leituras em vários fragmentos dentro de uma transação somente leitura
+ * são feitas em uma transação nova por fragmento, e gravações em mais de um fragmento na mesma transação falham.
+ */
+public class Fragmentacao implements AutoCloseable {
+
+    private static final int INCREMENTO_SEQUENCIAS = 50;
+
+    private final Map<String, HikariDataSource> dataSources;
+    private final AnelFragmentos anel;
+    private final Supplier<PlatformTransactionManager> gerenciadorTransacoes;
+    private final Reserva idsPessoas;
+    private final Reserva idsEnderecos;
+
+    public Fragmentacao(Map<String, HikariDataSource> dataSources, AnelFragmentos anel,
+                        Supplier<PlatformTransactionManager> gerenciadorTransacoes) {
+        this.dataSources = dataSources;
+        this.anel = anel;
+        this.gerenciadorTransacoes = gerenciadorTransacoes;
+        JdbcTemplate catalogo = new JdbcTemplate(dataSources.get(getCatalogo()));
+        this.idsPessoas = new Reserva(catalogo, "pessoa_seq");
+        this.idsEnderecos = new Reserva(catalogo, "endereco_seq");
+    }
+
+    public String getCatalogo() {
+        return anel.getFragmentos().get(0);
+    }
+
+    public Map<String, ? extends DataSource> getDataSources() {
+        return dataSources;
+    }
+
+    public AnelFragmentos getAnel() {
+        return anel;
+    }
+
+    public String fragmentoDe(Integer idPessoa) {
+        return anel.fragmentoDe(idPessoa);
+    }
+
+    // Pessoa pelo próprio id e endereço pelo id da pessoa, reservando os ids que ainda faltam
+    public String fragmentoDe(Object entidade) {
+        atribuirIds(entidade);
+        if (entidade instanceof Pessoa pessoa) {
+            return fragmentoDe(pessoa.getId());
+        }
+        if (entidade instanceof Endereco endereco && endereco.getPessoa() != null) {
+            return fragmentoDe(endereco.getPessoa().getId());
+        }
+        throw new IllegalArgumentException("Entidade sem fragmento definido: " + entidade);
+    }
+
+    public void atribuirIds(Object entidade) {
+        // Os endereços só são percorridos em pessoas novas, para não carregar a coleção das que já existem
+        if (entidade instanceof Pessoa pessoa) {
+            if (pessoa.getId() == null) {
+                pessoa.setId(idsPessoas.proximo());
+                pessoa.getEnderecos().forEach(this::atribuirIds);
+            }
+        } else if (entidade instanceof Endereco endereco) {
+            if (endereco.getId() == null) {
+                endereco.setId(idsEnderecos.proximo());
+            }
+            if (endereco.getPessoa() != null && endereco.getPessoa().getId() == null) {
+                atribuirIds(endereco.getPessoa());
+            }
+        }
+    }
+
+    public <T> Map<String, List<T>> agrupar(Iterable<T> itens, Function<T, String> fragmento) {
+        Map<String, List<T>> grupos = new LinkedHashMap<>();
+        for (T item : itens) {
+            grupos.computeIfAbsent(fragmento.apply(item), chave -> new ArrayList<>()).add(item);
+        }
+        return grupos;
+    }
+
+    public <T> T noFragmento(String fragmento, Operacao<T> operacao) throws Throwable {
+        String atual = ContextoFragmento.atual();
+        if (atual != null) {
+            if (!atual.equals(fragmento)) {
+                throw new IllegalStateException(
+                        "A transação já usa o fragmento " + atual + " e não pode acessar o " + fragmento + ".");
+            }
+            return operacao.executar();
+        }
+        if (ContextoFragmento.vincularATransacao(fragmento)) {
+            return operacao.executar();
+        }
+        try {
+            return operacao.executar();
+        } finally {
+            ContextoFragmento.limpar();
+        }
+    }
+
+    // Resultados na ordem dos fragmentos informados
+    public <T> List<T> emFragmentos(Collection<String> fragmentos, Function<String, Operacao<T>> operacao)
+            throws Throwable {
+        List<T> resultados = new ArrayList<>();
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            for (String fragmento : fragmentos) {
+                resultados.add(noFragmento(fragmento, operacao.apply(fragmento)));
+            }
+            return resultados;
+        }
+
+        String atual = ContextoFragmento.atual();
+        if (fragmentos.size() == 1 && (atual == null || fragmentos.contains(atual))) {
+            String fragmento = fragmentos.iterator().next();
+            resultados.add(noFragmento(fragmento, operacao.apply(fragmento)));
+            return resultados;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            throw new IllegalStateException("Uma transação de gravação não pode acessar os fragmentos " + fragmentos + ".");
+        }
+
+        TransactionTemplate novaTransacao = new TransactionTemplate(gerenciadorTransacoes.get());
+        novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        novaTransacao.setReadOnly(true);
+        for (String fragmento : fragmentos) {
+            resultados.add(novaTransacao.execute(status -> {
+                try {
+                    return noFragmento(fragmento, operacao.apply(fragmento));
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        return resultados;
+    }
+
+    public void emCadaFragmento(Runnable operacao) {
+        try {
+            emFragmentos(anel.getFragmentos(), fragmento -> () -> {
+                operacao.run();
+                return null;
+            });
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        dataSources.values().forEach(HikariDataSource::close);
+    }
+
+    @FunctionalInterface
+    public interface Operacao<T> {
+        T executar() throws Throwable;
+    }
+
+    // Reserva blocos da sequência do catálogo com a mesma interpretação do otimizador pooled do Hibernate: o valor
+    // lido é o último id do bloco. Assim os ids reservados aqui nunca coincidem com os gerados pelo Hibernate
+    private static class Reserva {
+
+        private final JdbcTemplate catalogo;
+        private final String proximoValor;
+        private int proximo;
+        private int ultimo = -1;
+
+        Reserva(JdbcTemplate catalogo, String sequencia) {
+            this.catalogo = catalogo;
+            this.proximoValor = "SELECT NEXT VALUE FOR " + sequencia;
+        }
+
+        synchronized int proximo() {
+            if (proximo > ultimo) {
+                ultimo = catalogo.queryForObject(proximoValor, Integer.class);
+                proximo = Math.max(1, ultimo - INCREMENTO_SEQUENCIAS + 1);
+            }
+            return proximo++;
+        }
+    }
+}
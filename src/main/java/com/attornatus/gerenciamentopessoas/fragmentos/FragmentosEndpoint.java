@@ -0,0 +1,44 @@
+package com.attornatus.gerenciamentopessoas.fragmentos;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Quantidade de pessoas e endereços em cada fragmento, em /actuator/fragmentos. Um POST no mesmo caminho executa o
+ * {@link RebalanceadorFragmentos} e retorna quantas pessoas mudaram de fragmento.
+ */
+@Endpoint(id = "fragmentos")
+public class FragmentosEndpoint {
+
+    private final Fragmentacao fragmentacao;
+    private final RebalanceadorFragmentos rebalanceador;
+
+    public FragmentosEndpoint(Fragmentacao fragmentacao, RebalanceadorFragmentos rebalanceador) {
+        this.fragmentacao = fragmentacao;
+        this.rebalanceador = rebalanceador;
+    }
+
+    @ReadOperation
+    public Map<String, Object> fragmentos() {
+        Map<String, Object> fragmentos = new LinkedHashMap<>();
+        fragmentacao.getDataSources().forEach((nome, dataSource) -> {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            Map<String, Object> contagens = new LinkedHashMap<>();
+            contagens.put("catalogo", nome.equals(fragmentacao.getCatalogo()));
+            contagens.put("pessoas", jdbc.queryForObject("SELECT COUNT(*) FROM pessoa", Long.class));
+            contagens.put("enderecos", jdbc.queryForObject("SELECT COUNT(*) FROM endereco", Long.class));
+            fragmentos.put(nome, contagens);
+        });
+        return fragmentos;
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebalancear() {
+        return Map.of("movidas", rebalanceador.rebalancear());
+    }
+}
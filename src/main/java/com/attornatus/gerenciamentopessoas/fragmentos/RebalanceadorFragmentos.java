@@ -0,0 +1,110 @@
+package com.attornatus.gerenciamentopessoas.fragmentos;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Leva cada pessoa, com os endereços, para o fragmento indicado pelo anel atual. Usado depois de acrescentar um
+ * fragmento: cada fragmento é percorrido por cursor de id, em lotes, e as pessoas fora do lugar são copiadas para o
+ * destino e só então apagadas da origem.
+ * <p>
+ * Uma execução interrompida entre as duas etapas é concluída pela seguinte. As pessoas que já estão no destino não são
+ * copiadas de novo, somente apagadas da origem: desde a troca do anel as gravações delas vão para o destino, então a
+ * cópia que ficou na origem é a mais antiga.
+ * <p>
+ * Como o anel já aponta para o destino, uma pessoa ainda não movida não é encontrada: as leituras e as alterações dela e
+ * dos seus endereços retornam 404 até que o lote dela seja copiado.
+ */
+public class RebalanceadorFragmentos {
+
+    private static final String BUSCAR_IDS = "SELECT id FROM pessoa WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String BUSCAR_PESSOAS =
+            "SELECT id, nome, data_nascimento, versao FROM pessoa WHERE id IN (:ids)";
+    private static final String BUSCAR_ENDERECOS = "SELECT id, endereco_id, logradouro, cep, numero, cidade, " +
+            "principal FROM endereco WHERE endereco_id IN (:ids)";
+    private static final String BUSCAR_IDS_COPIADOS = "SELECT id FROM pessoa WHERE id IN (:ids)";
+    private static final String COPIAR_PESSOA = "INSERT INTO pessoa (id, nome, data_nascimento, versao) " +
+            "VALUES (:id, :nome, :data_nascimento, :versao)";
+    private static final String COPIAR_ENDERECO = "INSERT INTO endereco " +
+            "(id, endereco_id, logradouro, cep, numero, cidade, principal) " +
+            "VALUES (:id, :endereco_id, :logradouro, :cep, :numero, :cidade, :principal)";
+    private static final String APAGAR_ENDERECOS = "DELETE FROM endereco WHERE endereco_id IN (:ids)";
+    private static final String APAGAR_PESSOAS = "DELETE FROM pessoa WHERE id IN (:ids)";
+
+    private final Fragmentacao fragmentacao;
+    private final int tamanhoLote;
+
+    public RebalanceadorFragmentos(Fragmentacao fragmentacao, int tamanhoLote) {
+        this.fragmentacao = fragmentacao;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    // Retorna quantas pessoas mudaram de fragmento
+    public synchronized int rebalancear() {
+        int movidas = 0;
+        for (Map.Entry<String, ? extends DataSource> origem : fragmentacao.getDataSources().entrySet()) {
+            JdbcTemplate jdbc = new JdbcTemplate(origem.getValue());
+            int cursor = 0;
+            List<Integer> ids;
+            do {
+                ids = jdbc.queryForList(BUSCAR_IDS, Integer.class, cursor, tamanhoLote);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                cursor = ids.get(ids.size() - 1);
+
+                Map<String, List<Integer>> destinos = fragmentacao.agrupar(ids, fragmentacao::fragmentoDe);
+                destinos.remove(origem.getKey());
+                for (Map.Entry<String, List<Integer>> destino : destinos.entrySet()) {
+                    mover(origem.getValue(), fragmentacao.getDataSources().get(destino.getKey()), destino.getValue());
+                    movidas += destino.getValue().size();
+                }
+            } while (ids.size() == tamanhoLote);
+        }
+        return movidas;
+    }
+
+    private void mover(DataSource origem, DataSource destino, List<Integer> ids) {
+        Map<String, List<Integer>> parametros = Map.of("ids", ids);
+        NamedParameterJdbcTemplate leitura = new NamedParameterJdbcTemplate(origem);
+        List<Map<String, Object>> pessoas = leitura.queryForList(BUSCAR_PESSOAS, parametros);
+        List<Map<String, Object>> enderecos = leitura.queryForList(BUSCAR_ENDERECOS, parametros);
+
+        // Pessoa e endereços são copiados juntos, então uma pessoa já presente no destino tem todos os endereços lá
+        NamedParameterJdbcTemplate gravacao = new NamedParameterJdbcTemplate(destino);
+        new TransactionTemplate(new DataSourceTransactionManager(destino)).executeWithoutResult(status -> {
+            Set<Integer> copiadas = new HashSet<>(gravacao.queryForList(BUSCAR_IDS_COPIADOS, parametros, Integer.class));
+            gravacao.batchUpdate(COPIAR_PESSOA, paraLote(pessoas.stream()
+                    .filter(pessoa -> !copiadas.contains((Integer) pessoa.get("id")))
+                    .toList()));
+            gravacao.batchUpdate(COPIAR_ENDERECO, paraLote(enderecos.stream()
+                    .filter(endereco -> !copiadas.contains((Integer) endereco.get("endereco_id")))
+                    .toList()));
+        });
+        new TransactionTemplate(new DataSourceTransactionManager(origem)).executeWithoutResult(status -> {
+            leitura.update(APAGAR_ENDERECOS, parametros);
+            leitura.update(APAGAR_PESSOAS, parametros);
+        });
+    }
+
+    // As colunas voltam do H2 em maiúsculas e os nomes dos parâmetros diferenciam maiúsculas
+    private static SqlParameterSource[] paraLote(List<Map<String, Object>> linhas) {
+        return linhas.stream()
+                .map(linha -> {
+                    MapSqlParameterSource parametros = new MapSqlParameterSource();
+                    linha.forEach((coluna, valor) -> parametros.addValue(coluna.toLowerCase(), valor));
+                    return parametros;
+                })
+                .toArray(SqlParameterSource[]::new);
+    }
+}
@@ -0,0 +1,170 @@
+package com.attornatus.gerenciamentopessoas.fragmentos;
+
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Aplicado aos repositórios de pessoas e endereços, antes da transação do próprio repositório:
+ * - parâmetro com {@link ChaveFragmento}: um id executa no fragmento da pessoa; uma coleção de ids é dividida por
+ *   fragmento e os resultados, concatenados;
+ * - save e saveAll: reservam os ids que faltam e gravam no fragmento da pessoa;
+ * - findById, getReferenceById e existsById de pessoas: fragmento do id;
+ * - demais métodos: executados em todos os fragmentos. Listas são reunidas em ordem de id e, nas consultas
+ *   paginadas por cursor, cortadas no tamanho da página, o que mantém o cursor (último id) válido para a próxima;
+ *   Optional fica com o primeiro encontrado e contagens são somadas.
+ * Consultas em fluxo (Stream) só são aceitas com o fragmento já definido ({@link Fragmentacao#emCadaFragmento}).
+ */
+public class RoteadorFragmentos implements MethodInterceptor {
+
+    private static final Set<String> METODOS_POR_ID = Set.of("findById", "getReferenceById", "getById", "getOne",
+            "existsById", "deleteById");
+    private static final int SEM_CHAVE = -1;
+
+    private final Class<?> dominio;
+    private final Supplier<Fragmentacao> fragmentacao;
+    private final Map<Method, Integer> parametrosChave = new ConcurrentHashMap<>();
+
+    public RoteadorFragmentos(Class<?> dominio, Supplier<Fragmentacao> fragmentacao) {
+        this.dominio = dominio;
+        this.fragmentacao = fragmentacao;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocacao) throws Throwable {
+        Method metodo = invocacao.getMethod();
+        if (metodo.getDeclaringClass() == Object.class) {
+            return invocacao.proceed();
+        }
+        Fragmentacao fragmentos = fragmentacao.get();
+        Object[] argumentos = invocacao.getArguments();
+
+        int chave = parametrosChave.computeIfAbsent(metodo, RoteadorFragmentos::parametroChave);
+        if (chave != SEM_CHAVE) {
+            if (argumentos[chave] instanceof Collection<?> ids) {
+                return porGrupos(invocacao, chave, fragmentos.agrupar(ids, id -> fragmentos.fragmentoDe((Integer) id)));
+            }
+            return fragmentos.noFragmento(fragmentos.fragmentoDe((Integer) argumentos[chave]), invocacao::proceed);
+        }
+
+        String nome = metodo.getName();
+        if (nome.startsWith("save") && argumentos.length == 1) {
+            if (argumentos[0] instanceof Iterable<?> entidades) {
+                return porGrupos(invocacao, 0, fragmentos.agrupar(entidades, fragmentos::fragmentoDe));
+            }
+            return fragmentos.noFragmento(fragmentos.fragmentoDe(argumentos[0]), invocacao::proceed);
+        }
+        if (nome.equals("delete") && argumentos.length == 1) {
+            return fragmentos.noFragmento(fragmentos.fragmentoDe(argumentos[0]), invocacao::proceed);
+        }
+        if (dominio == Pessoa.class && METODOS_POR_ID.contains(nome)) {
+            return fragmentos.noFragmento(fragmentos.fragmentoDe((Integer) argumentos[0]), invocacao::proceed);
+        }
+
+        if (Stream.class.isAssignableFrom(metodo.getReturnType())) {
+            if (ContextoFragmento.atual() == null) {
+                throw new IllegalStateException(metodo.getName() + " precisa ser executado em um fragmento por vez.");
+            }
+            return invocacao.proceed();
+        }
+        List<Object> resultados = fragmentos.emFragmentos(fragmentos.getAnel().getFragmentos(),
+                fragmento -> () -> ((ProxyMethodInvocation) invocacao).invocableClone().proceed());
+        return reunir(metodo, argumentos, resultados);
+    }
+
+    private Object porGrupos(MethodInvocation invocacao, int indice, Map<String, ? extends List<?>> grupos)
+            throws Throwable {
+        if (grupos.isEmpty()) {
+            return invocacao.proceed();
+        }
+        List<Object> resultados = fragmentacao.get().emFragmentos(grupos.keySet(), fragmento -> () -> {
+            Object[] argumentos = invocacao.getArguments().clone();
+            argumentos[indice] = grupos.get(fragmento);
+            return ((ProxyMethodInvocation) invocacao).invocableClone(argumentos).proceed();
+        });
+        return reunir(invocacao.getMethod(), invocacao.getArguments(), resultados);
+    }
+
+    private static Object reunir(Method metodo, Object[] argumentos, List<Object> resultados) {
+        Class<?> tipo = metodo.getReturnType();
+        if (Collection.class.isAssignableFrom(tipo) || Iterable.class.isAssignableFrom(tipo)) {
+            List<Object> itens = new ArrayList<>();
+            resultados.forEach(resultado -> ((Iterable<?>) resultado).forEach(itens::add));
+            if (itens.stream().allMatch(item -> idDe(item) != null)) {
+                itens.sort(Comparator.comparing(RoteadorFragmentos::idDe));
+            }
+            for (Object argumento : argumentos) {
+                if (argumento instanceof Pageable pagina && pagina.isPaged() && itens.size() > pagina.getPageSize()) {
+                    return new ArrayList<>(itens.subList(0, pagina.getPageSize()));
+                }
+            }
+            return itens;
+        }
+        if (tipo == Optional.class) {
+            return resultados.stream().map(Optional.class::cast).filter(Optional::isPresent).findFirst()
+                    .orElse(Optional.empty());
+        }
+        if (tipo == long.class || tipo == Long.class) {
+            return resultados.stream().mapToLong(resultado -> ((Number) resultado).longValue()).sum();
+        }
+        if (tipo == int.class || tipo == Integer.class) {
+            return resultados.stream().mapToInt(resultado -> ((Number) resultado).intValue()).sum();
+        }
+        if (tipo == boolean.class || tipo == Boolean.class) {
+            return resultados.stream().anyMatch(Boolean.TRUE::equals);
+        }
+        if (tipo == void.class) {
+            return null;
+        }
+        throw new UnsupportedOperationException(metodo.getName() + " não pode ser executado em vários fragmentos.");
+    }
+
+    private static Integer idDe(Object item) {
+        if (item instanceof Integer id) {
+            return id;
+        }
+        if (item instanceof PessoaReturnDTO pessoa) {
+            return pessoa.getId();
+        }
+        if (item instanceof Pessoa pessoa) {
+            return pessoa.getId();
+        }
+        if (item instanceof EnderecoReturnDTO endereco) {
+            return endereco.getId();
+        }
+        if (item instanceof Endereco endereco) {
+            return endereco.getId();
+        }
+        return null;
+    }
+
+    private static int parametroChave(Method metodo) {
+        Annotation[][] anotacoes = metodo.getParameterAnnotations();
+        for (int i = 0; i < anotacoes.length; i++) {
+            for (Annotation anotacao : anotacoes[i]) {
+                if (anotacao instanceof ChaveFragmento) {
+                    return i;
+                }
+            }
+        }
+        return SEM_CHAVE;
+    }
+}
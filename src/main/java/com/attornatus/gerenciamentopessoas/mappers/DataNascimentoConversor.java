@@ -0,0 +1,24 @@
+package com.attornatus.gerenciamentopessoas.mappers;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+
+/**
+ * Converte a data de nascimento entre o formato exposto pela API (dd/MM/yyyy) e o {@link LocalDate} persistido.
+ */
+public final class DataNascimentoConversor {
+
+    public static final String PADRAO = "dd/MM/uuuu";
+    public static final DateTimeFormatter FORMATO = DateTimeFormatter.ofPattern(PADRAO).withResolverStyle(ResolverStyle.STRICT);
+
+    private DataNascimentoConversor() { }
+
+    public static String formatar(LocalDate data) {
+        return data == null ? null : FORMATO.format(data);
+    }
+
+    public static LocalDate converter(String data) {
+        return data == null ? null : LocalDate.parse(data, FORMATO);
+    }
+}
@@ -0,0 +1,12 @@
+package com.attornatus.gerenciamentopessoas.mappers;
+
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoCreateDTO;
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+
+public interface EnderecoMapper {
+
+    EnderecoReturnDTO paraDto(Endereco endereco);
+
+    Endereco paraEntidade(EnderecoCreateDTO endereco);
+}
@@ -0,0 +1,34 @@
+package com.attornatus.gerenciamentopessoas.mappers;
+
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoCreateDTO;
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "mapeamento.modelmapper.habilitado", havingValue = "false", matchIfMissing = true)
+public class EnderecoMapperImpl implements EnderecoMapper {
+
+    @Override
+    public EnderecoReturnDTO paraDto(Endereco endereco) {
+        EnderecoReturnDTO dto = new EnderecoReturnDTO();
+        dto.setId(endereco.getId());
+        dto.setLogradouro(endereco.getLogradouro());
+        dto.setCep(endereco.getCep());
+        dto.setNumero(endereco.getNumero());
+        dto.setCidade(endereco.getCidade());
+        dto.setPrincipal(endereco.getPrincipal());
+        return dto;
+    }
+
+    @Override
+    public Endereco paraEntidade(EnderecoCreateDTO dto) {
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro(dto.getLogradouro());
+        endereco.setCep(dto.getCep());
+        endereco.setNumero(dto.getNumero());
+        endereco.setCidade(dto.getCidade());
+        return endereco;
+    }
+}
@@ -0,0 +1,25 @@
+package com.attornatus.gerenciamentopessoas.mappers;
+
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoCreateDTO;
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import org.modelmapper.ModelMapper;
+
+public class ModelMapperEnderecoMapper implements EnderecoMapper {
+
+    private final ModelMapper mapper;
+
+    public ModelMapperEnderecoMapper(ModelMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @Override
+    public EnderecoReturnDTO paraDto(Endereco endereco) {
+        return mapper.map(endereco, EnderecoReturnDTO.class);
+    }
+
+    @Override
+    public Endereco paraEntidade(EnderecoCreateDTO endereco) {
+        return mapper.map(endereco, Endereco.class);
+    }
+}
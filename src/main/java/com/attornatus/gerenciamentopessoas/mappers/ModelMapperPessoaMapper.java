@@ -0,0 +1,38 @@
+package com.attornatus.gerenciamentopessoas.mappers;
+
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaCreateDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaUpdateDTO;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import org.modelmapper.Converter;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDate;
+
+public class ModelMapperPessoaMapper implements PessoaMapper {
+
+    private final ModelMapper mapper;
+
+    public ModelMapperPessoaMapper(ModelMapper mapper) {
+        this.mapper = mapper;
+        Converter<String, LocalDate> paraData = contexto -> DataNascimentoConversor.converter(contexto.getSource());
+        Converter<LocalDate, String> paraTexto = contexto -> DataNascimentoConversor.formatar(contexto.getSource());
+        this.mapper.addConverter(paraData, String.class, LocalDate.class);
+        this.mapper.addConverter(paraTexto, LocalDate.class, String.class);
+    }
+
+    @Override
+    public PessoaReturnDTO paraDto(Pessoa pessoa) {
+        return mapper.map(pessoa, PessoaReturnDTO.class);
+    }
+
+    @Override
+    public Pessoa paraEntidade(PessoaCreateDTO pessoa) {
+        return mapper.map(pessoa, Pessoa.class);
+    }
+
+    @Override
+    public Pessoa paraEntidade(PessoaUpdateDTO pessoa) {
+        return mapper.map(pessoa, Pessoa.class);
+    }
+}
@@ -0,0 +1,15 @@
+package com.attornatus.gerenciamentopessoas.mappers;
+
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaCreateDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaUpdateDTO;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+
+public interface PessoaMapper {
+
+    PessoaReturnDTO paraDto(Pessoa pessoa);
+
+    Pessoa paraEntidade(PessoaCreateDTO pessoa);
+
+    Pessoa paraEntidade(PessoaUpdateDTO pessoa);
+}
@@ -0,0 +1,39 @@
+package com.attornatus.gerenciamentopessoas.mappers;
+
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaCreateDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaUpdateDTO;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "mapeamento.modelmapper.habilitado", havingValue = "false", matchIfMissing = true)
+public class PessoaMapperImpl implements PessoaMapper {
+
+    @Override
+    public PessoaReturnDTO paraDto(Pessoa pessoa) {
+        PessoaReturnDTO dto = new PessoaReturnDTO();
+        dto.setId(pessoa.getId());
+        dto.setNome(pessoa.getNome());
+        dto.setDataNascimento(DataNascimentoConversor.formatar(pessoa.getDataNascimento()));
+        dto.setVersao(pessoa.getVersao());
+        return dto;
+    }
+
+    @Override
+    public Pessoa paraEntidade(PessoaCreateDTO dto) {
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome(dto.getNome());
+        pessoa.setDataNascimento(DataNascimentoConversor.converter(dto.getDataNascimento()));
+        return pessoa;
+    }
+
+    @Override
+    public Pessoa paraEntidade(PessoaUpdateDTO dto) {
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome(dto.getNome());
+        pessoa.setDataNascimento(DataNascimentoConversor.converter(dto.getDataNascimento()));
+        return pessoa;
+    }
+}
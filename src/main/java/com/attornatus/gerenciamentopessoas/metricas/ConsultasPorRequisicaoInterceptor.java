@@ -0,0 +1,91 @@
+package com.attornatus.gerenciamentopessoas.metricas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Registra quantas instruções SQL cada requisição executou, com as mesmas tags method e uri do
+ * http.server.requests, e avisa quando a rota passa do seu limite. Os dados de cada rota são montados na primeira
+ * requisição e reaproveitados nas seguintes.
+ */
+public class ConsultasPorRequisicaoInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String METRICA = "requisicao.consultas";
+
+    private static final Logger log = LoggerFactory.getLogger(ConsultasPorRequisicaoInterceptor.class);
+
+    private final ContadorConsultas contadorConsultas;
+    private final Supplier<MeterRegistry> registro;
+    private final int limitePadrao;
+    private final Map<Method, Rota> rotas = new ConcurrentHashMap<>();
+
+    private record Rota(String descricao, int limite, DistributionSummary consultas) {
+    }
+
+    public ConsultasPorRequisicaoInterceptor(ContadorConsultas contadorConsultas, Supplier<MeterRegistry> registro,
+                                             int limitePadrao) {
+        this.contadorConsultas = contadorConsultas;
+        this.registro = registro;
+        this.limitePadrao = limitePadrao;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod metodo) {
+            contadorConsultas.iniciar(rota(metodo, request).limite());
+        } else {
+            contadorConsultas.iniciar(ContadorConsultas.SEM_LIMITE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (handler instanceof HandlerMethod metodo) {
+            Rota rota = rota(metodo, request);
+            int consultas = contadorConsultas.quantidade();
+            rota.consultas().record(consultas);
+            if (consultas > rota.limite()) {
+                log.warn("{} executou {} consultas, acima do limite de {}.", rota.descricao(), consultas, rota.limite());
+            }
+        }
+        contadorConsultas.encerrar();
+    }
+
+    // Respostas assíncronas continuam em outra thread, onde o limite da requisição não se aplica
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        contadorConsultas.encerrar();
+    }
+
+    private Rota rota(HandlerMethod metodo, HttpServletRequest request) {
+        Rota rota = rotas.get(metodo.getMethod());
+        if (rota == null) {
+            rota = rotas.computeIfAbsent(metodo.getMethod(), chave -> novaRota(metodo, request));
+        }
+        return rota;
+    }
+
+    private Rota novaRota(HandlerMethod metodo, HttpServletRequest request) {
+        String uri = String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        LimiteConsultas limite = metodo.getMethodAnnotation(LimiteConsultas.class);
+        DistributionSummary consultas = DistributionSummary.builder(METRICA)
+                .baseUnit("consultas")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registro.get());
+        return new Rota(request.getMethod() + " " + uri, limite == null ? limitePadrao : limite.value(), consultas);
+    }
+}
@@ -0,0 +1,51 @@
+package com.attornatus.gerenciamentopessoas.metricas;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta as instruções SQL preparadas pelo Hibernate na thread atual. Consultas atendidas pelo cache de segundo
+ * nível não chegam aqui, e um lote de inserções conta uma única vez.
+ * <p>
+ * Durante uma requisição o contador também recebe o limite de consultas da rota. Com falharAoExceder, a consulta
+ * que ultrapassa o limite é interrompida com {@link LimiteConsultasExcedidoException}.
+ */
+public class ContadorConsultas implements StatementInspector {
+
+    public static final int SEM_LIMITE = Integer.MAX_VALUE;
+
+    private static final ThreadLocal<Medicao> MEDICAO = ThreadLocal.withInitial(Medicao::new);
+
+    private final boolean falharAoExceder;
+
+    public ContadorConsultas(boolean falharAoExceder) {
+        this.falharAoExceder = falharAoExceder;
+    }
+
+    private static final class Medicao {
+        private int consultas;
+        private int limite = SEM_LIMITE;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Medicao medicao = MEDICAO.get();
+        if (++medicao.consultas > medicao.limite && falharAoExceder) {
+            throw new LimiteConsultasExcedidoException(medicao.limite, sql);
+        }
+        return sql;
+    }
+
+    public void iniciar(int limite) {
+        Medicao medicao = MEDICAO.get();
+        medicao.consultas = 0;
+        medicao.limite = limite;
+    }
+
+    public void encerrar() {
+        MEDICAO.get().limite = SEM_LIMITE;
+    }
+
+    public int quantidade() {
+        return MEDICAO.get().consultas;
+    }
+}
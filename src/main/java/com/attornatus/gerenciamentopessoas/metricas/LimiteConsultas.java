@@ -0,0 +1,17 @@
+package com.attornatus.gerenciamentopessoas.metricas;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Quantidade máxima de instruções SQL que uma rota pode executar por requisição. Rotas sem a anotação usam
+ * pessoas.consultas.limite-padrao.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LimiteConsultas {
+
+    int value();
+}
@@ -0,0 +1,15 @@
+package com.attornatus.gerenciamentopessoas.metricas;
+
+public class LimiteConsultasExcedidoException extends RuntimeException {
+
+    private final int limite;
+
+    public LimiteConsultasExcedidoException(int limite, String sql) {
+        super("Requisição ultrapassou o limite de " + limite + " consultas ao executar: " + sql);
+        this.limite = limite;
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+}
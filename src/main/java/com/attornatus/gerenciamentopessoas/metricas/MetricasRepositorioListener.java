@@ -0,0 +1,57 @@
+package com.attornatus.gerenciamentopessoas.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.metrics.AutoTimer;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.boot.actuate.metrics.data.MetricsRepositoryMethodInvocationListener;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocationResult.State;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Substitui o listener do Spring Boot, mantendo o nome e as tags da métrica, mas guardando o timer de cada
+ * método de repositório para que as chamadas bem-sucedidas não recriem as tags. Falhas seguem o caminho padrão.
+ */
+public class MetricasRepositorioListener extends MetricsRepositoryMethodInvocationListener {
+
+    private final Supplier<MeterRegistry> registro;
+    private final String metrica;
+    private final Map<Class<?>, Map<Method, Timer>> timersPorRepositorio = new ConcurrentHashMap<>();
+
+    public MetricasRepositorioListener(Supplier<MeterRegistry> registro, String metrica) {
+        super(registro, new DefaultRepositoryTagsProvider(), metrica, AutoTimer.ENABLED);
+        this.registro = registro;
+        this.metrica = metrica;
+    }
+
+    @Override
+    public void afterInvocation(RepositoryMethodInvocation invocacao) {
+        if (invocacao.getResult() == null || invocacao.getResult().getState() != State.SUCCESS) {
+            super.afterInvocation(invocacao);
+            return;
+        }
+        timer(invocacao).record(invocacao.getDuration(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(RepositoryMethodInvocation invocacao) {
+        Map<Method, Timer> timers = timersPorRepositorio.get(invocacao.getRepositoryInterface());
+        if (timers == null) {
+            timers = timersPorRepositorio.computeIfAbsent(invocacao.getRepositoryInterface(), repositorio -> new ConcurrentHashMap<>());
+        }
+        Timer timer = timers.get(invocacao.getMethod());
+        if (timer == null) {
+            timer = timers.computeIfAbsent(invocacao.getMethod(), metodo -> Timer.builder(metrica)
+                    .tag("repository", invocacao.getRepositoryInterface().getSimpleName())
+                    .tag("method", metodo.getName())
+                    .tag("state", State.SUCCESS.name())
+                    .tag("exception", "None")
+                    .register(registro.get()));
+        }
+        return timer;
+    }
+}
@@ -0,0 +1,86 @@
+package com.attornatus.gerenciamentopessoas.metricas;
+
+import com.attornatus.gerenciamentopessoas.config.PersistenciaProperties;
+import com.attornatus.gerenciamentopessoas.config.PoolAdaptativo;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Estado atual do pool de conexões e dos caches de sentenças, em /actuator/persistencia.
+ * As contagens de sentenças e do cache de planos dependem de hibernate.generate_statistics.
+ */
+@Component
+@Endpoint(id = "persistencia")
+public class PersistenciaEndpoint {
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PersistenciaProperties propriedades;
+    @Autowired(required = false)
+    private PoolAdaptativo poolAdaptativo;
+
+    @ReadOperation
+    public Map<String, Object> estatisticas() throws SQLException {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("pool", pool(dataSource.unwrap(HikariDataSource.class)));
+        estatisticas.put("sentencas", sentencas(entityManagerFactory.unwrap(SessionFactory.class).getStatistics()));
+        return estatisticas;
+    }
+
+    private Map<String, Object> pool(HikariDataSource hikari) {
+        HikariConfigMXBean configuracao = hikari.getHikariConfigMXBean();
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("nome", hikari.getPoolName());
+        pool.put("tamanhoMaximo", configuracao.getMaximumPoolSize());
+        pool.put("tamanhoMinimo", configuracao.getMinimumIdle());
+        pool.put("esperaMaximaMs", configuracao.getConnectionTimeout());
+
+        // O Hikari só cria o pool na primeira conexão
+        HikariPoolMXBean estado = hikari.getHikariPoolMXBean();
+        if (estado != null) {
+            pool.put("ativas", estado.getActiveConnections());
+            pool.put("ociosas", estado.getIdleConnections());
+            pool.put("total", estado.getTotalConnections());
+            pool.put("aguardando", estado.getThreadsAwaitingConnection());
+        }
+
+        Map<String, Object> adaptativo = new LinkedHashMap<>();
+        adaptativo.put("habilitado", poolAdaptativo != null);
+        if (poolAdaptativo != null) {
+            adaptativo.put("tamanhoLimite", propriedades.getAdaptativo().getTamanhoLimite());
+            adaptativo.put("ultimoAjuste", poolAdaptativo.getUltimoAjuste());
+        }
+        pool.put("adaptativo", adaptativo);
+        return pool;
+    }
+
+    private Map<String, Object> sentencas(Statistics estatisticas) {
+        Map<String, Object> sentencas = new LinkedHashMap<>();
+        sentencas.put("preparadas", estatisticas.getPrepareStatementCount());
+        sentencas.put("consultasExecutadas", estatisticas.getQueryExecutionCount());
+        sentencas.put("cacheSentencasPorConexao", propriedades.getPool().getCacheSentencas());
+
+        Map<String, Object> cachePlanos = new LinkedHashMap<>();
+        cachePlanos.put("tamanhoMaximo", propriedades.getHibernate().getTamanhoCachePlanos());
+        cachePlanos.put("acertos", estatisticas.getQueryPlanCacheHitCount());
+        cachePlanos.put("falhas", estatisticas.getQueryPlanCacheMissCount());
+        sentencas.put("cachePlanos", cachePlanos);
+        return sentencas;
+    }
+}
@@ -0,0 +1,51 @@
+package com.attornatus.gerenciamentopessoas.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Mede o tempo de cada método público dos beans interceptados, com as tags classe e metodo. O timer é resolvido
+ * uma vez por método, de modo que as chamadas seguintes não criam tags nem objetos de medição.
+ */
+public class TempoExecucaoInterceptor implements MethodInterceptor {
+
+    private final String metrica;
+    private final Supplier<MeterRegistry> registro;
+    private final Map<Method, Timer> timersPorMetodo = new ConcurrentHashMap<>();
+
+    public TempoExecucaoInterceptor(String metrica, Supplier<MeterRegistry> registro) {
+        this.metrica = metrica;
+        this.registro = registro;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocacao) throws Throwable {
+        Timer timer = timer(invocacao);
+        long inicio = System.nanoTime();
+        try {
+            return invocacao.proceed();
+        } finally {
+            timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(MethodInvocation invocacao) {
+        Timer timer = timersPorMetodo.get(invocacao.getMethod());
+        if (timer == null) {
+            timer = timersPorMetodo.computeIfAbsent(invocacao.getMethod(), metodo -> Timer.builder(metrica)
+                    .tag("classe", AopUtils.getTargetClass(invocacao.getThis()).getSimpleName())
+                    .tag("metodo", metodo.getName())
+                    .register(registro.get()));
+        }
+        return timer;
+    }
+}
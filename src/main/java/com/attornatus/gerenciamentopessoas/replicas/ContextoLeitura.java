@@ -0,0 +1,46 @@
+package com.attornatus.gerenciamentopessoas.replicas;
+
+import java.util.function.Supplier;
+
+/**
+ * Indica à thread atual que as leituras devem ir ao primário mesmo em transações somente leitura: depois de uma
+ * gravação do mesmo cliente ({@link LeituraPropriaInterceptor}) ou quando a leitura não pode ver dados atrasados.
+ */
+public final class ContextoLeitura {
+
+    private static final ThreadLocal<Boolean> PRIMARIO_OBRIGATORIO = new ThreadLocal<>();
+
+    private ContextoLeitura() {
+    }
+
+    public static boolean isPrimarioObrigatorio() {
+        return PRIMARIO_OBRIGATORIO.get() != null;
+    }
+
+    public static void exigirPrimario() {
+        PRIMARIO_OBRIGATORIO.set(Boolean.TRUE);
+    }
+
+    public static void liberar() {
+        PRIMARIO_OBRIGATORIO.remove();
+    }
+
+    public static <T> T noPrimario(Supplier<T> leitura) {
+        if (isPrimarioObrigatorio()) {
+            return leitura.get();
+        }
+        exigirPrimario();
+        try {
+            return leitura.get();
+        } finally {
+            liberar();
+        }
+    }
+
+    public static void noPrimario(Runnable leitura) {
+        noPrimario(() -> {
+            leitura.run();
+            return null;
+        });
+    }
+}
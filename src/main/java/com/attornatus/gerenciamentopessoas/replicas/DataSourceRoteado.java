@@ -0,0 +1,58 @@
+package com.attornatus.gerenciamentopessoas.replicas;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Envia as conexões de transações somente leitura a uma das réplicas em dia e as demais ao primário. Precisa ficar
+ * atrás de um LazyConnectionDataSourceProxy: o Spring só marca a transação como somente leitura depois de iniciá-la,
+ * então a conexão real deve ser obtida apenas na primeira instrução.
+ */
+public class DataSourceRoteado extends AbstractRoutingDataSource {
+
+    static final String PRIMARIO = "primario";
+
+    private final MonitorReplicas monitor;
+
+    public DataSourceRoteado(DataSource primario, MonitorReplicas monitor) {
+        this.monitor = monitor;
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(PRIMARIO, primario);
+        monitor.getReplicas().forEach(replica -> destinos.put(replica.getNome(), replica.getDataSource()));
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primario);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ContextoLeitura.isPrimarioObrigatorio()) {
+            return PRIMARIO;
+        }
+        Optional<MonitorReplicas.Replica> replica = monitor.escolher();
+        if (replica.isEmpty()) {
+            return PRIMARIO;
+        }
+        naoGuardarEmCache();
+        return replica.get().getNome();
+    }
+
+    // Dados lidos de uma réplica podem estar atrasados: a sessão continua consultando o cache de segundo nível e o de
+    // consultas, mas não guarda neles o que leu, para que um valor antigo não passe a ser servido a todos
+    private static void naoGuardarEmCache() {
+        for (Object recurso : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (recurso instanceof EntityManagerHolder holder) {
+                holder.getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+            }
+        }
+    }
+}
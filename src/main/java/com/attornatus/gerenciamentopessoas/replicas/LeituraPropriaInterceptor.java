@@ -0,0 +1,74 @@
+package com.attornatus.gerenciamentopessoas.replicas;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Garante que um cliente leia as próprias gravações. Toda requisição de escrita devolve um cookie com o instante até
+ * o qual as leituras desse cliente vão ao primário; o prazo é o maior atraso que uma réplica em uso pode ter. O estado
+ * fica no cliente, então vale para qualquer instância da aplicação que atender a próxima requisição.
+ */
+public class LeituraPropriaInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String COOKIE = "leitura-primario-ate";
+
+    private static final Set<String> METODOS_ESCRITA = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final Clock relogio;
+    private final Duration prazo;
+
+    public LeituraPropriaInterceptor(Clock relogio, Duration prazo) {
+        this.relogio = relogio;
+        this.prazo = prazo;
+    }
+
+    // O cookie é gravado antes do handler, já que depois dele a resposta pode estar confirmada. As leituras da
+    // própria requisição de escrita também vão ao primário
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long agora = relogio.millis();
+        if (METODOS_ESCRITA.contains(request.getMethod())) {
+            Cookie cookie = new Cookie(COOKIE, String.valueOf(agora + prazo.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, prazo.toSeconds() + 1));
+            response.addCookie(cookie);
+            ContextoLeitura.exigirPrimario();
+        } else if (primarioAte(request) > agora) {
+            ContextoLeitura.exigirPrimario();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ContextoLeitura.liberar();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ContextoLeitura.liberar();
+    }
+
+    private static long primarioAte(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,194 @@
+package com.attornatus.gerenciamentopessoas.replicas;
+
+import com.attornatus.gerenciamentopessoas.entities.BatimentoReplicacao;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Mede o atraso de cada réplica de leitura. A cada intervalo grava o instante atual na tabela batimento_replicacao do
+ * primário e lê o valor que já chegou a cada réplica; a diferença é o atraso. Réplicas com atraso acima do máximo, ou
+ * que não responderam, ficam fora do rodízio até a próxima verificação em que estiverem em dia.
+ */
+public class MonitorReplicas implements SmartLifecycle, AutoCloseable {
+
+    public static final String METRICA_ATRASO = "replicas.atraso";
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorReplicas.class);
+
+    private static final String ATUALIZAR_BATIMENTO = "UPDATE batimento_replicacao SET instante = ? WHERE id = ?";
+    private static final String INSERIR_BATIMENTO = "INSERT INTO batimento_replicacao (id, instante) VALUES (?, ?)";
+    private static final String LER_BATIMENTO = "SELECT instante FROM batimento_replicacao WHERE id = ?";
+
+    private final JdbcTemplate primario;
+    private final List<Replica> replicas;
+    private final Clock relogio;
+    private final Supplier<MeterRegistry> registro;
+    private final Duration atrasoMaximo;
+    private final Duration intervalo;
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    private ScheduledExecutorService agendador;
+
+    public static class Replica {
+
+        private final HikariDataSource dataSource;
+        private final JdbcTemplate jdbc;
+        // Nulo enquanto a réplica não responde ou está atrasada demais
+        private volatile Duration atraso;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+            this.jdbc = new JdbcTemplate(dataSource);
+        }
+
+        public String getNome() {
+            return dataSource.getPoolName();
+        }
+
+        public HikariDataSource getDataSource() {
+            return dataSource;
+        }
+
+        public Optional<Duration> getAtraso() {
+            return Optional.ofNullable(atraso);
+        }
+    }
+
+    public MonitorReplicas(DataSource primario, List<HikariDataSource> replicas, Clock relogio,
+                           Supplier<MeterRegistry> registro, Duration atrasoMaximo, Duration intervalo) {
+        this.primario = new JdbcTemplate(primario);
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.relogio = relogio;
+        this.registro = registro;
+        this.atrasoMaximo = atrasoMaximo;
+        this.intervalo = intervalo;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    // Rodízio entre as réplicas em dia; vazio quando nenhuma está
+    public Optional<Replica> escolher() {
+        int inicio = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((inicio + i) % replicas.size());
+            if (replica.atraso != null) {
+                return Optional.of(replica);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Maior atraso que uma réplica em uso pode ter: o máximo aceito mais o tempo até a próxima verificação
+    public Duration getAtrasoTolerado() {
+        return atrasoMaximo.plus(intervalo);
+    }
+
+    void registrarBatimento() {
+        OffsetDateTime agora = OffsetDateTime.ofInstant(relogio.instant(), ZoneOffset.UTC);
+        if (primario.update(ATUALIZAR_BATIMENTO, agora, BatimentoReplicacao.ID) == 0) {
+            primario.update(INSERIR_BATIMENTO, BatimentoReplicacao.ID, agora);
+        }
+    }
+
+    void verificar() {
+        Instant agora = relogio.instant();
+        for (Replica replica : replicas) {
+            Duration atraso = medirAtraso(replica, agora);
+            boolean emDia = atraso != null && atraso.compareTo(atrasoMaximo) <= 0;
+            if (emDia != (replica.atraso != null)) {
+                if (emDia) {
+                    log.info("Réplica {} voltou a receber leituras (atraso de {} ms).", replica.getNome(), atraso.toMillis());
+                } else {
+                    log.warn("Réplica {} deixou de receber leituras (atraso de {}).", replica.getNome(),
+                            atraso == null ? "desconhecido" : atraso.toMillis() + " ms");
+                }
+            }
+            replica.atraso = emDia ? atraso : null;
+        }
+    }
+
+    private Duration medirAtraso(Replica replica, Instant agora) {
+        try {
+            List<OffsetDateTime> batimento = replica.jdbc.query(LER_BATIMENTO,
+                    (linha, numero) -> linha.getObject(1, OffsetDateTime.class), BatimentoReplicacao.ID);
+            if (batimento.isEmpty()) {
+                return null;
+            }
+            Duration atraso = Duration.between(batimento.get(0).toInstant(), agora);
+            return atraso.isNegative() ? Duration.ZERO : atraso;
+        } catch (DataAccessException e) {
+            log.debug("Não foi possível ler o batimento da réplica {}.", replica.getNome(), e);
+            return null;
+        }
+    }
+
+    @Override
+    public void start() {
+        MeterRegistry meterRegistry = registro.get();
+        for (Replica replica : replicas) {
+            replica.dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            Gauge.builder(METRICA_ATRASO, replica, r -> r.atraso == null ? Double.NaN : r.atraso.toMillis() / 1000.0)
+                    .baseUnit("seconds")
+                    .tag("replica", replica.getNome())
+                    .register(meterRegistry);
+        }
+        executarVerificacao();
+
+        agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "monitor-replicas");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervaloMs = intervalo.toMillis();
+        agendador.scheduleWithFixedDelay(this::executarVerificacao, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void executarVerificacao() {
+        try {
+            registrarBatimento();
+        } catch (DataAccessException e) {
+            log.warn("Falha ao gravar o batimento de replicação no primário.", e);
+        }
+        verificar();
+    }
+
+    @Override
+    public void stop() {
+        agendador.shutdownNow();
+        agendador = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return agendador != null;
+    }
+
+    // Os pools só são fechados com o contexto, depois que as requisições em andamento terminaram
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+}
@@ -1,23 +1,49 @@
 package com.attornatus.gerenciamentopessoas.repositories;
 
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
 import com.attornatus.gerenciamentopessoas.entities.Endereco;
-import jakarta.transaction.Transactional;
+import com.attornatus.gerenciamentopessoas.fragmentos.ChaveFragmento;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
+// As consultas declaradas aqui não herdam a transação somente leitura do SimpleJpaRepository; sem ela, iriam
+// sempre ao primário mesmo com réplicas habilitadas. As alterações declaram a própria transação
 @Repository
+@Transactional(readOnly = true)
 public interface EnderecoRepository extends JpaRepository<Endereco, Integer> {
 
-    @Query("SELECT e FROM Pessoa p JOIN Endereco e WHERE e.principal = true AND p.id = :idPessoa")
-    Optional<Endereco> buscarEnderecoPrincipalPorPessoa(@Param("idPessoa") Integer idPessoa);
+    @Query("SELECT new com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO(" +
+            "e.id, e.logradouro, e.cep, e.numero, e.cidade, e.principal) " +
+            "FROM Endereco e WHERE e.pessoa.id = :idPessoa ORDER BY e.id")
+    List<EnderecoReturnDTO> buscarResumosPorPessoa(@ChaveFragmento @Param("idPessoa") Integer idPessoa);
+
+    @Query("SELECT new com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO(" +
+            "e.id, e.logradouro, e.cep, e.numero, e.cidade, e.principal, e.pessoa.id) " +
+            "FROM Endereco e WHERE e.pessoa.id IN :idsPessoas ORDER BY e.id")
+    List<EnderecoReturnDTO> buscarResumosPorPessoas(
+            @ChaveFragmento @Param("idsPessoas") Collection<Integer> idsPessoas);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("SELECT e FROM Endereco e WHERE e.pessoa.id = :idPessoa AND e.principal = true")
+    Optional<Endereco> buscarEnderecoPrincipalPorPessoa(@ChaveFragmento @Param("idPessoa") Integer idPessoa);
 
     @Transactional
     @Modifying
-	@Query("update Endereco e set e.principal = FALSE where e.pessoa.id = :idPessoa")
-    void removerEnderecoPrincipalAtualPessoa(@Param("idPessoa") Integer idPessoa);
+    @Query("update Endereco e set e.principal = case when e.id = :idEndereco then TRUE else FALSE end " +
+            "where e.pessoa.id = :idPessoa " +
+            "and exists (select 1 from Endereco x where x.id = :idEndereco and x.pessoa.id = :idPessoa)")
+    int definirEnderecoPrincipalPessoa(@Param("idEndereco") Integer idEndereco,
+                                       @ChaveFragmento @Param("idPessoa") Integer idPessoa);
 }
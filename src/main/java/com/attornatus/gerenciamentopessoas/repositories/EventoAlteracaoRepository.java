@@ -0,0 +1,34 @@
+package com.attornatus.gerenciamentopessoas.repositories;
+
+import com.attornatus.gerenciamentopessoas.entities.EventoAlteracao;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+// Sem transação somente leitura: o relay precisa ver no primário os eventos que acabou de publicar
+@Repository
+public interface EventoAlteracaoRepository extends JpaRepository<EventoAlteracao, Long> {
+
+    @Query("SELECT e FROM EventoAlteracao e WHERE e.posicao IS NULL ORDER BY e.id")
+    List<EventoAlteracao> buscarPendentes(Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(e.posicao), 0) FROM EventoAlteracao e")
+    long buscarUltimaPosicao();
+
+    @Query("SELECT e FROM EventoAlteracao e WHERE e.posicao > :posicao ORDER BY e.posicao")
+    List<EventoAlteracao> buscarAPartirDe(@Param("posicao") Long posicao, Pageable pageable);
+
+    // Remove os eventos publicados antes do limite que já têm um evento posterior com a mesma chave
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EventoAlteracao e WHERE e.posicao IS NOT NULL AND e.instante < :limite " +
+            "AND EXISTS (SELECT 1 FROM EventoAlteracao x WHERE x.chave = e.chave AND x.posicao > e.posicao)")
+    int compactar(@Param("limite") Instant limite);
+}
@@ -1,9 +1,83 @@
 package com.attornatus.gerenciamentopessoas.repositories;
 
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
 import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.fragmentos.ChaveFragmento;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+// As consultas declaradas aqui não herdam a transação somente leitura do SimpleJpaRepository; sem ela, iriam
+// sempre ao primário mesmo com réplicas habilitadas. As alterações declaram a própria transação
 @Repository
+@Transactional(readOnly = true)
 public interface PessoaRepository extends JpaRepository<Pessoa,Integer> {
+
+    @Query("SELECT p FROM Pessoa p LEFT JOIN FETCH p.enderecos WHERE p.id = :idPessoa")
+    Optional<Pessoa> buscarComEnderecosPorId(@ChaveFragmento @Param("idPessoa") Integer idPessoa);
+
+    @Query("SELECT p FROM Pessoa p LEFT JOIN FETCH p.enderecos WHERE p.id IN :idsPessoas")
+    List<Pessoa> buscarComEnderecosPorIds(@ChaveFragmento @Param("idsPessoas") Collection<Integer> idsPessoas);
+
+    @Query("SELECT p.id FROM Pessoa p WHERE p.id > :cursor ORDER BY p.id")
+    List<Integer> buscarIdsAPartirDe(@Param("cursor") Integer cursor, Pageable pageable);
+
+    // Fora do cache de consultas: o incremento da versão não invalida as consultas sobre pessoa
+    @Query("SELECT p.versao FROM Pessoa p WHERE p.id = :idPessoa")
+    Optional<Long> buscarVersaoPorId(@ChaveFragmento @Param("idPessoa") Integer idPessoa);
+
+    // Lido do cache de segundo nível da entidade, que cada alteração invalida somente para a pessoa alterada
+    default Optional<PessoaReturnDTO> buscarResumoPorId(@ChaveFragmento Integer idPessoa) {
+        return findById(idPessoa).map(pessoa ->
+                new PessoaReturnDTO(pessoa.getId(), pessoa.getNome(), pessoa.getDataNascimento(), pessoa.getVersao()));
+    }
+
+    // Usado quando os endereços mudam, já que a versão da pessoa também identifica a lista de endereços dela.
+    // Nativa para não passar pela limpeza de atualizações em massa, que descartaria toda a região de pessoas do cache
+    // de segundo nível; o espaço declarado não corresponde a nenhuma entidade e quem chama descarta só essa pessoa
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE pessoa SET versao = versao + 1 " +
+            "WHERE id = :idPessoa AND (CAST(:versaoEsperada AS BIGINT) IS NULL OR versao = :versaoEsperada)",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "pessoa_versao"))
+    int incrementarVersao(@ChaveFragmento @Param("idPessoa") Integer idPessoa, @Param("versaoEsperada") Long versaoEsperada);
+
+    @Query("SELECT new com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO(p.id, p.nome, p.dataNascimento, p.versao) " +
+            "FROM Pessoa p WHERE p.id IN :idsPessoas")
+    List<PessoaReturnDTO> buscarResumosPorIds(@ChaveFragmento @Param("idsPessoas") Collection<Integer> idsPessoas);
+
+    @Query("SELECT new com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO(p.id, p.nome, p.dataNascimento) " +
+            "FROM Pessoa p WHERE p.id > :cursor ORDER BY p.id")
+    List<PessoaReturnDTO> buscarPaginaResumida(@Param("cursor") Integer cursor, Pageable pageable);
+
+    @Query("SELECT new com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO(p.id, p.nome, p.dataNascimento) " +
+            "FROM Pessoa p WHERE p.dataNascimento BETWEEN :inicio AND :fim AND p.id > :cursor ORDER BY p.id")
+    List<PessoaReturnDTO> buscarNascidasEntre(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+                                              @Param("cursor") Integer cursor, Pageable pageable);
+
+    @Query("SELECT new com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO(p.id, p.nome, p.dataNascimento) " +
+            "FROM Pessoa p WHERE p.aniversario IN :aniversarios AND p.id > :cursor ORDER BY p.id")
+    List<PessoaReturnDTO> buscarAniversariantes(@Param("aniversarios") Collection<Integer> aniversarios,
+                                                @Param("cursor") Integer cursor, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO(p.id, p.nome, p.dataNascimento) " +
+            "FROM Pessoa p ORDER BY p.id")
+    Stream<PessoaReturnDTO> buscarTodasResumidasEmFluxo();
 }
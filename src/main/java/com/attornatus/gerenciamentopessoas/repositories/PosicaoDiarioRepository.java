@@ -0,0 +1,9 @@
+package com.attornatus.gerenciamentopessoas.repositories;
+
+import com.attornatus.gerenciamentopessoas.entities.PosicaoDiario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PosicaoDiarioRepository extends JpaRepository<PosicaoDiario, String> {
+}
@@ -0,0 +1,91 @@
+package com.attornatus.gerenciamentopessoas.services;
+
+import com.attornatus.gerenciamentopessoas.busca.IndiceBusca;
+import com.attornatus.gerenciamentopessoas.busca.PessoasAlteradasEvento;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.exceptions.ParametrosInvalidosException;
+import com.attornatus.gerenciamentopessoas.replicas.ContextoLeitura;
+import com.attornatus.gerenciamentopessoas.repositories.PessoaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+public class BuscaPessoaService {
+
+    private static final Logger log = LoggerFactory.getLogger(BuscaPessoaService.class);
+
+    private static final int TAMANHO_LOTE_CARGA = 1000;
+
+    private final IndiceBusca indice = new IndiceBusca();
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    public List<PessoaReturnDTO> buscar(String termo, int limite){
+        if(termo == null || IndiceBusca.normalizar(termo).isEmpty()){
+            throw new ParametrosInvalidosException("Termo de busca não pode ser vazio.");
+        }
+        return indice.buscar(termo, limite);
+    }
+
+    // As alterações já são indexadas durante a carga; o índice descarta as pessoas lidas antes de uma alteração
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarIndice(){
+        int cursor = 0;
+        List<Integer> ids = pessoaRepository.buscarIdsAPartirDe(cursor, PageRequest.ofSize(TAMANHO_LOTE_CARGA));
+        while(!ids.isEmpty()){
+            indexar(ids);
+            cursor = ids.get(ids.size() - 1);
+            ids = pessoaRepository.buscarIdsAPartirDe(cursor, PageRequest.ofSize(TAMANHO_LOTE_CARGA));
+        }
+        log.info("Índice de busca carregado com {} pessoas.", indice.quantidadeDocumentos());
+    }
+
+    // Executado após o commit; quando a gravação não está em uma transação, logo após ela. A nova transação
+    // evita reaproveitar as entidades, possivelmente desatualizadas, da transação que acabou de ser confirmada,
+    // e a leitura vai ao primário porque as réplicas podem ainda não ter recebido a gravação.
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void atualizarIndice(PessoasAlteradasEvento evento){
+        try {
+            ContextoLeitura.noPrimario(() -> indexar(evento.getIdsPessoas()));
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível atualizar o índice de busca das pessoas {}.", evento.getIdsPessoas(), e);
+        }
+    }
+
+    private void indexar(Collection<Integer> idsPessoas){
+        for(Pessoa pessoa : pessoaRepository.buscarComEnderecosPorIds(idsPessoas)){
+            PessoaReturnDTO resumo = new PessoaReturnDTO(pessoa.getId(), pessoa.getNome(), pessoa.getDataNascimento(), pessoa.getVersao());
+            indice.indexar(pessoa.getId(), resumo, textosIndexados(pessoa));
+        }
+    }
+
+    private static List<String> textosIndexados(Pessoa pessoa){
+        List<String> textos = new ArrayList<>();
+        textos.add(pessoa.getNome());
+        for(Endereco endereco : pessoa.getEnderecos()){
+            textos.add(endereco.getLogradouro());
+            textos.add(endereco.getCidade());
+            textos.add(endereco.getCep());
+            if(endereco.getCep() != null){
+                textos.add(endereco.getCep().replaceAll("\\D", ""));
+            }
+        }
+        return textos;
+    }
+}
@@ -1,57 +1,139 @@
 package com.attornatus.gerenciamentopessoas.services;
 
+import com.attornatus.gerenciamentopessoas.busca.PessoasAlteradasEvento;
+import com.attornatus.gerenciamentopessoas.concorrencia.ConsultaCompartilhada;
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
 import com.attornatus.gerenciamentopessoas.entities.Endereco;
 import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.eventos.RegistroEventos;
 import com.attornatus.gerenciamentopessoas.exceptions.endereco.EnderecoNaoEncontradoException;
 import com.attornatus.gerenciamentopessoas.exceptions.pessoa.PessoaNaoEncontradaException;
+import com.attornatus.gerenciamentopessoas.replicas.ContextoLeitura;
 import com.attornatus.gerenciamentopessoas.repositories.EnderecoRepository;
-import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class EnderecoService {
 
+    private static final int MAXIMO_CONSULTAS_EM_ANDAMENTO = 1024;
+
+    private final ConsultaCompartilhada<Integer, List<EnderecoReturnDTO>> consultasEnderecos =
+            new ConsultaCompartilhada<>(MAXIMO_CONSULTAS_EM_ANDAMENTO);
+
     @Autowired
     private EnderecoRepository enderecoRepository;
 
     @Autowired
     private PessoaService pessoaService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired(required = false)
+    private RegistroEventos registroEventos;
+
+    // O incremento da versão já confirma que a pessoa existe, então ela não precisa ser carregada
+    @Transactional
     public void salvar(Endereco novoEndereco, Integer idPessoa){
-        Pessoa pessoa = pessoaService.buscarPorId(idPessoa);
-        novoEndereco.setPessoa(pessoa);
+        pessoaService.registrarAlteracao(idPessoa, null);
+        novoEndereco.setPessoa(pessoaService.referenciaPorId(idPessoa));
 
         enderecoRepository.save(novoEndereco);
+        if(registroEventos != null){
+            registroEventos.enderecoCriado(novoEndereco, idPessoa);
+        }
+        consultasEnderecos.descartarAposConfirmacao(idPessoa);
+        eventPublisher.publishEvent(new PessoasAlteradasEvento(List.of(idPessoa)));
     }
 
-    public List<Endereco> buscarEnderecosPessoaPorId(Integer idPessoa){
-        Pessoa pessoa = pessoaService.buscarPorId(idPessoa);
-        return pessoa.getEnderecos();
+    // Uma transação para o lote inteiro: a versão de cada pessoa é incrementada uma vez e os endereços
+    // são inseridos em lotes JDBC
+    @Transactional
+    public void salvarLote(Map<Integer, List<Endereco>> enderecosPorPessoa){
+        List<Endereco> enderecos = new ArrayList<>();
+        enderecosPorPessoa.forEach((idPessoa, novosEnderecos) -> {
+            pessoaService.registrarAlteracao(idPessoa, null);
+            Pessoa pessoa = pessoaService.referenciaPorId(idPessoa);
+            novosEnderecos.forEach(endereco -> endereco.setPessoa(pessoa));
+            enderecos.addAll(novosEnderecos);
+            consultasEnderecos.descartarAposConfirmacao(idPessoa);
+        });
+
+        enderecoRepository.saveAll(enderecos);
+        if(registroEventos != null){
+            enderecos.forEach(endereco -> registroEventos.enderecoCriado(endereco, endereco.getPessoa().getId()));
+        }
+        eventPublisher.publishEvent(new PessoasAlteradasEvento(List.copyOf(enderecosPorPessoa.keySet())));
     }
 
-    public Endereco buscarEnderecoPrincipalPessoaPorId(Integer idPessoa){
-        if(!pessoaService.existePessoa(idPessoa)){
+    // Fora de transação, para que as chamadas que aguardam a consulta compartilhada não ocupem conexões; as
+    // consultas do repositório já são somente leitura e podem ir às réplicas. A lista retornada é a mesma para
+    // todas as chamadas e não deve ser alterada
+    public List<EnderecoReturnDTO> buscarEnderecosPessoaPorId(Integer idPessoa){
+        return buscarEnderecos(idPessoa, true);
+    }
+
+    // Para quando a existência da pessoa já foi verificada: uma lista vazia é retornada sem consultar a pessoa
+    public List<EnderecoReturnDTO> buscarEnderecosPessoaExistente(Integer idPessoa){
+        return buscarEnderecos(idPessoa, false);
+    }
+
+    private List<EnderecoReturnDTO> buscarEnderecos(Integer idPessoa, boolean verificarPessoa){
+        if(ContextoLeitura.isPrimarioObrigatorio()){
+            return consultarEnderecos(idPessoa, verificarPessoa);
+        }
+        return consultasEnderecos.executar(idPessoa, () -> consultarEnderecos(idPessoa, verificarPessoa));
+    }
+
+    private List<EnderecoReturnDTO> consultarEnderecos(Integer idPessoa, boolean verificarPessoa){
+        List<EnderecoReturnDTO> enderecos = enderecoRepository.buscarResumosPorPessoa(idPessoa);
+        if(enderecos.isEmpty() && verificarPessoa && !pessoaService.existePessoa(idPessoa)){
             throw new PessoaNaoEncontradaException();
         }
-        return enderecoRepository.buscarEnderecoPrincipalPorPessoa(idPessoa)
-                .orElseThrow(() -> new EnderecoNaoEncontradoException("Endereço principal não encontrado.")
+        return Collections.unmodifiableList(enderecos);
+    }
+
+    // Pessoas sem endereços não aparecem no mapa
+    public Map<Integer, List<EnderecoReturnDTO>> buscarEnderecosPorPessoas(Collection<Integer> idsPessoas){
+        return enderecoRepository.buscarResumosPorPessoas(idsPessoas).stream()
+                .collect(Collectors.groupingBy(EnderecoReturnDTO::getIdPessoa));
+    }
+
+    public Endereco buscarEnderecoPrincipalPessoaPorId(Integer idPessoa){
+        return enderecoRepository.buscarEnderecoPrincipalPorPessoa(idPessoa).orElseThrow(
+                () -> pessoaService.existePessoa(idPessoa)
+                        ? new EnderecoNaoEncontradoException("Endereço principal não encontrado.")
+                        : new PessoaNaoEncontradaException()
         );
     }
 
     @Transactional
     public void salvarEnderecoPrincipalPessoa(Integer idEndereco, Integer idPessoa){
-        if(!pessoaService.existePessoa(idPessoa)){
-            throw new PessoaNaoEncontradaException();
-        }
+        salvarEnderecoPrincipalPessoa(idEndereco, idPessoa, null);
+    }
 
-        enderecoRepository.removerEnderecoPrincipalAtualPessoa(idPessoa);
+    // O incremento da versão bloqueia a linha da pessoa, serializando trocas concorrentes do endereço principal
+    @Transactional
+    public void salvarEnderecoPrincipalPessoa(Integer idEndereco, Integer idPessoa, Long versaoEsperada){
+        pessoaService.registrarAlteracao(idPessoa, versaoEsperada);
 
-        Endereco enderecoPrincipalAtual = buscarPorId(idEndereco);
-        enderecoPrincipalAtual.setPrincipal(true);
-        enderecoRepository.save(enderecoPrincipalAtual);
+        if(enderecoRepository.definirEnderecoPrincipalPessoa(idEndereco, idPessoa) == 0){
+            throw new EnderecoNaoEncontradoException();
+        }
+        if(registroEventos != null){
+            registroEventos.enderecoPrincipalDefinido(idEndereco, idPessoa);
+        }
+        consultasEnderecos.descartarAposConfirmacao(idPessoa);
     }
 
     public Endereco buscarPorId(Integer id){
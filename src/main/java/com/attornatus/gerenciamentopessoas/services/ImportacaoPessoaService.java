@@ -0,0 +1,191 @@
+package com.attornatus.gerenciamentopessoas.services;
+
+import com.attornatus.gerenciamentopessoas.busca.PessoasAlteradasEvento;
+import com.attornatus.gerenciamentopessoas.dto.importacao.ErroImportacaoDTO;
+import com.attornatus.gerenciamentopessoas.dto.importacao.ImportacaoResultadoDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaImportacaoDTO;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.eventos.RegistroEventos;
+import com.attornatus.gerenciamentopessoas.fragmentos.Fragmentacao;
+import com.attornatus.gerenciamentopessoas.mappers.EnderecoMapper;
+import com.attornatus.gerenciamentopessoas.mappers.PessoaMapper;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class ImportacaoPessoaService {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private Validator validator;
+    @Autowired
+    private PessoaMapper pessoaMapper;
+    @Autowired
+    private EnderecoMapper enderecoMapper;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired(required = false)
+    private Fragmentacao fragmentacao;
+    @Autowired(required = false)
+    private RegistroEventos registroEventos;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${pessoas.importacao.tamanho-lote}")
+    private int tamanhoLote;
+
+    public ImportacaoResultadoDTO importar(InputStream corpo) throws IOException {
+        ImportacaoResultadoDTO resultado = new ImportacaoResultadoDTO();
+        Map<Integer, Pessoa> lote = new LinkedHashMap<>();
+        int indice = 0;
+
+        try (MappingIterator<PessoaImportacaoDTO> pessoas = objectMapper
+                .readerFor(PessoaImportacaoDTO.class)
+                .readValues(corpo)) {
+
+            while (pessoas.hasNextValue()) {
+                int indiceAtual = indice++;
+                PessoaImportacaoDTO pessoa;
+                try {
+                    pessoa = pessoas.nextValue();
+                } catch (JsonParseException e) {
+                    resultado.getErros().add(new ErroImportacaoDTO(indiceAtual, List.of("JSON inválido: " + e.getOriginalMessage())));
+                    break;
+                } catch (JsonMappingException e) {
+                    resultado.getErros().add(new ErroImportacaoDTO(indiceAtual, List.of("Formato inválido: " + e.getOriginalMessage())));
+                    continue;
+                }
+
+                Set<ConstraintViolation<PessoaImportacaoDTO>> violacoes = validator.validate(pessoa);
+                if (!violacoes.isEmpty()) {
+                    resultado.getErros().add(new ErroImportacaoDTO(indiceAtual, violacoes.stream()
+                            .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                            .sorted()
+                            .toList()));
+                    continue;
+                }
+
+                lote.put(indiceAtual, paraEntidade(pessoa));
+                if (lote.size() >= tamanhoLote) {
+                    salvarLote(lote, resultado);
+                }
+            }
+        } catch (JsonParseException e) {
+            resultado.getErros().add(new ErroImportacaoDTO(indice, List.of("JSON inválido: " + e.getOriginalMessage())));
+        }
+
+        salvarLote(lote, resultado);
+        resultado.setTotalProcessado(indice);
+        return resultado;
+    }
+
+    private Pessoa paraEntidade(PessoaImportacaoDTO dto) {
+        Pessoa pessoa = pessoaMapper.paraEntidade(dto);
+        dto.getEnderecos().forEach(enderecoDto -> {
+            Endereco endereco = enderecoMapper.paraEntidade(enderecoDto);
+            endereco.setPessoa(pessoa);
+            pessoa.getEnderecos().add(endereco);
+        });
+        return pessoa;
+    }
+
+    private void salvarLote(Map<Integer, Pessoa> lote, ImportacaoResultadoDTO resultado) {
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        if (fragmentacao == null) {
+            salvarNoFragmento(null, lote, resultado);
+        } else {
+            // O lote é dividido pelo fragmento de cada pessoa, com uma transação por fragmento
+            lote.values().forEach(fragmentacao::atribuirIds);
+            Map<String, Map<Integer, Pessoa>> grupos = new LinkedHashMap<>();
+            lote.forEach((indice, pessoa) -> grupos
+                    .computeIfAbsent(fragmentacao.fragmentoDe(pessoa.getId()), fragmento -> new LinkedHashMap<>())
+                    .put(indice, pessoa));
+            grupos.forEach((fragmento, grupo) -> salvarNoFragmento(fragmento, grupo, resultado));
+        }
+
+        lote.clear();
+    }
+
+    private void salvarNoFragmento(String fragmento, Map<Integer, Pessoa> lote, ImportacaoResultadoDTO resultado) {
+        try {
+            if (fragmento == null) {
+                persistir(lote);
+            } else {
+                fragmentacao.noFragmento(fragmento, () -> {
+                    persistir(lote);
+                    return null;
+                });
+            }
+            resultado.setTotalImportado(resultado.getTotalImportado() + lote.size());
+            eventPublisher.publishEvent(new PessoasAlteradasEvento(lote.values().stream().map(Pessoa::getId).toList()));
+        } catch (PersistenceException | DataAccessException e) {
+            if (lote.size() == 1) {
+                lote.keySet().forEach(indice -> resultado.getErros()
+                        .add(new ErroImportacaoDTO(indice, List.of("Erro ao salvar pessoa: " + e.getMessage()))));
+                return;
+            }
+            // Uma pessoa com erro desfaz o lote inteiro; as do lote são gravadas uma a uma para reportar só as que falham
+            lote.forEach((indice, pessoa) -> {
+                desfazerTentativa(fragmento, pessoa);
+                salvarNoFragmento(fragmento, Map.of(indice, pessoa), resultado);
+            });
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Limpa o que a tentativa desfeita atribuiu, para que a pessoa volte a ser gravada como nova. Com fragmentação os
+    // ids foram reservados antes da gravação e definem o fragmento, então são mantidos
+    private void desfazerTentativa(String fragmento, Pessoa pessoa) {
+        pessoa.setVersao(null);
+        if (fragmento == null) {
+            pessoa.setId(null);
+            pessoa.getEnderecos().forEach(endereco -> endereco.setId(null));
+        }
+    }
+
+    private void persistir(Map<Integer, Pessoa> lote) {
+        transactionTemplate.executeWithoutResult(status -> {
+            lote.values().forEach(pessoa -> {
+                entityManager.persist(pessoa);
+                pessoa.getEnderecos().forEach(entityManager::persist);
+                if (registroEventos != null) {
+                    registroEventos.pessoaCriada(pessoa);
+                    pessoa.getEnderecos().forEach(endereco -> registroEventos.enderecoCriado(endereco, pessoa.getId()));
+                }
+            });
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+}
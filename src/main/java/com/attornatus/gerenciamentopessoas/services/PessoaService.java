@@ -1,49 +1,239 @@
 package com.attornatus.gerenciamentopessoas.services;
 
+import com.attornatus.gerenciamentopessoas.busca.PessoasAlteradasEvento;
+import com.attornatus.gerenciamentopessoas.concorrencia.ConsultaCompartilhada;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
 import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.eventos.RegistroEventos;
 import com.attornatus.gerenciamentopessoas.exceptions.ParametrosInvalidosException;
+import com.attornatus.gerenciamentopessoas.exceptions.VersaoDesatualizadaException;
 import com.attornatus.gerenciamentopessoas.exceptions.pessoa.PessoaNaoEncontradaException;
+import com.attornatus.gerenciamentopessoas.fragmentos.Fragmentacao;
+import com.attornatus.gerenciamentopessoas.replicas.ContextoLeitura;
 import com.attornatus.gerenciamentopessoas.repositories.PessoaRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PessoaService {
 
+    private static final int ANIVERSARIO_29_FEVEREIRO = 229;
+    private static final int MAXIMO_CONSULTAS_EM_ANDAMENTO = 1024;
+    // Acima disso a data de nascimento calculada pode sair do intervalo aceito por LocalDate
+    private static final int IDADE_MAXIMA = 150;
+
+    private final ConsultaCompartilhada<Integer, PessoaReturnDTO> consultasResumo =
+            new ConsultaCompartilhada<>(MAXIMO_CONSULTAS_EM_ANDAMENTO);
+
     @Autowired
     private PessoaRepository pessoaRepository;
+    @Autowired
+    private Clock relogio;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired(required = false)
+    private Fragmentacao fragmentacao;
+    @Autowired(required = false)
+    private RegistroEventos registroEventos;
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
 
+    @Transactional
     public void criar(Pessoa pessoa){
         pessoaRepository.save(pessoa);
+        if(registroEventos != null){
+            registroEventos.pessoaCriada(pessoa);
+        }
+        eventPublisher.publishEvent(new PessoasAlteradasEvento(Collections.singletonList(pessoa.getId())));
     }
 
+    @Transactional
     public void atualizar(Pessoa pessoaAtualizada, Integer id){
+        atualizar(pessoaAtualizada, id, null);
+    }
+
+    @Transactional
+    public void atualizar(Pessoa pessoaAtualizada, Integer id, Long versaoEsperada){
         if(pessoaAtualizada.getNome() == null && pessoaAtualizada.getDataNascimento() == null){
             throw new ParametrosInvalidosException("Dados da pessoa devem conter ao menos um campo não vazio.");
         }
 
         Pessoa pessoaAntiga = buscarPorId(id);
+        if(versaoEsperada != null && !versaoEsperada.equals(pessoaAntiga.getVersao())){
+            throw new VersaoDesatualizadaException();
+        }
 
         Optional.ofNullable(pessoaAtualizada.getNome()).ifPresent(pessoaAntiga::setNome);
         Optional.ofNullable(pessoaAtualizada.getDataNascimento()).ifPresent(pessoaAntiga::setDataNascimento);
 
         pessoaRepository.save(pessoaAntiga);
+        if(registroEventos != null){
+            registroEventos.pessoaAtualizada(pessoaAntiga);
+        }
+        consultasResumo.descartarAposConfirmacao(id);
+        eventPublisher.publishEvent(new PessoasAlteradasEvento(List.of(pessoaAntiga.getId())));
+    }
+
+    // Alterações nos endereços não passam pela entidade, então a versão da pessoa é incrementada explicitamente.
+    // O incremento não atualiza o cache de segundo nível, então só essa pessoa é descartada dele
+    @Transactional
+    public void registrarAlteracao(Integer idPessoa, Long versaoEsperada){
+        if(pessoaRepository.incrementarVersao(idPessoa, versaoEsperada) == 0){
+            if(!existePessoa(idPessoa)){
+                throw new PessoaNaoEncontradaException();
+            }
+            throw new VersaoDesatualizadaException();
+        }
+        consultasResumo.descartarAposConfirmacao(idPessoa);
+        descartarDoCacheAposConfirmacao(idPessoa);
+    }
+
+    private void descartarDoCacheAposConfirmacao(Integer idPessoa){
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            entityManagerFactory.getCache().evict(Pessoa.class, idPessoa);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManagerFactory.getCache().evict(Pessoa.class, idPessoa);
+            }
+        });
     }
 
+    // Com a pessoa no cache de segundo nível a versão sai dele; senão, só a versão é consultada
+    public Long buscarVersaoPorId(Integer id){
+        Optional<Long> versao = entityManagerFactory.getCache().contains(Pessoa.class, id)
+                ? pessoaRepository.findById(id).map(Pessoa::getVersao)
+                : pessoaRepository.buscarVersaoPorId(id);
+        return versao.orElseThrow(
+                () -> new PessoaNaoEncontradaException()
+        );
+    }
+
+    // Não consulta o banco; usar somente quando a existência da pessoa já foi verificada
+    public Pessoa referenciaPorId(Integer id){
+        return pessoaRepository.getReferenceById(id);
+    }
+
+    @Transactional(readOnly = true)
     public Pessoa buscarPorId(Integer id){
         return pessoaRepository.findById(id).orElseThrow(
                 () -> new PessoaNaoEncontradaException()
         );
     }
 
+    @Transactional(readOnly = true)
     public List<Pessoa> buscarTodas(){
         return pessoaRepository.findAll();
     }
 
+    // Leituras simultâneas da mesma pessoa compartilham uma única consulta, inclusive quando ela não existe.
+    // Quem precisa ler do primário não aproveita uma consulta que pode ter ido a uma réplica
+    public PessoaReturnDTO buscarResumoPorId(Integer id){
+        if(ContextoLeitura.isPrimarioObrigatorio()){
+            return consultarResumo(id);
+        }
+        return consultasResumo.executar(id, () -> consultarResumo(id));
+    }
+
+    private PessoaReturnDTO consultarResumo(Integer id){
+        return pessoaRepository.buscarResumoPorId(id).orElseThrow(
+                () -> new PessoaNaoEncontradaException()
+        );
+    }
+
+    public Map<Integer, PessoaReturnDTO> buscarResumosPorIds(Collection<Integer> ids){
+        return pessoaRepository.buscarResumosPorIds(ids).stream()
+                .collect(Collectors.toMap(PessoaReturnDTO::getId, Function.identity()));
+    }
+
+    public List<PessoaReturnDTO> buscarPagina(Integer cursor, int tamanho){
+        int ultimoId = cursor == null ? 0 : cursor;
+        return pessoaRepository.buscarPaginaResumida(ultimoId, PageRequest.ofSize(tamanho));
+    }
+
+    public List<PessoaReturnDTO> buscarNascidasEntre(LocalDate inicio, LocalDate fim, Integer cursor, int tamanho){
+        if(inicio.isAfter(fim)){
+            throw new ParametrosInvalidosException("Data inicial deve ser anterior ou igual à data final.");
+        }
+        int ultimoId = cursor == null ? 0 : cursor;
+        return pessoaRepository.buscarNascidasEntre(inicio, fim, ultimoId, PageRequest.ofSize(tamanho));
+    }
+
+    public List<PessoaReturnDTO> buscarPorIdade(int idadeMinima, int idadeMaxima, Integer cursor, int tamanho){
+        if(idadeMinima < 0 || idadeMinima > idadeMaxima){
+            throw new ParametrosInvalidosException("Faixa de idade inválida.");
+        }
+        if(idadeMaxima > IDADE_MAXIMA){
+            throw new ParametrosInvalidosException("Idade máxima não pode ser maior que " + IDADE_MAXIMA + " anos.");
+        }
+        LocalDate hoje = LocalDate.now(relogio);
+        LocalDate nascidoDepoisDe = hoje.minusYears(idadeMaxima + 1L).plusDays(1);
+        LocalDate nascidoAntesDe = hoje.minusYears(idadeMinima);
+        return buscarNascidasEntre(nascidoDepoisDe, nascidoAntesDe, cursor, tamanho);
+    }
+
+    public List<PessoaReturnDTO> buscarAniversariantes(int dias, Integer cursor, int tamanho){
+        if(dias < 0){
+            throw new ParametrosInvalidosException("Quantidade de dias não pode ser negativa.");
+        }
+        int ultimoId = cursor == null ? 0 : cursor;
+        return pessoaRepository.buscarAniversariantes(aniversariosAte(dias), ultimoId, PageRequest.ofSize(tamanho));
+    }
+
+    // Dias no formato MMdd de hoje até hoje + dias. Em anos não bissextos, quem nasceu em 29/02 comemora em 28/02.
+    private Set<Integer> aniversariosAte(int dias){
+        LocalDate dia = LocalDate.now(relogio);
+        Set<Integer> aniversarios = new LinkedHashSet<>();
+        for(int i = 0; i <= Math.min(dias, 365); i++, dia = dia.plusDays(1)){
+            aniversarios.add(dia.getMonthValue() * 100 + dia.getDayOfMonth());
+            if(!dia.isLeapYear() && dia.getMonth() == Month.FEBRUARY && dia.getDayOfMonth() == 28){
+                aniversarios.add(ANIVERSARIO_29_FEVEREIRO);
+            }
+        }
+        return aniversarios;
+    }
+
+    // Com fragmentação, os fragmentos são percorridos um depois do outro, cada um em ordem de id
+    @Transactional(readOnly = true)
+    public void percorrerTodas(Consumer<PessoaReturnDTO> consumidor){
+        if (fragmentacao != null) {
+            fragmentacao.emCadaFragmento(() -> percorrer(consumidor));
+        } else {
+            percorrer(consumidor);
+        }
+    }
+
+    private void percorrer(Consumer<PessoaReturnDTO> consumidor){
+        try (Stream<PessoaReturnDTO> pessoas = pessoaRepository.buscarTodasResumidasEmFluxo()) {
+            pessoas.forEach(consumidor);
+        }
+    }
+
     public boolean existePessoa(Integer idPessoa){
-        return pessoaRepository.existsById(idPessoa);
+        return pessoaRepository.findById(idPessoa).isPresent();
     }
 }
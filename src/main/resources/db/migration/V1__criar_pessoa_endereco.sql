@@ -0,0 +1,35 @@
+CREATE SEQUENCE pessoa_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE endereco_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE pessoa (
+    id INTEGER NOT NULL,
+    nome VARCHAR(255) NOT NULL,
+    data_nascimento DATE NOT NULL,
+    -- Mês e dia do nascimento (MMdd), para buscar aniversariantes por faixa no índice
+    aniversario INTEGER GENERATED ALWAYS AS (MONTH(data_nascimento) * 100 + DAY_OF_MONTH(data_nascimento)),
+    versao BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_pessoa PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_pessoa_data_nascimento ON pessoa (data_nascimento);
+CREATE INDEX idx_pessoa_aniversario ON pessoa (aniversario);
+
+CREATE TABLE endereco (
+    id INTEGER NOT NULL,
+    endereco_id INTEGER NOT NULL,
+    logradouro VARCHAR(255) NOT NULL,
+    cep VARCHAR(255) NOT NULL,
+    numero VARCHAR(255) NOT NULL,
+    cidade VARCHAR(255) NOT NULL,
+    principal BOOLEAN DEFAULT FALSE NOT NULL,
+    -- O H2 não tem índices parciais: a coluna só é preenchida no endereço principal, e a restrição única,
+    -- que ignora nulos, garante no máximo um endereço principal por pessoa
+    principal_pessoa_id INTEGER GENERATED ALWAYS AS (CASE WHEN principal THEN endereco_id END),
+    versao BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_endereco PRIMARY KEY (id),
+    CONSTRAINT fk_endereco_pessoa FOREIGN KEY (endereco_id) REFERENCES pessoa (id),
+    CONSTRAINT uk_endereco_principal_pessoa UNIQUE (principal_pessoa_id)
+);
+
+-- Atende a chave estrangeira, a listagem de endereços e a busca do endereço principal de uma pessoa
+CREATE INDEX idx_endereco_pessoa_principal ON endereco (endereco_id, principal);
@@ -0,0 +1,6 @@
+-- Última entrada de cada diário da escrita adiada já aplicada no banco
+CREATE TABLE posicao_diario (
+    diario VARCHAR(255) NOT NULL,
+    sequencia BIGINT NOT NULL,
+    CONSTRAINT pk_posicao_diario PRIMARY KEY (diario)
+);
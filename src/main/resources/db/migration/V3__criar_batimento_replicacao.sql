@@ -0,0 +1,6 @@
+-- Instante gravado periodicamente no primário; a diferença para o valor lido em cada réplica é o atraso dela
+CREATE TABLE batimento_replicacao (
+    id INTEGER NOT NULL,
+    instante TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_batimento_replicacao PRIMARY KEY (id)
+);
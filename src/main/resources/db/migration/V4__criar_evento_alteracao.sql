@@ -0,0 +1,17 @@
+-- Caixa de saída dos eventos de alteração; a posição só é preenchida quando o evento é publicado
+CREATE SEQUENCE evento_alteracao_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE evento_alteracao (
+    id BIGINT NOT NULL,
+    tipo VARCHAR(255) NOT NULL,
+    chave VARCHAR(255) NOT NULL,
+    pessoa_id INTEGER NOT NULL,
+    dados VARCHAR(4000) NOT NULL,
+    instante TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    posicao BIGINT,
+    CONSTRAINT pk_evento_alteracao PRIMARY KEY (id),
+    CONSTRAINT uk_evento_alteracao_posicao UNIQUE (posicao)
+);
+
+-- Atende a compactação, que procura um evento posterior com a mesma chave
+CREATE INDEX idx_evento_alteracao_chave ON evento_alteracao (chave, posicao);
@@ -0,0 +1,2 @@
+-- Os endereços são versionados pela pessoa: a versão dela é a ETag da lista de endereços
+ALTER TABLE endereco DROP COLUMN versao;
@@ -0,0 +1,127 @@
+package com.attornatus.gerenciamentopessoas.busca;
+
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IndiceBuscaTests {
+
+    private IndiceBusca indice;
+
+    private void indexar(int id, String nome, String... textosEndereco){
+        List<String> textos = new ArrayList<>(List.of(textosEndereco));
+        textos.add(nome);
+        indice.indexar(id, new PessoaReturnDTO(id, nome, null), textos);
+    }
+
+    private List<Integer> buscar(String consulta){
+        return indice.buscar(consulta, 10).stream().map(PessoaReturnDTO::getId).toList();
+    }
+
+    @BeforeEach
+    public void preparar(){
+        indice = new IndiceBusca();
+        indexar(1, "João Araújo", "Rua das Laranjeiras", "Fortaleza", "60000-100");
+        indexar(2, "Joana Souza", "Avenida Beira Mar", "Fortaleza", "60100-200");
+        indexar(3, "Michael Silva", "Rua Sete de Setembro", "São Paulo", "01000-300");
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar sem acentos ou com letras maiúsculas DEVE encontrar os termos acentuados")
+    public void buscarIgnorandoAcentos(){
+        assertThat(buscar("JOAO araujo")).containsExactly(1);
+        assertThat(buscar("sao paulo")).containsExactly(3);
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar por prefixo DEVE retornar primeiro a correspondência exata")
+    public void buscarPorPrefixo(){
+        assertThat(buscar("joa")).containsExactly(1, 2);
+        assertThat(buscar("joao")).containsExactly(1);
+        assertThat(buscar("laranj")).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar com uma letra errada, faltando, sobrando ou trocada DEVE encontrar o termo aproximado")
+    public void buscarAproximado(){
+        assertThat(buscar("michel")).containsExactly(3);
+        assertThat(buscar("mikhail")).isEmpty();
+        assertThat(buscar("fortalesa")).containsExactly(1, 2);
+        assertThat(buscar("silav")).containsExactly(3);
+        assertThat(buscar("setembroo")).containsExactly(3);
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar com vários termos DEVE retornar somente as pessoas que possuem todos os termos")
+    public void buscarVariosTermos(){
+        assertThat(buscar("fortaleza beira")).containsExactly(2);
+        assertThat(buscar("fortaleza paulo")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar pelo CEP DEVE encontrar a pessoa pelas partes do CEP")
+    public void buscarPorCep(){
+        assertThat(buscar("60000-100")).containsExactly(1);
+        assertThat(buscar("601")).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("QUANDO receber uma versão anterior à indexada DEVE manter o documento mais novo")
+    public void ignorarVersaoAnterior(){
+        indice.indexar(4, new PessoaReturnDTO(4, "Maria Lima", null, 2L), List.of("Maria Lima"));
+        indice.indexar(4, new PessoaReturnDTO(4, "Maria Costa", null, 1L), List.of("Maria Costa"));
+
+        assertThat(buscar("lima")).containsExactly(4);
+        assertThat(buscar("costa")).isEmpty();
+
+        indice.indexar(4, new PessoaReturnDTO(4, "Maria Rocha", null, 3L), List.of("Maria Rocha"));
+        assertThat(buscar("rocha")).containsExactly(4);
+        assertThat(buscar("lima")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("QUANDO uma pessoa for reindexada DEVE deixar de ser encontrada pelos termos antigos")
+    public void reindexarPessoa(){
+        indexar(3, "Michael Santos", "Rua Sete de Setembro", "Recife", "50000-000");
+
+        assertThat(buscar("silva")).isEmpty();
+        assertThat(buscar("paulo")).isEmpty();
+        assertThat(buscar("santos recife")).containsExactly(3);
+    }
+
+    @Test
+    @DisplayName("QUANDO uma pessoa for removida DEVE deixar de ser encontrada")
+    public void removerPessoa(){
+        indice.remover(1);
+
+        assertThat(buscar("joa")).containsExactly(2);
+        assertThat(indice.quantidadeDocumentos()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("QUANDO existirem mais resultados que o limite DEVE retornar somente os mais relevantes")
+    public void buscarComLimite(){
+        for(int i = 10; i < 100; i++){
+            indexar(i, "Fortunato " + i);
+        }
+
+        assertThat(indice.buscar("fortaleza", 2)).extracting(PessoaReturnDTO::getId).containsExactly(1, 2);
+        assertThat(indice.buscar("fort", 5)).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("QUANDO o limite for atingido com empate DEVE continuar procurando ids menores com a mesma pontuação")
+    public void desempatarPeloMenorIdEntreGrupos(){
+        indexar(50, "Fortuna");
+        indexar(60, "Fortuna");
+        indexar(40, "Fortunato");
+
+        assertThat(indice.buscar("fortu", 2)).extracting(PessoaReturnDTO::getId).containsExactly(40, 50);
+    }
+}
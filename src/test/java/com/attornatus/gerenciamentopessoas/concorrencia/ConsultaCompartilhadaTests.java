@@ -0,0 +1,143 @@
+package com.attornatus.gerenciamentopessoas.concorrencia;
+
+import com.attornatus.gerenciamentopessoas.exceptions.pessoa.PessoaNaoEncontradaException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConsultaCompartilhadaTests {
+
+    private static final int CHAMADAS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CHAMADAS);
+
+    @AfterEach
+    public void encerrarExecutor(){
+        executor.shutdownNow();
+    }
+
+    // Inicia a primeira chamada, que fica bloqueada na consulta até as demais estarem aguardando por ela
+    private List<Future<String>> chamarSimultaneamente(ConsultaCompartilhada<Integer, String> consultas,
+                                                       Supplier<String> consulta,
+                                                       CountDownLatch liberarConsulta) throws Exception {
+        CountDownLatch consultaIniciada = new CountDownLatch(1);
+        List<Future<String>> chamadas = new ArrayList<>();
+        chamadas.add(executor.submit(() -> consultas.executar(1, () -> {
+            consultaIniciada.countDown();
+            aguardar(liberarConsulta);
+            return consulta.get();
+        })));
+        assertThat(consultaIniciada.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for(int i = 1; i < CHAMADAS; i++){
+            chamadas.add(executor.submit(() -> consultas.executar(1, consulta)));
+        }
+        return chamadas;
+    }
+
+    private static void aguardar(CountDownLatch latch){
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    @DisplayName("QUANDO chamadas simultâneas usarem a mesma chave DEVE executar uma consulta e compartilhar o resultado")
+    public void compartilharResultado() throws Exception {
+        ConsultaCompartilhada<Integer, String> consultas = new ConsultaCompartilhada<>(10);
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch liberarConsulta = new CountDownLatch(1);
+
+        List<Future<String>> chamadas = chamarSimultaneamente(consultas, () -> "Michael " + execucoes.incrementAndGet(), liberarConsulta);
+        Thread.sleep(100);
+        liberarConsulta.countDown();
+
+        for(Future<String> chamada : chamadas){
+            assertThat(chamada.get(5, TimeUnit.SECONDS)).isEqualTo("Michael 1");
+        }
+        assertThat(execucoes).hasValue(1);
+        assertThat(consultas.quantidadeEmAndamento()).isZero();
+    }
+
+    @Test
+    @DisplayName("QUANDO a consulta compartilhada lançar PessoaNaoEncontradaException DEVE repassá-la a todas as chamadas")
+    public void compartilharExcecao() throws Exception {
+        ConsultaCompartilhada<Integer, String> consultas = new ConsultaCompartilhada<>(10);
+        CountDownLatch liberarConsulta = new CountDownLatch(1);
+
+        List<Future<String>> chamadas = chamarSimultaneamente(consultas, () -> {
+            throw new PessoaNaoEncontradaException();
+        }, liberarConsulta);
+        Thread.sleep(100);
+        liberarConsulta.countDown();
+
+        for(Future<String> chamada : chamadas){
+            assertThatThrownBy(() -> chamada.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(PessoaNaoEncontradaException.class);
+        }
+        assertThat(consultas.quantidadeEmAndamento()).isZero();
+        assertThat(consultas.executar(1, () -> "Michael")).isEqualTo("Michael");
+    }
+
+    @Test
+    @DisplayName("QUANDO o limite de chaves em andamento for atingido DEVE executar as novas chamadas sem agrupamento")
+    public void executarSemAgrupamentoAcimaDoLimite() throws Exception {
+        ConsultaCompartilhada<Integer, String> consultas = new ConsultaCompartilhada<>(1);
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch liberarConsulta = new CountDownLatch(1);
+
+        List<Future<String>> chamadas = chamarSimultaneamente(consultas, () -> "Michael " + execucoes.incrementAndGet(), liberarConsulta);
+        for(int i = 1; i < chamadas.size(); i++){
+            assertThat(chamadas.get(i).get(5, TimeUnit.SECONDS)).startsWith("Michael");
+        }
+        liberarConsulta.countDown();
+        chamadas.get(0).get(5, TimeUnit.SECONDS);
+
+        assertThat(execucoes).hasValue(CHAMADAS);
+        assertThat(consultas.quantidadeEmAndamento()).isZero();
+    }
+
+    @Test
+    @DisplayName("QUANDO a chave for alterada em uma transação DEVE descartar a consulta em andamento somente após a confirmação")
+    public void descartarAposConfirmacao() throws Exception {
+        ConsultaCompartilhada<Integer, String> consultas = new ConsultaCompartilhada<>(10);
+        CountDownLatch liberarConsulta = new CountDownLatch(1);
+        List<Future<String>> chamadas = chamarSimultaneamente(consultas, () -> "antiga", liberarConsulta);
+        Thread.sleep(100);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            consultas.descartarAposConfirmacao(1);
+            assertThat(consultas.quantidadeEmAndamento()).isEqualTo(1);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(consultas.quantidadeEmAndamento()).isZero();
+        assertThat(consultas.executar(1, () -> "nova")).isEqualTo("nova");
+
+        liberarConsulta.countDown();
+        for(Future<String> chamada : chamadas){
+            assertThat(chamada.get(5, TimeUnit.SECONDS)).isEqualTo("antiga");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.attornatus.gerenciamentopessoas.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DataSourceLimitadoTests {
+
+    private DataSourceLimitado criarDataSource(int maximoConexoes) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:datasource-limitado;DB_CLOSE_DELAY=-1");
+        h2.setUser("sa");
+        return new DataSourceLimitado(h2, maximoConexoes, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("QUANDO todas as conexões estiverem em uso DEVE esgotar o tempo de espera")
+    public void esgotarTempoComTodasConexoesEmUso() throws Exception {
+        DataSourceLimitado dataSource = criarDataSource(1);
+
+        try (Connection ignorada = dataSource.getConnection()) {
+            assertThat(dataSource.getPermissoesDisponiveis()).isZero();
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        }
+
+        assertThat(dataSource.getPermissoesDisponiveis()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("QUANDO uma conexão for fechada mais de uma vez DEVE liberar somente uma permissão")
+    public void fecharConexaoDuasVezes() throws Exception {
+        DataSourceLimitado dataSource = criarDataSource(2);
+
+        Connection conexao = dataSource.getConnection();
+        conexao.close();
+        conexao.close();
+
+        assertThat(dataSource.getPermissoesDisponiveis()).isEqualTo(2);
+        assertThat(conexao.isClosed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("QUANDO o máximo de conexões for reduzido com conexões em uso DEVE respeitar o novo limite ao devolvê-las")
+    public void ajustarMaximoConexoes() throws Exception {
+        DataSourceLimitado dataSource = criarDataSource(2);
+
+        Connection primeira = dataSource.getConnection();
+        Connection segunda = dataSource.getConnection();
+        dataSource.ajustarMaximoConexoes(1);
+        segunda.close();
+
+        assertThat(dataSource.getPermissoesDisponiveis()).isZero();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        primeira.close();
+        dataSource.ajustarMaximoConexoes(3);
+        assertThat(dataSource.getPermissoesDisponiveis()).isEqualTo(3);
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.attornatus.gerenciamentopessoas.config;
+
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaCreateDTO;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.repositories.PessoaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricasConfigTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private PessoaRepository pessoaRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Pessoa pessoa;
+
+    @BeforeEach
+    public void criarPessoa(){
+        pessoa = new Pessoa();
+        pessoa.setNome("Metrica");
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+        pessoaRepository.save(pessoa);
+    }
+
+    @AfterEach
+    public void removerPessoas(){
+        jdbcTemplate.update("DELETE FROM pessoa WHERE nome LIKE 'Metrica%'");
+    }
+
+    private long quantidade(Timer timer){
+        return timer == null ? 0 : timer.count();
+    }
+
+    private long quantidade(DistributionSummary resumo){
+        return resumo == null ? 0 : resumo.count();
+    }
+
+    private Timer timerServico(String classe, String metodo){
+        return meterRegistry.find("servico.execucao").tags("classe", classe, "metodo", metodo).timer();
+    }
+
+    private Timer timerRepositorio(String repositorio, String metodo){
+        return meterRegistry.find("spring.data.repository.invocations")
+                .tags("repository", repositorio, "method", metodo, "state", "SUCCESS").timer();
+    }
+
+    private DistributionSummary consultasPorRota(String metodoHttp, String uri){
+        return meterRegistry.find("requisicao.consultas").tags("method", metodoHttp, "uri", uri).summary();
+    }
+
+    @Test
+    @DisplayName("QUANDO consultar uma pessoa DEVE medir a rota, o service, o repositório e a quantidade de consultas")
+    public void medirConsultaPessoa() throws Exception {
+        long chamadasServico = quantidade(timerServico("PessoaService", "buscarResumoPorId"));
+        // buscarResumoPorId é um método default do repositório; a chamada medida é a do findById que ele faz
+        long chamadasRepositorio = quantidade(timerRepositorio("PessoaRepository", "findById"));
+        long requisicoes = quantidade(consultasPorRota("GET", "/pessoas/{idPessoa}"));
+
+        mockMvc.perform(get("/pessoas/" + pessoa.getId()))
+                .andExpect(status().isOk());
+
+        assertThat(quantidade(timerServico("PessoaService", "buscarResumoPorId"))).isEqualTo(chamadasServico + 1);
+        assertThat(quantidade(timerRepositorio("PessoaRepository", "findById"))).isEqualTo(chamadasRepositorio + 1);
+        assertThat(quantidade(consultasPorRota("GET", "/pessoas/{idPessoa}"))).isEqualTo(requisicoes + 1);
+    }
+
+    @Test
+    @DisplayName("QUANDO criar uma pessoa DEVE medir o tempo de mapeamento do DTO para a entidade")
+    public void medirMapeamento() throws Exception {
+        PessoaCreateDTO novaPessoa = new PessoaCreateDTO();
+        novaPessoa.setNome("Metrica nova");
+        novaPessoa.setDataNascimento("28/09/2001");
+
+        mockMvc.perform(post("/pessoas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(novaPessoa)))
+                .andExpect(status().isCreated());
+
+        Timer mapeamento = meterRegistry.find("mapeamento.execucao").tags("metodo", "paraEntidade").timer();
+        assertThat(mapeamento).isNotNull();
+        assertThat(mapeamento.count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("QUANDO acessar o endpoint do Prometheus DEVE expor os histogramas das métricas da aplicação")
+    public void exporMetricasPrometheus() throws Exception {
+        mockMvc.perform(get("/pessoas/" + pessoa.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("servico_execucao_seconds_bucket")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket")))
+                .andExpect(content().string(containsString("requisicao_consultas_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket")));
+    }
+}
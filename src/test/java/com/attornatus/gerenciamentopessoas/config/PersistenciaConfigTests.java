@@ -0,0 +1,57 @@
+package com.attornatus.gerenciamentopessoas.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class PersistenciaConfigTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("QUANDO iniciar DEVE aplicar os ajustes de persistência ao pool e ao Hibernate")
+    public void aplicarAjustes() throws Exception {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        assertThat(hikari.getMaximumPoolSize()).isEqualTo(10);
+        assertThat(hikari.getMinimumIdle()).isEqualTo(10);
+        assertThat(hikari.getJdbcUrl()).endsWith(";QUERY_CACHE_SIZE=64");
+
+        assertThat(entityManagerFactory.getProperties())
+                .containsEntry(AvailableSettings.STATEMENT_BATCH_SIZE, 50)
+                .containsEntry(AvailableSettings.QUERY_PLAN_CACHE_MAX_SIZE, 2048)
+                .containsEntry(AvailableSettings.IN_CLAUSE_PARAMETER_PADDING, true);
+    }
+
+    @Test
+    @DisplayName("QUANDO consultar o endpoint de persistência DEVE retornar o estado do pool e dos caches de sentenças")
+    public void consultarEstatisticas() throws Exception {
+        mockMvc.perform(get("/actuator/persistencia"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pool.tamanhoMaximo").value(10))
+                .andExpect(jsonPath("$.pool.total").isNumber())
+                .andExpect(jsonPath("$.pool.adaptativo.habilitado").value(false))
+                .andExpect(jsonPath("$.sentencas.cacheSentencasPorConexao").value(64))
+                .andExpect(jsonPath("$.sentencas.cachePlanos.tamanhoMaximo").value(2048))
+                .andExpect(jsonPath("$.sentencas.cachePlanos.acertos").isNumber());
+    }
+}
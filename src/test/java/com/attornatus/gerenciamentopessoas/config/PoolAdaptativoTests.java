@@ -0,0 +1,148 @@
+package com.attornatus.gerenciamentopessoas.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PoolAdaptativoTests {
+
+    private final MeterRegistry registro = new SimpleMeterRegistry();
+    private final PersistenciaProperties propriedades = new PersistenciaProperties();
+    private HikariDataSource hikari;
+
+    @AfterEach
+    public void fecharPool(){
+        if(hikari != null){
+            hikari.close();
+        }
+    }
+
+    private PoolAdaptativo criarPoolAdaptativo(int tamanhoMaximo){
+        criarHikari(tamanhoMaximo);
+        return new PoolAdaptativo(hikari, hikari, () -> registro, propriedades.getPool(), propriedades.getAdaptativo());
+    }
+
+    private void criarHikari(int tamanhoMaximo){
+        propriedades.getPool().setTamanhoMaximo(tamanhoMaximo);
+        propriedades.getAdaptativo().setEsperaAlvo(Duration.ofMillis(10));
+        propriedades.getAdaptativo().setTamanhoLimite(6);
+        propriedades.getAdaptativo().setPasso(2);
+
+        hikari = new HikariDataSource();
+        hikari.setJdbcUrl("jdbc:h2:mem:pool-adaptativo");
+        hikari.setUsername("sa");
+        hikari.setMaximumPoolSize(tamanhoMaximo);
+        hikari.setMinimumIdle(tamanhoMaximo);
+        hikari.setMetricRegistry(registro);
+    }
+
+    @Test
+    @DisplayName("QUANDO a espera média passar da espera alvo DEVE crescer o pool até o tamanho limite")
+    public void crescerComEsperaAlta(){
+        PoolAdaptativo pool = criarPoolAdaptativo(2);
+
+        assertThat(pool.calcularTamanho(2, Duration.ofMillis(20), 3, 2)).isEqualTo(4);
+        assertThat(pool.calcularTamanho(5, Duration.ofMillis(20), 3, 5)).isEqualTo(6);
+        assertThat(pool.calcularTamanho(6, Duration.ofMillis(20), 3, 6)).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("QUANDO a espera cair e sobrarem conexões DEVE reduzir o pool sem passar do tamanho configurado")
+    public void reduzirComEsperaBaixa(){
+        PoolAdaptativo pool = criarPoolAdaptativo(2);
+
+        assertThat(pool.calcularTamanho(6, Duration.ZERO, 0, 1)).isEqualTo(4);
+        assertThat(pool.calcularTamanho(3, Duration.ZERO, 0, 0)).isEqualTo(2);
+        assertThat(pool.calcularTamanho(6, Duration.ofMillis(7), 0, 1)).isEqualTo(6);
+        assertThat(pool.calcularTamanho(6, Duration.ZERO, 1, 1)).isEqualTo(6);
+        assertThat(pool.calcularTamanho(6, Duration.ZERO, 0, 5)).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("QUANDO o Hikari medir espera acima da alvo no intervalo DEVE aumentar o tamanho máximo do pool")
+    public void ajustarPoolConformeEsperaMedida() throws Exception {
+        PoolAdaptativo pool = criarPoolAdaptativo(2);
+        try (Connection ignorada = hikari.getConnection()) {
+            registro.get("hikaricp.connections.acquire").timer().record(Duration.ofMillis(100));
+
+            pool.ajustar();
+            assertThat(hikari.getHikariConfigMXBean().getMaximumPoolSize()).isEqualTo(4);
+            assertThat(pool.getUltimoAjuste()).isNotNull();
+
+            // Sem novas aquisições a espera do intervalo é zero e o pool volta ao tamanho configurado
+            pool.ajustar();
+            assertThat(hikari.getHikariConfigMXBean().getMaximumPoolSize()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @DisplayName("QUANDO as requisições esperarem no limite das threads virtuais DEVE aumentar o pool e o limite")
+    public void ajustarPoolConformeEsperaNoLimite() throws Exception {
+        criarHikari(2);
+        DataSourceLimitado limitado = new DataSourceLimitado(hikari, 2, Duration.ofSeconds(5));
+        PoolAdaptativo pool = new PoolAdaptativo(limitado, hikari, () -> registro, propriedades.getPool(),
+                propriedades.getAdaptativo());
+
+        Connection primeira = limitado.getConnection();
+        Connection segunda = limitado.getConnection();
+        CompletableFuture<Connection> aguardando = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limitado.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (limitado.getAguardando() == 0) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(100);
+        primeira.close();
+        try (Connection terceira = aguardando.get(); segunda) {
+            // A espera ficou toda no limite: o Hikari tinha conexão livre para cada permissão
+            assertThat(registro.get("hikaricp.connections.acquire").timer().max(TimeUnit.MILLISECONDS)).isLessThan(50);
+
+            pool.ajustar();
+            assertThat(hikari.getHikariConfigMXBean().getMaximumPoolSize()).isEqualTo(4);
+            assertThat(limitado.getPermissoesDisponiveis()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @DisplayName("QUANDO houver requisições aguardando no limite DEVE manter o tamanho do pool")
+    public void manterPoolComRequisicoesNoLimite() throws Exception {
+        criarHikari(2);
+        hikari.getHikariConfigMXBean().setMaximumPoolSize(4);
+        DataSourceLimitado limitado = new DataSourceLimitado(hikari, 1, Duration.ofSeconds(5));
+        PoolAdaptativo pool = new PoolAdaptativo(limitado, hikari, () -> registro, propriedades.getPool(),
+                propriedades.getAdaptativo());
+
+        Connection primeira = limitado.getConnection();
+        CompletableFuture<Connection> aguardando = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limitado.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (limitado.getAguardando() == 0) {
+            Thread.sleep(5);
+        }
+
+        pool.ajustar();
+        assertThat(hikari.getHikariConfigMXBean().getMaximumPoolSize()).isEqualTo(4);
+
+        primeira.close();
+        aguardando.get().close();
+    }
+}
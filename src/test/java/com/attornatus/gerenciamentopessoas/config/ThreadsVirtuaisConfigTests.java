@@ -0,0 +1,74 @@
+package com.attornatus.gerenciamentopessoas.config;
+
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.repositories.PessoaRepository;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Pool com duas conexões e muito mais requisições simultâneas do que isso
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "pessoas.persistencia.pool.tamanho-maximo=2"
+})
+public class ThreadsVirtuaisConfigTests {
+
+    @Autowired
+    private ServletWebServerApplicationContext contexto;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PessoaRepository pessoaRepository;
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("QUANDO habilitar threads virtuais DEVE atender no Tomcat com threads virtuais e limitar o banco ao pool")
+    public void habilitarThreadsVirtuais() throws Exception {
+        TomcatWebServer servidor = (TomcatWebServer) contexto.getWebServer();
+        assertThat(servidor.getTomcat().getConnector().getProtocolHandler().getExecutor())
+                .isInstanceOf(VirtualThreadExecutor.class);
+
+        assertThat(dataSource.isWrapperFor(DataSourceLimitado.class)).isTrue();
+        assertThat(dataSource.unwrap(DataSourceLimitado.class).getPermissoesDisponiveis()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("QUANDO houver mais requisições simultâneas que conexões DEVE atender todas aguardando uma conexão")
+    public void atenderMaisRequisicoesQueConexoes() throws Exception {
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome("Michael");
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+        pessoaRepository.save(pessoa);
+
+        List<Future<HttpStatusCode>> respostas = new ArrayList<>();
+        try (ExecutorService clientes = Executors.newFixedThreadPool(50)) {
+            for (int i = 0; i < 50; i++) {
+                respostas.add(clientes.submit(() -> restTemplate
+                        .getForEntity("/pessoas/" + pessoa.getId() + "/endereco", String.class).getStatusCode()));
+            }
+        }
+
+        for (Future<HttpStatusCode> resposta : respostas) {
+            assertThat(resposta.get()).isEqualTo(HttpStatus.OK);
+        }
+        assertThat(dataSource.unwrap(DataSourceLimitado.class).getPermissoesDisponiveis()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,224 @@
+package com.attornatus.gerenciamentopessoas.controller;
+
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.metricas.ContadorConsultas;
+import com.attornatus.gerenciamentopessoas.repositories.EnderecoRepository;
+import com.attornatus.gerenciamentopessoas.repositories.PessoaRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fixa a quantidade de instruções SQL de cada rota, com o cache de segundo nível vazio. Com
+ * pessoas.consultas.falhar-ao-exceder, uma rota que passe do seu limite também falha aqui.
+ * Rotas que inserem registros podem buscar um novo bloco de ids da sequência, por isso aceitam uma consulta a mais.
+ */
+@SpringBootTest(properties = "pessoas.consultas.falhar-ao-exceder=true")
+@AutoConfigureMockMvc
+public class PessoaControllerConsultasTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ContadorConsultas contadorConsultas;
+    @Autowired
+    private PessoaRepository pessoaRepository;
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Pessoa pessoa;
+    private Endereco endereco;
+
+    @BeforeEach
+    public void criarPessoaComEnderecos(){
+        pessoa = new Pessoa();
+        pessoa.setNome("Consultada");
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+        pessoaRepository.save(pessoa);
+
+        for(int i = 0; i < 2; i++){
+            endereco = new Endereco();
+            endereco.setLogradouro("Rua " + i);
+            endereco.setNumero("10");
+            endereco.setCidade("Fortaleza");
+            endereco.setCep("12345-190");
+            endereco.setPessoa(pessoa);
+            enderecoRepository.save(endereco);
+        }
+    }
+
+    @AfterEach
+    public void removerPessoas(){
+        jdbcTemplate.update("DELETE FROM endereco WHERE endereco_id IN (SELECT id FROM pessoa WHERE nome LIKE 'Consultad%')");
+        jdbcTemplate.update("DELETE FROM pessoa WHERE nome LIKE 'Consultad%'");
+    }
+
+    private int consultas(MockHttpServletRequestBuilder requisicao, ResultMatcher resultado) throws Exception {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        mockMvc.perform(requisicao).andExpect(resultado);
+        return contadorConsultas.quantidade();
+    }
+
+    @Test
+    @DisplayName("QUANDO listar pessoas DEVE executar uma consulta")
+    public void listarPessoas() throws Exception {
+        assertThat(consultas(get("/pessoas").param("tamanho", "5"), status().isOk())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar pessoas por data de nascimento, idade ou aniversário DEVE executar uma consulta")
+    public void buscarPorDataNascimento() throws Exception {
+        assertThat(consultas(get("/pessoas/nascidas-entre").param("inicio", "01/01/2001").param("fim", "31/12/2001"),
+                status().isOk())).isEqualTo(1);
+        assertThat(consultas(get("/pessoas/idade").param("minima", "18").param("maxima", "30"),
+                status().isOk())).isEqualTo(1);
+        assertThat(consultas(get("/pessoas/aniversariantes").param("dias", "7"),
+                status().isOk())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar pessoas por nome ou endereço DEVE usar somente o índice em memória")
+    public void buscarPorTermo() throws Exception {
+        assertThat(consultas(get("/pessoas/busca").param("termo", "consultada"), status().isOk())).isZero();
+    }
+
+    @Test
+    @DisplayName("QUANDO exportar pessoas em fluxo DEVE executar uma consulta")
+    public void exportarPessoasEmFluxo() throws Exception {
+        // O corpo é escrito em outra thread, então a contagem vem das estatísticas do Hibernate
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long antes = estatisticas.getPrepareStatementCount();
+
+        MvcResult resultado = mockMvc.perform(get("/pessoas/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(resultado)).andExpect(status().isOk());
+
+        assertThat(estatisticas.getPrepareStatementCount() - antes).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("QUANDO consultar uma pessoa DEVE executar uma consulta, com ETag atual ou desatualizada")
+    public void consultarPessoa() throws Exception {
+        assertThat(consultas(get("/pessoas/" + pessoa.getId()), status().isOk())).isEqualTo(1);
+        assertThat(consultas(get("/pessoas/" + pessoa.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"" + pessoa.getVersao() + "\""),
+                status().isNotModified())).isEqualTo(1);
+        assertThat(consultas(get("/pessoas/" + pessoa.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"" + (pessoa.getVersao() - 1) + "\""),
+                status().isOk())).isEqualTo(1);
+        assertThat(consultas(get("/pessoas/-1"), status().isNotFound())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar pessoas por ids DEVE consultar as pessoas e, se pedido, os endereços de todas em uma consulta")
+    public void buscarPessoasPorIds() throws Exception {
+        String ids = pessoa.getId() + ",-1," + pessoa.getId();
+
+        assertThat(consultas(get("/pessoas").param("ids", ids), status().isOk())).isEqualTo(1);
+        assertThat(consultas(get("/pessoas").param("ids", ids).param("enderecos", "true"), status().isOk())).isEqualTo(2);
+        assertThat(consultas(get("/pessoas").param("ids", "-1").param("enderecos", "true"), status().isOk())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("QUANDO listar endereços de uma pessoa DEVE consultar a versão e os endereços")
+    public void listarEnderecos() throws Exception {
+        assertThat(consultas(get("/pessoas/" + pessoa.getId() + "/endereco"), status().isOk())).isEqualTo(2);
+        assertThat(consultas(get("/pessoas/-1/endereco"), status().isNotFound())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("QUANDO listar endereços de uma pessoa sem endereços DEVE consultar a versão e os endereços, sem consultar a pessoa de novo")
+    public void listarEnderecosPessoaSemEnderecos() throws Exception {
+        Pessoa semEnderecos = new Pessoa();
+        semEnderecos.setNome("Consultada sem endereços");
+        semEnderecos.setDataNascimento(LocalDate.of(2001, 9, 28));
+        pessoaRepository.save(semEnderecos);
+
+        assertThat(consultas(get("/pessoas/" + semEnderecos.getId() + "/endereco"), status().isOk())).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("QUANDO criar uma pessoa DEVE inserir a pessoa e reindexá-la")
+    public void criarPessoa() throws Exception {
+        int consultas = consultas(post("/pessoas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"Consultada nova\",\"dataNascimento\":\"28/09/2001\"}"),
+                status().isCreated());
+
+        assertThat(consultas).isBetween(2, 3);
+    }
+
+    @Test
+    @DisplayName("QUANDO atualizar uma pessoa DEVE carregar, atualizar e reindexar a pessoa")
+    public void atualizarPessoa() throws Exception {
+        int consultas = consultas(put("/pessoas/" + pessoa.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"Consultada atualizada\"}"),
+                status().isNoContent());
+
+        assertThat(consultas).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("QUANDO importar pessoas com endereços DEVE inserir em lote, sem uma consulta por pessoa")
+    public void importarPessoas() throws Exception {
+        String corpo = IntStream.range(0, 20)
+                .mapToObj(i -> "{\"nome\":\"Consultada " + i + "\",\"dataNascimento\":\"28/09/2001\","
+                        + "\"enderecos\":[{\"logradouro\":\"Rua\",\"numero\":\"1\",\"cidade\":\"Fortaleza\",\"cep\":\"12345\"}]}")
+                .collect(Collectors.joining("\n"));
+
+        int consultas = consultas(post("/pessoas/importacao")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(corpo),
+                status().isOk());
+
+        assertThat(consultas).isBetween(3, 5);
+    }
+
+    @Test
+    @DisplayName("QUANDO criar um endereço DEVE incrementar a versão da pessoa, inserir o endereço e reindexar")
+    public void criarEndereco() throws Exception {
+        int consultas = consultas(post("/pessoas/" + pessoa.getId() + "/endereco")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"logradouro\":\"Rua nova\",\"numero\":\"1\",\"cidade\":\"Fortaleza\",\"cep\":\"12345\"}"),
+                status().isCreated());
+
+        assertThat(consultas).isBetween(3, 4);
+    }
+
+    @Test
+    @DisplayName("QUANDO definir o endereço principal DEVE incrementar a versão da pessoa e atualizar os endereços")
+    public void definirEnderecoPrincipal() throws Exception {
+        assertThat(consultas(put("/pessoas/" + pessoa.getId() + "/endereco/" + endereco.getId()),
+                status().isNoContent())).isEqualTo(2);
+        assertThat(consultas(put("/pessoas/-1/endereco/" + endereco.getId()),
+                status().isNotFound())).isEqualTo(2);
+    }
+}
@@ -1,17 +1,28 @@
 package com.attornatus.gerenciamentopessoas.controller;
 
+import com.attornatus.gerenciamentopessoas.controllers.PessoaController;
 import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoCreateDTO;
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
+import com.attornatus.gerenciamentopessoas.dto.importacao.ErroImportacaoDTO;
+import com.attornatus.gerenciamentopessoas.dto.importacao.ImportacaoResultadoDTO;
 import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaCreateDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
 import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaUpdateDTO;
 import com.attornatus.gerenciamentopessoas.entities.Endereco;
 import com.attornatus.gerenciamentopessoas.entities.Pessoa;
 import com.attornatus.gerenciamentopessoas.exceptions.ParametrosInvalidosException;
+import com.attornatus.gerenciamentopessoas.exceptions.VersaoDesatualizadaException;
 import com.attornatus.gerenciamentopessoas.exceptions.endereco.EnderecoNaoEncontradoException;
 import com.attornatus.gerenciamentopessoas.exceptions.pessoa.PessoaNaoEncontradaException;
+import com.attornatus.gerenciamentopessoas.metricas.LimiteConsultasExcedidoException;
+import com.attornatus.gerenciamentopessoas.services.BuscaPessoaService;
 import com.attornatus.gerenciamentopessoas.services.EnderecoService;
+import com.attornatus.gerenciamentopessoas.services.ImportacaoPessoaService;
 import com.attornatus.gerenciamentopessoas.services.PessoaService;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -19,14 +30,26 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -45,6 +68,12 @@ public class PessoaControllerTests {
     @MockBean
     private EnderecoService enderecoService;
 
+    @MockBean
+    private ImportacaoPessoaService importacaoPessoaService;
+
+    @MockBean
+    private BuscaPessoaService buscaPessoaService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     private String toJson(Object obj) throws JsonProcessingException {
@@ -54,15 +83,13 @@ public class PessoaControllerTests {
     @DisplayName("QUANDO obter todos as pessoas DEVE retornar todas as pessoas cadastradas")
     @Test
     public void obterTodasPessoasCadastradas() throws Exception {
-        Pessoa pessoa = new Pessoa();
-        pessoa.setId(1);
-        pessoa.setDataNascimento("28/09/2001");
-        pessoa.setNome("Michael");
+        PessoaReturnDTO pessoa = new PessoaReturnDTO(1, "Michael", LocalDate.of(2001, 9, 28));
 
-        when(pessoaService.buscarTodas()).thenReturn(List.of(pessoa));
+        when(pessoaService.buscarPagina(isNull(), anyInt())).thenReturn(List.of(pessoa));
 
         mockMvc.perform(get("/pessoas"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(PessoaController.CABECALHO_PROXIMO_CURSOR))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].nome").value("Michael"))
@@ -70,28 +97,214 @@ public class PessoaControllerTests {
 
     }
 
+    @DisplayName("QUANDO listar pessoas com mais registros que o tamanho da página DEVE retornar o cursor da próxima página")
+    @Test
+    public void listarPessoasComProximaPagina() throws Exception {
+        PessoaReturnDTO primeira = new PessoaReturnDTO(5, "Michael", null);
+        PessoaReturnDTO segunda = new PessoaReturnDTO(8, "Joao", null);
+
+        when(pessoaService.buscarPagina(2, 2)).thenReturn(List.of(primeira, segunda));
+
+        mockMvc.perform(get("/pessoas").param("cursor", "2").param("tamanho", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PessoaController.CABECALHO_PROXIMO_CURSOR, "5"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(5));
+    }
+
+    @DisplayName("QUANDO listar pessoas com tamanho de página acima do limite DEVE limitar ao tamanho máximo")
+    @Test
+    public void listarPessoasComTamanhoAcimaDoLimite() throws Exception {
+        when(pessoaService.buscarPagina(isNull(), anyInt())).thenReturn(List.of());
+
+        mockMvc.perform(get("/pessoas").param("tamanho", "100000"))
+                .andExpect(status().isOk());
+
+        verify(pessoaService, times(1)).buscarPagina(null, 101);
+    }
+
+    @DisplayName("QUANDO listar pessoas com tamanho de página inválido DEVE retornar status 400 BAD REQUEST")
+    @Test
+    public void listarPessoasComTamanhoInvalido() throws Exception {
+        mockMvc.perform(get("/pessoas").param("tamanho", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("QUANDO listar pessoas em fluxo DEVE retornar uma pessoa por linha em NDJSON")
+    @Test
+    public void listarPessoasEmFluxo() throws Exception {
+        PessoaReturnDTO primeira = new PessoaReturnDTO(1, "Michael", null);
+        PessoaReturnDTO segunda = new PessoaReturnDTO(2, "Joao", null);
+
+        doAnswer(invocacao -> {
+            Consumer<PessoaReturnDTO> consumidor = invocacao.getArgument(0);
+            consumidor.accept(primeira);
+            consumidor.accept(segunda);
+            return null;
+        }).when(pessoaService).percorrerTodas(any());
+
+        MvcResult resultado = mockMvc.perform(get("/pessoas/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"id\":1,\"nome\":\"Michael\",\"dataNascimento\":null}\n" +
+                        "{\"id\":2,\"nome\":\"Joao\",\"dataNascimento\":null}\n"));
+    }
+
+    @DisplayName("QUANDO buscar pessoas por ids DEVE retornar na ordem pedida, marcando as não encontradas")
+    @Test
+    public void buscarPessoasPorIds() throws Exception {
+        when(pessoaService.buscarResumosPorIds(any())).thenReturn(Map.of(
+                1, new PessoaReturnDTO(1, "Michael", LocalDate.of(2001, 9, 28), 3L),
+                3, new PessoaReturnDTO(3, "João", LocalDate.of(1990, 1, 1), 0L)
+        ));
+
+        mockMvc.perform(get("/pessoas").param("ids", "3,2,1,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[0].encontrada").value(true))
+                .andExpect(jsonPath("$[0].nome").value("João"))
+                .andExpect(jsonPath("$[0].enderecos").doesNotExist())
+                .andExpect(jsonPath("$[1].id").value(2))
+                .andExpect(jsonPath("$[1].encontrada").value(false))
+                .andExpect(jsonPath("$[1].nome").doesNotExist())
+                .andExpect(jsonPath("$[2].dataNascimento").value("28/09/2001"))
+                .andExpect(jsonPath("$[3].id").value(3));
+
+        verify(pessoaService).buscarResumosPorIds(Set.of(1, 2, 3));
+        verify(enderecoService, never()).buscarEnderecosPorPessoas(any());
+        verify(pessoaService, never()).buscarPagina(any(), anyInt());
+    }
+
+    @DisplayName("QUANDO buscar pessoas por ids com endereços DEVE consultar os endereços somente das pessoas encontradas")
+    @Test
+    public void buscarPessoasPorIdsComEnderecos() throws Exception {
+        EnderecoReturnDTO endereco = new EnderecoReturnDTO(7, "Rua", "12345-190", "10", "Fortaleza", true, 1);
+        when(pessoaService.buscarResumosPorIds(any())).thenReturn(Map.of(
+                1, new PessoaReturnDTO(1, "Michael", LocalDate.of(2001, 9, 28), 3L),
+                3, new PessoaReturnDTO(3, "João", LocalDate.of(1990, 1, 1), 0L)
+        ));
+        when(enderecoService.buscarEnderecosPorPessoas(any())).thenReturn(Map.of(1, List.of(endereco)));
+
+        mockMvc.perform(get("/pessoas").param("ids", "1,2,3").param("enderecos", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].enderecos", hasSize(1)))
+                .andExpect(jsonPath("$[0].enderecos[0].id").value(7))
+                .andExpect(jsonPath("$[0].enderecos[0].idPessoa").doesNotExist())
+                .andExpect(jsonPath("$[1].encontrada").value(false))
+                .andExpect(jsonPath("$[1].enderecos").doesNotExist())
+                .andExpect(jsonPath("$[2].enderecos", hasSize(0)));
+
+        verify(enderecoService).buscarEnderecosPorPessoas(Set.of(1, 3));
+    }
+
+    @DisplayName("QUANDO buscar mais pessoas por ids que o tamanho máximo DEVE retornar erro com status 400 BAD REQUEST")
+    @Test
+    public void buscarPessoasPorIdsAcimaDoLimite() throws Exception {
+        String ids = IntStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        mockMvc.perform(get("/pessoas").param("ids", ids))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Informe no máximo 100 ids."));
+
+        verify(pessoaService, never()).buscarResumosPorIds(any());
+    }
+
     @DisplayName("QUANDO buscar por pessoa cadastrada por id DEVE retornar dados da pessoa cadastrada")
     @Test
     public void buscarPessoaCadastradaPorId() throws Exception {
-        Pessoa pessoa = new Pessoa();
-        pessoa.setId(1);
-        pessoa.setDataNascimento("28/09/2001");
-        pessoa.setNome("Michael");
+        PessoaReturnDTO pessoa = new PessoaReturnDTO(1, "Michael", LocalDate.of(2001, 9, 28), 3L);
 
-        when(pessoaService.buscarPorId(anyInt())).thenReturn(pessoa);
+        when(pessoaService.buscarResumoPorId(anyInt())).thenReturn(pessoa);
 
         mockMvc.perform(get("/pessoas/" + pessoa.getId().toString()))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.nome").value("Michael"))
-                .andExpect(jsonPath("$.dataNascimento").value("28/09/2001"));
+                .andExpect(jsonPath("$.dataNascimento").value("28/09/2001"))
+                .andExpect(jsonPath("$.versao").doesNotExist());
 
+        verify(pessoaService, never()).buscarVersaoPorId(anyInt());
+    }
+
+    @DisplayName("QUANDO listar pessoas aceitando CBOR DEVE retornar os mesmos campos do JSON em CBOR")
+    @Test
+    public void listarPessoasEmCbor() throws Exception {
+        when(pessoaService.buscarPagina(isNull(), anyInt())).thenReturn(List.of(
+                new PessoaReturnDTO(1, "Michael", LocalDate.of(2001, 9, 28), 3L)
+        ));
+
+        MvcResult resultado = mockMvc.perform(get("/pessoas").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        List<Map<String, Object>> pessoas = new CBORMapper().readValue(resultado.getResponse().getContentAsByteArray(),
+                new TypeReference<>() {});
+        assertThat(pessoas).containsExactly(Map.of("id", 1, "nome", "Michael", "dataNascimento", "28/09/2001"));
+    }
+
+    @DisplayName("QUANDO buscar pessoa por id sem informar o formato DEVE retornar JSON")
+    @Test
+    public void buscarPessoaPorIdSemFormato() throws Exception {
+        when(pessoaService.buscarResumoPorId(1)).thenReturn(new PessoaReturnDTO(1, "Michael", LocalDate.of(2001, 9, 28), 3L));
+
+        mockMvc.perform(get("/pessoas/1").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.nome").value("Michael"));
+    }
+
+    @DisplayName("QUANDO buscar pessoa por id com ETag atual DEVE retornar 304 NOT MODIFIED sem corpo")
+    @Test
+    public void buscarPessoaPorIdComEtagAtual() throws Exception {
+        when(pessoaService.buscarResumoPorId(1)).thenReturn(new PessoaReturnDTO(1, "Michael", LocalDate.of(2001, 9, 28), 3L));
+
+        mockMvc.perform(get("/pessoas/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(pessoaService, never()).buscarVersaoPorId(anyInt());
+    }
+
+    @DisplayName("QUANDO buscar pessoa por id com ETag desatualizada DEVE retornar dados com a nova ETag em uma única busca")
+    @Test
+    public void buscarPessoaPorIdComEtagDesatualizada() throws Exception {
+        when(pessoaService.buscarResumoPorId(1)).thenReturn(new PessoaReturnDTO(1, "Michael", LocalDate.of(2001, 9, 28), 4L));
+
+        mockMvc.perform(get("/pessoas/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.nome").value("Michael"));
+
+        verify(pessoaService, times(1)).buscarResumoPorId(1);
+        verify(pessoaService, never()).buscarVersaoPorId(anyInt());
+    }
+
+    @DisplayName("QUANDO a requisição ultrapassar o limite de consultas da rota DEVE retornar 500 com o limite, sem a instrução SQL")
+    @Test
+    public void buscarPessoaAcimaDoLimiteDeConsultas() throws Exception {
+        when(pessoaService.buscarResumoPorId(1)).thenThrow(new LimiteConsultasExcedidoException(1, "select * from pessoa"));
+
+        mockMvc.perform(get("/pessoas/1"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.detail").value("Requisição ultrapassou o limite de 1 consultas da rota."))
+                .andExpect(jsonPath("$.status").value(500))
+                .andExpect(jsonPath("$.instance").value("/pessoas/1"))
+                .andExpect(jsonPath("$.title").value("Internal Server Error"));
     }
 
     @DisplayName("QUANDO buscar por pessoa não cadastrada por id DEVE retornar erro com status 404 NOT FOUND")
     @Test
     public void buscarPessoaNaoCadastradaPorId() throws Exception {
-        when(pessoaService.buscarPorId(anyInt())).thenThrow(new PessoaNaoEncontradaException());
+        when(pessoaService.buscarResumoPorId(anyInt())).thenThrow(new PessoaNaoEncontradaException());
 
         String URL = "/pessoas/" + anyInt();
 
@@ -109,7 +322,7 @@ public class PessoaControllerTests {
         Pessoa pessoa = new Pessoa();
         pessoa.setId(1);
 
-        doNothing().when(pessoaService).atualizar(any(Pessoa.class), anyInt());
+        doNothing().when(pessoaService).atualizar(any(Pessoa.class), anyInt(), isNull());
 
         PessoaUpdateDTO pessoaAtualizada = new PessoaUpdateDTO();
         pessoaAtualizada.setDataNascimento("30/01/1999");
@@ -129,7 +342,7 @@ public class PessoaControllerTests {
         Pessoa pessoa = new Pessoa();
         pessoa.setId(1);
 
-        doNothing().when(pessoaService).atualizar(any(Pessoa.class), anyInt());
+        doNothing().when(pessoaService).atualizar(any(Pessoa.class), anyInt(), isNull());
 
         PessoaUpdateDTO pessoaAtualizada = new PessoaUpdateDTO();
         pessoaAtualizada.setDataNascimento("30/01/1999");
@@ -148,7 +361,7 @@ public class PessoaControllerTests {
         Pessoa pessoa = new Pessoa();
         pessoa.setId(1);
 
-        doNothing().when(pessoaService).atualizar(any(Pessoa.class), anyInt());
+        doNothing().when(pessoaService).atualizar(any(Pessoa.class), anyInt(), isNull());
 
         PessoaUpdateDTO pessoaAtualizada = new PessoaUpdateDTO();
         pessoaAtualizada.setNome("Joao");
@@ -168,7 +381,7 @@ public class PessoaControllerTests {
         pessoa.setId(1);
 
         doThrow(new ParametrosInvalidosException("Dados da pessoa devem conter ao menos um campo não vazio."))
-                .when(pessoaService).atualizar(any(Pessoa.class), anyInt());
+                .when(pessoaService).atualizar(any(Pessoa.class), anyInt(), isNull());
 
         mockMvc.perform(
                 put("/pessoas/" + pessoa.getId())
@@ -190,7 +403,7 @@ public class PessoaControllerTests {
         pessoa.setId(1);
 
         Mockito.doThrow(new PessoaNaoEncontradaException())
-                .when(pessoaService).atualizar(any(Pessoa.class), anyInt());
+                .when(pessoaService).atualizar(any(Pessoa.class), anyInt(), isNull());
 
 
         mockMvc.perform(
@@ -222,6 +435,26 @@ public class PessoaControllerTests {
 
     }
 
+    @DisplayName("QUANDO importar pessoas em NDJSON DEVE retornar o resultado da importação com os erros por item")
+    @Test
+    public void importarPessoasEmNdjson() throws Exception {
+        ImportacaoResultadoDTO resultado = new ImportacaoResultadoDTO();
+        resultado.setTotalProcessado(2);
+        resultado.setTotalImportado(1);
+        resultado.getErros().add(new ErroImportacaoDTO(1, List.of("nome: Nome não pode ser vazio")));
+
+        when(importacaoPessoaService.importar(any())).thenReturn(resultado);
+
+        mockMvc.perform(post("/pessoas/importacao")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"nome\":\"Michael\",\"dataNascimento\":\"28/09/2001\"}\n{\"nome\":\"\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalProcessado").value(2))
+                .andExpect(jsonPath("$.totalImportado").value(1))
+                .andExpect(jsonPath("$.erros[0].indice").value(1))
+                .andExpect(jsonPath("$.erros[0].mensagens[0]").value("nome: Nome não pode ser vazio"));
+    }
+
     @DisplayName("QUANDO cadastrar nova pessoa sem o campo nome DEVE retornar status 400 BAD REQUEST")
     @Test
     public void criarNovaPessoaSemNome() throws Exception {
@@ -283,24 +516,95 @@ public class PessoaControllerTests {
 
     }
 
+    @DisplayName("QUANDO cadastrar nova pessoa com uma data de nascimento inexistente DEVE retornar status 400 BAD REQUEST")
+    @Test
+    public void criarNovaPessoaComDataNascimentoInexistente() throws Exception {
+        PessoaCreateDTO novaPessoa = new PessoaCreateDTO();
+        novaPessoa.setNome("Joao");
+        novaPessoa.setDataNascimento("31/02/2001");
+
+        mockMvc.perform(post("/pessoas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJson(novaPessoa))
+        )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("dataNascimento: 'Formato da data de nascimento inválida'"));
+
+        verify(pessoaService, never()).criar(any(Pessoa.class));
+    }
+
+    @DisplayName("QUANDO listar pessoas nascidas entre duas datas DEVE converter as datas no formato dd/MM/yyyy")
+    @Test
+    public void listarPessoasNascidasEntre() throws Exception {
+        PessoaReturnDTO pessoa = new PessoaReturnDTO(1, "Michael", LocalDate.of(2001, 9, 28));
+
+        when(pessoaService.buscarNascidasEntre(LocalDate.of(2001, 1, 1), LocalDate.of(2001, 12, 31), null, 101))
+                .thenReturn(List.of(pessoa));
+
+        mockMvc.perform(get("/pessoas/nascidas-entre").param("inicio", "01/01/2001").param("fim", "31/12/2001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].dataNascimento").value("28/09/2001"));
+    }
+
+    @DisplayName("QUANDO listar pessoas nascidas entre datas com uma data inexistente DEVE retornar status 400 BAD REQUEST")
+    @Test
+    public void listarPessoasNascidasEntreComDataInvalida() throws Exception {
+        mockMvc.perform(get("/pessoas/nascidas-entre").param("inicio", "31/02/2001").param("fim", "31/12/2001"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("QUANDO listar aniversariantes com mais registros que o tamanho da página DEVE retornar o cursor da próxima página")
+    @Test
+    public void listarAniversariantesComProximaPagina() throws Exception {
+        PessoaReturnDTO primeira = new PessoaReturnDTO(3, "Michael", LocalDate.of(2001, 9, 28));
+        PessoaReturnDTO segunda = new PessoaReturnDTO(7, "Joao", LocalDate.of(1999, 9, 29));
+
+        when(pessoaService.buscarAniversariantes(7, null, 2)).thenReturn(List.of(primeira, segunda));
+
+        mockMvc.perform(get("/pessoas/aniversariantes").param("dias", "7").param("tamanho", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PessoaController.CABECALHO_PROXIMO_CURSOR, "3"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @DisplayName("QUANDO listar pessoas por faixa de idade DEVE repassar a faixa ao serviço")
+    @Test
+    public void listarPessoasPorIdade() throws Exception {
+        when(pessoaService.buscarPorIdade(18, 30, null, 101)).thenReturn(List.of());
+
+        mockMvc.perform(get("/pessoas/idade").param("minima", "18").param("maxima", "30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @DisplayName("QUANDO buscar pessoas por termo DEVE retornar as pessoas encontradas no índice")
+    @Test
+    public void buscarPessoasPorTermo() throws Exception {
+        PessoaReturnDTO pessoa = new PessoaReturnDTO(1, "João", LocalDate.of(2001, 9, 28));
+
+        when(buscaPessoaService.buscar("joao fortaleza", 10)).thenReturn(List.of(pessoa));
+
+        mockMvc.perform(get("/pessoas/busca").param("termo", "joao fortaleza").param("tamanho", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nome").value("João"));
+    }
+
     @DisplayName("QUANDO listar endereços de uma pessoa existente DEVE retornar endereços da pessoa")
     @Test
     public void buscarTodosEnderecosPessoaCadastrada() throws Exception {
         Pessoa pessoa = new Pessoa();
         pessoa.setId(1);
 
-        Endereco endereco = new Endereco();
-        endereco.setId(2);
-        endereco.setCep("12345-190");
-        endereco.setCidade("Fortaleza");
-        endereco.setLogradouro("Rua 123");
-        endereco.setNumero("00");
-        endereco.setPessoa(pessoa);
+        EnderecoReturnDTO endereco = new EnderecoReturnDTO(2, "Rua 123", "12345-190", "00", "Fortaleza", false);
 
-        when(enderecoService.buscarEnderecosPessoaPorId(anyInt())).thenReturn(List.of(endereco));
+        when(pessoaService.buscarVersaoPorId(anyInt())).thenReturn(5L);
+        when(enderecoService.buscarEnderecosPessoaExistente(anyInt())).thenReturn(List.of(endereco));
 
         mockMvc.perform(get("/pessoas/" + pessoa.getId() + "/endereco"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id").value(2))
                 .andExpect(jsonPath("$[0].cep").value("12345-190"))
@@ -315,7 +619,7 @@ public class PessoaControllerTests {
     @Test
     public void buscarTodosEnderecosPessoaNaoCadastrada() throws Exception {
 
-        when(enderecoService.buscarEnderecosPessoaPorId(anyInt())).thenThrow(new PessoaNaoEncontradaException());
+        when(pessoaService.buscarVersaoPorId(anyInt())).thenThrow(new PessoaNaoEncontradaException());
 
         mockMvc.perform(get("/pessoas/" + 1 + "/endereco"))
                 .andExpect(status().isNotFound())
@@ -326,6 +630,17 @@ public class PessoaControllerTests {
 
     }
 
+    @DisplayName("QUANDO listar endereços de uma pessoa com ETag atual DEVE retornar 304 NOT MODIFIED")
+    @Test
+    public void buscarTodosEnderecosPessoaComEtagAtual() throws Exception {
+        when(pessoaService.buscarVersaoPorId(1)).thenReturn(5L);
+
+        mockMvc.perform(get("/pessoas/1/endereco").header(HttpHeaders.IF_NONE_MATCH, "\"5\""))
+                .andExpect(status().isNotModified());
+
+        verify(enderecoService, never()).buscarEnderecosPessoaExistente(anyInt());
+    }
+
     @DisplayName("QUANDO criar um novo endereço de uma pessoa cadastrada com dados corretos DEVE retornar 201 CREATED")
     @Test
     public void criarEnderecoPessoaCadastradaComDadosCorretos() throws Exception{
@@ -479,7 +794,7 @@ public class PessoaControllerTests {
         Endereco endereco = new Endereco();
         endereco.setId(2);
 
-        doNothing().when(enderecoService).salvarEnderecoPrincipalPessoa(anyInt(), anyInt());
+        doNothing().when(enderecoService).salvarEnderecoPrincipalPessoa(anyInt(), anyInt(), isNull());
 
         mockMvc.perform(put("/pessoas/" + pessoa.getId() + "/endereco/" + endereco.getId()))
                 .andExpect(status().isNoContent());
@@ -495,7 +810,7 @@ public class PessoaControllerTests {
         Endereco endereco = new Endereco();
         endereco.setId(2);
 
-        doThrow(new EnderecoNaoEncontradoException()).when(enderecoService).salvarEnderecoPrincipalPessoa(anyInt(), anyInt());
+        doThrow(new EnderecoNaoEncontradoException()).when(enderecoService).salvarEnderecoPrincipalPessoa(anyInt(), anyInt(), isNull());
 
 
         mockMvc.perform(put("/pessoas/" + pessoa.getId() + "/endereco/" + endereco.getId()))
@@ -515,7 +830,7 @@ public class PessoaControllerTests {
         Endereco endereco = new Endereco();
         endereco.setId(2);
 
-        doThrow(new PessoaNaoEncontradaException()).when(enderecoService).salvarEnderecoPrincipalPessoa(anyInt(), anyInt());
+        doThrow(new PessoaNaoEncontradaException()).when(enderecoService).salvarEnderecoPrincipalPessoa(anyInt(), anyInt(), isNull());
 
         mockMvc.perform(put("/pessoas/" + pessoa.getId() + "/endereco/" + endereco.getId()))
                 .andExpect(status().isNotFound())
@@ -524,4 +839,85 @@ public class PessoaControllerTests {
                 .andExpect(jsonPath("$.instance").value("/pessoas/" + pessoa.getId() + "/endereco/" + endereco.getId()))
                 .andExpect(jsonPath("$.title").value("Not Found"));
     }
-}
\ No newline at end of file
+
+    @DisplayName("QUANDO atualizar pessoa com If-Match DEVE repassar a versão esperada")
+    @Test
+    public void atualizarPessoaComIfMatch() throws Exception {
+        PessoaUpdateDTO pessoaAtualizada = new PessoaUpdateDTO();
+        pessoaAtualizada.setNome("Joao");
+
+        mockMvc.perform(
+                put("/pessoas/1")
+                        .header(HttpHeaders.IF_MATCH, "\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(toJson(pessoaAtualizada))
+                )
+                .andExpect(status().isNoContent());
+
+        verify(pessoaService).atualizar(any(Pessoa.class), eq(1), eq(7L));
+    }
+
+    @DisplayName("QUANDO atualizar pessoa com versão desatualizada DEVE retornar 412 PRECONDITION FAILED")
+    @Test
+    public void atualizarPessoaComVersaoDesatualizada() throws Exception {
+        doThrow(new VersaoDesatualizadaException())
+                .when(pessoaService).atualizar(any(Pessoa.class), anyInt(), eq(6L));
+
+        PessoaUpdateDTO pessoaAtualizada = new PessoaUpdateDTO();
+        pessoaAtualizada.setNome("Joao");
+
+        mockMvc.perform(
+                put("/pessoas/1")
+                        .header(HttpHeaders.IF_MATCH, "\"6\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(toJson(pessoaAtualizada))
+                )
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
+    }
+
+    @DisplayName("QUANDO atualizar pessoa com conflito detectado na gravação DEVE retornar 412 PRECONDITION FAILED")
+    @Test
+    public void atualizarPessoaComConflitoNaGravacao() throws Exception {
+        doThrow(new ObjectOptimisticLockingFailureException(Pessoa.class, 1))
+                .when(pessoaService).atualizar(any(Pessoa.class), anyInt(), isNull());
+
+        PessoaUpdateDTO pessoaAtualizada = new PessoaUpdateDTO();
+        pessoaAtualizada.setNome("Joao");
+
+        mockMvc.perform(
+                put("/pessoas/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(toJson(pessoaAtualizada))
+                )
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.detail").value("Recurso foi alterado desde a versão informada."));
+    }
+
+    @DisplayName("QUANDO definir endereço principal com If-Match fraco DEVE retornar 412 PRECONDITION FAILED sem alterar")
+    @Test
+    public void atualizarEnderecoPrincipalComIfMatchFraco() throws Exception {
+        mockMvc.perform(put("/pessoas/1/endereco/2").header(HttpHeaders.IF_MATCH, "W/\"3\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(enderecoService, never()).salvarEnderecoPrincipalPessoa(anyInt(), anyInt(), any());
+    }
+
+    @DisplayName("QUANDO definir endereço principal com If-Match maior que um long DEVE retornar 412 PRECONDITION FAILED sem alterar")
+    @Test
+    public void atualizarEnderecoPrincipalComIfMatchGrandeDemais() throws Exception {
+        mockMvc.perform(put("/pessoas/1/endereco/2").header(HttpHeaders.IF_MATCH, "\"99999999999999999999\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(enderecoService, never()).salvarEnderecoPrincipalPessoa(anyInt(), anyInt(), any());
+    }
+
+    @DisplayName("QUANDO definir endereço principal com If-Match DEVE repassar a versão esperada")
+    @Test
+    public void atualizarEnderecoPrincipalComIfMatch() throws Exception {
+        mockMvc.perform(put("/pessoas/1/endereco/2").header(HttpHeaders.IF_MATCH, "\"3\""))
+                .andExpect(status().isNoContent());
+
+        verify(enderecoService).salvarEnderecoPrincipalPessoa(2, 1, 3L);
+    }
+}
@@ -0,0 +1,187 @@
+package com.attornatus.gerenciamentopessoas.escrita;
+
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DiarioEnderecosTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    private Path diretorio;
+
+    private Path arquivo(){
+        return diretorio.resolve("enderecos-pendentes.jsonl");
+    }
+
+    private static Endereco endereco(String logradouro){
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro(logradouro);
+        endereco.setCep("12345-190");
+        endereco.setNumero("00");
+        endereco.setCidade("Fortaleza");
+        return endereco;
+    }
+
+    @Test
+    @DisplayName("QUANDO reabrir o diário DEVE ler as entradas gravadas e continuar a sequência")
+    public void lerEntradasGravadas() throws IOException {
+        try (DiarioEnderecos diario = new DiarioEnderecos(arquivo(), objectMapper)) {
+            diario.sincronizar(diario.gravar(1, endereco("Rua A"), entrada -> {}));
+            diario.sincronizar(diario.gravar(2, endereco("Rua B"), entrada -> {}));
+        }
+
+        try (DiarioEnderecos diario = new DiarioEnderecos(arquivo(), objectMapper)) {
+            List<EnderecoPendente> entradas = diario.ler();
+            assertThat(entradas).extracting(EnderecoPendente::sequencia).containsExactly(1L, 2L);
+            assertThat(entradas).extracting(EnderecoPendente::logradouro).containsExactly("Rua A", "Rua B");
+            assertThat(entradas.get(1).idPessoa()).isEqualTo(2);
+
+            List<EnderecoPendente> novas = new ArrayList<>();
+            diario.sincronizar(diario.gravar(3, endereco("Rua C"), novas::add));
+            assertThat(novas).extracting(EnderecoPendente::sequencia).containsExactly(3L);
+        }
+    }
+
+    @Test
+    @DisplayName("QUANDO a última linha do diário estiver incompleta DEVE ignorá-la e removê-la do arquivo")
+    public void ignorarLinhaIncompleta() throws IOException {
+        try (DiarioEnderecos diario = new DiarioEnderecos(arquivo(), objectMapper)) {
+            diario.sincronizar(diario.gravar(1, endereco("Rua A"), entrada -> {}));
+        }
+        Files.writeString(arquivo(), "{\"sequencia\":2,\"idPessoa\":1,\"logra", StandardOpenOption.APPEND);
+
+        try (DiarioEnderecos diario = new DiarioEnderecos(arquivo(), objectMapper)) {
+            assertThat(diario.ler()).extracting(EnderecoPendente::sequencia).containsExactly(1L);
+            diario.sincronizar(diario.gravar(1, endereco("Rua B"), entrada -> {}));
+        }
+
+        try (DiarioEnderecos diario = new DiarioEnderecos(arquivo(), objectMapper)) {
+            assertThat(diario.ler()).extracting(EnderecoPendente::logradouro).containsExactly("Rua A", "Rua B");
+        }
+    }
+
+    @Test
+    @DisplayName("QUANDO todas as entradas forem aplicadas DEVE esvaziar o diário sem reiniciar a sequência")
+    public void descartarEntradasAplicadas() throws IOException {
+        try (DiarioEnderecos diario = new DiarioEnderecos(arquivo(), objectMapper)) {
+            diario.gravar(1, endereco("Rua A"), entrada -> {});
+            diario.gravar(1, endereco("Rua B"), entrada -> {});
+
+            diario.descartarAte(1);
+            assertThat(Files.size(arquivo())).isPositive();
+
+            diario.descartarAte(2);
+            assertThat(Files.size(arquivo())).isZero();
+
+            List<EnderecoPendente> novas = new ArrayList<>();
+            diario.sincronizar(diario.gravar(1, endereco("Rua C"), novas::add));
+            assertThat(novas).extracting(EnderecoPendente::sequencia).containsExactly(3L);
+            assertThat(Files.readAllLines(arquivo(), StandardCharsets.UTF_8)).hasSize(1);
+        }
+    }
+
+    @Test
+    @DisplayName("QUANDO as entradas aplicadas passarem do limite de compactação DEVE manter no diário só as pendentes")
+    public void compactarEntradasAplicadas() throws IOException {
+        try (DiarioEnderecos diario = new DiarioEnderecos(arquivo(), objectMapper, 1)) {
+            diario.ler();
+            diario.sincronizar(diario.gravar(1, endereco("Rua A"), entrada -> {}));
+            diario.sincronizar(diario.gravar(1, endereco("Rua B"), entrada -> {}));
+            diario.sincronizar(diario.gravar(1, endereco("Rua C"), entrada -> {}));
+
+            diario.descartarAte(2);
+            assertThat(Files.readAllLines(arquivo(), StandardCharsets.UTF_8)).singleElement().asString().contains("Rua C");
+
+            List<EnderecoPendente> novas = new ArrayList<>();
+            diario.sincronizar(diario.gravar(1, endereco("Rua D"), novas::add));
+            assertThat(novas).extracting(EnderecoPendente::sequencia).containsExactly(4L);
+
+            diario.descartarAte(3);
+        }
+
+        try (DiarioEnderecos diario = new DiarioEnderecos(arquivo(), objectMapper)) {
+            assertThat(diario.ler()).extracting(EnderecoPendente::logradouro).containsExactly("Rua D");
+        }
+        assertThat(diretorio.resolve("enderecos-pendentes.jsonl.compactacao")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("QUANDO a sincronização falhar NÃO DEVE entregar a entrada nem aceitar novas gravações")
+    public void falhaNaSincronizacao() throws IOException {
+        AtomicBoolean falhar = new AtomicBoolean();
+        List<EnderecoPendente> fila = new ArrayList<>();
+
+        try (DiarioEnderecos diario = new DiarioEnderecos(arquivo(), objectMapper) {
+            @Override
+            void forcar(FileChannel canal) throws IOException {
+                if (falhar.get()) {
+                    throw new IOException("falha simulada");
+                }
+                super.forcar(canal);
+            }
+        }) {
+            diario.ler();
+            diario.sincronizar(diario.gravar(1, endereco("Rua A"), fila::add));
+
+            falhar.set(true);
+            long posicao = diario.gravar(1, endereco("Rua B"), fila::add);
+            assertThatThrownBy(() -> diario.sincronizar(posicao)).isInstanceOf(IOException.class);
+            assertThat(diario.isDisponivel()).isFalse();
+            assertThatThrownBy(() -> diario.gravar(1, endereco("Rua C"), fila::add)).isInstanceOf(IOException.class);
+        }
+
+        assertThat(fila).extracting(EnderecoPendente::logradouro).containsExactly("Rua A");
+        try (DiarioEnderecos diario = new DiarioEnderecos(arquivo(), objectMapper)) {
+            assertThat(diario.ler()).extracting(EnderecoPendente::logradouro).containsExactly("Rua A");
+        }
+    }
+
+    @Test
+    @DisplayName("QUANDO gravar concorrentemente DEVE entregar as entradas ao consumidor na ordem das sequências")
+    public void gravarConcorrentemente() throws Exception {
+        LinkedBlockingQueue<EnderecoPendente> fila = new LinkedBlockingQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try (DiarioEnderecos diario = new DiarioEnderecos(arquivo(), objectMapper)) {
+            List<Future<?>> gravacoes = new ArrayList<>();
+            for(int i = 0; i < 200; i++){
+                int idPessoa = i;
+                gravacoes.add(executor.submit(() -> {
+                    diario.sincronizar(diario.gravar(idPessoa, endereco("Rua " + idPessoa), fila::add));
+                    return null;
+                }));
+            }
+            for(Future<?> gravacao : gravacoes){
+                gravacao.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(fila).extracting(EnderecoPendente::sequencia).isSorted().hasSize(200).doesNotHaveDuplicates();
+        try (DiarioEnderecos diario = new DiarioEnderecos(arquivo(), objectMapper)) {
+            assertThat(diario.ler()).hasSize(200);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.attornatus.gerenciamentopessoas.escrita;
+
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.entities.PosicaoDiario;
+import com.attornatus.gerenciamentopessoas.repositories.EnderecoRepository;
+import com.attornatus.gerenciamentopessoas.repositories.PessoaRepository;
+import com.attornatus.gerenciamentopessoas.repositories.PosicaoDiarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "pessoas.enderecos.escrita-adiada.habilitada=true")
+@AutoConfigureMockMvc
+public class EscritaAdiadaEnderecosTests {
+
+    private static final String ENDERECO = """
+            {"logradouro": "Rua A", "cep": "12345-190", "numero": "00", "cidade": "Fortaleza"}
+            """;
+
+    @TempDir
+    private static Path diretorio;
+
+    @DynamicPropertySource
+    public static void configurarDiario(DynamicPropertyRegistry registro){
+        registro.add("pessoas.enderecos.escrita-adiada.diario", () -> diretorio.resolve("enderecos-pendentes.jsonl").toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EscritaAdiadaEnderecos escritaAdiadaEnderecos;
+    @Autowired
+    private PessoaRepository pessoaRepository;
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+    @Autowired
+    private PosicaoDiarioRepository posicaoDiarioRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry registro;
+
+    private Pessoa pessoa;
+
+    @BeforeEach
+    public void criarPessoa(){
+        Pessoa novaPessoa = new Pessoa();
+        novaPessoa.setNome("Michael");
+        novaPessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+        pessoa = pessoaRepository.save(novaPessoa);
+    }
+
+    @AfterEach
+    public void removerPessoa(){
+        jdbcTemplate.update("DELETE FROM endereco WHERE endereco_id = ?", pessoa.getId());
+        pessoaRepository.deleteById(pessoa.getId());
+    }
+
+    private int quantidadeEnderecos(){
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM endereco WHERE endereco_id = ?", Integer.class, pessoa.getId());
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + 5_000_000_000L;
+        while(!condicao.getAsBoolean() && System.nanoTime() < limite){
+            Thread.sleep(20);
+        }
+        assertThat(condicao.getAsBoolean()).isTrue();
+    }
+
+    @Test
+    @DisplayName("QUANDO criar um endereço com a escrita adiada DEVE retornar 202 e gravá-lo em seguida")
+    public void criarEnderecoAdiado() throws Exception {
+        mockMvc.perform(post("/pessoas/" + pessoa.getId() + "/endereco")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ENDERECO))
+                .andExpect(status().isAccepted());
+
+        aguardar(() -> quantidadeEnderecos() == 1);
+        assertThat(pessoaRepository.findById(pessoa.getId()).orElseThrow().getVersao()).isEqualTo(pessoa.getVersao() + 1);
+        assertThat(registro.get("escrita.adiada.fila").gauge()).isNotNull();
+        assertThat(registro.get("escrita.adiada.diario").timer().count()).isPositive();
+        assertThat(registro.get("escrita.adiada.gravacao").timer().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("QUANDO criar um endereço para pessoa inexistente com a escrita adiada DEVE retornar 404")
+    public void criarEnderecoAdiadoPessoaInexistente() throws Exception {
+        mockMvc.perform(post("/pessoas/" + Integer.MAX_VALUE + "/endereco")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ENDERECO))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("QUANDO reiniciar com entradas pendentes no diário DEVE gravá-las e descartar as inválidas")
+    public void recuperarEntradasPendentes() throws Exception {
+        escritaAdiadaEnderecos.stop();
+
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro("Rua recuperada");
+        endereco.setCep("12345-190");
+        endereco.setNumero("00");
+        endereco.setCidade("Fortaleza");
+
+        try (DiarioEnderecos diario = new DiarioEnderecos(diretorio.resolve("enderecos-pendentes.jsonl"), objectMapper)) {
+            diario.ler();
+            diario.continuarApos(posicaoDiarioRepository.findById(EscritaAdiadaEnderecos.NOME_DIARIO)
+                    .map(PosicaoDiario::getSequencia).orElse(0L));
+            diario.gravar(Integer.MAX_VALUE, endereco, entrada -> {});
+            diario.sincronizar(diario.gravar(pessoa.getId(), endereco, entrada -> {}));
+        }
+
+        escritaAdiadaEnderecos.start();
+
+        aguardar(() -> quantidadeEnderecos() == 1);
+        assertThat(enderecoRepository.buscarResumosPorPessoa(pessoa.getId()))
+                .extracting("logradouro").containsExactly("Rua recuperada");
+    }
+}
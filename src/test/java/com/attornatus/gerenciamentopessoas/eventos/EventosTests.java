@@ -0,0 +1,190 @@
+package com.attornatus.gerenciamentopessoas.eventos;
+
+import com.attornatus.gerenciamentopessoas.dto.evento.EventoAlteracaoDTO;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.EventoAlteracao;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.exceptions.VersaoDesatualizadaException;
+import com.attornatus.gerenciamentopessoas.repositories.EventoAlteracaoRepository;
+import com.attornatus.gerenciamentopessoas.services.EnderecoService;
+import com.attornatus.gerenciamentopessoas.services.PessoaService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+// A publicação periódica é desligada e feita pelos testes; a retenção zerada deixa todos os eventos publicados
+// disponíveis para a compactação
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:eventos",
+        "pessoas.eventos.habilitados=true",
+        "pessoas.eventos.intervalo=1h",
+        "pessoas.eventos.intervalo-compactacao=1h",
+        "pessoas.eventos.retencao=0s",
+        "pessoas.eventos.tamanho-lote=2"
+})
+@AutoConfigureMockMvc
+public class EventosTests {
+
+    private static final long ESPERA_MS = 5000;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private PessoaService pessoaService;
+    @Autowired
+    private EnderecoService enderecoService;
+    @Autowired
+    private RelayEventos relayEventos;
+    @Autowired
+    private EventoAlteracaoRepository eventoAlteracaoRepository;
+
+    private long posicaoInicial;
+
+    @BeforeEach
+    public void publicarAnteriores(){
+        relayEventos.publicarPendentes();
+        posicaoInicial = eventoAlteracaoRepository.buscarUltimaPosicao();
+    }
+
+    private Pessoa criarPessoa(String nome){
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome(nome);
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+        pessoaService.criar(pessoa);
+        return pessoa;
+    }
+
+    private Endereco criarEndereco(Integer idPessoa){
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro("Rua");
+        endereco.setCep("12345-190");
+        endereco.setNumero("00");
+        endereco.setCidade("Fortaleza");
+        enderecoService.salvar(endereco, idPessoa);
+        return endereco;
+    }
+
+    private List<EventoAlteracaoDTO> receber(BlockingQueue<List<EventoAlteracaoDTO>> lotes, int quantidade)
+            throws InterruptedException {
+        List<EventoAlteracaoDTO> eventos = new ArrayList<>();
+        while (eventos.size() < quantidade) {
+            List<EventoAlteracaoDTO> lote = lotes.poll(ESPERA_MS, TimeUnit.MILLISECONDS);
+            Assertions.assertNotNull(lote, "Eventos recebidos: " + eventos.size());
+            eventos.addAll(lote);
+        }
+        return eventos;
+    }
+
+    @Test
+    @DisplayName("QUANDO alterar pessoas e endereços DEVE registrar os eventos na mesma transação e publicá-los em ordem")
+    public void registrarEventosNaTransacao(){
+        Pessoa pessoa = criarPessoa("Michael");
+        Endereco endereco = criarEndereco(pessoa.getId());
+        enderecoService.salvarEnderecoPrincipalPessoa(endereco.getId(), pessoa.getId());
+        Pessoa alteracao = new Pessoa();
+        alteracao.setNome("Michael Alterado");
+        pessoaService.atualizar(alteracao, pessoa.getId());
+        Assertions.assertThrows(VersaoDesatualizadaException.class,
+                () -> pessoaService.atualizar(alteracao, pessoa.getId(), 0L));
+
+        assertThat(relayEventos.publicarPendentes()).isEqualTo(4);
+        List<EventoAlteracao> eventos = eventoAlteracaoRepository.buscarAPartirDe(posicaoInicial,
+                Pageable.unpaged());
+
+        assertThat(eventos).extracting(EventoAlteracao::getTipo).containsExactly(
+                EventoAlteracao.Tipo.PESSOA_CRIADA,
+                EventoAlteracao.Tipo.ENDERECO_CRIADO,
+                EventoAlteracao.Tipo.ENDERECO_PRINCIPAL_DEFINIDO,
+                EventoAlteracao.Tipo.PESSOA_ATUALIZADA);
+        assertThat(eventos).extracting(EventoAlteracao::getPosicao)
+                .containsExactly(posicaoInicial + 1, posicaoInicial + 2, posicaoInicial + 3, posicaoInicial + 4);
+        assertThat(eventos).extracting(EventoAlteracao::getIdPessoa).containsOnly(pessoa.getId());
+        assertThat(eventos.get(1).getChave()).isEqualTo("endereco:" + endereco.getId());
+        assertThat(eventos.get(2).getDados()).isEqualTo("{\"idEndereco\":" + endereco.getId() + "}");
+        assertThat(eventos.get(3).getDados()).contains("\"nome\":\"Michael Alterado\"");
+    }
+
+    @Test
+    @DisplayName("QUANDO assinar a partir de uma posição DEVE entregar em lotes os eventos posteriores e os novos")
+    public void assinarAPartirDeUmaPosicao() throws Exception {
+        criarPessoa("Primeira");
+        Pessoa segunda = criarPessoa("Segunda");
+        Pessoa terceira = criarPessoa("Terceira");
+        relayEventos.publicarPendentes();
+
+        BlockingQueue<List<EventoAlteracaoDTO>> lotes = new LinkedBlockingQueue<>();
+        try (RelayEventos.Assinatura ignorada = relayEventos.assinar(posicaoInicial + 1, lotes::add)) {
+            List<EventoAlteracaoDTO> anteriores = receber(lotes, 2);
+            assertThat(anteriores).extracting(EventoAlteracaoDTO::getIdPessoa)
+                    .containsExactly(segunda.getId(), terceira.getId());
+
+            Pessoa quarta = criarPessoa("Quarta");
+            relayEventos.publicarPendentes();
+            List<EventoAlteracaoDTO> novos = receber(lotes, 1);
+            assertThat(novos).extracting(EventoAlteracaoDTO::getIdPessoa).containsExactly(quarta.getId());
+            assertThat(novos.get(0).getPosicao()).isEqualTo(posicaoInicial + 4);
+        }
+    }
+
+    @Test
+    @DisplayName("QUANDO compactar DEVE manter somente o evento mais recente de cada chave")
+    public void compactarEventos(){
+        Pessoa pessoa = criarPessoa("Compactada");
+        for (int i = 1; i <= 3; i++) {
+            Pessoa alteracao = new Pessoa();
+            alteracao.setNome("Compactada " + i);
+            pessoaService.atualizar(alteracao, pessoa.getId());
+        }
+        relayEventos.publicarPendentes();
+
+        relayEventos.compactar();
+
+        List<EventoAlteracao> restantes = eventoAlteracaoRepository.findAll().stream()
+                .filter(evento -> evento.getChave().equals("pessoa:" + pessoa.getId()))
+                .toList();
+        assertThat(restantes).hasSize(1);
+        assertThat(restantes.get(0).getPosicao()).isEqualTo(posicaoInicial + 4);
+        assertThat(restantes.get(0).getDados()).contains("Compactada 3");
+    }
+
+    @Test
+    @DisplayName("QUANDO acompanhar os eventos por SSE DEVE retomar a partir do Last-Event-ID")
+    public void acompanharEventosPorSse() throws Exception {
+        criarPessoa("Antes do SSE");
+        Pessoa pessoa = criarPessoa("Depois do SSE");
+        relayEventos.publicarPendentes();
+
+        MvcResult resultado = mockMvc.perform(get("/pessoas/eventos")
+                        .header("Last-Event-ID", posicaoInicial + 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String esperado = "id:" + (posicaoInicial + 2) + "\nevent:PESSOA_CRIADA\ndata:";
+        long limite = System.currentTimeMillis() + ESPERA_MS;
+        while (!resultado.getResponse().getContentAsString().endsWith("\n\n")
+                && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+        String conteudo = resultado.getResponse().getContentAsString();
+        assertThat(conteudo).startsWith(esperado).contains("\"idPessoa\":" + pessoa.getId())
+                .doesNotContain("id:" + (posicaoInicial + 1) + "\n");
+    }
+}
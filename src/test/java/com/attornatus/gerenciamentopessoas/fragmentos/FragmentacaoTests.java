@@ -0,0 +1,148 @@
+package com.attornatus.gerenciamentopessoas.fragmentos;
+
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.services.EnderecoService;
+import com.attornatus.gerenciamentopessoas.services.PessoaService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Dois bancos H2 em memória fazem o papel dos fragmentos; o primeiro também é o catálogo
+@SpringBootTest(properties = {
+        "pessoas.persistencia.fragmentacao.habilitada=true",
+        "pessoas.persistencia.fragmentacao.urls=jdbc:h2:mem:fragmento-a,jdbc:h2:mem:fragmento-b",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureMockMvc
+public class FragmentacaoTests {
+
+    @Autowired
+    private PessoaService pessoaService;
+    @Autowired
+    private EnderecoService enderecoService;
+    @Autowired
+    private Fragmentacao fragmentacao;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MockMvc mockMvc;
+
+    // O cache de segundo nível é compartilhado pelos contextos dos outros testes, que usaram os mesmos ids
+    @BeforeEach
+    public void limparCache(){
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    private Pessoa criarPessoa(String nome){
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome(nome);
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+        pessoaService.criar(pessoa);
+        return pessoa;
+    }
+
+    private void criarEndereco(Integer idPessoa, String logradouro){
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro(logradouro);
+        endereco.setCep("12345-190");
+        endereco.setNumero("00");
+        endereco.setCidade("Fortaleza");
+        enderecoService.salvar(endereco, idPessoa);
+    }
+
+    private Map<String, Long> contar(String consulta, Object... parametros){
+        Map<String, Long> contagens = new LinkedHashMap<>();
+        fragmentacao.getDataSources().forEach((fragmento, dataSource) -> contagens.put(fragmento,
+                new JdbcTemplate(dataSource).queryForObject(consulta, Long.class, parametros)));
+        return contagens;
+    }
+
+    @Test
+    @DisplayName("QUANDO criar pessoas e endereços DEVE gravar cada pessoa, com os endereços, somente no fragmento dela")
+    public void gravarNoFragmentoDaPessoa(){
+        List<Pessoa> pessoas = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Pessoa pessoa = criarPessoa("Pessoa " + i);
+            criarEndereco(pessoa.getId(), "Rua " + i);
+            criarEndereco(pessoa.getId(), "Avenida " + i);
+            pessoas.add(pessoa);
+        }
+
+        for (Pessoa pessoa : pessoas) {
+            String fragmento = fragmentacao.fragmentoDe(pessoa.getId());
+            assertThat(contar("SELECT COUNT(*) FROM pessoa WHERE id = ?", pessoa.getId()))
+                    .allSatisfy((nome, total) -> assertThat(total).isEqualTo(nome.equals(fragmento) ? 1 : 0));
+            assertThat(contar("SELECT COUNT(*) FROM endereco WHERE endereco_id = ?", pessoa.getId()))
+                    .allSatisfy((nome, total) -> assertThat(total).isEqualTo(nome.equals(fragmento) ? 2 : 0));
+
+            assertThat(pessoaService.buscarResumoPorId(pessoa.getId()).getVersao()).isEqualTo(2);
+            assertThat(enderecoService.buscarEnderecosPessoaPorId(pessoa.getId()))
+                    .extracting(EnderecoReturnDTO::getLogradouro)
+                    .containsExactlyInAnyOrder("Rua " + pessoas.indexOf(pessoa), "Avenida " + pessoas.indexOf(pessoa));
+        }
+    }
+
+    @Test
+    @DisplayName("QUANDO listar pessoas de vários fragmentos DEVE retornar páginas completas em ordem de id")
+    public void listarPessoasDeVariosFragmentos(){
+        List<Integer> criadas = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            criadas.add(criarPessoa("Pessoa " + i).getId());
+        }
+        assertThat(contar("SELECT COUNT(*) FROM pessoa")).allSatisfy((nome, total) -> assertThat(total).isPositive());
+
+        List<Integer> listadas = new ArrayList<>();
+        List<PessoaReturnDTO> pagina;
+        Integer cursor = null;
+        do {
+            pagina = pessoaService.buscarPagina(cursor, 7);
+            pagina.forEach(pessoa -> listadas.add(pessoa.getId()));
+            if (!pagina.isEmpty()) {
+                cursor = pagina.get(pagina.size() - 1).getId();
+            }
+        } while (pagina.size() == 7);
+
+        assertThat(listadas).isSorted().doesNotHaveDuplicates().containsAll(criadas);
+        assertThat(listadas).hasSize(contar("SELECT COUNT(*) FROM pessoa").values().stream()
+                .mapToInt(Long::intValue).sum());
+    }
+
+    @Test
+    @DisplayName("QUANDO percorrer todas as pessoas DEVE ler todos os fragmentos")
+    public void percorrerTodosOsFragmentos(){
+        Pessoa primeira = criarPessoa("Primeira");
+        Pessoa segunda = criarPessoa("Segunda");
+
+        List<Integer> percorridas = new ArrayList<>();
+        pessoaService.percorrerTodas(pessoa -> percorridas.add(pessoa.getId()));
+
+        assertThat(percorridas).contains(primeira.getId(), segunda.getId()).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("QUANDO não houver opção explícita NÃO DEVE expor o endpoint de fragmentos pela web")
+    public void naoExporEndpointFragmentos() throws Exception {
+        mockMvc.perform(post("/actuator/fragmentos")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/actuator/fragmentos")).andExpect(status().isNotFound());
+    }
+}
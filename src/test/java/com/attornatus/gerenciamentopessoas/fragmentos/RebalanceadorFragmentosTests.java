@@ -0,0 +1,116 @@
+package com.attornatus.gerenciamentopessoas.fragmentos;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Três bancos H2 em memória, migrados pelo Flyway; os dados são distribuídos pelo anel com os dois primeiros e
+// rebalanceados depois que o terceiro é acrescentado
+public class RebalanceadorFragmentosTests {
+
+    private static final int PESSOAS = 200;
+
+    private final Map<String, HikariDataSource> dataSources = new LinkedHashMap<>();
+    private Fragmentacao fragmentacao;
+
+    @BeforeEach
+    public void criarFragmentos(){
+        for (String nome : List.of("fragmento-1", "fragmento-2", "fragmento-3")) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:h2:mem:rebalanceamento-" + nome);
+            dataSource.setUsername("sa");
+            dataSource.setMaximumPoolSize(2);
+            Flyway.configure().dataSource(dataSource).load().migrate();
+            dataSources.put(nome, dataSource);
+        }
+        fragmentacao = new Fragmentacao(dataSources, new AnelFragmentos(List.copyOf(dataSources.keySet()), 128),
+                () -> null);
+
+        AnelFragmentos anelAnterior = new AnelFragmentos(List.of("fragmento-1", "fragmento-2"), 128);
+        for (int id = 1; id <= PESSOAS; id++) {
+            JdbcTemplate fragmento = jdbc(anelAnterior.fragmentoDe(id));
+            fragmento.update("INSERT INTO pessoa (id, nome, data_nascimento, versao) VALUES (?, ?, ?, 3)",
+                    id, "Pessoa " + id, LocalDate.of(2001, 9, 28));
+            fragmento.update("INSERT INTO endereco (id, endereco_id, logradouro, cep, numero, cidade, principal) " +
+                    "VALUES (?, ?, 'Rua', '12345-190', '00', 'Fortaleza', TRUE)", id * 2, id);
+            fragmento.update("INSERT INTO endereco (id, endereco_id, logradouro, cep, numero, cidade, principal) " +
+                    "VALUES (?, ?, 'Avenida', '12345-190', '00', 'Fortaleza', FALSE)", id * 2 + 1, id);
+        }
+    }
+
+    @AfterEach
+    public void fecharFragmentos(){
+        fragmentacao.close();
+    }
+
+    private JdbcTemplate jdbc(String fragmento){
+        return new JdbcTemplate(dataSources.get(fragmento));
+    }
+
+    private long contar(String consulta){
+        return dataSources.keySet().stream()
+                .mapToLong(fragmento -> jdbc(fragmento).queryForObject(consulta, Long.class))
+                .sum();
+    }
+
+    @Test
+    @DisplayName("QUANDO acrescentar um fragmento DEVE mover para ele somente as pessoas do novo trecho do anel, com os endereços")
+    public void rebalancearAposAcrescentarFragmento(){
+        int movidas = new RebalanceadorFragmentos(fragmentacao, 17).rebalancear();
+
+        assertThat(movidas).isPositive().isLessThan(PESSOAS / 2);
+        for (String fragmento : dataSources.keySet()) {
+            List<Integer> pessoas = jdbc(fragmento).queryForList("SELECT id FROM pessoa", Integer.class);
+            assertThat(pessoas).allSatisfy(id -> assertThat(fragmentacao.fragmentoDe(id)).isEqualTo(fragmento));
+            assertThat(jdbc(fragmento).queryForList("SELECT endereco_id FROM endereco", Integer.class))
+                    .allSatisfy(id -> assertThat(pessoas).contains(id));
+        }
+        assertThat(jdbc("fragmento-3").queryForObject("SELECT COUNT(*) FROM pessoa", Long.class)).isEqualTo(movidas);
+        assertThat(contar("SELECT COUNT(*) FROM pessoa")).isEqualTo(PESSOAS);
+        assertThat(contar("SELECT COUNT(*) FROM endereco")).isEqualTo(PESSOAS * 2);
+        assertThat(contar("SELECT COUNT(*) FROM endereco WHERE principal")).isEqualTo(PESSOAS);
+        assertThat(contar("SELECT SUM(versao) FROM pessoa")).isEqualTo(PESSOAS * 3L);
+
+        assertThat(new RebalanceadorFragmentos(fragmentacao, 17).rebalancear()).isZero();
+    }
+
+    @Test
+    @DisplayName("QUANDO repetir um rebalanceamento interrompido DEVE manter a pessoa já copiada e alterada no destino")
+    public void repetirRebalanceamentoInterrompido(){
+        // Simula uma execução que copiou a pessoa e parou antes de apagá-la da origem; depois disso ela foi alterada
+        int id = IntStream.rangeClosed(1, PESSOAS)
+                .filter(candidato -> fragmentacao.fragmentoDe(candidato).equals("fragmento-3"))
+                .findFirst().orElseThrow();
+        JdbcTemplate destino = jdbc("fragmento-3");
+        destino.update("INSERT INTO pessoa (id, nome, data_nascimento, versao) VALUES (?, 'Alterada', ?, 5)",
+                id, LocalDate.of(2001, 9, 28));
+        destino.update("INSERT INTO endereco (id, endereco_id, logradouro, cep, numero, cidade, principal) " +
+                "VALUES (?, ?, 'Rua', '12345-190', '00', 'Fortaleza', FALSE)", id * 2, id);
+        destino.update("INSERT INTO endereco (id, endereco_id, logradouro, cep, numero, cidade, principal) " +
+                "VALUES (?, ?, 'Avenida', '12345-190', '00', 'Fortaleza', TRUE)", id * 2 + 1, id);
+        destino.update("INSERT INTO endereco (id, endereco_id, logradouro, cep, numero, cidade, principal) " +
+                "VALUES (?, ?, 'Travessa', '12345-190', '00', 'Fortaleza', FALSE)", PESSOAS * 3, id);
+
+        new RebalanceadorFragmentos(fragmentacao, 17).rebalancear();
+
+        assertThat(destino.queryForMap("SELECT nome, versao FROM pessoa WHERE id = ?", id))
+                .containsEntry("NOME", "Alterada").containsEntry("VERSAO", 5L);
+        assertThat(destino.queryForList("SELECT logradouro FROM endereco WHERE endereco_id = ? AND principal",
+                String.class, id)).containsExactly("Avenida");
+        assertThat(contar("SELECT COUNT(*) FROM pessoa WHERE id = " + id)).isEqualTo(1);
+        assertThat(contar("SELECT COUNT(*) FROM endereco WHERE endereco_id = " + id)).isEqualTo(3);
+        assertThat(contar("SELECT COUNT(*) FROM pessoa")).isEqualTo(PESSOAS);
+    }
+}
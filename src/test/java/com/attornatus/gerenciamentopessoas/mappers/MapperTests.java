@@ -0,0 +1,94 @@
+package com.attornatus.gerenciamentopessoas.mappers;
+
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoCreateDTO;
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaCreateDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaUpdateDTO;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MapperTests {
+
+    private final PessoaMapper pessoaMapper = new PessoaMapperImpl();
+    private final EnderecoMapper enderecoMapper = new EnderecoMapperImpl();
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final PessoaMapper pessoaModelMapper = new ModelMapperPessoaMapper(modelMapper);
+    private final EnderecoMapper enderecoModelMapper = new ModelMapperEnderecoMapper(modelMapper);
+
+    @Test
+    @DisplayName("QUANDO mapear uma pessoa para DTO DEVE produzir o mesmo resultado do ModelMapper")
+    public void mapearPessoaParaDto(){
+        Pessoa pessoa = new Pessoa();
+        pessoa.setId(1);
+        pessoa.setNome("Michael");
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+
+        PessoaReturnDTO dto = pessoaMapper.paraDto(pessoa);
+
+        assertThat(dto.getId()).isEqualTo(1);
+        assertThat(dto.getNome()).isEqualTo("Michael");
+        assertThat(dto.getDataNascimento()).isEqualTo("28/09/2001");
+        assertThat(dto).usingRecursiveComparison().isEqualTo(pessoaModelMapper.paraDto(pessoa));
+    }
+
+    @Test
+    @DisplayName("QUANDO mapear DTOs de criação e atualização de pessoa DEVE produzir o mesmo resultado do ModelMapper")
+    public void mapearDtosPessoaParaEntidade(){
+        PessoaCreateDTO novaPessoa = new PessoaCreateDTO();
+        novaPessoa.setNome("Michael");
+        novaPessoa.setDataNascimento("28/09/2001");
+
+        PessoaUpdateDTO pessoaAtualizada = new PessoaUpdateDTO();
+        pessoaAtualizada.setNome("Joao");
+
+        assertThat(pessoaMapper.paraEntidade(novaPessoa))
+                .usingRecursiveComparison()
+                .isEqualTo(pessoaModelMapper.paraEntidade(novaPessoa));
+        assertThat(pessoaMapper.paraEntidade(pessoaAtualizada))
+                .usingRecursiveComparison()
+                .isEqualTo(pessoaModelMapper.paraEntidade(pessoaAtualizada));
+        assertThat(pessoaMapper.paraEntidade(pessoaAtualizada).getDataNascimento()).isNull();
+    }
+
+    @Test
+    @DisplayName("QUANDO mapear um endereço para DTO DEVE produzir o mesmo resultado do ModelMapper")
+    public void mapearEnderecoParaDto(){
+        Endereco endereco = new Endereco();
+        endereco.setId(2);
+        endereco.setCep("12345-190");
+        endereco.setCidade("Fortaleza");
+        endereco.setLogradouro("Rua 123");
+        endereco.setNumero("00");
+        endereco.setPrincipal(true);
+
+        EnderecoReturnDTO dto = enderecoMapper.paraDto(endereco);
+
+        assertThat(dto.getId()).isEqualTo(2);
+        assertThat(dto.getPrincipal()).isTrue();
+        assertThat(dto).usingRecursiveComparison().isEqualTo(enderecoModelMapper.paraDto(endereco));
+    }
+
+    @Test
+    @DisplayName("QUANDO mapear DTO de criação de endereço DEVE produzir o mesmo resultado do ModelMapper")
+    public void mapearDtoEnderecoParaEntidade(){
+        EnderecoCreateDTO endereco = new EnderecoCreateDTO();
+        endereco.setCep("12345-190");
+        endereco.setCidade("Fortaleza");
+        endereco.setLogradouro("Rua 123");
+        endereco.setNumero("00");
+
+        Endereco entidade = enderecoMapper.paraEntidade(endereco);
+
+        assertThat(entidade.getPrincipal()).isFalse();
+        assertThat(entidade).usingRecursiveComparison().isEqualTo(enderecoModelMapper.paraEntidade(endereco));
+    }
+}
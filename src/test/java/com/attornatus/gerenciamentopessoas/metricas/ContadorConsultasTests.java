@@ -0,0 +1,55 @@
+package com.attornatus.gerenciamentopessoas.metricas;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ContadorConsultasTests {
+
+    private static final String SQL = "select 1";
+
+    @AfterEach
+    public void encerrarMedicao(){
+        new ContadorConsultas(false).encerrar();
+    }
+
+    @Test
+    @DisplayName("QUANDO uma requisição passar do limite com falha habilitada DEVE interromper a consulta excedente")
+    public void falharAoExcederLimite(){
+        ContadorConsultas contador = new ContadorConsultas(true);
+        contador.iniciar(2);
+
+        contador.inspect(SQL);
+        contador.inspect(SQL);
+
+        assertThatThrownBy(() -> contador.inspect(SQL))
+                .isInstanceOf(LimiteConsultasExcedidoException.class)
+                .hasMessageContaining("limite de 2 consultas");
+        assertThat(contador.quantidade()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("QUANDO uma requisição passar do limite sem falha habilitada DEVE apenas contar as consultas")
+    public void contarAcimaDoLimite(){
+        ContadorConsultas contador = new ContadorConsultas(false);
+        contador.iniciar(1);
+
+        contador.inspect(SQL);
+        contador.inspect(SQL);
+
+        assertThat(contador.quantidade()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("QUANDO a medição for encerrada DEVE deixar de aplicar o limite na thread")
+    public void encerrarMedicaoRemoveLimite(){
+        ContadorConsultas contador = new ContadorConsultas(true);
+        contador.iniciar(0);
+        contador.encerrar();
+
+        assertThat(contador.inspect(SQL)).isEqualTo(SQL);
+    }
+}
@@ -0,0 +1,89 @@
+package com.attornatus.gerenciamentopessoas.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TempoExecucaoInterceptorTests {
+
+    private final MeterRegistry registro = new SimpleMeterRegistry();
+    private final TempoExecucaoInterceptor interceptor = new TempoExecucaoInterceptor("teste.execucao", () -> registro);
+
+    private static class InvocacaoFixa implements MethodInvocation {
+
+        private final Method metodo;
+        private final Object alvo = "alvo";
+
+        InvocacaoFixa(String nomeMetodo) throws NoSuchMethodException {
+            this.metodo = String.class.getMethod(nomeMetodo);
+        }
+
+        @Override
+        public Method getMethod() {
+            return metodo;
+        }
+
+        @Override
+        public Object[] getArguments() {
+            return new Object[0];
+        }
+
+        @Override
+        public Object proceed() {
+            return alvo;
+        }
+
+        @Override
+        public Object getThis() {
+            return alvo;
+        }
+
+        @Override
+        public AccessibleObject getStaticPart() {
+            return metodo;
+        }
+    }
+
+    @Test
+    @DisplayName("QUANDO métodos diferentes forem chamados DEVE registrar um timer por método")
+    public void registrarTimerPorMetodo() throws Throwable {
+        interceptor.invoke(new InvocacaoFixa("length"));
+        interceptor.invoke(new InvocacaoFixa("length"));
+        interceptor.invoke(new InvocacaoFixa("isEmpty"));
+
+        Timer tamanho = registro.find("teste.execucao").tags("classe", "String", "metodo", "length").timer();
+        Timer vazio = registro.find("teste.execucao").tags("classe", "String", "metodo", "isEmpty").timer();
+
+        assertThat(tamanho.count()).isEqualTo(2);
+        assertThat(vazio.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("QUANDO o timer do método já existir DEVE medir as chamadas sem alocar memória")
+    public void medirSemAlocarMemoria() throws Throwable {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        InvocacaoFixa invocacao = new InvocacaoFixa("length");
+        int chamadas = 100_000;
+
+        for (int i = 0; i < chamadas; i++) {
+            interceptor.invoke(invocacao);
+        }
+        long alocadoAntes = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < chamadas; i++) {
+            interceptor.invoke(invocacao);
+        }
+        long alocado = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - alocadoAntes;
+
+        // Uma alocação por chamada somaria pelo menos 1,6 MB
+        assertThat(alocado).isLessThan(16 * 1024);
+    }
+}
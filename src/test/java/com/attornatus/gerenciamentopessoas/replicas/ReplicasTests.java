@@ -0,0 +1,137 @@
+package com.attornatus.gerenciamentopessoas.replicas;
+
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.services.PessoaService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Dois bancos H2 em memória fazem o papel de primário e réplica; a replicação é simulada copiando o primário
+// para a réplica com SCRIPT/RUNSCRIPT. A verificação periódica é desligada e feita pelos testes.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicas-primario",
+        "pessoas.persistencia.replicas.habilitadas=true",
+        "pessoas.persistencia.replicas.urls=" + ReplicasTests.URL_REPLICA,
+        "pessoas.persistencia.replicas.intervalo-verificacao=1h"
+})
+@AutoConfigureMockMvc
+public class ReplicasTests {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replicas-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private PessoaService pessoaService;
+    @Autowired
+    private MonitorReplicas monitor;
+    @Autowired
+    @Qualifier("dataSourcePrimario")
+    private DataSource dataSourcePrimario;
+
+    private JdbcTemplate primario;
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", "password"));
+
+    @BeforeEach
+    public void replicar() throws Exception {
+        primario = new JdbcTemplate(dataSourcePrimario);
+        Path script = Files.createTempFile("replica", ".sql");
+        try {
+            primario.execute("SCRIPT TO '" + script + "'");
+            replica.execute("DROP ALL OBJECTS");
+            replica.execute("RUNSCRIPT FROM '" + script + "'");
+        } finally {
+            Files.delete(script);
+        }
+    }
+
+    private void inserirSomenteNaReplica(int id, String nome){
+        replica.update("INSERT INTO pessoa (id, nome, data_nascimento, versao) VALUES (?, ?, ?, 0)",
+                id, nome, LocalDate.of(2001, 9, 28));
+    }
+
+    private void atrasarReplica(Duration atraso){
+        replica.update("UPDATE batimento_replicacao SET instante = ?",
+                OffsetDateTime.now(ZoneOffset.UTC).minus(atraso));
+        monitor.verificar();
+    }
+
+    private int contarPorNome(JdbcTemplate banco, String nome){
+        return banco.queryForObject("SELECT COUNT(*) FROM pessoa WHERE nome = ?", Integer.class, nome);
+    }
+
+    @Test
+    @DisplayName("QUANDO a réplica estiver em dia DEVE atender as leituras somente leitura e deixar as gravações no primário")
+    public void lerDaReplicaEmDia(){
+        inserirSomenteNaReplica(900001, "Somente na réplica");
+        atrasarReplica(Duration.ZERO);
+
+        assertThat(monitor.getReplicas().get(0).getAtraso()).isPresent();
+        assertThat(pessoaService.buscarTodas()).extracting(Pessoa::getNome).contains("Somente na réplica");
+
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome("Gravada no primário");
+        pessoa.setDataNascimento(LocalDate.of(1990, 1, 1));
+        pessoaService.criar(pessoa);
+
+        assertThat(contarPorNome(primario, "Gravada no primário")).isEqualTo(1);
+        assertThat(contarPorNome(replica, "Gravada no primário")).isZero();
+    }
+
+    @Test
+    @DisplayName("QUANDO a réplica estiver atrasada além do máximo DEVE ler do primário")
+    public void lerDoPrimarioComReplicaAtrasada(){
+        inserirSomenteNaReplica(900002, "Réplica atrasada");
+        atrasarReplica(Duration.ofMinutes(1));
+
+        assertThat(monitor.getReplicas().get(0).getAtraso()).isEmpty();
+        assertThat(pessoaService.buscarTodas()).extracting(Pessoa::getNome).doesNotContain("Réplica atrasada");
+    }
+
+    @Test
+    @DisplayName("QUANDO o cliente acabou de gravar DEVE ler do primário enquanto o cookie for válido")
+    public void lerPropriasGravacoes() throws Exception {
+        atrasarReplica(Duration.ZERO);
+
+        Cookie leituraPrimario = mockMvc.perform(post("/pessoas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"Leitura própria\", \"dataNascimento\": \"10/05/1995\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(LeituraPropriaInterceptor.COOKIE))
+                .andReturn().getResponse().getCookie(LeituraPropriaInterceptor.COOKIE);
+
+        mockMvc.perform(get("/pessoas").param("tamanho", "100").cookie(leituraPrimario))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].nome", hasItem("Leitura própria")));
+
+        mockMvc.perform(get("/pessoas").param("tamanho", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].nome", not(hasItem("Leitura própria"))));
+    }
+}
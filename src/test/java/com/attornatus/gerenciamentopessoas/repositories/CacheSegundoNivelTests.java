@@ -0,0 +1,162 @@
+package com.attornatus.gerenciamentopessoas.repositories;
+
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.services.EnderecoService;
+import com.attornatus.gerenciamentopessoas.services.PessoaService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class CacheSegundoNivelTests {
+
+    @Autowired
+    private PessoaService pessoaService;
+    @Autowired
+    private EnderecoService enderecoService;
+    @Autowired
+    private PessoaRepository pessoaRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics estatisticas;
+    private Pessoa pessoa;
+
+    @BeforeEach
+    public void criarPessoa(){
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        pessoa = new Pessoa();
+        pessoa.setNome("Michael");
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+        pessoaRepository.save(pessoa);
+
+        estatisticas.clear();
+    }
+
+    @AfterEach
+    public void removerPessoa(){
+        jdbcTemplate.update("DELETE FROM endereco WHERE endereco_id = ?", pessoa.getId());
+        jdbcTemplate.update("DELETE FROM pessoa WHERE id = ?", pessoa.getId());
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    private Endereco novoEndereco(String logradouro){
+        Endereco endereco = new Endereco();
+        endereco.setCep("12345-190");
+        endereco.setCidade("Fortaleza");
+        endereco.setLogradouro(logradouro);
+        endereco.setNumero("00");
+        return endereco;
+    }
+
+    private int quantidadeEnderecos(){
+        return enderecoService.buscarEnderecosPessoaPorId(pessoa.getId()).size();
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar a mesma pessoa repetidamente DEVE consultar o banco somente uma vez")
+    public void buscarPessoaUsaCache(){
+        pessoaService.buscarPorId(pessoa.getId());
+        pessoaService.buscarPorId(pessoa.getId());
+        pessoaService.existePessoa(pessoa.getId());
+
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+        assertThat(estatisticas.getDomainDataRegionStatistics("pessoa").getHitCount()).isEqualTo(3);
+        assertThat(estatisticas.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("QUANDO atualizar uma pessoa em cache DEVE retornar os dados atualizados na próxima busca")
+    public void atualizarPessoaInvalidaCache(){
+        pessoaService.buscarPorId(pessoa.getId());
+
+        Pessoa pessoaAtualizada = new Pessoa();
+        pessoaAtualizada.setNome("Joao");
+        pessoaService.atualizar(pessoaAtualizada, pessoa.getId());
+
+        assertThat(pessoaService.buscarPorId(pessoa.getId()).getNome()).isEqualTo("Joao");
+    }
+
+    @Test
+    @DisplayName("QUANDO salvar um endereço para uma pessoa DEVE retornar o novo endereço na próxima busca, lida do banco")
+    public void salvarEnderecoRetornaNaProximaBusca(){
+        enderecoService.salvar(novoEndereco("Rua 1"), pessoa.getId());
+        assertThat(quantidadeEnderecos()).isEqualTo(1);
+        assertThat(quantidadeEnderecos()).isEqualTo(1);
+        assertThat(estatisticas.getCollectionFetchCount()).isZero();
+
+        enderecoService.salvar(novoEndereco("Rua 2"), pessoa.getId());
+        assertThat(quantidadeEnderecos()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("QUANDO salvar um endereço DEVE incrementar a versão da pessoa sem descartar as demais pessoas do cache")
+    public void salvarEnderecoMantemDemaisPessoasEmCache(){
+        Pessoa outra = new Pessoa();
+        outra.setNome("Joao");
+        outra.setDataNascimento(LocalDate.of(1990, 1, 1));
+        pessoaRepository.save(outra);
+        Long versaoAnterior = pessoaService.buscarVersaoPorId(pessoa.getId());
+        pessoaService.buscarResumoPorId(outra.getId());
+
+        enderecoService.salvar(novoEndereco("Rua 1"), pessoa.getId());
+        estatisticas.clear();
+
+        assertThat(pessoaService.buscarResumoPorId(outra.getId()).getNome()).isEqualTo("Joao");
+        assertThat(estatisticas.getPrepareStatementCount()).isZero();
+        assertThat(pessoaService.buscarVersaoPorId(pessoa.getId())).isEqualTo(versaoAnterior + 1);
+
+        jdbcTemplate.update("DELETE FROM pessoa WHERE id = ?", outra.getId());
+    }
+
+    @Test
+    @DisplayName("QUANDO trocar o endereço principal em cache DEVE retornar o novo endereço principal na próxima busca")
+    public void trocarEnderecoPrincipalInvalidaCache(){
+        Endereco primeiro = novoEndereco("Rua 1");
+        Endereco segundo = novoEndereco("Rua 2");
+        enderecoService.salvar(primeiro, pessoa.getId());
+        enderecoService.salvar(segundo, pessoa.getId());
+
+        enderecoService.salvarEnderecoPrincipalPessoa(primeiro.getId(), pessoa.getId());
+        assertThat(enderecoService.buscarEnderecoPrincipalPessoaPorId(pessoa.getId()).getId()).isEqualTo(primeiro.getId());
+        assertThat(enderecoService.buscarEnderecoPrincipalPessoaPorId(pessoa.getId()).getId()).isEqualTo(primeiro.getId());
+        assertThat(estatisticas.getQueryCacheHitCount()).isPositive();
+
+        enderecoService.salvarEnderecoPrincipalPessoa(segundo.getId(), pessoa.getId());
+        Endereco principal = enderecoService.buscarEnderecoPrincipalPessoaPorId(pessoa.getId());
+        assertThat(principal.getId()).isEqualTo(segundo.getId());
+        assertThat(principal.getPrincipal()).isTrue();
+        assertThat(enderecoService.buscarPorId(primeiro.getId()).getPrincipal()).isFalse();
+    }
+
+    @Test
+    @DisplayName("QUANDO o cache de segundo nível for usado DEVE expor métricas de acertos e falhas")
+    public void metricasDoCacheExpostas(){
+        pessoaService.buscarPorId(pessoa.getId());
+
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", "pessoa", "result", "hit")
+                .functionCounter()).isNotNull();
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", "pessoa", "result", "miss")
+                .functionCounter()).isNotNull();
+    }
+}
@@ -0,0 +1,122 @@
+package com.attornatus.gerenciamentopessoas.repositories;
+
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+public class EnderecoRepositoryTests {
+
+    private static final String INDICE_PESSOA_PRINCIPAL = "IDX_ENDERECO_PESSOA_PRINCIPAL";
+
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+    @Autowired
+    private PessoaRepository pessoaRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Pessoa criarPessoaComEnderecos(int quantidadeEnderecos, int indicePrincipal){
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome("Michael");
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+        pessoaRepository.save(pessoa);
+
+        List<Endereco> enderecos = new ArrayList<>();
+        for(int i = 0; i < quantidadeEnderecos; i++){
+            Endereco endereco = new Endereco();
+            endereco.setCep("12345-190");
+            endereco.setCidade("Fortaleza");
+            endereco.setLogradouro("Rua " + i);
+            endereco.setNumero(String.valueOf(i));
+            endereco.setPrincipal(i == indicePrincipal);
+            endereco.setPessoa(pessoa);
+            enderecos.add(endereco);
+        }
+        enderecoRepository.saveAll(enderecos);
+        return pessoa;
+    }
+
+    private String planoBuscaEnderecoPrincipal(Integer idPessoa){
+        return jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT * FROM endereco WHERE endereco_id = " + idPessoa + " AND principal = TRUE",
+                String.class
+        );
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar endereço principal com várias pessoas cadastradas DEVE retornar somente o endereço principal da pessoa informada")
+    public void buscarEnderecoPrincipalComVariasPessoas(){
+        Pessoa michael = criarPessoaComEnderecos(3, 1);
+        Pessoa joao = criarPessoaComEnderecos(2, 0);
+
+        Optional<Endereco> principalMichael = enderecoRepository.buscarEnderecoPrincipalPorPessoa(michael.getId());
+        Optional<Endereco> principalJoao = enderecoRepository.buscarEnderecoPrincipalPorPessoa(joao.getId());
+
+        assertThat(principalMichael).isPresent();
+        assertThat(principalMichael.get().getPessoa().getId()).isEqualTo(michael.getId());
+        assertThat(principalMichael.get().getLogradouro()).isEqualTo("Rua 1");
+        assertThat(principalJoao).isPresent();
+        assertThat(principalJoao.get().getPessoa().getId()).isEqualTo(joao.getId());
+        assertThat(principalJoao.get().getLogradouro()).isEqualTo("Rua 0");
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar endereços de várias pessoas DEVE retornar os endereços de cada uma com o id da pessoa")
+    public void buscarResumosPorPessoas(){
+        Pessoa michael = criarPessoaComEnderecos(2, 0);
+        Pessoa joao = criarPessoaComEnderecos(1, 0);
+        criarPessoaComEnderecos(3, 0);
+
+        List<EnderecoReturnDTO> enderecos = enderecoRepository.buscarResumosPorPessoas(List.of(michael.getId(), joao.getId()));
+
+        assertThat(enderecos)
+                .extracting(EnderecoReturnDTO::getIdPessoa, EnderecoReturnDTO::getLogradouro)
+                .containsExactly(
+                        tuple(michael.getId(), "Rua 0"),
+                        tuple(michael.getId(), "Rua 1"),
+                        tuple(joao.getId(), "Rua 0")
+                );
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar endereço principal de pessoa sem endereço principal DEVE retornar vazio")
+    public void buscarEnderecoPrincipalDePessoaSemPrincipal(){
+        criarPessoaComEnderecos(2, 0);
+        Pessoa pessoaSemPrincipal = criarPessoaComEnderecos(2, -1);
+
+        assertThat(enderecoRepository.buscarEnderecoPrincipalPorPessoa(pessoaSemPrincipal.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("QUANDO a tabela de endereços crescer a busca do endereço principal DEVE continuar usando o índice por pessoa e principal")
+    public void planoBuscaEnderecoPrincipalUsaIndice(){
+        Pessoa primeiraPessoa = criarPessoaComEnderecos(2, 0);
+        assertThat(planoBuscaEnderecoPrincipal(primeiraPessoa.getId()))
+                .contains(INDICE_PESSOA_PRINCIPAL)
+                .doesNotContain("tableScan");
+
+        Pessoa ultimaPessoa = null;
+        for(int i = 0; i < 500; i++){
+            ultimaPessoa = criarPessoaComEnderecos(4, i % 4);
+        }
+        jdbcTemplate.execute("ANALYZE");
+
+        assertThat(planoBuscaEnderecoPrincipal(ultimaPessoa.getId()))
+                .contains(INDICE_PESSOA_PRINCIPAL)
+                .doesNotContain("tableScan");
+    }
+}
@@ -0,0 +1,95 @@
+package com.attornatus.gerenciamentopessoas.repositories;
+
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("producao")
+public class MigracoesTests {
+
+    @TempDir
+    private static Path diretorio;
+
+    @DynamicPropertySource
+    public static void configurarArquivo(DynamicPropertyRegistry registro){
+        registro.add("pessoas.banco.arquivo", () -> diretorio.resolve("gerenciamento-pessoas").toString());
+    }
+
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private PessoaRepository pessoaRepository;
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Pessoa criarPessoa(){
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome("Michael");
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+        return pessoaRepository.save(pessoa);
+    }
+
+    private Endereco criarEndereco(Pessoa pessoa, boolean principal){
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro("Rua");
+        endereco.setCep("12345-190");
+        endereco.setNumero("00");
+        endereco.setCidade("Fortaleza");
+        endereco.setPrincipal(principal);
+        endereco.setPessoa(pessoa);
+        return enderecoRepository.save(endereco);
+    }
+
+    @Test
+    @DisplayName("QUANDO iniciar no perfil producao DEVE aplicar as migrações em um esquema compatível com as entidades")
+    public void aplicarMigracoes(){
+        assertThat(flyway.info().applied()).extracting(migracao -> migracao.getVersion().getVersion())
+                .containsExactly("1", "2", "3", "4", "5");
+
+        Pessoa pessoa = criarPessoa();
+        criarEndereco(pessoa, true);
+
+        assertThat(enderecoRepository.buscarEnderecoPrincipalPorPessoa(pessoa.getId())).isPresent();
+        assertThat(jdbcTemplate.queryForObject("SELECT aniversario FROM pessoa WHERE id = ?", Integer.class, pessoa.getId()))
+                .isEqualTo(928);
+    }
+
+    @Test
+    @DisplayName("QUANDO inserir pessoa sem nome ou endereço sem pessoa DEVE ser rejeitado pelo banco")
+    public void rejeitarCamposObrigatoriosVazios(){
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO pessoa (id, data_nascimento) VALUES (NEXT VALUE FOR pessoa_seq, DATE '2001-09-28')"));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO endereco (id, logradouro, cep, numero, cidade) VALUES (NEXT VALUE FOR endereco_seq, 'Rua', '12345-190', '00', 'Fortaleza')"));
+    }
+
+    @Test
+    @DisplayName("QUANDO marcar dois endereços da mesma pessoa como principais DEVE ser rejeitado pelo banco")
+    public void rejeitarDoisEnderecosPrincipais(){
+        Pessoa pessoa = criarPessoa();
+        criarEndereco(pessoa, true);
+        Endereco outro = criarEndereco(pessoa, false);
+
+        Assertions.assertThrows(DataIntegrityViolationException.class,
+                () -> jdbcTemplate.update("UPDATE endereco SET principal = TRUE WHERE id = ?", outro.getId()));
+    }
+}
@@ -0,0 +1,145 @@
+package com.attornatus.gerenciamentopessoas.repositories;
+
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class PessoaRepositoryTests {
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Pessoa criarPessoa(String nome, LocalDate dataNascimento){
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome(nome);
+        pessoa.setDataNascimento(dataNascimento);
+        entityManager.persist(pessoa);
+        return pessoa;
+    }
+
+    private String plano(String consulta){
+        return jdbcTemplate.queryForObject("EXPLAIN " + consulta, String.class);
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar pessoa com endereços DEVE carregar a pessoa e todos os endereços em uma única consulta")
+    public void buscarComEnderecosEmUmaConsulta(){
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome("Michael");
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+        entityManager.persist(pessoa);
+
+        for(int i = 0; i < 3; i++){
+            Endereco endereco = new Endereco();
+            endereco.setCep("12345-190");
+            endereco.setCidade("Fortaleza");
+            endereco.setLogradouro("Rua " + i);
+            endereco.setNumero(String.valueOf(i));
+            endereco.setPessoa(pessoa);
+            entityManager.persist(endereco);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        entityManagerFactory.getCache().evictAll();
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        Optional<Pessoa> pessoaEncontrada = pessoaRepository.buscarComEnderecosPorId(pessoa.getId());
+
+        assertThat(pessoaEncontrada).isPresent();
+        assertThat(Hibernate.isInitialized(pessoaEncontrada.get().getEnderecos())).isTrue();
+        assertThat(pessoaEncontrada.get().getEnderecos())
+                .extracting(Endereco::getLogradouro)
+                .containsExactly("Rua 0", "Rua 1", "Rua 2");
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar pessoa inexistente com endereços DEVE retornar vazio")
+    public void buscarComEnderecosPessoaInexistente(){
+        assertThat(pessoaRepository.buscarComEnderecosPorId(-1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("QUANDO incrementar a versão de uma pessoa DEVE aplicar somente se a versão esperada for a atual")
+    public void incrementarVersaoComVersaoEsperada(){
+        Pessoa pessoa = criarPessoa("Michael", LocalDate.of(2001, 9, 28));
+        entityManager.flush();
+        Long versaoInicial = pessoa.getVersao();
+
+        assertThat(pessoaRepository.incrementarVersao(pessoa.getId(), versaoInicial + 1)).isZero();
+        assertThat(pessoaRepository.incrementarVersao(pessoa.getId(), versaoInicial)).isEqualTo(1);
+        assertThat(pessoaRepository.incrementarVersao(pessoa.getId(), null)).isEqualTo(1);
+        assertThat(pessoaRepository.buscarVersaoPorId(pessoa.getId())).contains(versaoInicial + 2);
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar pessoas nascidas entre duas datas DEVE retornar somente as pessoas do intervalo, inclusive os limites")
+    public void buscarNascidasEntre(){
+        Pessoa antes = criarPessoa("Antes", LocalDate.of(1999, 12, 31));
+        Pessoa inicio = criarPessoa("Inicio", LocalDate.of(2000, 1, 1));
+        Pessoa meio = criarPessoa("Meio", LocalDate.of(2000, 6, 15));
+        Pessoa fim = criarPessoa("Fim", LocalDate.of(2000, 12, 31));
+        entityManager.flush();
+
+        List<PessoaReturnDTO> pessoas = pessoaRepository.buscarNascidasEntre(
+                LocalDate.of(2000, 1, 1), LocalDate.of(2000, 12, 31), antes.getId() - 1, PageRequest.ofSize(10));
+
+        assertThat(pessoas).extracting(PessoaReturnDTO::getId).containsExactly(inicio.getId(), meio.getId(), fim.getId());
+        assertThat(pessoas.get(0).getDataNascimento()).isEqualTo("01/01/2000");
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar aniversariantes DEVE comparar somente mês e dia do nascimento")
+    public void buscarAniversariantes(){
+        Pessoa natal = criarPessoa("Natal", LocalDate.of(1990, 12, 25));
+        Pessoa anoNovo = criarPessoa("Ano Novo", LocalDate.of(2005, 1, 1));
+        criarPessoa("Carnaval", LocalDate.of(2005, 2, 20));
+        entityManager.flush();
+
+        List<PessoaReturnDTO> pessoas = pessoaRepository.buscarAniversariantes(
+                List.of(1225, 1231, 101), natal.getId() - 1, PageRequest.ofSize(10));
+
+        assertThat(pessoas).extracting(PessoaReturnDTO::getId).containsExactly(natal.getId(), anoNovo.getId());
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar por data de nascimento ou aniversário DEVE usar os índices das colunas")
+    public void planoBuscasPorNascimentoUsamIndices(){
+        for(int i = 0; i < 500; i++){
+            criarPessoa("Pessoa " + i, LocalDate.of(1950, 1, 1).plusDays(i * 37L));
+        }
+        entityManager.flush();
+        jdbcTemplate.execute("ANALYZE");
+
+        assertThat(plano("SELECT id FROM pessoa WHERE data_nascimento BETWEEN DATE '2000-01-01' AND DATE '2000-01-31' AND id > 0 ORDER BY id"))
+                .contains("IDX_PESSOA_DATA_NASCIMENTO");
+        assertThat(plano("SELECT id FROM pessoa WHERE aniversario IN (1225, 1226, 1227) AND id > 0 ORDER BY id"))
+                .contains("IDX_PESSOA_ANIVERSARIO");
+    }
+}
@@ -0,0 +1,101 @@
+package com.attornatus.gerenciamentopessoas.services;
+
+import com.attornatus.gerenciamentopessoas.dto.pessoa.PessoaReturnDTO;
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.exceptions.ParametrosInvalidosException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class BuscaPessoaServiceTests {
+
+    @Autowired
+    private BuscaPessoaService buscaPessoaService;
+    @Autowired
+    private PessoaService pessoaService;
+    @Autowired
+    private EnderecoService enderecoService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void removerPessoasBuscadas(){
+        jdbcTemplate.update("DELETE FROM endereco WHERE endereco_id IN (SELECT id FROM pessoa WHERE nome LIKE 'Zule%')");
+        jdbcTemplate.update("DELETE FROM pessoa WHERE nome LIKE 'Zule%'");
+    }
+
+    private List<Integer> buscar(String termo){
+        return buscaPessoaService.buscar(termo, 10).stream().map(PessoaReturnDTO::getId).toList();
+    }
+
+    private Pessoa criarPessoa(String nome){
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome(nome);
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+        pessoaService.criar(pessoa);
+        return pessoa;
+    }
+
+    @Test
+    @DisplayName("QUANDO uma pessoa e seu endereço forem salvos DEVE encontrá-la pelo nome e pelo endereço")
+    public void buscarPessoaEEnderecoSalvos(){
+        Pessoa pessoa = criarPessoa("Zuleica Brandão");
+
+        Endereco endereco = new Endereco();
+        endereco.setLogradouro("Travessa Quixadá");
+        endereco.setNumero("10");
+        endereco.setCidade("Crateús");
+        endereco.setCep("63700-000");
+        enderecoService.salvar(endereco, pessoa.getId());
+
+        assertThat(buscar("zuleica brandao")).containsExactly(pessoa.getId());
+        assertThat(buscar("zuleica crateus")).containsExactly(pessoa.getId());
+        assertThat(buscar("quixa 63700000")).containsExactly(pessoa.getId());
+        assertThat(buscaPessoaService.buscar("Zuleica", 10).get(0).getDataNascimento()).isEqualTo("28/09/2001");
+    }
+
+    @Test
+    @DisplayName("QUANDO o nome de uma pessoa for atualizado DEVE encontrá-la somente pelo novo nome")
+    public void buscarPessoaAtualizada(){
+        Pessoa pessoa = criarPessoa("Zuleica Brandão");
+
+        Pessoa pessoaAtualizada = new Pessoa();
+        pessoaAtualizada.setNome("Zulene Brandão");
+        pessoaService.atualizar(pessoaAtualizada, pessoa.getId());
+
+        assertThat(buscar("zuleica")).isEmpty();
+        assertThat(buscar("zulene")).containsExactly(pessoa.getId());
+    }
+
+    @Test
+    @DisplayName("QUANDO o índice for carregado DEVE incluir pessoas gravadas diretamente no banco")
+    public void carregarIndice(){
+        Integer id = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR pessoa_seq", Integer.class);
+        jdbcTemplate.update("INSERT INTO pessoa (id, nome, data_nascimento) VALUES (?, 'Zuleide Carregada', DATE '1990-01-01')", id);
+
+        assertThat(buscar("carregada")).isEmpty();
+
+        buscaPessoaService.carregarIndice();
+
+        assertThat(buscar("carregada")).containsExactly(id);
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar com termo vazio DEVE retornar uma exceção")
+    public void buscarComTermoVazio(){
+        Assertions.assertThrows(ParametrosInvalidosException.class,
+                () -> buscaPessoaService.buscar(" - ", 10)
+        );
+    }
+}
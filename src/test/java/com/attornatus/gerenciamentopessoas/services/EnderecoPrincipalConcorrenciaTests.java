@@ -0,0 +1,143 @@
+package com.attornatus.gerenciamentopessoas.services;
+
+import com.attornatus.gerenciamentopessoas.entities.Endereco;
+import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.exceptions.endereco.EnderecoNaoEncontradoException;
+import com.attornatus.gerenciamentopessoas.repositories.EnderecoRepository;
+import com.attornatus.gerenciamentopessoas.repositories.PessoaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class EnderecoPrincipalConcorrenciaTests {
+
+    private static final int THREADS = 8;
+    private static final int TROCAS_POR_THREAD = 50;
+
+    @Autowired
+    private EnderecoService enderecoService;
+    @Autowired
+    private PessoaRepository pessoaRepository;
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Pessoa pessoa;
+    private Pessoa outraPessoa;
+    private List<Endereco> enderecos;
+    private Endereco enderecoOutraPessoa;
+
+    @BeforeEach
+    public void criarPessoasComEnderecos(){
+        pessoa = criarPessoa("Michael");
+        outraPessoa = criarPessoa("Joao");
+
+        enderecos = new ArrayList<>();
+        for(int i = 0; i < 5; i++){
+            enderecos.add(criarEndereco(pessoa, "Rua " + i));
+        }
+        enderecoOutraPessoa = criarEndereco(outraPessoa, "Rua da outra pessoa");
+        enderecoService.salvarEnderecoPrincipalPessoa(enderecoOutraPessoa.getId(), outraPessoa.getId());
+    }
+
+    @AfterEach
+    public void removerPessoasComEnderecos(){
+        enderecoRepository.deleteAllById(enderecos.stream().map(Endereco::getId).toList());
+        enderecoRepository.deleteById(enderecoOutraPessoa.getId());
+        pessoaRepository.deleteAllById(List.of(pessoa.getId(), outraPessoa.getId()));
+    }
+
+    private Pessoa criarPessoa(String nome){
+        Pessoa novaPessoa = new Pessoa();
+        novaPessoa.setNome(nome);
+        novaPessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
+        return pessoaRepository.save(novaPessoa);
+    }
+
+    private Endereco criarEndereco(Pessoa dono, String logradouro){
+        Endereco endereco = new Endereco();
+        endereco.setCep("12345-190");
+        endereco.setCidade("Fortaleza");
+        endereco.setLogradouro(logradouro);
+        endereco.setNumero("00");
+        endereco.setPessoa(dono);
+        return enderecoRepository.save(endereco);
+    }
+
+    private int quantidadeEnderecosPrincipais(Pessoa dono){
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM endereco WHERE endereco_id = ? AND principal = TRUE",
+                Integer.class, dono.getId()
+        );
+    }
+
+    @Test
+    @DisplayName("QUANDO trocar o endereço principal concorrentemente DEVE manter exatamente um endereço principal")
+    public void trocarEnderecoPrincipalConcorrentemente() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> execucoes = new ArrayList<>();
+
+        for(int i = 0; i < THREADS; i++){
+            execucoes.add(executor.submit(() -> {
+                largada.await();
+                for(int troca = 0; troca < TROCAS_POR_THREAD; troca++){
+                    Endereco endereco = enderecos.get(ThreadLocalRandom.current().nextInt(enderecos.size()));
+                    enderecoService.salvarEnderecoPrincipalPessoa(endereco.getId(), pessoa.getId());
+                }
+                return null;
+            }));
+        }
+
+        largada.countDown();
+        for(Future<?> execucao : execucoes){
+            execucao.get();
+        }
+        executor.shutdown();
+
+        assertThat(quantidadeEnderecosPrincipais(pessoa)).isEqualTo(1);
+        assertThat(quantidadeEnderecosPrincipais(outraPessoa)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("QUANDO definir como principal o endereço de outra pessoa DEVE retornar exceção sem alterar os endereços")
+    public void definirEnderecoPrincipalDeOutraPessoa(){
+        enderecoService.salvarEnderecoPrincipalPessoa(enderecos.get(0).getId(), pessoa.getId());
+
+        Assertions.assertThrows(EnderecoNaoEncontradoException.class,
+                () -> enderecoService.salvarEnderecoPrincipalPessoa(enderecoOutraPessoa.getId(), pessoa.getId())
+        );
+
+        assertThat(quantidadeEnderecosPrincipais(pessoa)).isEqualTo(1);
+        assertThat(quantidadeEnderecosPrincipais(outraPessoa)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("QUANDO marcar dois endereços da mesma pessoa como principais DEVE ser rejeitado pelo banco")
+    public void restricaoUmEnderecoPrincipalPorPessoa(){
+        enderecoService.salvarEnderecoPrincipalPessoa(enderecos.get(0).getId(), pessoa.getId());
+
+        Assertions.assertThrows(DataIntegrityViolationException.class,
+                () -> jdbcTemplate.update("UPDATE endereco SET principal = TRUE WHERE id = ?", enderecos.get(1).getId())
+        );
+    }
+}
@@ -1,7 +1,9 @@
 package com.attornatus.gerenciamentopessoas.services;
 
+import com.attornatus.gerenciamentopessoas.dto.endereco.EnderecoReturnDTO;
 import com.attornatus.gerenciamentopessoas.entities.Endereco;
 import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.exceptions.VersaoDesatualizadaException;
 import com.attornatus.gerenciamentopessoas.exceptions.endereco.EnderecoNaoEncontradoException;
 import com.attornatus.gerenciamentopessoas.exceptions.pessoa.PessoaNaoEncontradaException;
 import com.attornatus.gerenciamentopessoas.repositories.EnderecoRepository;
@@ -13,9 +15,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
@@ -36,7 +40,7 @@ public class EnderecoServiceTests {
 
         pessoa.setId(1);
         pessoa.setNome("Michael");
-        pessoa.setDataNascimento("28/09/2001");
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
 
         Endereco endereco = new Endereco();
         endereco.setCep("12345-190");
@@ -45,9 +49,11 @@ public class EnderecoServiceTests {
         endereco.setNumero("00");
 
         when(pessoaRepository.findById(anyInt())).thenReturn(Optional.of(pessoa));
+        when(pessoaRepository.incrementarVersao(anyInt(), any())).thenReturn(1);
 
         enderecoService.salvar(endereco, 1);
         verify(enderecoRepository, times(1)).save(endereco);
+        verify(pessoaRepository, times(1)).incrementarVersao(1, null);
     }
 
     @Test
@@ -73,18 +79,11 @@ public class EnderecoServiceTests {
         Pessoa pessoa = new Pessoa();
         pessoa.setId(1);
 
-        Endereco endereco = new Endereco();
-        endereco.setId(2);
-        endereco.setCep("12345-190");
-        endereco.setCidade("Fortaleza");
-        endereco.setLogradouro("Rua 123");
-        endereco.setNumero("00");
-
-        pessoa.setEnderecos(List.of(endereco));
-        endereco.setPessoa(pessoa);
+        EnderecoReturnDTO endereco = new EnderecoReturnDTO(2, "Rua 123", "12345-190", "00", "Fortaleza", false);
 
        when(pessoaRepository.findById(anyInt())).thenReturn(Optional.of(pessoa));
-       List<Endereco> enderecosPessoa = enderecoService.buscarEnderecosPessoaPorId(pessoa.getId());
+       when(enderecoRepository.buscarResumosPorPessoa(anyInt())).thenReturn(List.of(endereco));
+       List<EnderecoReturnDTO> enderecosPessoa = enderecoService.buscarEnderecosPessoaPorId(pessoa.getId());
 
        Assertions.assertEquals(enderecosPessoa.size(), 1);
        Assertions.assertEquals(enderecosPessoa.get(0).getId(), endereco.getId());
@@ -105,6 +104,15 @@ public class EnderecoServiceTests {
        );
     }
 
+    @Test
+    @DisplayName("QUANDO buscar endereços de uma pessoa já verificada sem endereços DEVE retornar lista vazia sem consultar a pessoa")
+    public void buscarEnderecosPessoaExistenteSemEnderecos(){
+        when(enderecoRepository.buscarResumosPorPessoa(anyInt())).thenReturn(List.of());
+
+        Assertions.assertTrue(enderecoService.buscarEnderecosPessoaExistente(1).isEmpty());
+        verify(pessoaRepository, never()).findById(anyInt());
+    }
+
     @Test
     @DisplayName("QUANDO buscar por endereço principal de uma pessoa existente DEVE retornar endereço principal")
     public void buscarEnderecoPrincipalExistenteComPessoaExistente(){
@@ -120,7 +128,7 @@ public class EnderecoServiceTests {
         endereco.setPrincipal(true);
         endereco.setPessoa(pessoa);
 
-        when(pessoaRepository.existsById(anyInt())).thenReturn(true);
+        when(pessoaRepository.findById(anyInt())).thenReturn(Optional.of(new Pessoa()));
         when(enderecoRepository.buscarEnderecoPrincipalPorPessoa(anyInt())).thenReturn(Optional.of(endereco));
         Endereco enderecoPrincipal = enderecoService.buscarEnderecoPrincipalPessoaPorId(pessoa.getId());
 
@@ -147,7 +155,7 @@ public class EnderecoServiceTests {
     @DisplayName("QUANDO buscar por endereço principal não existente de uma pessoa inexistente DEVE retornar exceção")
     public void buscarEnderecoPrincipalInexistenteComPessoaExistente(){
 
-        when(pessoaRepository.existsById(anyInt())).thenReturn(true);
+        when(pessoaRepository.findById(anyInt())).thenReturn(Optional.of(new Pessoa()));
         when(enderecoRepository.buscarEnderecoPrincipalPorPessoa(anyInt())).thenReturn(Optional.empty());
 
         Assertions.assertThrows(EnderecoNaoEncontradoException.class,
@@ -160,20 +168,20 @@ public class EnderecoServiceTests {
         Pessoa pessoa = new Pessoa();
         pessoa.setId(1);
 
-        Endereco novoEnderecoPrincipal = mock(Endereco.class);
+        Endereco novoEnderecoPrincipal = new Endereco();
         novoEnderecoPrincipal.setId(2);
 
         pessoa.setEnderecos(List.of(novoEnderecoPrincipal));
         novoEnderecoPrincipal.setPessoa(pessoa);
 
-        when(pessoaRepository.existsById(anyInt())).thenReturn(true);
-        when(enderecoRepository.findById(anyInt())).thenReturn(Optional.of(novoEnderecoPrincipal));
-        when(enderecoRepository.buscarEnderecoPrincipalPorPessoa(anyInt())).thenReturn(Optional.empty());
+        when(pessoaRepository.incrementarVersao(anyInt(), any())).thenReturn(1);
+        when(enderecoRepository.definirEnderecoPrincipalPessoa(anyInt(), anyInt())).thenReturn(1);
 
         enderecoService.salvarEnderecoPrincipalPessoa(novoEnderecoPrincipal.getId(), pessoa.getId());
 
-        verify(novoEnderecoPrincipal, times(1)).setPrincipal(true);
-        verify(enderecoRepository, times(1)).save(novoEnderecoPrincipal);
+        verify(enderecoRepository, times(1)).definirEnderecoPrincipalPessoa(novoEnderecoPrincipal.getId(), pessoa.getId());
+        verify(enderecoRepository, never()).save(any());
+        verify(pessoaRepository, never()).findById(anyInt());
     }
 
     @Test
@@ -182,7 +190,7 @@ public class EnderecoServiceTests {
         Pessoa pessoa = new Pessoa();
         pessoa.setId(1);
 
-        Endereco novoEnderecoPrincipal = mock(Endereco.class);
+        Endereco novoEnderecoPrincipal = new Endereco();
         novoEnderecoPrincipal.setId(2);
 
         Endereco enderecoPrincipalAntigo = new Endereco();
@@ -192,16 +200,24 @@ public class EnderecoServiceTests {
         pessoa.setEnderecos(List.of(novoEnderecoPrincipal, enderecoPrincipalAntigo));
         novoEnderecoPrincipal.setPessoa(pessoa);
 
-        when(pessoaRepository.existsById(anyInt())).thenReturn(true);
-        when(enderecoRepository.findById(anyInt())).thenReturn(Optional.of(novoEnderecoPrincipal));
-        when(enderecoRepository.buscarEnderecoPrincipalPorPessoa(anyInt())).thenReturn(Optional.of(enderecoPrincipalAntigo));
+        when(pessoaRepository.incrementarVersao(anyInt(), any())).thenReturn(1);
+        when(enderecoRepository.definirEnderecoPrincipalPessoa(anyInt(), anyInt())).thenReturn(2);
 
         enderecoService.salvarEnderecoPrincipalPessoa(novoEnderecoPrincipal.getId(), pessoa.getId());
 
-        verify(novoEnderecoPrincipal, times(1)).setPrincipal(true);
-        verify(enderecoRepository, times(1)).save(novoEnderecoPrincipal);
+        verify(enderecoRepository, times(1)).definirEnderecoPrincipalPessoa(novoEnderecoPrincipal.getId(), pessoa.getId());
+    }
+
+    @Test
+    @DisplayName("QUANDO salvar como principal um endereço que não pertence a pessoa existente DEVE retornar exceção")
+    public void salvarEnderecoPrincipalDeOutraPessoa(){
+        when(pessoaRepository.findById(anyInt())).thenReturn(Optional.of(new Pessoa()));
+        when(pessoaRepository.incrementarVersao(anyInt(), any())).thenReturn(1);
+        when(enderecoRepository.definirEnderecoPrincipalPessoa(anyInt(), anyInt())).thenReturn(0);
 
-        verify(enderecoRepository, times(1)).removerEnderecoPrincipalAtualPessoa(pessoa.getId());
+        Assertions.assertThrows(EnderecoNaoEncontradoException.class,
+                () -> enderecoService.salvarEnderecoPrincipalPessoa(5, 1)
+        );
     }
 
     @Test
@@ -211,11 +227,10 @@ public class EnderecoServiceTests {
         endereco.setId(2);
 
         when(pessoaRepository.findById(anyInt())).thenReturn(Optional.empty());
-        when(enderecoRepository.findById(anyInt())).thenReturn(Optional.of(endereco));
-        when(enderecoRepository.buscarEnderecoPrincipalPorPessoa(anyInt())).thenReturn(Optional.empty());
+        when(enderecoRepository.definirEnderecoPrincipalPessoa(anyInt(), anyInt())).thenReturn(0);
 
         Assertions.assertThrows(PessoaNaoEncontradaException.class,
-                () -> enderecoService.salvarEnderecoPrincipalPessoa(endereco.getId(), anyInt())
+                () -> enderecoService.salvarEnderecoPrincipalPessoa(endereco.getId(), 99)
         );
     }
 
@@ -225,13 +240,25 @@ public class EnderecoServiceTests {
         Pessoa pessoa = new Pessoa();
         pessoa.setId(1);
 
-        when(pessoaRepository.findById(anyInt())).thenReturn(Optional.of(pessoa));
-        when(enderecoRepository.findById(anyInt())).thenReturn(Optional.empty());
-        when(enderecoRepository.buscarEnderecoPrincipalPorPessoa(anyInt())).thenReturn(Optional.empty());
+        when(pessoaRepository.findById(anyInt())).thenReturn(Optional.of(new Pessoa()));
+        when(pessoaRepository.incrementarVersao(anyInt(), any())).thenReturn(1);
+        when(enderecoRepository.definirEnderecoPrincipalPessoa(anyInt(), anyInt())).thenReturn(0);
 
-        Assertions.assertThrows(PessoaNaoEncontradaException.class,
-                () -> enderecoService.salvarEnderecoPrincipalPessoa(anyInt(), pessoa.getId())
+        Assertions.assertThrows(EnderecoNaoEncontradoException.class,
+                () -> enderecoService.salvarEnderecoPrincipalPessoa(99, pessoa.getId())
+        );
+    }
+
+    @Test
+    @DisplayName("QUANDO salvar endereço principal com versão desatualizada da pessoa DEVE retornar exceção sem alterar endereços")
+    public void salvarEnderecoPrincipalComVersaoDesatualizada(){
+        when(pessoaRepository.findById(anyInt())).thenReturn(Optional.of(new Pessoa()));
+        when(pessoaRepository.incrementarVersao(1, 3L)).thenReturn(0);
+
+        Assertions.assertThrows(VersaoDesatualizadaException.class,
+                () -> enderecoService.salvarEnderecoPrincipalPessoa(2, 1, 3L)
         );
+        verify(enderecoRepository, never()).definirEnderecoPrincipalPessoa(anyInt(), anyInt());
     }
 
     @Test
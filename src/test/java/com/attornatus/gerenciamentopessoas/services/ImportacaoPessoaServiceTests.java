@@ -0,0 +1,116 @@
+package com.attornatus.gerenciamentopessoas.services;
+
+import com.attornatus.gerenciamentopessoas.dto.importacao.ImportacaoResultadoDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "pessoas.importacao.tamanho-lote=3")
+public class ImportacaoPessoaServiceTests {
+
+    @Autowired
+    private ImportacaoPessoaService importacaoPessoaService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void removerPessoasImportadas(){
+        jdbcTemplate.update("DELETE FROM endereco WHERE endereco_id IN (SELECT id FROM pessoa WHERE nome LIKE 'Importada%')");
+        jdbcTemplate.update("DELETE FROM pessoa WHERE nome LIKE 'Importada%'");
+    }
+
+    private ImportacaoResultadoDTO importar(String corpo) throws Exception {
+        return importacaoPessoaService.importar(new ByteArrayInputStream(corpo.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private int quantidade(String sql){
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+
+    @Test
+    @DisplayName("QUANDO importar uma lista JSON de pessoas válidas DEVE salvar todas as pessoas e seus endereços em lotes")
+    public void importarListaJsonValida() throws Exception {
+        StringBuilder corpo = new StringBuilder("[");
+        for(int i = 0; i < 7; i++){
+            if(i > 0){
+                corpo.append(',');
+            }
+            corpo.append("{\"nome\":\"Importada ").append(i).append("\",\"dataNascimento\":\"28/09/2001\",")
+                    .append("\"enderecos\":[{\"logradouro\":\"Rua 1\",\"cep\":\"12345\",\"numero\":\"1\",\"cidade\":\"Fortaleza\"},")
+                    .append("{\"logradouro\":\"Rua 2\",\"cep\":\"12345\",\"numero\":\"2\",\"cidade\":\"Fortaleza\"}]}");
+        }
+        corpo.append("]");
+
+        ImportacaoResultadoDTO resultado = importar(corpo.toString());
+
+        assertThat(resultado.getTotalProcessado()).isEqualTo(7);
+        assertThat(resultado.getTotalImportado()).isEqualTo(7);
+        assertThat(resultado.getErros()).isEmpty();
+        assertThat(quantidade("SELECT COUNT(*) FROM pessoa WHERE nome LIKE 'Importada%'")).isEqualTo(7);
+        assertThat(quantidade("SELECT COUNT(*) FROM endereco e JOIN pessoa p ON p.id = e.endereco_id WHERE p.nome LIKE 'Importada%'")).isEqualTo(14);
+    }
+
+    @Test
+    @DisplayName("QUANDO importar NDJSON com itens inválidos DEVE salvar os itens válidos e reportar o erro de cada item inválido")
+    public void importarNdjsonComItensInvalidos() throws Exception {
+        String corpo = """
+                {"nome":"Importada 0","dataNascimento":"28/09/2001"}
+                {"nome":"","dataNascimento":"28/09/2001"}
+                {"nome":"Importada 2","dataNascimento":"2001-09-28"}
+                {"nome":"Importada 3","dataNascimento":"28/09/2001","enderecos":[{"logradouro":"Rua 1","numero":"1","cidade":"Fortaleza"}]}
+                {"nome":"Importada 4","dataNascimento":"28/09/2001","enderecos":"nenhum"}
+                {"nome":"Importada 5","dataNascimento":"28/09/2001"}
+                """;
+
+        ImportacaoResultadoDTO resultado = importar(corpo);
+
+        assertThat(resultado.getTotalProcessado()).isEqualTo(6);
+        assertThat(resultado.getTotalImportado()).isEqualTo(2);
+        assertThat(resultado.getErros()).extracting("indice").containsExactly(1, 2, 3, 4);
+        assertThat(resultado.getErros().get(0).getMensagens()).containsExactly("nome: Nome não pode ser vazio");
+        assertThat(resultado.getErros().get(1).getMensagens()).containsExactly("dataNascimento: Formato da data de nascimento inválida");
+        assertThat(resultado.getErros().get(2).getMensagens()).containsExactly("enderecos[0].cep: CEP não pode ser vazio.");
+        assertThat(quantidade("SELECT COUNT(*) FROM pessoa WHERE nome LIKE 'Importada%'")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("QUANDO uma pessoa falhar ao ser gravada DEVE salvar as demais do lote e reportar só o erro dela")
+    public void importarLoteComFalhaDeGravacao() throws Exception {
+        String corpo = """
+                {"nome":"Importada 0","dataNascimento":"28/09/2001","enderecos":[{"logradouro":"Rua 1","cep":"12345","numero":"1","cidade":"Fortaleza"}]}
+                {"nome":"Importada 1","dataNascimento":"28/09/2001","enderecos":[{"logradouro":"%s","cep":"12345","numero":"1","cidade":"Fortaleza"}]}
+                {"nome":"Importada 2","dataNascimento":"28/09/2001"}
+                """.formatted("R".repeat(300));
+
+        ImportacaoResultadoDTO resultado = importar(corpo);
+
+        assertThat(resultado.getTotalImportado()).isEqualTo(2);
+        assertThat(resultado.getErros()).extracting("indice").containsExactly(1);
+        assertThat(quantidade("SELECT COUNT(*) FROM pessoa WHERE nome IN ('Importada 0', 'Importada 2')")).isEqualTo(2);
+        assertThat(quantidade("SELECT COUNT(*) FROM pessoa WHERE nome = 'Importada 1'")).isZero();
+        assertThat(quantidade("SELECT COUNT(*) FROM endereco e JOIN pessoa p ON p.id = e.endereco_id WHERE p.nome = 'Importada 0'")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("QUANDO importar um corpo com JSON malformado DEVE manter os itens anteriores e reportar o erro")
+    public void importarJsonMalformado() throws Exception {
+        String corpo = """
+                {"nome":"Importada 0","dataNascimento":"28/09/2001"}
+                {"nome":"Importada 1",
+                """;
+
+        ImportacaoResultadoDTO resultado = importar(corpo);
+
+        assertThat(resultado.getTotalImportado()).isEqualTo(1);
+        assertThat(resultado.getErros()).hasSize(1);
+        assertThat(resultado.getErros().get(0).getIndice()).isEqualTo(1);
+    }
+}
@@ -1,18 +1,25 @@
 package com.attornatus.gerenciamentopessoas.services;
 
 import com.attornatus.gerenciamentopessoas.entities.Pessoa;
+import com.attornatus.gerenciamentopessoas.exceptions.ParametrosInvalidosException;
+import com.attornatus.gerenciamentopessoas.exceptions.VersaoDesatualizadaException;
 import com.attornatus.gerenciamentopessoas.exceptions.pessoa.PessoaNaoEncontradaException;
 import com.attornatus.gerenciamentopessoas.repositories.PessoaRepository;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +33,20 @@ public class PessoaServiceTests {
     private PessoaService pessoaService;
     @MockBean
     private PessoaRepository pessoaRepository;
+    @MockBean
+    private Clock relogio;
+
+    private void fixarHoje(LocalDate hoje){
+        when(relogio.getZone()).thenReturn(ZoneOffset.UTC);
+        when(relogio.instant()).thenReturn(hoje.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<Integer> aniversariosBuscados(){
+        ArgumentCaptor<Collection<Integer>> aniversarios = ArgumentCaptor.forClass(Collection.class);
+        verify(pessoaRepository).buscarAniversariantes(aniversarios.capture(), eq(0), any(Pageable.class));
+        return aniversarios.getValue();
+    }
 
     @Test
     @DisplayName("QUANDO criar uma pessoa com dados válidos DEVE criar a nova pessoa")
@@ -33,7 +54,7 @@ public class PessoaServiceTests {
         Pessoa novaPessoa = new Pessoa();
 
         novaPessoa.setNome("Michael");
-        novaPessoa.setDataNascimento("28/09/2001");
+        novaPessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
 
         pessoaService.criar(novaPessoa);
         verify(pessoaRepository,times(1)).save(novaPessoa);
@@ -45,7 +66,7 @@ public class PessoaServiceTests {
         Pessoa pessoa = new Pessoa();
         pessoa.setId(1);
         pessoa.setNome("Michael");
-        pessoa.setDataNascimento("28/09/2001");
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
 
         when(pessoaRepository.existsById(anyInt())).thenReturn(true);
         when(pessoaRepository.findById(anyInt())).thenReturn(Optional.of(pessoa));
@@ -54,13 +75,51 @@ public class PessoaServiceTests {
         verify(pessoaRepository,times(1)).save(pessoa);
     }
 
+    @Test
+    @DisplayName("QUANDO atualizar uma pessoa com versão desatualizada DEVE retornar exceção sem salvar")
+    public void atualizarPessoaComVersaoDesatualizada(){
+        Pessoa pessoaSalva = new Pessoa();
+        pessoaSalva.setId(1);
+        pessoaSalva.setNome("Michael");
+        pessoaSalva.setVersao(4L);
+
+        Pessoa pessoaAtualizada = new Pessoa();
+        pessoaAtualizada.setNome("Joao");
+
+        when(pessoaRepository.findById(1)).thenReturn(Optional.of(pessoaSalva));
+
+        Assertions.assertThrows(VersaoDesatualizadaException.class,
+                () -> pessoaService.atualizar(pessoaAtualizada, 1, 3L)
+        );
+        assertThat(pessoaSalva.getNome()).isEqualTo("Michael");
+        verify(pessoaRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("QUANDO atualizar uma pessoa com a versão atual DEVE atualizar os dados da pessoa")
+    public void atualizarPessoaComVersaoAtual(){
+        Pessoa pessoaSalva = new Pessoa();
+        pessoaSalva.setId(1);
+        pessoaSalva.setNome("Michael");
+        pessoaSalva.setVersao(4L);
+
+        Pessoa pessoaAtualizada = new Pessoa();
+        pessoaAtualizada.setNome("Joao");
+
+        when(pessoaRepository.findById(1)).thenReturn(Optional.of(pessoaSalva));
+
+        pessoaService.atualizar(pessoaAtualizada, 1, 4L);
+        assertThat(pessoaSalva.getNome()).isEqualTo("Joao");
+        verify(pessoaRepository, times(1)).save(pessoaSalva);
+    }
+
     @Test
     @DisplayName("QUANDO atualizar uma pessoa com id inválido DEVE retornar exceção")
     public void atualizarPessoaComIdInvalido(){
         Pessoa pessoa = new Pessoa();
 
         pessoa.setNome("Michael");
-        pessoa.setDataNascimento("28/09/2001");
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
 
         when(pessoaRepository.existsById(anyInt())).thenReturn(false);
         Assertions.assertThrows(PessoaNaoEncontradaException.class,
@@ -75,7 +134,7 @@ public class PessoaServiceTests {
 
         pessoa.setId(1);
         pessoa.setNome("Michael");
-        pessoa.setDataNascimento("28/09/2001");
+        pessoa.setDataNascimento(LocalDate.of(2001, 9, 28));
 
         when(pessoaRepository.findById(anyInt())).thenReturn(Optional.of(pessoa));
 
@@ -102,4 +161,62 @@ public class PessoaServiceTests {
         assertThat(pessoas).isEqualTo(new ArrayList<>());
     }
 
+    @Test
+    @DisplayName("QUANDO buscar aniversariantes na virada do ano DEVE incluir os dias de janeiro")
+    public void buscarAniversariantesNaViradaDoAno(){
+        fixarHoje(LocalDate.of(2023, 12, 30));
+
+        pessoaService.buscarAniversariantes(3, null, 10);
+
+        assertThat(aniversariosBuscados()).containsExactly(1230, 1231, 101, 102);
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar aniversariantes em 28/02 de ano não bissexto DEVE incluir quem nasceu em 29/02")
+    public void buscarAniversariantesEmAnoNaoBissexto(){
+        fixarHoje(LocalDate.of(2023, 2, 27));
+
+        pessoaService.buscarAniversariantes(1, null, 10);
+
+        assertThat(aniversariosBuscados()).containsExactlyInAnyOrder(227, 228, 229);
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar aniversariantes com quantidade de dias negativa DEVE retornar uma exceção")
+    public void buscarAniversariantesComDiasNegativos(){
+        Assertions.assertThrows(ParametrosInvalidosException.class,
+                () -> pessoaService.buscarAniversariantes(-1, null, 10)
+        );
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar por faixa de idade DEVE buscar as pessoas nascidas no intervalo de datas correspondente")
+    public void buscarPorIdade(){
+        fixarHoje(LocalDate.of(2024, 6, 15));
+
+        pessoaService.buscarPorIdade(18, 20, null, 10);
+
+        verify(pessoaRepository).buscarNascidasEntre(
+                eq(LocalDate.of(2003, 6, 16)), eq(LocalDate.of(2006, 6, 15)), eq(0), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar por faixa de idade acima da idade máxima DEVE retornar uma exceção sem consultar")
+    public void buscarPorIdadeAcimaDaMaxima(){
+        fixarHoje(LocalDate.of(2024, 6, 15));
+
+        Assertions.assertThrows(ParametrosInvalidosException.class,
+                () -> pessoaService.buscarPorIdade(18, Integer.MAX_VALUE, null, 10)
+        );
+        verify(pessoaRepository, never()).buscarNascidasEntre(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("QUANDO buscar pessoas nascidas entre datas com início depois do fim DEVE retornar uma exceção")
+    public void buscarNascidasEntreComIntervaloInvertido(){
+        Assertions.assertThrows(ParametrosInvalidosException.class,
+                () -> pessoaService.buscarNascidasEntre(LocalDate.of(2001, 1, 2), LocalDate.of(2001, 1, 1), null, 10)
+        );
+    }
+
 }